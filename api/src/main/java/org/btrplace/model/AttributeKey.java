@@ -0,0 +1,79 @@
+/*
+ * Copyright  2026 The BtrPlace Authors. All rights reserved.
+ * Use of this source code is governed by a LGPL-style
+ * license that can be found in the LICENSE.txt file.
+ */
+
+package org.btrplace.model;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An interned attribute identifier.
+ * There is a unique key per identifier so the keys can be resolved once and
+ * compared by reference. {@link Attributes} implementations may rely on
+ * the key index to skip the resolution of the identifier.
+ *
+ * @author Fabien Hermenier
+ * @see Attributes#get(Element, AttributeKey, int)
+ */
+public final class AttributeKey {
+
+    private static final Map<String, AttributeKey> POOL = new ConcurrentHashMap<>();
+
+    private static final AtomicInteger NEXT = new AtomicInteger();
+
+    private final String name;
+
+    private final int index;
+
+    private AttributeKey(String name, int index) {
+        this.name = name;
+        this.index = index;
+    }
+
+    /**
+     * Get the key associated to an attribute identifier.
+     *
+     * @param name the attribute identifier
+     * @return the unique key for this identifier
+     */
+    public static AttributeKey of(String name) {
+        return POOL.computeIfAbsent(name, n -> new AttributeKey(n, NEXT.getAndIncrement()));
+    }
+
+    /**
+     * Get the key associated to an attribute identifier, if it exists.
+     *
+     * @param name the attribute identifier
+     * @return the key. {@code null} if the identifier was never interned
+     */
+    static AttributeKey find(String name) {
+        return POOL.get(name);
+    }
+
+    /**
+     * Get the attribute identifier.
+     *
+     * @return a string
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Get the unique index of the key.
+     *
+     * @return a positive integer
+     */
+    int index() {
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
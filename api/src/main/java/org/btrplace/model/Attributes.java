@@ -116,6 +116,70 @@ public interface Attributes extends Copyable<Attributes> {
      */
     boolean isSet(Element e, String k);
 
+    /**
+     * Check if an attribute is set for a given element.
+     * By default, the key is resolved through {@link #isSet(Element, String)}.
+     *
+     * @param e the element
+     * @param k the attribute key
+     * @return {@code true} iff the attribute is set
+     */
+    default boolean isSet(Element e, AttributeKey k) {
+        return isSet(e, k.name());
+    }
+
+    /**
+     * Get an attribute value as a boolean.
+     * By default, the key is resolved through {@link #get(Element, String, boolean)}.
+     *
+     * @param e   the element
+     * @param k   the attribute key
+     * @param def the value to return if the attribute does not exists
+     * @return the value if it has been stated or {@code def}
+     */
+    default boolean get(Element e, AttributeKey k, boolean def) {
+        return get(e, k.name(), def);
+    }
+
+    /**
+     * Get an attribute value as a string.
+     * By default, the key is resolved through {@link #get(Element, String, String)}.
+     *
+     * @param e   the element
+     * @param k   the attribute key
+     * @param def the value to return if the attribute does not exists
+     * @return the value if it has been stated or {@code def}
+     */
+    default String get(Element e, AttributeKey k, String def) {
+        return get(e, k.name(), def);
+    }
+
+    /**
+     * Get an attribute value as a double.
+     * By default, the key is resolved through {@link #get(Element, String, double)}.
+     *
+     * @param e   the element
+     * @param k   the attribute key
+     * @param def the value to return if the attribute does not exists
+     * @return the value if it has been stated or {@code def}
+     */
+    default double get(Element e, AttributeKey k, double def) {
+        return get(e, k.name(), def);
+    }
+
+    /**
+     * Get an attribute value as an integer.
+     * By default, the key is resolved through {@link #get(Element, String, int)}.
+     *
+     * @param e   the element
+     * @param k   the attribute key
+     * @param def the value to return if the attribute does not exists
+     * @return the value if it has been stated or {@code def}
+     */
+    default int get(Element e, AttributeKey k, int def) {
+        return get(e, k.name(), def);
+    }
+
     /**
      * Unset an attribute for a given element.
      *
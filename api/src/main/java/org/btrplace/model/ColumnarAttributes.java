@@ -0,0 +1,611 @@
+/*
+ * Copyright  2026 The BtrPlace Authors. All rights reserved.
+ * Use of this source code is governed by a LGPL-style
+ * license that can be found in the LICENSE.txt file.
+ */
+
+package org.btrplace.model;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A column-oriented implementation of {@link Attributes}.
+ * <p>
+ * Each attribute is a column indexed by the element identifiers. The values are stored
+ * without boxing into an {@code int[]}, a {@code double[]}, a {@link BitSet} or a {@code String[]}
+ * depending on their type, so an attribute costs a few bytes per element and is read
+ * in constant time. The VMs and the nodes have distinct columns.
+ * <p>
+ * The attribute identifiers are interned into {@link AttributeKey}s. The accessors taking a key
+ * such as {@link #get(Element, AttributeKey, int)} skip the resolution of the identifier and should be preferred
+ * in hot paths.
+ * <p>
+ * The memory usage is proportional to the highest identifier of an element having the attribute,
+ * so the implementation is suited to models having dense identifiers.
+ * {@link #copy()} has a O(k) complexity, with k the number of attributes. The columns
+ * are shared with the copy until they are modified.
+ *
+ * @author Fabien Hermenier
+ */
+public class ColumnarAttributes implements Attributes {
+
+    private static final Column[] NO_COLUMNS = new Column[0];
+
+    private Column[] vmCols = NO_COLUMNS;
+
+    private Column[] nodeCols = NO_COLUMNS;
+
+    private Column[] columns(Element e) {
+        if (e instanceof VM) {
+            return vmCols;
+        } else if (e instanceof Node) {
+            return nodeCols;
+        }
+        return NO_COLUMNS;
+    }
+
+    private Column read(Element e, AttributeKey k) {
+        if (k == null) {
+            return null;
+        }
+        Column[] cols = columns(e);
+        return k.index() < cols.length ? cols[k.index()] : null;
+    }
+
+    /**
+     * Get a column ready to be modified.
+     * The column is created, or duplicated if it is shared with a copy.
+     *
+     * @return the column. {@code null} if the element cannot have attributes
+     */
+    private Column write(Element e, AttributeKey k) {
+        Column[] cols;
+        if (e instanceof VM) {
+            if (k.index() >= vmCols.length) {
+                vmCols = Arrays.copyOf(vmCols, k.index() + 1);
+            }
+            cols = vmCols;
+        } else if (e instanceof Node) {
+            if (k.index() >= nodeCols.length) {
+                nodeCols = Arrays.copyOf(nodeCols, k.index() + 1);
+            }
+            cols = nodeCols;
+        } else {
+            return null;
+        }
+        Column c = cols[k.index()];
+        if (c == null) {
+            c = new Column(k);
+            cols[k.index()] = c;
+        } else if (c.shared) {
+            c = c.copy();
+            cols[k.index()] = c;
+        }
+        return c;
+    }
+
+    /**
+     * Check if an attribute is set.
+     *
+     * @param e the element
+     * @param k the attribute key
+     * @return {@code true} iff the attribute is set
+     */
+    @Override
+    public boolean isSet(Element e, AttributeKey k) {
+        Column c = read(e, k);
+        return c != null && c.type(e.id()) != Column.UNSET;
+    }
+
+    /**
+     * Get an integer attribute.
+     *
+     * @param e   the element
+     * @param k   the attribute key
+     * @param def the value to return if the attribute is not set
+     * @return the value
+     * @throws ClassCastException if the attribute is not an integer
+     */
+    @Override
+    public int get(Element e, AttributeKey k, int def) {
+        Column c = read(e, k);
+        if (c == null) {
+            return def;
+        }
+        int id = e.id();
+        switch (c.type(id)) {
+            case Column.UNSET:
+                return def;
+            case Column.INT:
+                return c.ints[id];
+            default:
+                throw new ClassCastException(c.get(id) + " is not an integer");
+        }
+    }
+
+    /**
+     * Get a real attribute. An integer attribute is widened.
+     *
+     * @param e   the element
+     * @param k   the attribute key
+     * @param def the value to return if the attribute is not set
+     * @return the value
+     * @throws ClassCastException if the attribute is not a number
+     */
+    @Override
+    public double get(Element e, AttributeKey k, double def) {
+        Column c = read(e, k);
+        if (c == null) {
+            return def;
+        }
+        int id = e.id();
+        switch (c.type(id)) {
+            case Column.UNSET:
+                return def;
+            case Column.INT:
+                return c.ints[id];
+            case Column.DOUBLE:
+                return c.doubles[id];
+            default:
+                throw new ClassCastException(c.get(id) + " is not a number");
+        }
+    }
+
+    /**
+     * Get a boolean attribute.
+     *
+     * @param e   the element
+     * @param k   the attribute key
+     * @param def the value to return if the attribute is not set
+     * @return the value
+     * @throws ClassCastException if the attribute is not a boolean
+     */
+    @Override
+    public boolean get(Element e, AttributeKey k, boolean def) {
+        Column c = read(e, k);
+        if (c == null) {
+            return def;
+        }
+        int id = e.id();
+        switch (c.type(id)) {
+            case Column.UNSET:
+                return def;
+            case Column.BOOLEAN:
+                return c.bools.get(id);
+            default:
+                throw new ClassCastException(c.get(id) + " is not a boolean");
+        }
+    }
+
+    /**
+     * Get a string attribute.
+     *
+     * @param e   the element
+     * @param k   the attribute key
+     * @param def the value to return if the attribute is not set
+     * @return the value
+     * @throws ClassCastException if the attribute is not a string
+     */
+    @Override
+    public String get(Element e, AttributeKey k, String def) {
+        Column c = read(e, k);
+        if (c == null) {
+            return def;
+        }
+        int id = e.id();
+        switch (c.type(id)) {
+            case Column.UNSET:
+                return def;
+            case Column.STRING:
+                return c.strings[id];
+            default:
+                throw new ClassCastException(c.get(id) + " is not a string");
+        }
+    }
+
+    /**
+     * Set an integer attribute.
+     *
+     * @param e the element
+     * @param k the attribute key
+     * @param v the value
+     * @return {@code true} if a previous value was overridden
+     */
+    public boolean put(Element e, AttributeKey k, int v) {
+        Column c = write(e, k);
+        return c != null && c.putInt(e.id(), v);
+    }
+
+    /**
+     * Set a real attribute.
+     *
+     * @param e the element
+     * @param k the attribute key
+     * @param v the value
+     * @return {@code true} if a previous value was overridden
+     */
+    public boolean put(Element e, AttributeKey k, double v) {
+        Column c = write(e, k);
+        return c != null && c.putDouble(e.id(), v);
+    }
+
+    /**
+     * Set a boolean attribute.
+     *
+     * @param e the element
+     * @param k the attribute key
+     * @param v the value
+     * @return {@code true} if a previous value was overridden
+     */
+    public boolean put(Element e, AttributeKey k, boolean v) {
+        Column c = write(e, k);
+        return c != null && c.putBoolean(e.id(), v);
+    }
+
+    /**
+     * Set a string attribute.
+     *
+     * @param e the element
+     * @param k the attribute key
+     * @param v the value
+     * @return {@code true} if a previous value was overridden
+     */
+    public boolean put(Element e, AttributeKey k, String v) {
+        Column c = write(e, k);
+        return c != null && c.putString(e.id(), v);
+    }
+
+    @Override
+    public boolean put(Element e, String k, boolean b) {
+        return put(e, AttributeKey.of(k), b);
+    }
+
+    @Override
+    public boolean put(Element e, String k, String s) {
+        return put(e, AttributeKey.of(k), s);
+    }
+
+    @Override
+    public boolean put(Element e, String k, double d) {
+        return put(e, AttributeKey.of(k), d);
+    }
+
+    @Override
+    public boolean put(Element e, String k, int d) {
+        return put(e, AttributeKey.of(k), d);
+    }
+
+    @Override
+    public Object get(Element e, String k) {
+        Column c = read(e, AttributeKey.find(k));
+        return c == null ? null : c.get(e.id());
+    }
+
+    @Override
+    public boolean get(Element e, String k, boolean def) {
+        return get(e, AttributeKey.find(k), def);
+    }
+
+    @Override
+    public String get(Element e, String k, String def) {
+        return get(e, AttributeKey.find(k), def);
+    }
+
+    @Override
+    public double get(Element e, String k, double def) {
+        return get(e, AttributeKey.find(k), def);
+    }
+
+    @Override
+    public int get(Element e, String k, int def) {
+        return get(e, AttributeKey.find(k), def);
+    }
+
+    @Override
+    public boolean isSet(Element e, String k) {
+        return isSet(e, AttributeKey.find(k));
+    }
+
+    @Override
+    public boolean unset(Element e, String k) {
+        AttributeKey key = AttributeKey.find(k);
+        if (!isSet(e, key)) {
+            return false;
+        }
+        return write(e, key).unset(e.id());
+    }
+
+    @Override
+    public Set<Element> getDefined() {
+        Set<Element> s = new HashSet<>();
+        BitSet ids = defined(vmCols);
+        for (int i = ids.nextSetBit(0); i >= 0; i = ids.nextSetBit(i + 1)) {
+            s.add(new VM(i));
+        }
+        ids = defined(nodeCols);
+        for (int i = ids.nextSetBit(0); i >= 0; i = ids.nextSetBit(i + 1)) {
+            s.add(new Node(i));
+        }
+        return s;
+    }
+
+    private static BitSet defined(Column[] cols) {
+        BitSet ids = new BitSet();
+        for (Column c : cols) {
+            if (c != null) {
+                for (int i = 0; i < c.types.length; i++) {
+                    if (c.types[i] != Column.UNSET) {
+                        ids.set(i);
+                    }
+                }
+            }
+        }
+        return ids;
+    }
+
+    @Override
+    public Set<String> getKeys(Element e) {
+        Set<String> keys = null;
+        for (Column c : columns(e)) {
+            if (c != null && c.type(e.id()) != Column.UNSET) {
+                if (keys == null) {
+                    keys = new LinkedHashSet<>();
+                }
+                keys.add(c.key.name());
+            }
+        }
+        return keys == null ? Collections.emptySet() : keys;
+    }
+
+    @Override
+    @SuppressWarnings("squid:S1166")
+    public boolean castAndPut(Element e, String k, String v) {
+        String x = v.toLowerCase().trim();
+        if ("true".equals(x)) {
+            return put(e, k, true);
+        } else if ("false".equals(x)) {
+            return put(e, k, false);
+        }
+        try {
+            return put(e, k, Integer.parseInt(x));
+        } catch (@SuppressWarnings("unused") NumberFormatException ignored) {
+            //Not an int
+        }
+
+        try {
+            return put(e, k, Double.parseDouble(x));
+        } catch (@SuppressWarnings("unused") NumberFormatException ignored) {
+            //not a double either
+        }
+
+        return put(e, k, v);
+    }
+
+    @Override
+    public void clear() {
+        vmCols = NO_COLUMNS;
+        nodeCols = NO_COLUMNS;
+    }
+
+    @Override
+    public void clear(Element e) {
+        Column[] cols = columns(e);
+        for (Column c : cols) {
+            if (c != null && c.type(e.id()) != Column.UNSET) {
+                write(e, c.key).unset(e.id());
+            }
+        }
+    }
+
+    @Override
+    public Attributes copy() {
+        ColumnarAttributes cpy = new ColumnarAttributes();
+        cpy.vmCols = share(vmCols);
+        cpy.nodeCols = share(nodeCols);
+        return cpy;
+    }
+
+    private static Column[] share(Column[] cols) {
+        for (Column c : cols) {
+            if (c != null) {
+                c.shared = true;
+            }
+        }
+        return cols.clone();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder b = new StringBuilder();
+        for (Element e : getDefined()) {
+            b.append(e).append(':');
+            for (String k : getKeys(e)) {
+                b.append(" <").append(k).append(',');
+                Object val = get(e, k);
+                if (val instanceof String) {
+                    b.append('"').append(val).append('"');
+                } else {
+                    b.append(val);
+                }
+                b.append('>');
+            }
+            b.append(String.format("%n"));
+        }
+        return b.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (o == null || !o.getClass().equals(getClass())) {
+            return false;
+        }
+        ColumnarAttributes that = (ColumnarAttributes) o;
+        Set<Element> defined = getDefined();
+        if (!defined.equals(that.getDefined())) {
+            return false;
+        }
+        for (Element e : defined) {
+            Set<String> keys = getKeys(e);
+            if (!keys.equals(that.getKeys(e))) {
+                return false;
+            }
+            for (String k : keys) {
+                if (!get(e, k).equals(that.get(e, k))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int h = 0;
+        for (Element e : getDefined()) {
+            for (String k : getKeys(e)) {
+                h += Objects.hash(e, k, get(e, k));
+            }
+        }
+        return h;
+    }
+
+    /**
+     * The values of an attribute, indexed by element identifier.
+     * The backends are allocated once a value of their type is stored.
+     */
+    private static final class Column {
+
+        static final byte UNSET = 0;
+
+        static final byte INT = 1;
+
+        static final byte DOUBLE = 2;
+
+        static final byte BOOLEAN = 3;
+
+        static final byte STRING = 4;
+
+        private final AttributeKey key;
+
+        private byte[] types = new byte[0];
+
+        private int[] ints;
+
+        private double[] doubles;
+
+        private BitSet bools;
+
+        private String[] strings;
+
+        /**
+         * {@code true} if the column is shared with a copy.
+         */
+        private boolean shared;
+
+        Column(AttributeKey k) {
+            key = k;
+        }
+
+        byte type(int id) {
+            return id >= 0 && id < types.length ? types[id] : UNSET;
+        }
+
+        Object get(int id) {
+            switch (type(id)) {
+                case INT:
+                    return ints[id];
+                case DOUBLE:
+                    return doubles[id];
+                case BOOLEAN:
+                    return bools.get(id);
+                case STRING:
+                    return strings[id];
+                default:
+                    return null;
+            }
+        }
+
+        /**
+         * Prepare the storage of a value.
+         *
+         * @return {@code true} if a value was already set
+         */
+        private boolean prepare(int id, byte type) {
+            if (id >= types.length) {
+                types = Arrays.copyOf(types, Math.max(id + 1, types.length + types.length / 2));
+            }
+            byte old = types[id];
+            if (old == STRING && type != STRING) {
+                strings[id] = null;
+            }
+            types[id] = type;
+            return old != UNSET;
+        }
+
+        boolean putInt(int id, int v) {
+            boolean old = prepare(id, INT);
+            if (ints == null || ints.length < types.length) {
+                ints = ints == null ? new int[types.length] : Arrays.copyOf(ints, types.length);
+            }
+            ints[id] = v;
+            return old;
+        }
+
+        boolean putDouble(int id, double v) {
+            boolean old = prepare(id, DOUBLE);
+            if (doubles == null || doubles.length < types.length) {
+                doubles = doubles == null ? new double[types.length] : Arrays.copyOf(doubles, types.length);
+            }
+            doubles[id] = v;
+            return old;
+        }
+
+        boolean putBoolean(int id, boolean v) {
+            boolean old = prepare(id, BOOLEAN);
+            if (bools == null) {
+                bools = new BitSet();
+            }
+            bools.set(id, v);
+            return old;
+        }
+
+        boolean putString(int id, String v) {
+            boolean old = prepare(id, STRING);
+            if (strings == null || strings.length < types.length) {
+                strings = strings == null ? new String[types.length] : Arrays.copyOf(strings, types.length);
+            }
+            strings[id] = v;
+            return old;
+        }
+
+        boolean unset(int id) {
+            if (type(id) == UNSET) {
+                return false;
+            }
+            if (types[id] == STRING) {
+                strings[id] = null;
+            }
+            types[id] = UNSET;
+            return true;
+        }
+
+        Column copy() {
+            Column c = new Column(key);
+            c.types = types.clone();
+            c.ints = ints == null ? null : ints.clone();
+            c.doubles = doubles == null ? null : doubles.clone();
+            c.bools = bools == null ? null : (BitSet) bools.clone();
+            c.strings = strings == null ? null : strings.clone();
+            return c;
+        }
+    }
+}
@@ -10,13 +10,29 @@ import java.util.*;
 
 /**
  * Default implementation for {@link Attributes}.
+ * <p>
+ * {@link #copy()} has a O(1) complexity. The copies share their attributes until they
+ * are modified. Then, only the attributes of the modified elements are duplicated.
+ * Copying only resets the ownership of the source through volatile writes so an
+ * instance that is not modified can be copied concurrently.
  *
  * @author Fabien Hermenier
  */
 public class DefaultAttributes implements Attributes {
 
-    private final Map<VM, Map<String, Object>> vmAttrs;
-    private final Map<Node, Map<String, Object>> nodeAttrs;
+    private Map<VM, Map<String, Object>> vmAttrs;
+    private Map<Node, Map<String, Object>> nodeAttrs;
+
+    /**
+     * {@code true} if the maps are shared with a copy.
+     */
+    private volatile boolean shared;
+
+    /**
+     * The attribute maps that are not shared with a copy.
+     * The set is replaced, not cleared, when the instance is copied.
+     */
+    private volatile Set<Map<String, Object>> owned = newOwned();
 
     /**
      * Make a new empty list of attributes.
@@ -26,20 +42,54 @@ public class DefaultAttributes implements Attributes {
         nodeAttrs = new HashMap<>();
     }
 
+    private static Set<Map<String, Object>> newOwned() {
+        return Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+
+    /**
+     * Get private maps before a write, if they are shared.
+     */
+    private void own() {
+        if (shared) {
+            vmAttrs = new HashMap<>(vmAttrs);
+            nodeAttrs = new HashMap<>(nodeAttrs);
+            shared = false;
+        }
+    }
+
+    /**
+     * Get a modifiable map of attributes for an element.
+     * The map is created, or duplicated if it is shared with a copy.
+     *
+     * @param attrs the maps of attributes
+     * @param e     the element
+     * @param create {@code true} to create a map if there is none
+     * @return the map. {@code null} if there is none and {@code create} is {@code false}
+     */
+    private <E extends Element> Map<String, Object> writable(Map<E, Map<String, Object>> attrs, E e, boolean create) {
+        Map<String, Object> m = attrs.get(e);
+        if (m == null) {
+            if (!create) {
+                return null;
+            }
+            m = new HashMap<>();
+        } else if (owned.contains(m)) {
+            return m;
+        } else {
+            m = new HashMap<>(m);
+        }
+        attrs.put(e, m);
+        owned.add(m);
+        return m;
+    }
+
     private boolean putObject(Element e, String k, Object v) {
+        own();
         Map<String, Object> m;
         if (e instanceof VM) {
-            m = vmAttrs.get(e);
-            if (m == null) {
-                m = new HashMap<>();
-                vmAttrs.put((VM) e, m);
-            }
+            m = writable(vmAttrs, (VM) e, true);
         } else if (e instanceof Node) {
-            m = nodeAttrs.get(e);
-            if (m == null) {
-                m = new HashMap<>();
-                nodeAttrs.put((Node) e, m);
-            }
+            m = writable(nodeAttrs, (Node) e, true);
         } else {
             return false;
         }
@@ -116,20 +166,26 @@ public class DefaultAttributes implements Attributes {
 
     @Override
     public boolean unset(Element e, String k) {
+        if (!isSet(e, k)) {
+            return false;
+        }
+        own();
         Map<String, Object> m;
         if (e instanceof Node) {
-            m = nodeAttrs.get(e);
+            m = writable(nodeAttrs, (Node) e, false);
             if (m != null && m.remove(k) != null) {
                 if (m.isEmpty()) {
                     nodeAttrs.remove(e);
+                    owned.remove(m);
                 }
                 return true;
             }
         } else if (e instanceof VM) {
-            m = vmAttrs.get(e);
+            m = writable(vmAttrs, (VM) e, false);
             if (m != null && m.remove(k) != null) {
                 if (m.isEmpty()) {
                     vmAttrs.remove(e);
+                    owned.remove(m);
                 }
                 return true;
             }
@@ -140,13 +196,11 @@ public class DefaultAttributes implements Attributes {
     @Override
     public Attributes copy() {
         DefaultAttributes cpy = new DefaultAttributes();
-        for (Map.Entry<VM, Map<String, Object>> e : vmAttrs.entrySet()) {
-            cpy.vmAttrs.put(e.getKey(), new HashMap<>(e.getValue()));
-        }
-
-        for (Map.Entry<Node, Map<String, Object>> e : nodeAttrs.entrySet()) {
-            cpy.nodeAttrs.put(e.getKey(), new HashMap<>(e.getValue()));
-        }
+        cpy.vmAttrs = vmAttrs;
+        cpy.nodeAttrs = nodeAttrs;
+        cpy.shared = true;
+        shared = true;
+        owned = newOwned();
         return cpy;
     }
 
@@ -207,8 +261,15 @@ public class DefaultAttributes implements Attributes {
 
     @Override
     public void clear() {
-        this.vmAttrs.clear();
-        this.nodeAttrs.clear();
+        if (shared) {
+            vmAttrs = new HashMap<>();
+            nodeAttrs = new HashMap<>();
+            shared = false;
+        } else {
+            vmAttrs.clear();
+            nodeAttrs.clear();
+        }
+        owned = newOwned();
     }
 
     @Override
@@ -270,10 +331,11 @@ public class DefaultAttributes implements Attributes {
 
     @Override
     public void clear(Element e) {
+        own();
         if (e instanceof VM) {
-            this.vmAttrs.remove(e);
+            owned.remove(this.vmAttrs.remove(e));
         } else if (e instanceof Node) {
-            this.nodeAttrs.remove(e);
+            owned.remove(this.nodeAttrs.remove(e));
         }
     }
 }
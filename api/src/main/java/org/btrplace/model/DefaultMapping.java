@@ -10,9 +10,13 @@ import gnu.trove.set.hash.THashSet;
 import org.btrplace.util.IntMap;
 import org.btrplace.util.IntObjectMap;
 
+import java.util.AbstractSet;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.Set;
+import java.util.function.Supplier;
 
 /**
  * Default implementation of {@link Mapping}.
@@ -21,6 +25,15 @@ import java.util.Set;
  * {@link #getRunningVMs(Collection)}, {@link #getSleepingVMs(Collection)} have a O(n) complexity.
  * <p>
  * Methods {@code is*()} have a O(1) complexity.
+ * <p>
+ * {@link #copy()} has a O(1) complexity. The copies share their state until they are modified.
+ * Then the sets of VMs hosted by a node are only duplicated once the node is modified.
+ * Copying only resets the ownership of the source through volatile writes so a mapping
+ * that is not modified can be copied concurrently.
+ * <p>
+ * The sets returned by {@link #getOnlineNodes()}, {@link #getOfflineNodes()}, {@link #getReadyVMs()},
+ * {@link #getRunningVMs(Node)} and {@link #getSleepingVMs(Node)} are unmodifiable live views:
+ * they reflect the later modifications of this mapping only, even once it has been copied.
  *
  * @author Fabien Hermenier
  */
@@ -39,7 +52,12 @@ public class DefaultMapping extends AbstractMapping {
     /**
      * The node by states (online, offline)
      */
-    private final Set<Node>[] nodeState;
+    private Set<Node>[] nodeState;
+
+    /**
+     * {@code true} if {@link #nodeState} is shared with a copy.
+     */
+    private volatile boolean sharedNodes;
 
     /**
      * The state of each VM.
@@ -54,13 +72,25 @@ public class DefaultMapping extends AbstractMapping {
     /**
      * The VMs that are in the ready state.
      */
-    private final Set<VM> vmReady;
+    private Set<VM> vmReady;
+
+    /**
+     * {@code true} if {@link #vmReady} is shared with a copy.
+     */
+    private volatile boolean sharedReady;
 
     /**
      * The VMs hosted by each node, by state (running or sleeping)
      */
     private final IntObjectMap<Set<VM>>[] host;
 
+    /**
+     * The nodes whose set of hosted VMs is owned by this mapping, by state.
+     * The other sets are shared with a copy.
+     * The bitsets are replaced, not cleared, when the mapping is copied.
+     */
+    private volatile BitSet[] owned = {new BitSet(), new BitSet()};
+
     /**
      * Create a new mapping.
      */
@@ -83,33 +113,95 @@ public class DefaultMapping extends AbstractMapping {
 
     /**
      * Make a new mapping from an existing one.
+     * The copy is made in constant time. The two mappings share their backends
+     * until they are modified. Then, only the modified parts are duplicated.
      *
      * @param m the mapping to copy
      */
+    @SuppressWarnings("unchecked")
     public DefaultMapping(DefaultMapping m) {
 
-        // Safe copies are values are immutable.
+        // Copy-on-write backends.
         st = m.st.copy();
         place = m.place.copy();
+        host = new IntObjectMap[2];
+        host[RUNNING_STATE] = m.host[RUNNING_STATE].copy();
+        host[SLEEPING_STATE] = m.host[SLEEPING_STATE].copy();
 
-        // Copy set contents.
-        nodeState = new Set[2];
-        nodeState[ONLINE_STATE] = new THashSet<>(m.nodeState[ONLINE_STATE]);
-        nodeState[OFFLINE_STATE] = new THashSet<>(m.nodeState[OFFLINE_STATE]);
+        // The sets are shared, until the first write.
+        nodeState = m.nodeState;
+        vmReady = m.vmReady;
+        sharedNodes = true;
+        sharedReady = true;
+        m.sharedNodes = true;
+        m.sharedReady = true;
+        m.owned = new BitSet[]{new BitSet(), new BitSet()};
+    }
 
-        vmReady = new THashSet<>(m.vmReady);
+    @SuppressWarnings("unchecked")
+    private Set<Node>[] nodeStates() {
+        if (sharedNodes) {
+            Set<Node>[] copy = new Set[2];
+            copy[ONLINE_STATE] = new THashSet<>(nodeState[ONLINE_STATE]);
+            copy[OFFLINE_STATE] = new THashSet<>(nodeState[OFFLINE_STATE]);
+            nodeState = copy;
+            sharedNodes = false;
+        }
+        return nodeState;
+    }
 
-        host = new IntObjectMap[2];
-        host[RUNNING_STATE] = new IntObjectMap<>();
-        m.host[RUNNING_STATE].forEach((int id, Set<VM> vms) -> {
-            host[RUNNING_STATE].put(id, new THashSet<>(vms));
-            return true;
-        });
-        host[SLEEPING_STATE] = new IntObjectMap<>();
-        m.host[SLEEPING_STATE].forEach((int id, Set<VM> vms) -> {
-            host[SLEEPING_STATE].put(id, new THashSet<>(vms));
-            return true;
-        });
+    private Set<VM> readyVMs() {
+        if (sharedReady) {
+            vmReady = new THashSet<>(vmReady);
+            sharedReady = false;
+        }
+        return vmReady;
+    }
+
+    /**
+     * Get a modifiable set of the VMs hosted by a node.
+     * The set is created, or duplicated if it is shared with a copy.
+     *
+     * @param state the VM state
+     * @param nId   the node identifier
+     * @return the set
+     */
+    private Set<VM> hosted(int state, int nId) {
+        Set<VM> on = host[state].get(nId);
+        if (on == null) {
+            on = new THashSet<>();
+            host[state].put(nId, on);
+            owned[state].set(nId);
+        } else if (!owned[state].get(nId)) {
+            on = new THashSet<>(on);
+            host[state].put(nId, on);
+            owned[state].set(nId);
+        }
+        return on;
+    }
+
+    /**
+     * Prepare the backends used to store the VM states and locations.
+     * The backends will be expanded if needed. This operation is purely performance oriented as the backends grow
+     * automatically whenever needed. Setting this value may just bypass the incremental memory allocation.
+     *
+     * @param nbVMs the estimated number of VMs to consider in the mapping.
+     */
+    public void minVMBackendCapacity(final int nbVMs) {
+        st.expand(nbVMs);
+        place.expand(nbVMs);
+    }
+
+    /**
+     * Prepare the backends used to store the VMs hosted by each node.
+     * The backends will be expanded if needed. This operation is purely performance oriented as the backends grow
+     * automatically whenever needed. Setting this value may just bypass the incremental memory allocation.
+     *
+     * @param nbNodes the estimated number of nodes to consider in the mapping.
+     */
+    public void minNodeBackendCapacity(final int nbNodes) {
+        host[RUNNING_STATE].expand(nbNodes);
+        host[SLEEPING_STATE].expand(nbNodes);
     }
 
     @Override
@@ -146,29 +238,25 @@ public class DefaultMapping extends AbstractMapping {
 
         int vmId = vm.id();
         int nId = n.id();
-        Set<VM> on = host[RUNNING_STATE].get(nId);
-        if (on == null) {
-            on = new THashSet<>();
-            host[RUNNING_STATE].put(nId, on);
-        }
+        Set<VM> on = hosted(RUNNING_STATE, nId);
         switch (st.get(vmId)) {
             case RUNNING_STATE:
                 old = place.put(vmId, n);
                 if (!old.equals(n)) {
-                    host[RUNNING_STATE].get(old.id()).remove(vm);
+                    hosted(RUNNING_STATE, old.id()).remove(vm);
                     on.add(vm);
                 }
                 break;
             case SLEEPING_STATE:
                 old = place.put(vmId, n);
-                host[SLEEPING_STATE].get(old.id()).remove(vm);
+                hosted(SLEEPING_STATE, old.id()).remove(vm);
                 on.add(vm);
                 st.put(vmId, RUNNING_STATE);
                 break;
             case READY_STATE:
                 place.put(vmId, n);
                 on.add(vm);
-                vmReady.remove(vm);
+                readyVMs().remove(vm);
                 st.put(vmId, RUNNING_STATE);
                 break;
             default:
@@ -187,17 +275,13 @@ public class DefaultMapping extends AbstractMapping {
         }
         int nId = n.id();
         int vmId = vm.id();
-        Set<VM> on = host[SLEEPING_STATE].get(nId);
-        if (on == null) {
-            on = new THashSet<>();
-            host[SLEEPING_STATE].put(nId, on);
-        }
+        Set<VM> on = hosted(SLEEPING_STATE, nId);
         Node old;
         switch (st.get(vmId)) {
             case RUNNING_STATE:
                 //If was running, sync the state
                 old = place.put(vmId, n);
-                host[RUNNING_STATE].get(old.id()).remove(vm);
+                hosted(RUNNING_STATE, old.id()).remove(vm);
                 on.add(vm);
                 st.put(vmId, SLEEPING_STATE);
                 break;
@@ -205,20 +289,20 @@ public class DefaultMapping extends AbstractMapping {
                 //If was sleeping, sync the state
                 old = place.put(vmId, n);
                 if (!old.equals(n)) {
-                    host[SLEEPING_STATE].get(old.id()).remove(vm);
+                    hosted(SLEEPING_STATE, old.id()).remove(vm);
                     on.add(vm);
                 }
                 break;
             case READY_STATE:
                 place.put(vmId, n);
                 on.add(vm);
-                vmReady.remove(vm);
+                readyVMs().remove(vm);
                 st.put(vmId, SLEEPING_STATE);
                 break;
             default:
                 //it's a new VM
                 place.put(vmId, n);
-                host[SLEEPING_STATE].get(nId).add(vm);
+                on.add(vm);
                 st.put(vmId, SLEEPING_STATE);
                 break;
         }
@@ -233,13 +317,13 @@ public class DefaultMapping extends AbstractMapping {
         int state = st.get(vm.id());
         if (state == RUNNING_STATE) {
             //If was running, sync the state
-            host[RUNNING_STATE].get(n.id()).remove(vm);
+            hosted(RUNNING_STATE, n.id()).remove(vm);
         } else if (state == SLEEPING_STATE) {
             //If was sleeping, sync the state
-            host[SLEEPING_STATE].get(n.id()).remove(vm);
+            hosted(SLEEPING_STATE, n.id()).remove(vm);
         }
         st.put(vm.id(), READY_STATE);
-        vmReady.add(vm);
+        readyVMs().add(vm);
         return true;
     }
 
@@ -249,15 +333,15 @@ public class DefaultMapping extends AbstractMapping {
             Node n = this.place.clear(vm.id());
             //The VM exists and is already placed
             if (st.get(vm.id()) == RUNNING_STATE) {
-                host[RUNNING_STATE].get(n.id()).remove(vm);
+                hosted(RUNNING_STATE, n.id()).remove(vm);
             } else if (st.get(vm.id()) == SLEEPING_STATE) {
-                host[SLEEPING_STATE].get(n.id()).remove(vm);
+                hosted(SLEEPING_STATE, n.id()).remove(vm);
             }
             st.clear(vm.id());
             return true;
         } else if (st.get(vm.id()) == READY_STATE) {
 
-            vmReady.remove(vm);
+            readyVMs().remove(vm);
             st.clear(vm.id());
             return true;
         }
@@ -283,16 +367,16 @@ public class DefaultMapping extends AbstractMapping {
                 }
                 host[SLEEPING_STATE].clear(nId);
             }
-            return nodeState[ONLINE_STATE].remove(n);
+            return nodeStates()[ONLINE_STATE].remove(n);
         }
 
-        return nodeState[OFFLINE_STATE].remove(n);
+        return nodeStates()[OFFLINE_STATE].remove(n);
     }
 
     @Override
     public boolean addOnlineNode(Node n) {
-        nodeState[OFFLINE_STATE].remove(n);
-        nodeState[ONLINE_STATE].add(n);
+        nodeStates()[OFFLINE_STATE].remove(n);
+        nodeStates()[ONLINE_STATE].add(n);
         return true;
     }
 
@@ -308,44 +392,44 @@ public class DefaultMapping extends AbstractMapping {
             if (on != null && !on.isEmpty()) {
                 return false;
             }
-            nodeState[ONLINE_STATE].remove(n);
+            nodeStates()[ONLINE_STATE].remove(n);
         }
-        nodeState[OFFLINE_STATE].add(n);
+        nodeStates()[OFFLINE_STATE].add(n);
         return true;
     }
 
     @Override
     public Set<Node> getOnlineNodes() {
-        return nodeState[ONLINE_STATE];
+        return new LiveSet<>(() -> nodeState[ONLINE_STATE]);
     }
 
     @Override
     public Set<Node> getOfflineNodes() {
-        return nodeState[OFFLINE_STATE];
+        return new LiveSet<>(() -> nodeState[OFFLINE_STATE]);
     }
 
     @Override
     public Set<VM> getRunningVMs() {
-        return getRunningVMs(getOnlineNodes());
+        return getRunningVMs(nodeState[ONLINE_STATE]);
     }
 
     @Override
     public Set<VM> getSleepingVMs() {
-        return getSleepingVMs(getOnlineNodes());
+        return getSleepingVMs(nodeState[ONLINE_STATE]);
     }
 
     @Override
     public Set<VM> getSleepingVMs(Node n) {
-        Set<VM> in = host[SLEEPING_STATE].get(n.id());
-        if (in == null) {
-            return Collections.emptySet();
-        }
-        return in;
+        return new LiveSet<>(() -> hostedOrEmpty(SLEEPING_STATE, n.id()));
     }
 
     @Override
     public Set<VM> getRunningVMs(Node n) {
-        Set<VM> in = host[RUNNING_STATE].get(n.id());
+        return new LiveSet<>(() -> hostedOrEmpty(RUNNING_STATE, n.id()));
+    }
+
+    private Set<VM> hostedOrEmpty(int state, int nId) {
+        Set<VM> in = host[state].get(nId);
         if (in == null) {
             return Collections.emptySet();
         }
@@ -354,7 +438,7 @@ public class DefaultMapping extends AbstractMapping {
 
     @Override
     public Set<VM> getReadyVMs() {
-        return vmReady;
+        return new LiveSet<>(() -> vmReady);
     }
 
     @Override
@@ -392,7 +476,7 @@ public class DefaultMapping extends AbstractMapping {
     public Set<VM> getRunningVMs(Collection<Node> ns) {
         Set<VM> vms = new THashSet<>();
         for (Node n : ns) {
-            vms.addAll(getRunningVMs(n));
+            vms.addAll(hostedOrEmpty(RUNNING_STATE, n.id()));
         }
         return vms;
     }
@@ -401,7 +485,7 @@ public class DefaultMapping extends AbstractMapping {
     public Set<VM> getSleepingVMs(Collection<Node> ns) {
         Set<VM> vms = new THashSet<>();
         for (Node n : ns) {
-            vms.addAll(getSleepingVMs(n));
+            vms.addAll(hostedOrEmpty(SLEEPING_STATE, n.id()));
         }
         return vms;
     }
@@ -423,14 +507,10 @@ public class DefaultMapping extends AbstractMapping {
 
     @Override
     public void clear() {
-        for (Set<Node> s : nodeState) {
+        for (Set<Node> s : nodeStates()) {
             s.clear();
         }
-        st.clear();
-        vmReady.clear();
-        place.clear();
-        host[SLEEPING_STATE].clear();
-        host[RUNNING_STATE].clear();
+        clearAllVMs();
     }
 
     @Override
@@ -444,7 +524,8 @@ public class DefaultMapping extends AbstractMapping {
                     place.clear(vm.id());
                     st.clear(vm.id());
                 }
-                s.clear();
+                //The set may be shared with a copy
+                h.clear(u.id());
             }
         }
     }
@@ -453,7 +534,7 @@ public class DefaultMapping extends AbstractMapping {
     public void clearAllVMs() {
         place.clear();
         st.clear();
-        vmReady.clear();
+        readyVMs().clear();
         host[SLEEPING_STATE].clear();
         host[RUNNING_STATE].clear();
     }
@@ -500,4 +581,40 @@ public class DefaultMapping extends AbstractMapping {
         return st.size();
     }
 
+
+    /**
+     * An unmodifiable view over one of the sets of the mapping.
+     * The set is retrieved at each access as it is replaced when the mapping
+     * is modified after a copy.
+     *
+     * @param <E> the element type
+     */
+    private static final class LiveSet<E> extends AbstractSet<E> {
+
+        private final Supplier<Set<E>> backend;
+
+        LiveSet(Supplier<Set<E>> backend) {
+            this.backend = backend;
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return Collections.unmodifiableSet(backend.get()).iterator();
+        }
+
+        @Override
+        public int size() {
+            return backend.get().size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return backend.get().isEmpty();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return backend.get().contains(o);
+        }
+    }
 }
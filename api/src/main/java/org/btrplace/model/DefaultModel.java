@@ -38,9 +38,19 @@ public class DefaultModel implements Model {
      * @param eb the builder to use
      */
     public DefaultModel(ElementBuilder eb) {
+        this(eb, new DefaultMapping());
+    }
+
+    /**
+     * Make a new instance relying on a given element builders and a given mapping.
+     *
+     * @param eb the builder to use
+     * @param m  the mapping to use. For example, an {@link IndexedMapping}
+     */
+    public DefaultModel(ElementBuilder eb, Mapping m) {
         this.resources = new HashMap<>();
         attrs = new DefaultAttributes();
-        cfg = new DefaultMapping();
+        cfg = m;
         elemBuilder = eb;
     }
 
@@ -0,0 +1,843 @@
+/*
+ * Copyright  2026 The BtrPlace Authors. All rights reserved.
+ * Use of this source code is governed by a LGPL-style
+ * license that can be found in the LICENSE.txt file.
+ */
+
+package org.btrplace.model;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+
+/**
+ * A {@link Mapping} backed by arrays and bitsets indexed by the element identifiers.
+ * <p>
+ * Contrary to {@link DefaultMapping}, the sets returned by the getters are never computed:
+ * they are read-only views over the internal state, that reflect the further changes
+ * of the mapping. This makes {@link #getAllVMs()}, {@link #getAllNodes()}, {@link #getRunningVMs()},
+ * {@link #getSleepingVMs()} or {@link #getRunningVMs(Collection)} free of any allocation, whatever
+ * the size of the mapping. A view must not be iterated while the mapping is modified.
+ * The VMs and the nodes are iterated by increasing identifier, except for the VMs hosted by a node.
+ * <p>
+ * The methods {@link #forEachVM(VMState, IntConsumer)}, {@link #forEachVM(Node, VMState, IntConsumer)}
+ * and {@link #forEachNode(NodeState, IntConsumer)} browse the identifiers of the elements without
+ * materialising them.
+ * <p>
+ * The memory usage is proportional to the highest element identifier, so the mapping is suited
+ * to models having dense identifiers, like the ones made by {@link DefaultElementBuilder}.
+ * All the methods, except the copy and {@link #clear()} related ones, have a O(1) complexity.
+ *
+ * @author Fabien Hermenier
+ */
+public class IndexedMapping extends AbstractMapping {
+
+    private static final int NONE = -1;
+
+    private static final int RUNNING_STATE = 0;
+
+    private static final int SLEEPING_STATE = 1;
+
+    private static final int READY_STATE = 2;
+
+    /**
+     * The state of each VM.
+     */
+    private int[] st;
+
+    /**
+     * The identifier of the node hosting each VM.
+     */
+    private int[] place;
+
+    /**
+     * The position of each VM in the list of the VMs hosted by its node.
+     */
+    private int[] pos;
+
+    /**
+     * The VMs, by identifier.
+     */
+    private VM[] vms;
+
+    /**
+     * The nodes, by identifier.
+     */
+    private Node[] nodes;
+
+    /**
+     * The VMs hosted by each node, by state (running or sleeping).
+     */
+    private final Slots[][] host = new Slots[2][];
+
+    /**
+     * The VMs, by state (running, sleeping or ready).
+     */
+    private final Ids[] vmState = {new Ids(), new Ids(), new Ids()};
+
+    private final Ids online = new Ids();
+
+    private final Ids offline = new Ids();
+
+    private final Set<VM> runnings = new ElementsView<>(VM.class, this::vm, vmState[RUNNING_STATE]);
+
+    private final Set<VM> sleepings = new ElementsView<>(VM.class, this::vm, vmState[SLEEPING_STATE]);
+
+    private final Set<VM> readies = new ElementsView<>(VM.class, this::vm, vmState[READY_STATE]);
+
+    private final Set<VM> allVMs = new ElementsView<>(VM.class, this::vm, vmState);
+
+    private final Set<Node> onlines = new ElementsView<>(Node.class, this::node, online);
+
+    private final Set<Node> offlines = new ElementsView<>(Node.class, this::node, offline);
+
+    private final Set<Node> allNodes = new ElementsView<>(Node.class, this::node, online, offline);
+
+    /**
+     * Create a new mapping.
+     */
+    public IndexedMapping() {
+        this(16, 16);
+    }
+
+    /**
+     * Create a new mapping with pre-allocated backends.
+     * The backends grow automatically whenever needed. Setting the expected number of elements
+     * just bypasses the incremental memory allocation.
+     *
+     * @param nbVMs   the expected number of VMs (or the highest VM identifier)
+     * @param nbNodes the expected number of nodes (or the highest node identifier)
+     */
+    public IndexedMapping(int nbVMs, int nbNodes) {
+        st = new int[Math.max(nbVMs, 1)];
+        Arrays.fill(st, NONE);
+        place = new int[st.length];
+        Arrays.fill(place, NONE);
+        pos = new int[st.length];
+        vms = new VM[st.length];
+        nodes = new Node[Math.max(nbNodes, 1)];
+        host[RUNNING_STATE] = new Slots[nodes.length];
+        host[SLEEPING_STATE] = new Slots[nodes.length];
+    }
+
+    /**
+     * Make a new mapping from an existing one.
+     *
+     * @param m the mapping to copy
+     */
+    public IndexedMapping(IndexedMapping m) {
+        this(0, 0);
+        st = m.st.clone();
+        place = m.place.clone();
+        pos = m.pos.clone();
+        vms = m.vms.clone();
+        nodes = m.nodes.clone();
+        for (int s = 0; s < host.length; s++) {
+            host[s] = new Slots[m.host[s].length];
+            for (int n = 0; n < host[s].length; n++) {
+                if (m.host[s][n] != null) {
+                    host[s][n] = m.host[s][n].copy();
+                }
+            }
+        }
+        for (int s = 0; s < vmState.length; s++) {
+            vmState[s].copy(m.vmState[s]);
+        }
+        online.copy(m.online);
+        offline.copy(m.offline);
+    }
+
+    private VM vm(int id) {
+        return vms[id];
+    }
+
+    private Node node(int id) {
+        return nodes[id];
+    }
+
+    private int state(int vmId) {
+        return vmId < st.length ? st[vmId] : NONE;
+    }
+
+    private int location(int vmId) {
+        return vmId < place.length ? place[vmId] : NONE;
+    }
+
+    private Slots slots(int state, int nodeId) {
+        return nodeId < host[state].length ? host[state][nodeId] : null;
+    }
+
+    private boolean isHosting(int nodeId) {
+        Slots run = slots(RUNNING_STATE, nodeId);
+        Slots sleep = slots(SLEEPING_STATE, nodeId);
+        return (run != null && run.size > 0) || (sleep != null && sleep.size > 0);
+    }
+
+    private void ensureVM(int id) {
+        if (id >= st.length) {
+            int old = st.length;
+            int size = Math.max(id + 1, old * 2);
+            st = Arrays.copyOf(st, size);
+            Arrays.fill(st, old, size, NONE);
+            place = Arrays.copyOf(place, size);
+            Arrays.fill(place, old, size, NONE);
+            pos = Arrays.copyOf(pos, size);
+            vms = Arrays.copyOf(vms, size);
+        }
+    }
+
+    private void ensureNode(int id) {
+        if (id >= nodes.length) {
+            int size = Math.max(id + 1, nodes.length * 2);
+            nodes = Arrays.copyOf(nodes, size);
+            host[RUNNING_STATE] = Arrays.copyOf(host[RUNNING_STATE], size);
+            host[SLEEPING_STATE] = Arrays.copyOf(host[SLEEPING_STATE], size);
+        }
+    }
+
+    /**
+     * Remove a VM from its current state and location.
+     */
+    private void detach(int vmId) {
+        int state = st[vmId];
+        if (state == NONE) {
+            return;
+        }
+        vmState[state].remove(vmId);
+        if (state != READY_STATE) {
+            host[state][place[vmId]].remove(vmId, pos);
+            place[vmId] = NONE;
+        }
+        st[vmId] = NONE;
+    }
+
+    /**
+     * Put a detached VM into a state, on a node if it is running or sleeping.
+     */
+    private void attach(VM vm, int state, Node n) {
+        int vmId = vm.id();
+        vms[vmId] = vm;
+        st[vmId] = state;
+        vmState[state].add(vmId);
+        if (state != READY_STATE) {
+            int nId = n.id();
+            Slots on = host[state][nId];
+            if (on == null) {
+                on = new Slots();
+                host[state][nId] = on;
+            }
+            on.add(vmId, pos);
+            place[vmId] = nId;
+        }
+    }
+
+    private boolean host(VM vm, int state, Node n) {
+        if (!online.contains(n.id())) {
+            return false;
+        }
+        int vmId = vm.id();
+        ensureVM(vmId);
+        if (st[vmId] != state || place[vmId] != n.id()) {
+            detach(vmId);
+            attach(vm, state, n);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isRunning(VM v) {
+        return state(v.id()) == RUNNING_STATE;
+    }
+
+    @Override
+    public boolean isSleeping(VM v) {
+        return state(v.id()) == SLEEPING_STATE;
+    }
+
+    @Override
+    public boolean isReady(VM v) {
+        return state(v.id()) == READY_STATE;
+    }
+
+    @Override
+    public boolean isOnline(Node n) {
+        return online.contains(n.id());
+    }
+
+    @Override
+    public boolean isOffline(Node n) {
+        return offline.contains(n.id());
+    }
+
+    @Override
+    public boolean addRunningVM(VM vm, Node n) {
+        return host(vm, RUNNING_STATE, n);
+    }
+
+    @Override
+    public boolean addSleepingVM(VM vm, Node n) {
+        return host(vm, SLEEPING_STATE, n);
+    }
+
+    @Override
+    public boolean addReadyVM(VM vm) {
+        int vmId = vm.id();
+        ensureVM(vmId);
+        detach(vmId);
+        attach(vm, READY_STATE, null);
+        return true;
+    }
+
+    @Override
+    public boolean remove(VM vm) {
+        int vmId = vm.id();
+        if (state(vmId) == NONE) {
+            return false;
+        }
+        detach(vmId);
+        return true;
+    }
+
+    @Override
+    public boolean remove(Node n) {
+        int nId = n.id();
+        if (online.contains(nId)) {
+            if (isHosting(nId)) {
+                return false;
+            }
+            return online.remove(nId);
+        }
+        return offline.remove(nId);
+    }
+
+    @Override
+    public boolean addOnlineNode(Node n) {
+        int nId = n.id();
+        ensureNode(nId);
+        nodes[nId] = n;
+        offline.remove(nId);
+        online.add(nId);
+        return true;
+    }
+
+    @Override
+    public boolean addOfflineNode(Node n) {
+        int nId = n.id();
+        if (online.contains(nId)) {
+            if (isHosting(nId)) {
+                return false;
+            }
+            online.remove(nId);
+        }
+        ensureNode(nId);
+        nodes[nId] = n;
+        offline.add(nId);
+        return true;
+    }
+
+    @Override
+    public Set<Node> getOnlineNodes() {
+        return onlines;
+    }
+
+    @Override
+    public Set<Node> getOfflineNodes() {
+        return offlines;
+    }
+
+    @Override
+    public Set<VM> getRunningVMs() {
+        return runnings;
+    }
+
+    @Override
+    public Set<VM> getSleepingVMs() {
+        return sleepings;
+    }
+
+    @Override
+    public Set<VM> getSleepingVMs(Node n) {
+        return new HostedView(SLEEPING_STATE, n.id());
+    }
+
+    @Override
+    public Set<VM> getRunningVMs(Node n) {
+        return new HostedView(RUNNING_STATE, n.id());
+    }
+
+    @Override
+    public Set<VM> getReadyVMs() {
+        return readies;
+    }
+
+    @Override
+    public Set<VM> getAllVMs() {
+        return allVMs;
+    }
+
+    @Override
+    public Set<Node> getAllNodes() {
+        return allNodes;
+    }
+
+    @Override
+    public Node getVMLocation(VM vm) {
+        int nId = location(vm.id());
+        return nId == NONE ? null : nodes[nId];
+    }
+
+    /**
+     * {@inheritDoc}
+     * The returned set is a view that also reflects the changes made on {@code ns}.
+     * When {@code ns} is not a set, it is copied first.
+     */
+    @Override
+    public Set<VM> getRunningVMs(Collection<Node> ns) {
+        return new HostedOnView(RUNNING_STATE, ns instanceof Set ? ns : new HashSet<>(ns));
+    }
+
+    /**
+     * {@inheritDoc}
+     * The returned set is a view that also reflects the changes made on {@code ns}.
+     * When {@code ns} is not a set, it is copied first.
+     */
+    @Override
+    public Set<VM> getSleepingVMs(Collection<Node> ns) {
+        return new HostedOnView(SLEEPING_STATE, ns instanceof Set ? ns : new HashSet<>(ns));
+    }
+
+    /**
+     * Browse the identifier of the VMs in a given state, by increasing identifier.
+     *
+     * @param s      the state of the VMs to browse. Only {@link VMState#RUNNING}, {@link VMState#SLEEPING}
+     *               and {@link VMState#READY} VMs belong to a mapping
+     * @param action the action to perform on each VM identifier
+     */
+    public void forEachVM(VMState s, IntConsumer action) {
+        int state = toState(s);
+        if (state != NONE) {
+            vmState[state].forEach(action);
+        }
+    }
+
+    /**
+     * Browse the identifier of the VMs hosted by a node.
+     *
+     * @param n      the node
+     * @param s      the state of the VMs to browse. Either {@link VMState#RUNNING} or {@link VMState#SLEEPING}
+     * @param action the action to perform on each VM identifier
+     */
+    public void forEachVM(Node n, VMState s, IntConsumer action) {
+        int state = toState(s);
+        if (state == RUNNING_STATE || state == SLEEPING_STATE) {
+            Slots on = slots(state, n.id());
+            if (on != null) {
+                for (int i = 0; i < on.size; i++) {
+                    action.accept(on.ids[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Browse the identifier of the nodes in a given state, by increasing identifier.
+     *
+     * @param s      the state of the nodes to browse
+     * @param action the action to perform on each node identifier
+     */
+    public void forEachNode(NodeState s, IntConsumer action) {
+        (s == NodeState.ONLINE ? online : offline).forEach(action);
+    }
+
+    private static int toState(VMState s) {
+        switch (s) {
+            case RUNNING:
+                return RUNNING_STATE;
+            case SLEEPING:
+                return SLEEPING_STATE;
+            case READY:
+                return READY_STATE;
+            default:
+                return NONE;
+        }
+    }
+
+    @Override
+    public Mapping copy() {
+        return new IndexedMapping(this);
+    }
+
+    @Override
+    public boolean contains(Node n) {
+        return online.contains(n.id()) || offline.contains(n.id());
+    }
+
+    @Override
+    public boolean contains(VM vm) {
+        return state(vm.id()) != NONE;
+    }
+
+    @Override
+    public void clear() {
+        clearAllVMs();
+        online.clear();
+        offline.clear();
+        Arrays.fill(nodes, null);
+    }
+
+    @Override
+    public void clearNode(Node u) {
+        for (int state = RUNNING_STATE; state <= SLEEPING_STATE; state++) {
+            Slots on = slots(state, u.id());
+            if (on != null) {
+                for (int i = 0; i < on.size; i++) {
+                    int vmId = on.ids[i];
+                    vmState[state].remove(vmId);
+                    st[vmId] = NONE;
+                    place[vmId] = NONE;
+                }
+                on.size = 0;
+            }
+        }
+    }
+
+    @Override
+    public void clearAllVMs() {
+        Arrays.fill(st, NONE);
+        Arrays.fill(place, NONE);
+        Arrays.fill(vms, null);
+        for (Ids ids : vmState) {
+            ids.clear();
+        }
+        Arrays.fill(host[RUNNING_STATE], null);
+        Arrays.fill(host[SLEEPING_STATE], null);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder buf = new StringBuilder();
+
+        for (Node n : onlines) {
+            buf.append(n);
+            buf.append(':');
+            if (this.getRunningVMs(n).isEmpty() && this.getSleepingVMs(n).isEmpty()) {
+                buf.append(" - ");
+            }
+            for (VM vm : this.getRunningVMs(n)) {
+                buf.append(' ').append(vm);
+            }
+            for (VM vm : this.getSleepingVMs(n)) {
+                buf.append(" (").append(vm).append(')');
+            }
+            buf.append('\n');
+        }
+
+        for (Node n : offlines) {
+            buf.append('(').append(n).append(")\n");
+        }
+
+        buf.append("READY");
+
+        for (VM vm : readies) {
+            buf.append(' ').append(vm);
+        }
+
+        return buf.append('\n').toString();
+    }
+
+    @Override
+    public int getNbNodes() {
+        return online.size + offline.size;
+    }
+
+    @Override
+    public int getNbVMs() {
+        return vmState[RUNNING_STATE].size + vmState[SLEEPING_STATE].size + vmState[READY_STATE].size;
+    }
+
+    /**
+     * A set of identifiers.
+     */
+    private static final class Ids {
+
+        private final BitSet bits = new BitSet();
+
+        private int size;
+
+        boolean contains(int id) {
+            return bits.get(id);
+        }
+
+        boolean add(int id) {
+            if (bits.get(id)) {
+                return false;
+            }
+            bits.set(id);
+            size++;
+            return true;
+        }
+
+        boolean remove(int id) {
+            if (!bits.get(id)) {
+                return false;
+            }
+            bits.clear(id);
+            size--;
+            return true;
+        }
+
+        void clear() {
+            bits.clear();
+            size = 0;
+        }
+
+        void copy(Ids o) {
+            bits.clear();
+            bits.or(o.bits);
+            size = o.size;
+        }
+
+        void forEach(IntConsumer action) {
+            for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+                action.accept(i);
+            }
+        }
+    }
+
+    /**
+     * The identifiers of the VMs hosted by a node. The removal of a VM
+     * moves the last VM at its position.
+     */
+    private static final class Slots {
+
+        private int[] ids = new int[4];
+
+        private int size;
+
+        void add(int vmId, int[] pos) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            pos[vmId] = size;
+            ids[size++] = vmId;
+        }
+
+        void remove(int vmId, int[] pos) {
+            int p = pos[vmId];
+            int last = ids[--size];
+            ids[p] = last;
+            pos[last] = p;
+        }
+
+        Slots copy() {
+            Slots s = new Slots();
+            s.ids = Arrays.copyOf(ids, Math.max(size, 1));
+            s.size = size;
+            return s;
+        }
+    }
+
+    /**
+     * A read-only view over one or several sets of identifiers.
+     *
+     * @param <E> the element type
+     */
+    private static final class ElementsView<E extends Element> extends AbstractSet<E> {
+
+        private final Class<E> type;
+
+        private final IntFunction<E> resolver;
+
+        private final Ids[] parts;
+
+        ElementsView(Class<E> type, IntFunction<E> resolver, Ids... parts) {
+            this.type = type;
+            this.resolver = resolver;
+            this.parts = parts;
+        }
+
+        @Override
+        public int size() {
+            int nb = 0;
+            for (Ids p : parts) {
+                nb += p.size;
+            }
+            return nb;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!type.isInstance(o)) {
+                return false;
+            }
+            int id = type.cast(o).id();
+            for (Ids p : parts) {
+                if (p.contains(id)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return new Iterator<E>() {
+                private int part = 0;
+
+                private int next = advance(0);
+
+                private int advance(int from) {
+                    int i = from;
+                    while (part < parts.length) {
+                        i = parts[part].bits.nextSetBit(i);
+                        if (i >= 0) {
+                            return i;
+                        }
+                        part++;
+                        i = 0;
+                    }
+                    return NONE;
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return next != NONE;
+                }
+
+                @Override
+                public E next() {
+                    if (next == NONE) {
+                        throw new NoSuchElementException();
+                    }
+                    E e = resolver.apply(next);
+                    next = advance(next + 1);
+                    return e;
+                }
+            };
+        }
+    }
+
+    /**
+     * A read-only view over the VMs hosted by a node.
+     */
+    private final class HostedView extends AbstractSet<VM> {
+
+        private final int state;
+
+        private final int nodeId;
+
+        HostedView(int state, int nodeId) {
+            this.state = state;
+            this.nodeId = nodeId;
+        }
+
+        @Override
+        public int size() {
+            Slots on = slots(state, nodeId);
+            return on == null ? 0 : on.size;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof VM)) {
+                return false;
+            }
+            int id = ((VM) o).id();
+            return state(id) == state && place[id] == nodeId;
+        }
+
+        @Override
+        public Iterator<VM> iterator() {
+            Slots on = slots(state, nodeId);
+            return new Iterator<VM>() {
+                private int i = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return on != null && i < on.size;
+                }
+
+                @Override
+                public VM next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return vms[on.ids[i++]];
+                }
+            };
+        }
+    }
+
+    /**
+     * A read-only view over the VMs hosted by a set of nodes.
+     */
+    private final class HostedOnView extends AbstractSet<VM> {
+
+        private final int state;
+
+        private final Collection<Node> ns;
+
+        HostedOnView(int state, Collection<Node> ns) {
+            this.state = state;
+            this.ns = ns;
+        }
+
+        @Override
+        public int size() {
+            int nb = 0;
+            for (Node n : ns) {
+                Slots on = slots(state, n.id());
+                if (on != null) {
+                    nb += on.size;
+                }
+            }
+            return nb;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof VM)) {
+                return false;
+            }
+            int id = ((VM) o).id();
+            return state(id) == state && ns.contains(nodes[place[id]]);
+        }
+
+        @Override
+        public Iterator<VM> iterator() {
+            Iterator<Node> nodeIt = ns.iterator();
+            return new Iterator<VM>() {
+                private Slots on;
+
+                private int i = 0;
+
+                @Override
+                public boolean hasNext() {
+                    while (on == null || i == on.size) {
+                        if (!nodeIt.hasNext()) {
+                            return false;
+                        }
+                        on = slots(state, nodeIt.next().id());
+                        i = 0;
+                    }
+                    return true;
+                }
+
+                @Override
+                public VM next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return vms[on.ids[i++]];
+                }
+            };
+        }
+    }
+}
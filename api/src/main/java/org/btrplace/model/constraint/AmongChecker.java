@@ -89,4 +89,9 @@ public class AmongChecker extends AllowAllConstraintChecker<Among> {
         }
         return true;
     }
+
+    @Override
+    public boolean isLocal() {
+        return true;
+    }
 }
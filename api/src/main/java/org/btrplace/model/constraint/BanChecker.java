@@ -46,4 +46,9 @@ public class BanChecker extends AllowAllConstraintChecker<Ban> {
         }
         return true;
     }
+
+    @Override
+    public boolean isLocal() {
+        return true;
+    }
 }
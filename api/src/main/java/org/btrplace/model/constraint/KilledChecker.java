@@ -43,4 +43,9 @@ public class KilledChecker extends DenyMyVMsActions<Killed> {
         }
         return true;
     }
+
+    @Override
+    public boolean isLocal() {
+        return true;
+    }
 }
@@ -72,4 +72,9 @@ public class MaxOnlineChecker extends AllowAllConstraintChecker<MaxOnline> {
         }
         return on <= getConstraint().getAmount();
     }
+
+    @Override
+    public boolean isLocal() {
+        return true;
+    }
 }
@@ -57,4 +57,9 @@ public class OverbookChecker extends AllowAllConstraintChecker<Overbook> {
         }
         return true;
     }
+
+    @Override
+    public boolean isLocal() {
+        return true;
+    }
 }
@@ -73,4 +73,9 @@ public class PreserveChecker extends AllowAllConstraintChecker<Preserve> {
         }
         return true;
     }
+
+    @Override
+    public boolean isLocal() {
+        return true;
+    }
 }
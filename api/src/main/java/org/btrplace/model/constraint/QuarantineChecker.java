@@ -54,4 +54,8 @@ public class QuarantineChecker extends AllowAllConstraintChecker<Quarantine> {
         return getVMs().addAll(map.getRunningVMs(getNodes()));
     }
 
+    @Override
+    public boolean isLocal() {
+        return true;
+    }
 }
@@ -49,4 +49,9 @@ public class ReadyChecker extends DenyMyVMsActions<Ready> {
         }
         return true;
     }
+
+    @Override
+    public boolean isLocal() {
+        return true;
+    }
 }
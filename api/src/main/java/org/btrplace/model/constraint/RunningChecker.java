@@ -49,4 +49,9 @@ public class RunningChecker extends DenyMyVMsActions<Running> {
         }
         return true;
     }
+
+    @Override
+    public boolean isLocal() {
+        return true;
+    }
 }
@@ -227,4 +227,16 @@ public interface SatConstraintChecker<C extends SatConstraint> {
      * @return a non-null constraint
      */
     C getConstraint();
+
+    /**
+     * Indicate if the checker only focuses on the actions and the events that manipulate
+     * the VMs or the nodes involved in its constraint.
+     * A local checker is not notified about the other actions and events, except the
+     * {@link SubstitutedVMEvent} events.
+     *
+     * @return {@code true} iff the checker is local. {@code false} by default
+     */
+    default boolean isLocal() {
+        return false;
+    }
 }
@@ -43,4 +43,9 @@ public class SleepingChecker extends DenyMyVMsActions<Sleeping> {
         }
         return true;
     }
+
+    @Override
+    public boolean isLocal() {
+        return true;
+    }
 }
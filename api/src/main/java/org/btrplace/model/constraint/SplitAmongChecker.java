@@ -94,4 +94,9 @@ public class SplitAmongChecker extends AllowAllConstraintChecker<SplitAmong> {
     public boolean endsWith(Model i) {
         return checkMapping(i.getMapping());
     }
+
+    @Override
+    public boolean isLocal() {
+        return true;
+    }
 }
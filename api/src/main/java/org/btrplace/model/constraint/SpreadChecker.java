@@ -102,4 +102,9 @@ public class SpreadChecker extends AllowAllConstraintChecker<Spread> {
         }
         return true;
     }
+
+    @Override
+    public boolean isLocal() {
+        return true;
+    }
 }
@@ -6,18 +6,27 @@
 
 package org.btrplace.model.view.network;
 
+import gnu.trove.map.hash.TIntIntHashMap;
 import org.btrplace.model.Node;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Default implementation of {@link Routing}.
  * Allows to retrieve physical path (L2) between network elements by looking at physical connections.
  * <p>
+ * The path between two nodes is a shortest path in terms of crossed links. The paths are computed
+ * once, using a breadth-first search from every switch, and stored as next-hop tables:
+ * for every pair of switches, the link to take to get closer to the destination and the bandwidth
+ * of the bottleneck up to the destination. The tables use {@code O(switches^2)} memory, whatever
+ * the number of nodes.
+ * {@link #getLinkDirection(Node, Node, Link)} and {@link #getMaxBW(Node, Node)} are then answered
+ * by walking the tables, without any allocation.
+ * When several shortest paths exist, the one that uses the links declared first is retained.
+ * The tables are computed again if links were added to the network since the last computation.
+ * <p>
  * If instantiated manually, it should be first attached to an existing network view,
  * see {@link #setNetwork(Network)}.
  *
@@ -26,51 +35,21 @@ import java.util.Map;
  */
 public class DefaultRouting extends Routing {
 
-    /**
-     * Recursive method to get the first physical path found from a switch to a destination node
-     *
-     * @param   currentPath the current or initial path containing the link(s) crossed
-     * @param   sw the current switch to browse
-     * @param   dst the destination node to reach
-     * @return  the ordered list of links that make the path to dst
-     */
-    private Map<Link, Boolean> getFirstPhysicalPath(Map<Link, Boolean> currentPath, Switch sw, Node dst) {
+    private volatile Table table;
 
-        // Iterate through the current switch's links
-        for (Link l : net.getConnectedLinks(sw)) {
-            // Wrong link
-            if (currentPath.containsKey(l)) {
-                continue;
-            }
+    @Override
+    public void setNetwork(Network net) {
+        table = null;
+        super.setNetwork(net);
+    }
 
-            /*
-             * Go through the link and track the direction for full-duplex purpose
-             * From switch to element => false : DownLink
-             * From element to switch => true : UpLink
-             */
-            currentPath.put(l, !l.getSwitch().equals(sw));
-
-            // Check what is after
-            if (l.getElement() instanceof Node) {
-                // Node found, path complete
-                if (l.getElement().equals(dst)) {
-                    return currentPath;
-                }
-            }
-            else {
-                // Go to the next switch
-                Map<Link, Boolean> recall = getFirstPhysicalPath(
-                        currentPath, l.getSwitch().equals(sw) ? (Switch) l.getElement() : l.getSwitch(), dst);
-                // Return the complete path if found
-                if (!recall.isEmpty()) {
-                    return recall;
-                }
-            }
-            // Wrong link, go back
-            currentPath.remove(l);
+    private Table table() {
+        Table t = table;
+        if (t == null || t.nbLinks != net.getLinks().size()) {
+            t = new Table(net.getLinks());
+            table = t;
         }
-        // No path found through this switch
-        return new LinkedHashMap<>();
+        return t;
     }
 
     @Override
@@ -78,64 +57,230 @@ public class DefaultRouting extends Routing {
         if (net == null || n1.equals(n2)) {
             return Collections.emptyList();
         }
-
-        // Initialize the cache
-        if (routingCache == null) {
-            int cacheSize = net.getConnectedNodes().size();
-            routingCache = new LinkedHashMap[cacheSize][cacheSize]; // OK for the warning
+        Table t = table();
+        int from = t.uplinks.get(n1.id());
+        int to = t.uplinks.get(n2.id());
+        if (!t.connected(from, to)) {
+            return Collections.emptyList();
         }
-
-        // Fill the cache if needed
-        if (routingCache[n1.id()][n2.id()] == null) {
-            // Create an initial path from the node to its switch => true : UpLink
-            Map<Link, Boolean> initialPath = new LinkedHashMap<>();
-            initialPath.put(net.getConnectedLinks(n1).get(0), true);
-            // Get the first physical path found between the two nodes
-            routingCache[n1.id()][n2.id()] =
-                    getFirstPhysicalPath(
-                            initialPath, // Only one link per node
-                            net.getConnectedLinks(n1).get(0).getSwitch(), // A node is always connected to a switch
-                            n2
-                    );
+        int dst = t.hosts[to];
+        Link[] path = new Link[t.length(from, to)];
+        path[0] = t.links[from];
+        int i = 1;
+        for (int sw = t.hosts[from]; sw != dst; sw = t.next(sw, dst)) {
+            path[i++] = t.links[t.nextHop[dst][sw]];
         }
-
-        return new ArrayList<>(routingCache[n1.id()][n2.id()].keySet());
+        path[i] = t.links[to];
+        return Collections.unmodifiableList(Arrays.asList(path));
     }
 
     @Override
     public LinkDirection getLinkDirection(Node n1, Node n2, Link l) {
-        if (n1.equals(n2)) {
+        if (net == null || n1.equals(n2)) {
             return LinkDirection.NONE;
         }
-
-        // Initialize the cache (should be already done)
-        if (routingCache == null) {
-            int cacheSize = net.getConnectedNodes().size();
-            routingCache = new LinkedHashMap[cacheSize][cacheSize]; // OK for the warning
+        Table t = table();
+        int from = t.uplinks.get(n1.id());
+        int to = t.uplinks.get(n2.id());
+        if (!t.connected(from, to)) {
+            return LinkDirection.NONE;
         }
-
-        // Fill the appropriate cache entry from getPath method if needed
-        if (routingCache[n1.id()][n2.id()] == null) {
-            getPath(n1, n2);
+        // Leaving the source node, the link is crossed towards its switch
+        if (t.links[from].equals(l)) {
+            return LinkDirection.DOWNLINK;
         }
-
-        // Link is not on route!
-        if (!routingCache[n1.id()][n2.id()].containsKey(l)) {
-            return LinkDirection.NONE;
+        int dst = t.hosts[to];
+        for (int sw = t.hosts[from]; sw != dst; ) {
+            int lnk = t.nextHop[dst][sw];
+            int nextSw = t.next(sw, dst);
+            if (t.links[lnk].equals(l)) {
+                return t.hosts[lnk] == nextSw ? LinkDirection.DOWNLINK : LinkDirection.UPLINK;
+            }
+            sw = nextSw;
         }
-
-        // Return the direction if the given link in on path
-        if (routingCache[n1.id()][n2.id()].containsKey(l)) {
-            return routingCache[n1.id()][n2.id()].get(l) ?
-                    LinkDirection.DOWNLINK : LinkDirection.UPLINK;
+        // Reaching the destination node, the link is crossed from its switch
+        if (t.links[to].equals(l)) {
+            return LinkDirection.UPLINK;
         }
+        // Link is not on route!
         return LinkDirection.NONE;
     }
 
+    @Override
+    public int getMaxBW(Node n1, Node n2) {
+        if (net == null || n1.equals(n2)) {
+            return Integer.MAX_VALUE;
+        }
+        Table t = table();
+        int from = t.uplinks.get(n1.id());
+        int to = t.uplinks.get(n2.id());
+        if (!t.connected(from, to)) {
+            return Integer.MAX_VALUE;
+        }
+        int dst = t.hosts[to];
+        return Math.min(Math.min(t.bw[from], t.bw[to]), t.bottleneck[dst][t.hosts[from]]);
+    }
+
     @Override
     public Routing copy() {
         DefaultRouting clone = new DefaultRouting();
         clone.net = net; // Do not associate view->routing, only routing->view
+        clone.table = table;
         return clone;
     }
+
+    /**
+     * The routing tables. Links and switches are denoted by their position
+     * in the internal arrays.
+     */
+    private static final class Table {
+
+        private static final int NONE = -1;
+
+        private final int nbLinks;
+
+        private final Link[] links;
+
+        /**
+         * The main switch of each link.
+         */
+        private final int[] hosts;
+
+        /**
+         * The secondary switch of each link, {@link #NONE} if the link connects a node.
+         */
+        private final int[] peers;
+
+        /**
+         * The bandwidth of each link, restricted by the capacity of its main switch.
+         */
+        private final int[] bw;
+
+        /**
+         * The link that connects each node to its switch (by node identifier).
+         */
+        private final TIntIntHashMap uplinks = new TIntIntHashMap(10, 0.5f, NONE, NONE);
+
+        /**
+         * {@code nextHop[dst][sw]}: the link to take on {@code sw} to go to {@code dst}.
+         */
+        private final int[][] nextHop;
+
+        /**
+         * {@code bottleneck[dst][sw]}: the maximal bandwidth between {@code sw} and {@code dst}.
+         */
+        private final int[][] bottleneck;
+
+        Table(List<Link> lnks) {
+            nbLinks = lnks.size();
+            links = lnks.toArray(new Link[0]);
+            hosts = new int[nbLinks];
+            peers = new int[nbLinks];
+            bw = new int[nbLinks];
+            TIntIntHashMap switches = new TIntIntHashMap(10, 0.5f, NONE, NONE);
+            int[] degrees = new int[2 * nbLinks];
+            for (int l = 0; l < nbLinks; l++) {
+                Link lnk = links[l];
+                hosts[l] = index(switches, lnk.getSwitch());
+                if (lnk.getElement() instanceof Switch) {
+                    peers[l] = index(switches, (Switch) lnk.getElement());
+                    degrees[hosts[l]]++;
+                    degrees[peers[l]]++;
+                } else {
+                    peers[l] = NONE;
+                    if (lnk.getElement() instanceof Node) {
+                        uplinks.putIfAbsent(((Node) lnk.getElement()).id(), l);
+                    }
+                }
+                int swCapa = lnk.getSwitch().getCapacity();
+                //The >= 0 stays for historical reasons
+                bw[l] = swCapa >= 0 ? Math.min(lnk.getCapacity(), swCapa) : lnk.getCapacity();
+            }
+
+            // Switch to switch links, per switch
+            int nbSwitches = switches.size();
+            int[][] adj = new int[nbSwitches][];
+            for (int s = 0; s < nbSwitches; s++) {
+                adj[s] = new int[degrees[s]];
+                degrees[s] = 0;
+            }
+            for (int l = 0; l < nbLinks; l++) {
+                if (peers[l] != NONE) {
+                    adj[hosts[l]][degrees[hosts[l]]++] = l;
+                    adj[peers[l]][degrees[peers[l]]++] = l;
+                }
+            }
+
+            nextHop = new int[nbSwitches][nbSwitches];
+            bottleneck = new int[nbSwitches][nbSwitches];
+            int[] queue = new int[nbSwitches];
+            for (int dst = 0; dst < nbSwitches; dst++) {
+                bfs(dst, adj, degrees, queue);
+            }
+        }
+
+        private static int index(TIntIntHashMap switches, Switch sw) {
+            int idx = switches.get(sw.id());
+            if (idx == NONE) {
+                idx = switches.size();
+                switches.put(sw.id(), idx);
+            }
+            return idx;
+        }
+
+        /**
+         * Compute the next hops and the bottlenecks towards a switch.
+         */
+        private void bfs(int dst, int[][] adj, int[] degrees, int[] queue) {
+            int[] hops = nextHop[dst];
+            int[] bots = bottleneck[dst];
+            Arrays.fill(hops, NONE);
+            bots[dst] = Integer.MAX_VALUE;
+            queue[0] = dst;
+            int head = 0;
+            int tail = 1;
+            while (head < tail) {
+                int sw = queue[head++];
+                for (int i = 0; i < degrees[sw]; i++) {
+                    int l = adj[sw][i];
+                    int other = hosts[l] == sw ? peers[l] : hosts[l];
+                    if (other != dst && hops[other] == NONE) {
+                        hops[other] = l;
+                        bots[other] = Math.min(bw[l], bots[sw]);
+                        queue[tail++] = other;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Get the next switch on the way to a destination switch.
+         */
+        int next(int sw, int dst) {
+            int l = nextHop[dst][sw];
+            return hosts[l] == sw ? peers[l] : hosts[l];
+        }
+
+        /**
+         * Check if two node links are connected through the switches.
+         */
+        boolean connected(int from, int to) {
+            if (from == NONE || to == NONE) {
+                return false;
+            }
+            return hosts[from] == hosts[to] || nextHop[hosts[to]][hosts[from]] != NONE;
+        }
+
+        /**
+         * The number of links between two node links, included.
+         */
+        int length(int from, int to) {
+            int dst = hosts[to];
+            int nb = 2;
+            for (int sw = hosts[from]; sw != dst; sw = next(sw, dst)) {
+                nb++;
+            }
+            return nb;
+        }
+    }
 }
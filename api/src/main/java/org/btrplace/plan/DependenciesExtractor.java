@@ -58,12 +58,24 @@ public class DependenciesExtractor implements ActionVisitor {
         origin = o;
     }
 
-    private Set<Action> getFreeings(Node u) {
+    /**
+     * Get the actions that free resources on a node.
+     *
+     * @param u the node
+     * @return a set of actions that may be empty
+     */
+    Set<Action> getFreeings(Node u) {
         freeing.putIfAbsent(u, new HashSet<>());
         return freeing.get(u);
     }
 
-    private Set<Action> getDemandings(Node u) {
+    /**
+     * Get the actions that demand resources on a node.
+     *
+     * @param u the node
+     * @return a set of actions that may be empty
+     */
+    Set<Action> getDemandings(Node u) {
         demanding.putIfAbsent(u, new HashSet<>());
         return demanding.get(u);
     }
@@ -152,6 +164,27 @@ public class DependenciesExtractor implements ActionVisitor {
         throw new UnsupportedOperationException();
     }
 
+    /**
+     * Get the node an action demands resources on.
+     *
+     * @param a the action
+     * @return the node if the action is demanding. {@code null} otherwise
+     */
+    Node getDemandingNode(Action a) {
+        return demandingNodes.get(a);
+    }
+
+    /**
+     * Get the nodes manipulated by the registered actions.
+     *
+     * @return a set of nodes that may be empty
+     */
+    Set<Node> getNodes() {
+        Set<Node> nodes = new HashSet<>(freeing.keySet());
+        nodes.addAll(demanding.keySet());
+        return nodes;
+    }
+
     /**
      * Get the dependencies for an action.
      *
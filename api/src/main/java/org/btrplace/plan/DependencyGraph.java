@@ -0,0 +1,331 @@
+/*
+ * Copyright  2026 The BtrPlace Authors. All rights reserved.
+ * Use of this source code is governed by a LGPL-style
+ * license that can be found in the LICENSE.txt file.
+ */
+
+package org.btrplace.plan;
+
+import gnu.trove.map.hash.TIntIntHashMap;
+import gnu.trove.map.hash.TObjectIntHashMap;
+import org.btrplace.model.Node;
+import org.btrplace.plan.event.Action;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The dependency graph of the actions composing a reconfiguration plan.
+ * <p>
+ * An action demanding resources on a node depends on the actions that free resources on this node
+ * and that terminate before it starts, as stated by {@link DependenciesExtractor}. Contrary to
+ * {@link ReconfigurationPlan#getDirectDependencies(Action)}, the graph is computed once: the freeing
+ * actions are indexed by node and sorted by their end moment so the dependencies of an action are
+ * retrieved using a binary search. The arcs are then stored into primitive arrays.
+ * <p>
+ * The graph provides the critical path of the plan, the number of actions manipulating each node
+ * and the number of pending dependencies per action to drive a parallel execution of the plan.
+ *
+ * @author Fabien Hermenier
+ */
+public class DependencyGraph {
+
+    private static final Comparator<Action> STARTS_CMP = Comparator.comparingInt(Action::getStart).thenComparingInt(Action::getEnd);
+
+    private static final Comparator<Action> ENDS_CMP = Comparator.comparingInt(Action::getEnd).thenComparingInt(Action::getStart);
+
+    /**
+     * The actions, sorted by start moment.
+     */
+    private final Action[] actions;
+
+    private final TObjectIntHashMap<Action> positions;
+
+    /**
+     * The dependencies of action {@code i} are in {@code preds[predIdx[i] .. predIdx[i + 1]]}.
+     */
+    private final int[] predIdx;
+
+    private final int[] preds;
+
+    /**
+     * The dependents of action {@code i} are in {@code succs[succIdx[i] .. succIdx[i + 1]]}.
+     */
+    private final int[] succIdx;
+
+    private final int[] succs;
+
+    /**
+     * The number of actions manipulating each node, by node identifier.
+     */
+    private final TIntIntHashMap nbActions;
+
+    /**
+     * Make a new graph.
+     *
+     * @param p the plan to analyse
+     */
+    public DependencyGraph(ReconfigurationPlan p) {
+        actions = p.getActions().toArray(new Action[0]);
+        Arrays.sort(actions, STARTS_CMP);
+        positions = new TObjectIntHashMap<>(actions.length, 0.5f, -1);
+        for (int i = 0; i < actions.length; i++) {
+            positions.put(actions[i], i);
+        }
+
+        DependenciesExtractor ex = new DependenciesExtractor(p.getOrigin());
+        for (Action a : actions) {
+            a.visit(ex);
+        }
+
+        //The freeing actions of each node, sorted by end moment
+        nbActions = new TIntIntHashMap();
+        List<Action[]> freeings = new ArrayList<>();
+        TIntIntHashMap nodeIdx = new TIntIntHashMap(16, 0.5f, -1, -1);
+        for (Node n : ex.getNodes()) {
+            if (n == null) {
+                continue;
+            }
+            Set<Action> free = ex.getFreeings(n);
+            Set<Action> dem = ex.getDemandings(n);
+            int nb = free.size() + dem.size();
+            for (Action a : free) {
+                if (dem.contains(a)) {
+                    nb--;
+                }
+            }
+            nbActions.put(n.id(), nb);
+            Action[] sorted = free.toArray(new Action[0]);
+            Arrays.sort(sorted, ENDS_CMP);
+            nodeIdx.put(n.id(), freeings.size());
+            freeings.add(sorted);
+        }
+
+        //The dependencies: a prefix of the freeing actions on the demanding node
+        predIdx = new int[actions.length + 1];
+        int[] nbSuccs = new int[actions.length];
+        int[] tmp = new int[16];
+        int nbArcs = 0;
+        for (int i = 0; i < actions.length; i++) {
+            predIdx[i] = nbArcs;
+            Node n = ex.getDemandingNode(actions[i]);
+            if (n == null) {
+                continue;
+            }
+            Action[] free = freeings.get(nodeIdx.get(n.id()));
+            int to = lastEndingBefore(free, actions[i].getStart());
+            for (int j = 0; j < to; j++) {
+                if (free[j] == actions[i]) {
+                    continue;
+                }
+                if (nbArcs == tmp.length) {
+                    tmp = Arrays.copyOf(tmp, tmp.length * 2);
+                }
+                int pred = positions.get(free[j]);
+                tmp[nbArcs++] = pred;
+                nbSuccs[pred]++;
+            }
+        }
+        predIdx[actions.length] = nbArcs;
+        preds = Arrays.copyOf(tmp, nbArcs);
+
+        //The reverse arcs
+        succIdx = new int[actions.length + 1];
+        for (int i = 0; i < actions.length; i++) {
+            succIdx[i + 1] = succIdx[i] + nbSuccs[i];
+        }
+        succs = new int[nbArcs];
+        int[] fill = Arrays.copyOf(succIdx, actions.length);
+        for (int i = 0; i < actions.length; i++) {
+            for (int x = predIdx[i]; x < predIdx[i + 1]; x++) {
+                succs[fill[preds[x]]++] = i;
+            }
+        }
+    }
+
+    /**
+     * Get the number of actions having an end moment lower or equals to a given moment.
+     */
+    private static int lastEndingBefore(Action[] sorted, int moment) {
+        int lb = 0;
+        int ub = sorted.length;
+        while (lb < ub) {
+            int mid = (lb + ub) >>> 1;
+            if (sorted[mid].getEnd() <= moment) {
+                lb = mid + 1;
+            } else {
+                ub = mid;
+            }
+        }
+        return lb;
+    }
+
+    /**
+     * Get the number of actions in the graph.
+     *
+     * @return a positive integer
+     */
+    public int size() {
+        return actions.length;
+    }
+
+    /**
+     * Get the actions, sorted by increasing start moment.
+     *
+     * @return a list of actions that may be empty
+     */
+    public List<Action> getActions() {
+        return Collections.unmodifiableList(Arrays.asList(actions));
+    }
+
+    /**
+     * Get an action from its position.
+     *
+     * @param i the position of the action
+     * @return the action
+     */
+    public Action getAction(int i) {
+        return actions[i];
+    }
+
+    /**
+     * Get the position of an action.
+     *
+     * @param a the action
+     * @return the position of the action, {@code -1} if the action is not in the graph
+     */
+    public int getPosition(Action a) {
+        return positions.get(a);
+    }
+
+    /**
+     * Get the actions an action depends on.
+     *
+     * @param a the action
+     * @return a set of actions that may be empty
+     */
+    public Set<Action> getDependencies(Action a) {
+        return collect(predIdx, preds, positions.get(a));
+    }
+
+    /**
+     * Get the actions that depend on an action.
+     *
+     * @param a the action
+     * @return a set of actions that may be empty
+     */
+    public Set<Action> getDependents(Action a) {
+        return collect(succIdx, succs, positions.get(a));
+    }
+
+    private Set<Action> collect(int[] idx, int[] arcs, int i) {
+        if (i < 0 || idx[i] == idx[i + 1]) {
+            return Collections.emptySet();
+        }
+        Set<Action> res = new HashSet<>();
+        for (int x = idx[i]; x < idx[i + 1]; x++) {
+            res.add(actions[arcs[x]]);
+        }
+        return res;
+    }
+
+    /**
+     * Get the number of actions an action depends on.
+     *
+     * @param i the position of the action
+     * @return a positive integer
+     */
+    public int getNbDependencies(int i) {
+        return predIdx[i + 1] - predIdx[i];
+    }
+
+    /**
+     * Get the position of the actions that depend on an action.
+     *
+     * @param i the position of the action
+     * @return the positions
+     */
+    public int[] getDependents(int i) {
+        return Arrays.copyOfRange(succs, succIdx[i], succIdx[i + 1]);
+    }
+
+    /**
+     * Get the number of actions that manipulate a given node.
+     *
+     * @param n the node
+     * @return a positive integer
+     */
+    public int getNbActions(Node n) {
+        return nbActions.get(n.id());
+    }
+
+    /**
+     * Get the critical path of the plan.
+     * This is the chain of dependent actions having the largest cumulative duration.
+     * It is the minimum duration of the plan if each action starts as soon
+     * as its dependencies are completed.
+     *
+     * @return the actions on the path, in execution order. Empty if the plan is empty
+     */
+    public List<Action> getCriticalPath() {
+        if (actions.length == 0) {
+            return Collections.emptyList();
+        }
+        int[] finish = new int[actions.length];
+        int[] prev = new int[actions.length];
+        Arrays.fill(prev, -1);
+        //Browse the actions in topological order
+        int[] pending = new int[actions.length];
+        int[] queue = new int[actions.length];
+        int nbQueued = 0;
+        for (int i = 0; i < actions.length; i++) {
+            pending[i] = getNbDependencies(i);
+            if (pending[i] == 0) {
+                queue[nbQueued++] = i;
+            }
+        }
+        int last = -1;
+        for (int head = 0; head < nbQueued; head++) {
+            int i = queue[head];
+            finish[i] += actions[i].getEnd() - actions[i].getStart();
+            if (last < 0 || finish[i] > finish[last]) {
+                last = i;
+            }
+            for (int x = succIdx[i]; x < succIdx[i + 1]; x++) {
+                int s = succs[x];
+                if (prev[s] < 0 || finish[i] > finish[s]) {
+                    finish[s] = finish[i];
+                    prev[s] = i;
+                }
+                if (--pending[s] == 0) {
+                    queue[nbQueued++] = s;
+                }
+            }
+        }
+        List<Action> path = new ArrayList<>();
+        for (int i = last; i >= 0; i = prev[i]) {
+            path.add(actions[i]);
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * Get the duration of the critical path.
+     *
+     * @return a positive integer
+     * @see #getCriticalPath()
+     */
+    public int getCriticalPathDuration() {
+        int d = 0;
+        for (Action a : getCriticalPath()) {
+            d += a.getEnd() - a.getStart();
+        }
+        return d;
+    }
+}
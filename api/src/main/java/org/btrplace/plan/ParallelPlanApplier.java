@@ -0,0 +1,201 @@
+/*
+ * Copyright  2026 The BtrPlace Authors. All rights reserved.
+ * Use of this source code is governed by a LGPL-style
+ * license that can be found in the LICENSE.txt file.
+ */
+
+package org.btrplace.plan;
+
+import org.btrplace.model.Model;
+import org.btrplace.plan.event.Action;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A plan applier that relies on the {@link DependencyGraph} of the plan
+ * to execute the independent actions in parallel.
+ * <p>
+ * An action is executed once all its dependencies have been executed.
+ * <p>
+ * This applier is a concurrent notifier: the model is not thread-safe so the actions are applied
+ * one at a time on the resulting model, under its lock, while the listeners are notified in parallel,
+ * outside of the lock. It pays off when the listeners are the costly part, for example when they
+ * execute the actions on the real infrastructure. The listeners must then be thread-safe.
+ * A {@link RuntimeException} thrown by an action or a listener stops the execution and is rethrown
+ * by {@link #apply(ReconfigurationPlan)}.
+ *
+ * @author Fabien Hermenier
+ */
+public class ParallelPlanApplier extends DefaultPlanApplier {
+
+    private int nbWorkers;
+
+    /**
+     * Make a new applier that uses one worker per available processor.
+     */
+    public ParallelPlanApplier() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Make a new applier.
+     *
+     * @param w the number of workers. A value &gt; 0
+     */
+    public ParallelPlanApplier(int w) {
+        nbWorkers = w;
+    }
+
+    /**
+     * Get the number of workers.
+     *
+     * @return a value &gt; 0
+     */
+    public int getNbWorkers() {
+        return nbWorkers;
+    }
+
+    /**
+     * Set the number of workers.
+     *
+     * @param w a value &gt; 0
+     */
+    public void setNbWorkers(int w) {
+        nbWorkers = w;
+    }
+
+    @Override
+    public Model apply(ReconfigurationPlan p) {
+        DependencyGraph g = new DependencyGraph(p);
+        Model res = p.getOrigin().copy();
+        if (g.size() == 0) {
+            return res;
+        }
+        Execution exec = new Execution(g, res);
+        ExecutorService exe = Executors.newFixedThreadPool(nbWorkers);
+        try {
+            return exec.run(exe) ? res : null;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return null;
+        } finally {
+            exe.shutdownNow();
+        }
+    }
+
+    @Override
+    public String toString(ReconfigurationPlan p) {
+        DependencyGraph g = new DependencyGraph(p);
+        StringBuilder b = new StringBuilder();
+        for (Action a : g.getActions()) {
+            b.append(String.format("%s -> %s%n", g.getDependencies(a), a));
+        }
+        return b.toString();
+    }
+
+    /**
+     * The execution of a plan.
+     */
+    private class Execution {
+
+        private final DependencyGraph graph;
+
+        private final Model model;
+
+        /**
+         * The number of dependencies that are not executed yet, per action.
+         */
+        private final AtomicIntegerArray pending;
+
+        private final CountDownLatch done;
+
+        private final AtomicBoolean failed;
+
+        /**
+         * The first exception thrown by an action or a listener.
+         */
+        private final AtomicReference<RuntimeException> error;
+
+        private ExecutorService executor;
+
+        Execution(DependencyGraph g, Model mo) {
+            graph = g;
+            model = mo;
+            pending = new AtomicIntegerArray(g.size());
+            done = new CountDownLatch(g.size());
+            failed = new AtomicBoolean(false);
+            error = new AtomicReference<>();
+        }
+
+        boolean run(ExecutorService exe) throws InterruptedException {
+            executor = exe;
+            for (int i = 0; i < graph.size(); i++) {
+                pending.set(i, graph.getNbDependencies(i));
+            }
+            for (int i = 0; i < graph.size(); i++) {
+                if (graph.getNbDependencies(i) == 0) {
+                    submit(i);
+                }
+            }
+            done.await();
+            RuntimeException ex = error.get();
+            if (ex != null) {
+                throw ex;
+            }
+            return !failed.get();
+        }
+
+        private void submit(int i) {
+            try {
+                executor.execute(() -> execute(i));
+            } catch (RejectedExecutionException ex) {
+                abort();
+            }
+        }
+
+        private void execute(int i) {
+            if (failed.get()) {
+                return;
+            }
+            Action a = graph.getAction(i);
+            try {
+                boolean ok;
+                synchronized (model) {
+                    ok = a.apply(model);
+                }
+                if (!ok) {
+                    abort();
+                    return;
+                }
+                fireAction(a);
+            } catch (RuntimeException ex) {
+                //The execution must not hang. The exception is rethrown once the workers are joined
+                error.compareAndSet(null, ex);
+                abort();
+                return;
+            }
+            for (int s : graph.getDependents(i)) {
+                if (pending.decrementAndGet(s) == 0) {
+                    submit(s);
+                }
+            }
+            done.countDown();
+        }
+
+        /**
+         * Stop the execution as an action cannot be applied.
+         */
+        private void abort() {
+            failed.set(true);
+            while (done.getCount() > 0) {
+                done.countDown();
+            }
+        }
+    }
+}
@@ -6,7 +6,11 @@
 
 package org.btrplace.plan;
 
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.hash.TIntObjectHashMap;
 import org.btrplace.model.Model;
+import org.btrplace.model.Node;
+import org.btrplace.model.VM;
 import org.btrplace.model.constraint.SatConstraint;
 import org.btrplace.model.constraint.SatConstraintChecker;
 import org.btrplace.plan.event.Action;
@@ -27,19 +31,25 @@ import org.btrplace.plan.event.SuspendVM;
 import org.btrplace.scheduler.InconsistentSolutionException;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
-import java.util.PriorityQueue;
 
 /**
  * Checker to verify if a reconfiguration plan satisfies a set of
  * {@link org.btrplace.model.constraint.SatConstraintChecker}.
  * <p>
  * In practice, the origin model is send to each of the checkers.
- * Then it notifies all the checkers for the beginning and the end moment of each of the actions and events.
+ * Then it notifies the checkers for the beginning and the end moment of each of the actions and events.
  * Finally, it sends the resulting model to each of the checkers.
  * <p>
  * Actions start and end moment are notified in the increasing order of their associated moment with
  * a priority given to the end moments.
+ * <p>
+ * The checkers that are {@link SatConstraintChecker#isLocal()} are indexed by the VMs and the nodes involved
+ * in their constraint. They are only notified about the actions and the events that manipulate one of
+ * these elements. The other checkers are notified about every action and event.
+ * In any case, the checkers are notified in the order they have been added.
  *
  * @author Fabien Hermenier
  */
@@ -47,15 +57,49 @@ public class ReconfigurationPlanChecker implements ActionVisitor {
 
     private boolean startingEvent = true;
 
-    private static final TimedBasedActionComparator STARTS_CMP = new TimedBasedActionComparator(true, true);
-  private static final TimedBasedActionComparator ENDS_CMP = new TimedBasedActionComparator(false, true);
-  private final List<SatConstraintChecker<?>> checkers;
+    private static final Comparator<Action> STARTS_CMP = Comparator.comparingInt(Action::getStart).thenComparingInt(Action::getEnd);
+
+    private static final Comparator<Action> ENDS_CMP = Comparator.comparingInt(Action::getEnd).thenComparingInt(Action::getStart);
+
+    private final List<SatConstraintChecker<?>> checkers;
+
+    /**
+     * The position of the checkers to notify about every action.
+     */
+    private final TIntArrayList globals;
+
+    /**
+     * The position of the local checkers, by VM identifier.
+     */
+    private final TIntObjectHashMap<TIntArrayList> byVM;
+
+    /**
+     * The position of the local checkers, by node identifier.
+     */
+    private final TIntObjectHashMap<TIntArrayList> byNode;
+
+    /**
+     * The position of the checkers to notify about the current action or event.
+     */
+    private final TIntArrayList woken;
+
+    /**
+     * The last wake-up a checker participated to, to notify it once.
+     */
+    private int[] stamps;
+
+    private int stamp;
 
     /**
      * Make a new instance.
      */
     public ReconfigurationPlanChecker() {
         checkers = new ArrayList<>();
+        globals = new TIntArrayList();
+        byVM = new TIntObjectHashMap<>();
+        byNode = new TIntObjectHashMap<>();
+        woken = new TIntArrayList();
+        stamps = new int[0];
     }
 
     /**
@@ -80,7 +124,9 @@ public class ReconfigurationPlanChecker implements ActionVisitor {
 
     @Override
     public SatConstraint visit(Allocate a) {
-        for (SatConstraintChecker<?> c : checkers) {
+        TIntArrayList ws = wake(a.getVM(), a.getHost(), null);
+        for (int i = 0; i < ws.size(); i++) {
+            SatConstraintChecker<?> c = checkers.get(ws.getQuick(i));
             if (startingEvent) {
                 if (!c.start(a)) {
                     return c.getConstraint();
@@ -94,7 +140,9 @@ public class ReconfigurationPlanChecker implements ActionVisitor {
 
     @Override
     public Object visit(AllocateEvent a) {
-        for (SatConstraintChecker<?> c : checkers) {
+        TIntArrayList ws = wake(a.getVM(), null, null);
+        for (int i = 0; i < ws.size(); i++) {
+            SatConstraintChecker<?> c = checkers.get(ws.getQuick(i));
             if (!c.consume(a)) {
                 return c.getConstraint();
             }
@@ -104,6 +152,21 @@ public class ReconfigurationPlanChecker implements ActionVisitor {
 
     @Override
     public SatConstraint visit(SubstitutedVMEvent a) {
+        //The local checkers focusing on the old VM now focus on the new one too
+        TIntArrayList olds = byVM.get(a.getVM().id());
+        if (olds != null) {
+            TIntArrayList news = byVM.get(a.getNewVM().id());
+            if (news == null) {
+                byVM.put(a.getNewVM().id(), new TIntArrayList(olds));
+            } else {
+                for (int i = 0; i < olds.size(); i++) {
+                    if (!news.contains(olds.getQuick(i))) {
+                        news.add(olds.getQuick(i));
+                    }
+                }
+            }
+        }
+        //Every checker maintains its own view of the VMs, so they are all notified
         for (SatConstraintChecker<?> c : checkers) {
             if (!c.consume(a)) {
                 return c.getConstraint();
@@ -114,7 +177,9 @@ public class ReconfigurationPlanChecker implements ActionVisitor {
 
     @Override
     public SatConstraint visit(BootNode a) {
-        for (SatConstraintChecker<?> c : checkers) {
+        TIntArrayList ws = wake(null, a.getNode(), null);
+        for (int i = 0; i < ws.size(); i++) {
+            SatConstraintChecker<?> c = checkers.get(ws.getQuick(i));
             if (startingEvent) {
                 if (!c.start(a)) {
                     return c.getConstraint();
@@ -129,7 +194,9 @@ public class ReconfigurationPlanChecker implements ActionVisitor {
 
     @Override
     public SatConstraint visit(BootVM a) {
-        for (SatConstraintChecker<?> c : checkers) {
+        TIntArrayList ws = wake(a.getVM(), a.getDestinationNode(), null);
+        for (int i = 0; i < ws.size(); i++) {
+            SatConstraintChecker<?> c = checkers.get(ws.getQuick(i));
             if (startingEvent) {
                 if (!c.start(a)) {
                     return c.getConstraint();
@@ -144,7 +211,9 @@ public class ReconfigurationPlanChecker implements ActionVisitor {
 
     @Override
     public SatConstraint visit(ForgeVM a) {
-        for (SatConstraintChecker<?> c : checkers) {
+        TIntArrayList ws = wake(a.getVM(), null, null);
+        for (int i = 0; i < ws.size(); i++) {
+            SatConstraintChecker<?> c = checkers.get(ws.getQuick(i));
             if (startingEvent) {
                 if (!c.start(a)) {
                     return c.getConstraint();
@@ -159,7 +228,9 @@ public class ReconfigurationPlanChecker implements ActionVisitor {
 
     @Override
     public SatConstraint visit(KillVM a) {
-        for (SatConstraintChecker<?> c : checkers) {
+        TIntArrayList ws = wake(a.getVM(), a.getNode(), null);
+        for (int i = 0; i < ws.size(); i++) {
+            SatConstraintChecker<?> c = checkers.get(ws.getQuick(i));
             if (startingEvent) {
                 if (!c.start(a)) {
                     return c.getConstraint();
@@ -173,7 +244,9 @@ public class ReconfigurationPlanChecker implements ActionVisitor {
 
     @Override
     public SatConstraint visit(MigrateVM a) {
-        for (SatConstraintChecker<?> c : checkers) {
+        TIntArrayList ws = wake(a.getVM(), a.getSourceNode(), a.getDestinationNode());
+        for (int i = 0; i < ws.size(); i++) {
+            SatConstraintChecker<?> c = checkers.get(ws.getQuick(i));
             if (startingEvent) {
                 if (!c.start(a)) {
                     return c.getConstraint();
@@ -187,7 +260,9 @@ public class ReconfigurationPlanChecker implements ActionVisitor {
 
     @Override
     public Object visit(ResumeVM a) {
-        for (SatConstraintChecker<?> c : checkers) {
+        TIntArrayList ws = wake(a.getVM(), a.getSourceNode(), a.getDestinationNode());
+        for (int i = 0; i < ws.size(); i++) {
+            SatConstraintChecker<?> c = checkers.get(ws.getQuick(i));
             if (startingEvent) {
                 if (!c.start(a)) {
                     return c.getConstraint();
@@ -201,7 +276,9 @@ public class ReconfigurationPlanChecker implements ActionVisitor {
 
     @Override
     public Object visit(ShutdownNode a) {
-        for (SatConstraintChecker<?> c : checkers) {
+        TIntArrayList ws = wake(null, a.getNode(), null);
+        for (int i = 0; i < ws.size(); i++) {
+            SatConstraintChecker<?> c = checkers.get(ws.getQuick(i));
             if (startingEvent) {
                 if (!c.start(a)) {
                     return c.getConstraint();
@@ -215,7 +292,9 @@ public class ReconfigurationPlanChecker implements ActionVisitor {
 
     @Override
     public Object visit(ShutdownVM a) {
-        for (SatConstraintChecker<?> c : checkers) {
+        TIntArrayList ws = wake(a.getVM(), a.getNode(), null);
+        for (int i = 0; i < ws.size(); i++) {
+            SatConstraintChecker<?> c = checkers.get(ws.getQuick(i));
             if (startingEvent) {
                 if (!c.start(a)) {
                     return c.getConstraint();
@@ -229,7 +308,9 @@ public class ReconfigurationPlanChecker implements ActionVisitor {
 
     @Override
     public Object visit(SuspendVM a) {
-        for (SatConstraintChecker<?> c : checkers) {
+        TIntArrayList ws = wake(a.getVM(), a.getSourceNode(), a.getDestinationNode());
+        for (int i = 0; i < ws.size(); i++) {
+            SatConstraintChecker<?> c = checkers.get(ws.getQuick(i));
             if (startingEvent) {
                 if (!c.start(a)) {
                     return c.getConstraint();
@@ -252,43 +333,36 @@ public class ReconfigurationPlanChecker implements ActionVisitor {
             return;
         }
 
+        index();
         checkModel(p.getOrigin(), true);
 
         if (!p.getActions().isEmpty()) {
-            PriorityQueue<Action> starts = new PriorityQueue<>(p.getActions().size(), STARTS_CMP);
-            PriorityQueue<Action> ends = new PriorityQueue<>(p.getActions().size(), ENDS_CMP);
-            starts.addAll(p.getActions());
-            ends.addAll(p.getActions());
+            //The timeline, sorted once
+            Action[] starts = p.getActions().toArray(new Action[0]);
+            Action[] ends = starts.clone();
+            Arrays.sort(starts, STARTS_CMP);
+            Arrays.sort(ends, ENDS_CMP);
 
             //Starts the actions
-            int curMoment = starts.peek().getStart();
-            while (!starts.isEmpty() || !ends.isEmpty()) {
-                Action a = ends.peek();
-                while (a != null && a.getEnd() == curMoment) {
-                    ends.remove();
+            int s = 0;
+            int e = 0;
+            int curMoment = starts[0].getStart();
+            while (s < starts.length || e < ends.length) {
+                while (e < ends.length && ends[e].getEnd() == curMoment) {
+                    Action a = ends[e++];
                     startingEvent = false;
                     visitAndThrowOnViolation(a);
                     visitEvents(a, Action.Hook.POST);
-                    a = ends.peek();
                 }
-                a = starts.peek();
 
-                while (a != null && a.getStart() == curMoment) {
-                    starts.remove();
+                while (s < starts.length && starts[s].getStart() == curMoment) {
+                    Action a = starts[s++];
                     startingEvent = true;
                     visitEvents(a, Action.Hook.PRE);
                     visitAndThrowOnViolation(a);
-                    a = starts.peek();
-                }
-                int nextEnd = Integer.MAX_VALUE;
-                if (!ends.isEmpty()) {
-                    nextEnd = ends.peek().getEnd();
-                }
-                int nextStart = Integer.MAX_VALUE;
-                if (!starts.isEmpty()) {
-                    nextStart = starts.peek().getStart();
                 }
-
+                int nextEnd = e < ends.length ? ends[e].getEnd() : Integer.MAX_VALUE;
+                int nextStart = s < starts.length ? starts[s].getStart() : Integer.MAX_VALUE;
                 curMoment = Math.min(nextEnd, nextStart);
             }
         }
@@ -299,6 +373,87 @@ public class ReconfigurationPlanChecker implements ActionVisitor {
         checkModel(mo, false);
     }
 
+    /**
+     * Index the checkers with regards to the elements they focus on.
+     */
+    private void index() {
+        globals.resetQuick();
+        byVM.clear();
+        byNode.clear();
+        for (int i = 0; i < checkers.size(); i++) {
+            SatConstraintChecker<?> c = checkers.get(i);
+            SatConstraint cstr = c.getConstraint();
+            if (!c.isLocal() || cstr == null) {
+                globals.add(i);
+                continue;
+            }
+            for (VM v : cstr.getInvolvedVMs()) {
+                register(byVM, v.id(), i);
+            }
+            for (Node n : cstr.getInvolvedNodes()) {
+                register(byNode, n.id(), i);
+            }
+        }
+        if (stamps.length < checkers.size()) {
+            stamps = new int[checkers.size()];
+            stamp = 0;
+        }
+    }
+
+    private static void register(TIntObjectHashMap<TIntArrayList> idx, int id, int pos) {
+        TIntArrayList l = idx.get(id);
+        if (l == null) {
+            l = new TIntArrayList(2);
+            idx.put(id, l);
+        }
+        if (l.isEmpty() || l.get(l.size() - 1) != pos) {
+            l.add(pos);
+        }
+    }
+
+    /**
+     * Get the checkers to notify about an action or an event.
+     *
+     * @param v  the manipulated VM. May be {@code null}
+     * @param n1 a manipulated node. May be {@code null}
+     * @param n2 another manipulated node. May be {@code null}
+     * @return the position of the checkers, in increasing order
+     */
+    private TIntArrayList wake(VM v, Node n1, Node n2) {
+        stamp++;
+        woken.resetQuick();
+        woken.addAll(globals);
+        boolean locals = false;
+        if (v != null) {
+            locals = collect(byVM.get(v.id()));
+        }
+        if (n1 != null) {
+            locals |= collect(byNode.get(n1.id()));
+        }
+        if (n2 != null) {
+            locals |= collect(byNode.get(n2.id()));
+        }
+        if (locals) {
+            //Notify in the order the checkers have been added
+            woken.sort();
+        }
+        return woken;
+    }
+
+    private boolean collect(TIntArrayList positions) {
+        if (positions == null) {
+            return false;
+        }
+        for (int i = 0; i < positions.size(); i++) {
+            int pos = positions.getQuick(i);
+            if (stamps[pos] != stamp) {
+                stamps[pos] = stamp;
+                woken.add(pos);
+            }
+        }
+        return true;
+    }
+
     private void visitAndThrowOnViolation(Action a) throws SatConstraintViolationException {
         SatConstraint c = (SatConstraint) a.visit(this);
         if (c != null) {
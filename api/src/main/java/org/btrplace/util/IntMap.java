@@ -37,6 +37,11 @@ public class IntMap {
      */
     private int lastKey;
 
+    /**
+     * {@code true} if the value backend is shared with a copy.
+     */
+    private volatile boolean shared;
+
     private int count;
     /**
      * New map.
@@ -68,10 +73,22 @@ public class IntMap {
      * @param backend the backend.
      */
     private IntMap(final IntMap backend) {
-        this.values = Arrays.copyOf(backend.values, backend.values.length);
+        this.values = backend.values;
         this.noValue = backend.noValue;
         this.lastKey = backend.lastKey;
         this.count = backend.count;
+        this.shared = true;
+        backend.shared = true;
+    }
+
+    /**
+     * Get a private copy of the value backend before a write, if it is shared.
+     */
+    private void own() {
+        if (shared) {
+            values = values.clone();
+            shared = false;
+        }
     }
 
     /**
@@ -84,6 +101,7 @@ public class IntMap {
             int[] bigger = Arrays.copyOf(values, newSize);
             Arrays.fill(bigger, values.length, newSize, noValue);
             values = bigger;
+            shared = false;
         }
     }
 
@@ -146,6 +164,7 @@ public class IntMap {
             // 50% grow at minimum, up to key.
             expand(Math.max(key + 1, curCap + curCap / 2));
         }
+        own();
         int old = values[key];
         if (values[key] == noValue) {
             // put a new key.
@@ -168,12 +187,17 @@ public class IntMap {
             // Unknown key.
             return noValue;
         }
+        own();
         values[key] += value;
         return values[key];
     }
 
     /**
      * Returns a copy of the map.
+     * The copy is made in constant time: the two maps share their backend
+     * until one of them is modified.
+     * This map is only flagged as shared so it can be copied concurrently
+     * as long as it is not modified.
      *
      * @return a clean copy.
      */
@@ -189,6 +213,7 @@ public class IntMap {
      */
     public int clear(final int key) {
         if (key >= 0 && key < values.length) {
+            own();
             int old = values[key];
             values[key] = noValue;
             if (old != noValue) {
@@ -203,6 +228,7 @@ public class IntMap {
      * Clear the map.
      */
     public void clear() {
+        own();
         Arrays.fill(values, noValue);
         lastKey = 0;
         count = 0;
@@ -37,6 +37,11 @@ public class IntObjectMap<V> {
      */
     private int lastKey;
 
+    /**
+     * {@code true} if the value backend is shared with a copy.
+     */
+    private volatile boolean shared;
+
     /**
      * Number of entries in the map.
      */
@@ -80,9 +85,21 @@ public class IntObjectMap<V> {
      */
     private IntObjectMap(final IntObjectMap<V> backend) {
         this.noValue = backend.noValue;
-        this.values = Arrays.copyOf(backend.values, backend.values.length);
+        this.values = backend.values;
         this.lastKey = backend.lastKey;
         this.count = backend.count;
+        this.shared = true;
+        backend.shared = true;
+    }
+
+    /**
+     * Get a private copy of the value backend before a write, if it is shared.
+     */
+    private void own() {
+        if (shared) {
+            values = values.clone();
+            shared = false;
+        }
     }
 
     /**
@@ -95,6 +112,7 @@ public class IntObjectMap<V> {
             V[] bigger = Arrays.copyOf(values, newSize);
             Arrays.fill(bigger, values.length, newSize, noValue);
             values = bigger;
+            shared = false;
         }
     }
 
@@ -157,6 +175,7 @@ public class IntObjectMap<V> {
             // 50% grow at minimum, up to key.
             expand(Math.max(key + 1, curCap + curCap / 2));
         }
+        own();
         V old = values[key];
         if (old == noValue) {
             // put a new key.
@@ -170,6 +189,10 @@ public class IntObjectMap<V> {
     /**
      * Returns a copy of the map.
      * The values associated to the keys are not copied.
+     * The copy is made in constant time: the two maps share their backend
+     * until one of them is modified.
+     * This map is only flagged as shared so it can be copied concurrently
+     * as long as it is not modified.
      *
      * @return a copy.
      */
@@ -185,6 +208,7 @@ public class IntObjectMap<V> {
      */
     public V clear(final int key) {
         if (key >= 0 && key < values.length) {
+            own();
             V old = values[key];
             values[key] = noValue;
             if (old != noValue) {
@@ -199,6 +223,7 @@ public class IntObjectMap<V> {
      * Clear the map.
      */
     public void clear() {
+        own();
         Arrays.fill(values, noValue);
         count = 0;
     }
@@ -0,0 +1,102 @@
+/*
+ * Copyright  2026 The BtrPlace Authors. All rights reserved.
+ * Use of this source code is governed by a LGPL-style
+ * license that can be found in the LICENSE.txt file.
+ */
+
+package org.btrplace.model;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+/**
+ * Unit tests for {@link ColumnarAttributes}.
+ *
+ * @author Fabien Hermenier
+ */
+public class ColumnarAttributesTest {
+
+    @Test
+    public void testTypedAccessors() {
+        ColumnarAttributes attrs = new ColumnarAttributes();
+        AttributeKey mem = AttributeKey.of("memUsed");
+        Assert.assertSame(AttributeKey.of("memUsed"), mem);
+        Assert.assertEquals(mem.name(), "memUsed");
+
+        VM v = new VM(3);
+        Node n = new Node(3);
+        Assert.assertFalse(attrs.put(v, mem, 512));
+        Assert.assertTrue(attrs.put(v, mem, 1024));
+        Assert.assertEquals(attrs.get(v, mem, -1), 1024);
+        Assert.assertEquals(attrs.get(v, mem, -1.0), 1024.0);
+        Assert.assertEquals(attrs.get(v, "memUsed", -1), 1024);
+        //Nodes and VMs have distinct columns
+        Assert.assertFalse(attrs.isSet(n, mem));
+        Assert.assertEquals(attrs.get(n, mem, -1), -1);
+
+        //A value changes its type
+        attrs.put(v, mem, "big");
+        Assert.assertEquals(attrs.get(v, mem, (String) null), "big");
+        Assert.assertEquals(attrs.get(v, "memUsed"), "big");
+        Assert.assertThrows(ClassCastException.class, () -> attrs.get(v, mem, 0));
+        attrs.put(v, mem, 0.5);
+        Assert.assertEquals(attrs.get(v, mem, 0.0), 0.5);
+        attrs.put(n, mem, true);
+        Assert.assertTrue(attrs.get(n, mem, false));
+
+        Assert.assertEquals(attrs.getDefined(), new HashSet<>(Arrays.asList(v, n)));
+        Assert.assertEquals(attrs.getKeys(n), new HashSet<>(Arrays.asList("memUsed")));
+    }
+
+    @Test
+    public void testThroughInterface() {
+        Attributes attrs = new ColumnarAttributes();
+        VM v = new VM(0);
+        Node n = new Node(1);
+        attrs.castAndPut(v, "boot", "7");
+        attrs.castAndPut(v, "clone", "true");
+        attrs.castAndPut(n, "load", "0.25");
+        attrs.castAndPut(n, "name", "n1");
+        AttributeKey boot = AttributeKey.of("boot");
+        Assert.assertEquals(attrs.get(v, boot, -1), 7);
+        Assert.assertTrue(attrs.get(v, AttributeKey.of("clone"), false));
+        Assert.assertEquals(attrs.get(n, AttributeKey.of("load"), 0.0), 0.25);
+        Assert.assertEquals(attrs.get(n, AttributeKey.of("name"), ""), "n1");
+
+        Assert.assertTrue(attrs.unset(v, "boot"));
+        Assert.assertFalse(attrs.isSet(v, boot));
+        attrs.clear(n);
+        Assert.assertEquals(attrs.getDefined(), new HashSet<>(Arrays.asList(v)));
+    }
+
+    @Test
+    public void testUnknownKey() {
+        ColumnarAttributes attrs = new ColumnarAttributes();
+        VM v = new VM(0);
+        Assert.assertNull(attrs.get(v, "never-used-before"));
+        Assert.assertFalse(attrs.isSet(v, "never-used-before"));
+        Assert.assertFalse(attrs.unset(v, "never-used-before"));
+        Assert.assertEquals(attrs.get(v, "never-used-before", 7), 7);
+    }
+
+    @Test
+    public void testCopy() {
+        Attributes attrs = new ColumnarAttributes();
+        VM v = new VM(0);
+        attrs.put(v, "foo", 1);
+        Attributes cpy = attrs.copy();
+        Assert.assertEquals(cpy, attrs);
+        Assert.assertEquals(cpy.hashCode(), attrs.hashCode());
+
+        cpy.put(v, "foo", 2);
+        cpy.put(v, "bar", "baz");
+        Assert.assertEquals(attrs.get(v, "foo", -1), 1);
+        Assert.assertFalse(attrs.isSet(v, "bar"));
+        attrs.clear();
+        Assert.assertEquals(cpy.get(v, "foo", -1), 2);
+        Assert.assertNotEquals(cpy, attrs);
+    }
+}
@@ -124,6 +124,18 @@ public class DefaultAttributesTest {
 
         attrs2.unset(l.get(1), "1");
         Assert.assertEquals(attrs.get(l.get(1), "1", -2), 1);
+
+        //Copy on write
+        attrs2.put(l.get(2), "foo", true);
+        Assert.assertFalse(attrs.isSet(l.get(2), "foo"));
+        attrs.put(l.get(2), "2", 7);
+        Assert.assertEquals(attrs2.get(l.get(2), "2", -1), 2);
+        Attributes attrs3 = attrs2.copy();
+        attrs3.clear(l.get(3));
+        Assert.assertEquals(attrs2.get(l.get(3), "3", -1), 3);
+        attrs2.clear();
+        Assert.assertTrue(attrs3.get(l.get(2), "foo", false));
+        Assert.assertEquals(attrs.get(l.get(2), "2", -1), 7);
     }
 
     @Test(dependsOnMethods = {"testInstantiation", "testUnset", "testClone"})
@@ -175,4 +187,22 @@ public class DefaultAttributesTest {
         Assert.assertEquals(attrs.getKeys(mo.newVM()).size(), 0);
         Assert.assertEquals(attrs.getKeys(mo.newNode()).size(), 0);
     }
+
+    @Test(dependsOnMethods = {"testInstantiation"})
+    public void testAttributeKeys() {
+        Attributes attrs = new DefaultAttributes();
+        VM u = vms.get(0);
+        AttributeKey k = AttributeKey.of("foo");
+        Assert.assertFalse(attrs.isSet(u, k));
+        Assert.assertEquals(attrs.get(u, k, 3), 3);
+        attrs.put(u, "foo", 7);
+        Assert.assertTrue(attrs.isSet(u, k));
+        Assert.assertEquals(attrs.get(u, k, 3), 7);
+        attrs.put(u, "foo", "bar");
+        Assert.assertEquals(attrs.get(u, k, ""), "bar");
+        attrs.put(u, "foo", true);
+        Assert.assertTrue(attrs.get(u, k, false));
+        attrs.put(u, "foo", 1.5);
+        Assert.assertEquals(attrs.get(u, k, 0.0), 1.5);
+    }
 }
@@ -9,9 +9,13 @@ package org.btrplace.model;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 
 /**
@@ -24,12 +28,21 @@ public class DefaultMappingTest {
   private static final List<VM> vms = Util.newVMs(10);
   private static final List<Node> ns = Util.newNodes(10);
 
+  /**
+   * Make the mapping to test.
+   *
+   * @return an empty mapping
+   */
+  protected Mapping newMapping() {
+    return new DefaultMapping();
+  }
+
   /**
    * Create an empty mapping and check all the getters.
    */
   @Test
   public void testInstantiation() {
-    Mapping c = new DefaultMapping();
+    Mapping c = newMapping();
 
     //Global getters
     Assert.assertTrue(c.getAllNodes().isEmpty());
@@ -67,7 +80,7 @@ public class DefaultMappingTest {
     @Test(dependsOnMethods = {"testInstantiation"})
     public void testOnlineNode() {
 
-        Mapping c = new DefaultMapping();
+        Mapping c = newMapping();
 
         c.addOnlineNode(ns.get(0));
         //Basic getters for online
@@ -104,7 +117,7 @@ public class DefaultMappingTest {
      */
     @Test(dependsOnMethods = {"testInstantiation"})
     public void testOfflineNode() {
-        Mapping c = new DefaultMapping();
+        Mapping c = newMapping();
         //Add an offline node
         Assert.assertTrue(c.addOfflineNode(ns.get(1)));
         Assert.assertEquals(c.getNbNodes(), 1);
@@ -127,7 +140,7 @@ public class DefaultMappingTest {
 
     @Test(dependsOnMethods = {"testInstantiation", "testRunningVM", "testSleeping", "testOnlineNode", "testOfflineNode"})
     public void testRemoveNode() {
-        Mapping c = new DefaultMapping();
+        Mapping c = newMapping();
 
         //Remove empty online node
         c.addOnlineNode(ns.get(0));
@@ -172,7 +185,7 @@ public class DefaultMappingTest {
      */
     @Test(dependsOnMethods = {"testOfflineNode", "testOnlineNode"})
     public void testRunningVM() {
-        Mapping c = new DefaultMapping();
+        Mapping c = newMapping();
         c.addOnlineNode(ns.get(0));
         c.addOfflineNode(ns.get(1));
 
@@ -221,7 +234,7 @@ public class DefaultMappingTest {
      */
     @Test(dependsOnMethods = {"testOfflineNode", "testOnlineNode"})
     public void testSleeping() {
-        Mapping c = new DefaultMapping();
+        Mapping c = newMapping();
         c.addOnlineNode(ns.get(0));
         c.addOfflineNode(ns.get(1));
 
@@ -257,7 +270,7 @@ public class DefaultMappingTest {
      */
     @Test(dependsOnMethods = {"testInstantiation"})
     public void testWaiting() {
-        Mapping c = new DefaultMapping();
+        Mapping c = newMapping();
         c.addReadyVM(vms.get(0));
         Assert.assertTrue(c.getAllVMs().size() == 1 && c.getAllVMs().contains(vms.get(0)));
         Assert.assertTrue(c.getReadyVMs().size() == 1 && c.isReady(vms.get(0)));
@@ -277,7 +290,7 @@ public class DefaultMappingTest {
 
     @Test(dependsOnMethods = {"testInstantiation", "testOfflineNode", "testOnlineNode"})
     public void testSwitchNodeState() {
-        Mapping c = new DefaultMapping();
+        Mapping c = newMapping();
 
         //Set online then offline then online. Everything is ok
         c.addOnlineNode(ns.get(0));
@@ -311,7 +324,7 @@ public class DefaultMappingTest {
 
     @Test(dependsOnMethods = {"testInstantiation", "testRunningVM"})
     public void testReplaceRunningVM() {
-        Mapping c = new DefaultMapping();
+        Mapping c = newMapping();
         c.addOnlineNode(ns.get(0));
         c.addOnlineNode(ns.get(1));
         c.addOfflineNode(ns.get(2));
@@ -357,7 +370,7 @@ public class DefaultMappingTest {
 
     @Test(dependsOnMethods = {"testInstantiation", "testSleeping"})
     public void testReplaceSleepingVM() {
-        Mapping c = new DefaultMapping();
+        Mapping c = newMapping();
 
         c.addOnlineNode(ns.get(0));
         c.addSleepingVM(vms.get(0), ns.get(0));
@@ -411,7 +424,7 @@ public class DefaultMappingTest {
 
     @Test(dependsOnMethods = {"testInstantiation", "testClear", "testWaiting", "testRunningVM", "testSleeping"})
     public void testReplaceWaitingVM() {
-        Mapping c = new DefaultMapping();
+        Mapping c = newMapping();
         c.addReadyVM(vms.get(0));
         c.addOnlineNode(ns.get(0));
         Assert.assertEquals(c.getNbVMs(), 1);
@@ -441,7 +454,7 @@ public class DefaultMappingTest {
 
     @Test
     public void testToString() {
-        Mapping c = new DefaultMapping();
+        Mapping c = newMapping();
 
         c.addOnlineNode(ns.get(0));
         c.addRunningVM(vms.get(0), ns.get(0));
@@ -463,7 +476,7 @@ public class DefaultMappingTest {
 
     @Test
     public void testClone() {
-        Mapping c1 = new DefaultMapping();
+        Mapping c1 = newMapping();
 
         c1.addOnlineNode(ns.get(0));
         c1.addOnlineNode(ns.get(1));
@@ -487,9 +500,114 @@ public class DefaultMappingTest {
 
     }
 
+    @Test(dependsOnMethods = {"testClone"})
+    public void testCopyIsolation() {
+        Mapping c1 = newMapping();
+        c1.on(ns.get(0), ns.get(1)).off(ns.get(2));
+        c1.run(ns.get(0), vms.get(0), vms.get(1)).sleep(ns.get(1), vms.get(2)).ready(vms.get(3));
+        Mapping ref = c1.copy();
+        Mapping c2 = c1.copy();
+
+        //Changes on the copy
+        c2.addRunningVM(vms.get(0), ns.get(1));
+        c2.addSleepingVM(vms.get(1), ns.get(0));
+        c2.addReadyVM(vms.get(2));
+        c2.remove(vms.get(3));
+        c2.addOnlineNode(ns.get(2));
+        c2.addOfflineNode(ns.get(3));
+        Assert.assertEquals(c1, ref);
+        Assert.assertTrue(c1.getRunningVMs(ns.get(0)).contains(vms.get(0)));
+        Assert.assertTrue(c1.isReady(vms.get(3)));
+
+        //Changes on the original
+        Mapping c3 = c1.copy();
+        c1.clearNode(ns.get(0));
+        c1.remove(ns.get(2));
+        Assert.assertEquals(c3, ref);
+        c3.clear();
+        Assert.assertEquals(c2.getRunningVMs(ns.get(1)).size(), 1);
+        Assert.assertEquals(c2.getOnlineNodes().size(), 3);
+        Assert.assertTrue(c1.getRunningVMs(ns.get(0)).isEmpty());
+        Assert.assertTrue(c1.getSleepingVMs(ns.get(1)).contains(vms.get(2)));
+    }
+
+    /**
+     * Copies are made concurrently from a mapping that is not modified,
+     * then modified by their own thread.
+     */
+    /**
+     * The returned sets are live views that cannot be used to modify the mapping or its copies.
+     */
+    @Test(dependsOnMethods = {"testCopyIsolation"})
+    public void testViewsAfterCopy() {
+        Mapping m = newMapping();
+        m.on(ns.get(0)).off(ns.get(1));
+        m.run(ns.get(0), vms.get(0)).ready(vms.get(1));
+        Set<Node> online = m.getOnlineNodes();
+        Set<Node> offline = m.getOfflineNodes();
+        Set<VM> ready = m.getReadyVMs();
+        Set<VM> running = m.getRunningVMs(ns.get(0));
+        Set<VM> sleeping = m.getSleepingVMs(ns.get(0));
+        Mapping c = m.copy();
+
+        //The views reflect the writes made after the copy
+        m.addOnlineNode(ns.get(2));
+        m.addOfflineNode(ns.get(3));
+        m.addReadyVM(vms.get(2));
+        m.addRunningVM(vms.get(3), ns.get(0));
+        m.addSleepingVM(vms.get(4), ns.get(0));
+        Assert.assertTrue(online.contains(ns.get(2)));
+        Assert.assertTrue(offline.contains(ns.get(3)));
+        Assert.assertEquals(ready.size(), 2);
+        Assert.assertEquals(running.size(), 2);
+        Assert.assertTrue(sleeping.contains(vms.get(4)));
+
+        //The views cannot alter the mapping, nor its copy
+        Assert.assertThrows(UnsupportedOperationException.class, () -> online.add(ns.get(5)));
+        Assert.assertThrows(UnsupportedOperationException.class, () -> offline.clear());
+        Assert.assertThrows(UnsupportedOperationException.class, () -> ready.remove(vms.get(1)));
+        Assert.assertThrows(UnsupportedOperationException.class, () -> running.removeIf(v -> true));
+        Set<VM> copyRunning = c.getRunningVMs(ns.get(0));
+        Assert.assertThrows(UnsupportedOperationException.class, () -> copyRunning.clear());
+        Assert.assertEquals(c.getOnlineNodes().size(), 1);
+        Assert.assertEquals(c.getReadyVMs().size(), 1);
+        Assert.assertEquals(copyRunning.size(), 1);
+        Assert.assertTrue(c.getSleepingVMs(ns.get(0)).isEmpty());
+    }
+
+    @Test(dependsOnMethods = {"testCopyIsolation"})
+    public void testConcurrentCopies() throws Exception {
+        Mapping src = newMapping();
+        src.on(ns.get(0), ns.get(1));
+        src.run(ns.get(0), vms.get(0), vms.get(1)).ready(vms.get(2));
+        Mapping ref = src.copy();
+        ExecutorService exe = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Mapping>> copies = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                final int x = i;
+                copies.add(exe.submit(() -> {
+                    Mapping c = src.copy();
+                    c.addRunningVM(vms.get(2), ns.get(x % 2));
+                    c.addSleepingVM(vms.get(0), ns.get(0));
+                    return c;
+                }));
+            }
+            for (Future<Mapping> f : copies) {
+                Mapping c = f.get();
+                Assert.assertTrue(c.isSleeping(vms.get(0)));
+                Assert.assertTrue(c.isRunning(vms.get(2)));
+                Assert.assertEquals(c.getRunningVMs(ns.get(0)).size() + c.getRunningVMs(ns.get(1)).size(), 2);
+            }
+        } finally {
+            exe.shutdownNow();
+        }
+        Assert.assertEquals(src, ref);
+    }
+
     @Test(dependsOnMethods = {"testClone"})
     public void testEquals() {
-        Mapping c1 = new DefaultMapping();
+        Mapping c1 = newMapping();
 
         c1.addOnlineNode(ns.get(0));
         c1.addOnlineNode(ns.get(1));
@@ -528,7 +646,7 @@ public class DefaultMappingTest {
 
     @Test(dependsOnMethods = {"testInstantiation", "testOnlineNode", "testOfflineNode", "testRunningVM", "testWaiting", "testSleeping"})
     public void testClear() {
-        Mapping c = new DefaultMapping();
+        Mapping c = newMapping();
         c.addOfflineNode(ns.get(1));
         c.addOnlineNode(ns.get(0));
         c.addRunningVM(vms.get(0), ns.get(0));
@@ -552,7 +670,7 @@ public class DefaultMappingTest {
 
     @Test(dependsOnMethods = {"testInstantiation", "testOnlineNode", "testOfflineNode", "testRunningVM", "testWaiting", "testSleeping"})
     public void testClearAllVMs() {
-        Mapping c = new DefaultMapping();
+        Mapping c = newMapping();
         c.addOfflineNode(ns.get(0));
         c.addOnlineNode(ns.get(1));
         c.addRunningVM(vms.get(0), ns.get(1));
@@ -575,7 +693,7 @@ public class DefaultMappingTest {
 
     @Test(dependsOnMethods = {"testInstantiation"})
     public void testClearNode() {
-        Mapping c = new DefaultMapping();
+        Mapping c = newMapping();
         c.addOnlineNode(ns.get(0));
         c.addOnlineNode(ns.get(1));
         c.addRunningVM(vms.get(0), ns.get(0));
@@ -592,7 +710,7 @@ public class DefaultMappingTest {
 
     @Test
     public void testGetRunningVMsOnOfflineNodes() {
-        Mapping m = new DefaultMapping();
+        Mapping m = newMapping();
         m.addOnlineNode(ns.get(0));
         m.addOnlineNode(ns.get(1));
         m.addRunningVM(vms.get(0), ns.get(0));
@@ -29,6 +29,16 @@ public class DefaultModelTest {
         Assert.assertNotNull(i.getAttributes());
     }
 
+    @Test
+    public void testWithMapping() {
+        Model i = new DefaultModel(new DefaultElementBuilder(), new IndexedMapping());
+        Node n = i.newNode();
+        i.getMapping().on(n).run(n, i.newVM());
+        Model j = i.copy();
+        Assert.assertTrue(j.getMapping() instanceof IndexedMapping);
+        Assert.assertEquals(j, i);
+    }
+
     @Test
     public void testAttachView() {
         Model i = new DefaultModel();
@@ -0,0 +1,115 @@
+/*
+ * Copyright  2026 The BtrPlace Authors. All rights reserved.
+ * Use of this source code is governed by a LGPL-style
+ * license that can be found in the LICENSE.txt file.
+ */
+
+package org.btrplace.model;
+
+import gnu.trove.list.array.TIntArrayList;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Unit tests for {@link IndexedMapping}.
+ * The tests of {@link DefaultMappingTest} are run against the indexed mapping.
+ *
+ * @author Fabien Hermenier
+ */
+public class IndexedMappingTest extends DefaultMappingTest {
+
+    private static final List<VM> vms = Util.newVMs(10);
+
+    private static final List<Node> ns = Util.newNodes(10);
+
+    @Override
+    protected Mapping newMapping() {
+        return new IndexedMapping(2, 2);
+    }
+
+    @Test
+    public void testLiveViews() {
+        Mapping m = newMapping();
+        Set<VM> all = m.getAllVMs();
+        Set<VM> running = m.getRunningVMs();
+        Set<Node> online = m.getOnlineNodes();
+        Set<VM> on0 = m.getRunningVMs(ns.get(0));
+
+        m.on(ns.get(0), ns.get(1)).run(ns.get(0), vms.get(0), vms.get(1)).sleep(ns.get(1), vms.get(2)).ready(vms.get(3));
+        Assert.assertEquals(online, new HashSet<>(Arrays.asList(ns.get(0), ns.get(1))));
+        Assert.assertEquals(running, new HashSet<>(Arrays.asList(vms.get(0), vms.get(1))));
+        Assert.assertEquals(on0, running);
+        Assert.assertEquals(all.size(), 4);
+        Assert.assertFalse(all.contains(ns.get(0)));
+
+        m.addRunningVM(vms.get(1), ns.get(1));
+        Assert.assertEquals(on0, new HashSet<>(Arrays.asList(vms.get(0))));
+        Assert.assertEquals(m.getRunningVMs(ns.get(1)), new HashSet<>(Arrays.asList(vms.get(1))));
+        Assert.assertEquals(m.getVMLocation(vms.get(1)), ns.get(1));
+
+        m.remove(vms.get(0));
+        Assert.assertTrue(on0.isEmpty());
+        Assert.assertEquals(all.size(), 3);
+
+        //Read-only
+        Iterator<VM> ite = all.iterator();
+        ite.next();
+        Assert.assertThrows(UnsupportedOperationException.class, ite::remove);
+        Assert.assertThrows(UnsupportedOperationException.class, () -> all.add(vms.get(5)));
+    }
+
+    @Test
+    public void testGrowth() {
+        Mapping m = newMapping();
+        Node n = new Node(1000);
+        VM v = new VM(50000);
+        m.on(n).run(n, v);
+        Assert.assertTrue(m.isRunning(v));
+        Assert.assertEquals(m.getVMLocation(v), n);
+        Assert.assertFalse(m.isRunning(new VM(70000)));
+        Assert.assertNull(m.getVMLocation(new VM(70000)));
+        Assert.assertTrue(m.getRunningVMs(new Node(2000)).isEmpty());
+    }
+
+    @Test
+    public void testForEach() {
+        IndexedMapping m = new IndexedMapping();
+        m.on(ns.get(1), ns.get(0)).off(ns.get(2));
+        m.run(ns.get(0), vms.get(4), vms.get(2)).sleep(ns.get(0), vms.get(3)).run(ns.get(1), vms.get(1)).ready(vms.get(0));
+
+        TIntArrayList ids = new TIntArrayList();
+        m.forEachVM(VMState.RUNNING, ids::add);
+        Assert.assertEquals(ids.toArray(), new int[]{vms.get(1).id(), vms.get(2).id(), vms.get(4).id()});
+
+        ids.clear();
+        m.forEachVM(ns.get(0), VMState.RUNNING, ids::add);
+        Assert.assertEquals(ids.toArray(), new int[]{vms.get(4).id(), vms.get(2).id()});
+
+        ids.clear();
+        m.forEachVM(ns.get(0), VMState.READY, ids::add);
+        m.forEachVM(VMState.KILLED, ids::add);
+        Assert.assertTrue(ids.isEmpty());
+
+        m.forEachNode(NodeState.ONLINE, ids::add);
+        Assert.assertEquals(ids.toArray(), new int[]{ns.get(0).id(), ns.get(1).id()});
+    }
+
+    @Test
+    public void testEqualsDefaultMapping() {
+        Mapping m = newMapping();
+        Mapping d = new DefaultMapping();
+        for (Mapping x : Arrays.asList(m, d)) {
+            x.on(ns.get(0), ns.get(1)).off(ns.get(2)).run(ns.get(0), vms.get(0)).sleep(ns.get(1), vms.get(1)).ready(vms.get(2));
+        }
+        Assert.assertEquals(m, d);
+        Assert.assertEquals(d, m);
+        Assert.assertEquals(m.hashCode(), d.hashCode());
+        Assert.assertEquals(m.getRunningVMs(Arrays.asList(ns.get(0), ns.get(0), ns.get(1))), d.getRunningVMs());
+    }
+}
@@ -11,11 +11,13 @@ import org.btrplace.model.Model;
 import org.btrplace.model.Node;
 import org.btrplace.model.view.network.Link;
 import org.btrplace.model.view.network.Network;
+import org.btrplace.model.view.network.Routing;
 import org.btrplace.model.view.network.StaticRouting;
 import org.btrplace.model.view.network.Switch;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
@@ -78,4 +80,58 @@ public class NetworkTest {
         Assert.assertTrue(net.getRouting().getPath(n1, n2).size() == 2);
         Assert.assertTrue(net.getRouting().getPath(n1, n2).containsAll(net.getLinks()));
     }
+
+    /**
+     * Test the default routing retains a shortest path, with the link directions and the bandwidth.
+     */
+    @Test
+    public void defaultRoutingShortestPathTest() {
+        Model mo = new DefaultModel();
+        Network net = new Network();
+        Switch s0 = net.newSwitch(5000);
+        Switch s1 = net.newSwitch();
+        Switch s2 = net.newSwitch();
+        Switch s3 = net.newSwitch(-1);
+        Node n1 = mo.newNode();
+        Node n2 = mo.newNode();
+        Node n3 = mo.newNode();
+        Link l01 = net.connect(10000, s0, s1);
+        net.connect(10000, s1, s2);
+        net.connect(10000, s2, s3);
+        //The shortest way, declared last
+        Link l30 = net.connect(3000, s3, s0);
+        Link up1 = net.connect(8000, s0, n1);
+        Link up2 = net.connect(8000, s3, n2);
+        Link up3 = net.connect(1000, s1, n3);
+        mo.attach(net);
+
+        Routing r = net.getRouting();
+        Assert.assertEquals(r.getPath(n1, n2), Arrays.asList(up1, l30, up2));
+        Assert.assertEquals(r.getPath(n2, n1), Arrays.asList(up2, l30, up1));
+        Assert.assertEquals(r.getPath(n1, n3), Arrays.asList(up1, l01, up3));
+        Assert.assertTrue(r.getPath(n1, n1).isEmpty());
+
+        Assert.assertEquals(r.getLinkDirection(n1, n2, up1), Routing.LinkDirection.DOWNLINK);
+        Assert.assertEquals(r.getLinkDirection(n1, n2, l30), Routing.LinkDirection.DOWNLINK);
+        Assert.assertEquals(r.getLinkDirection(n2, n1, l30), Routing.LinkDirection.UPLINK);
+        Assert.assertEquals(r.getLinkDirection(n1, n2, up2), Routing.LinkDirection.UPLINK);
+        Assert.assertEquals(r.getLinkDirection(n1, n2, l01), Routing.LinkDirection.NONE);
+
+        Assert.assertEquals(r.getMaxBW(n1, n2), 3000);
+        Assert.assertEquals(r.getMaxBW(n1, n3), 1000);
+        Assert.assertEquals(r.getMaxBW(n1, n1), Integer.MAX_VALUE);
+
+        //New links are considered
+        Node n4 = mo.newNode();
+        Link up4 = net.connect(8000, s0, n4);
+        Assert.assertEquals(r.getPath(n4, n1), Arrays.asList(up4, up1));
+        Assert.assertEquals(r.getMaxBW(n4, n1), 5000);
+
+        //Disconnected nodes
+        Node n5 = mo.newNode();
+        net.connect(8000, net.newSwitch(), n5);
+        Assert.assertTrue(r.getPath(n1, n5).isEmpty());
+        Assert.assertEquals(r.getLinkDirection(n1, n5, up1), Routing.LinkDirection.NONE);
+        Assert.assertTrue(r.getPath(n1, mo.newNode()).isEmpty());
+    }
 }
@@ -0,0 +1,124 @@
+/*
+ * Copyright  2026 The BtrPlace Authors. All rights reserved.
+ * Use of this source code is governed by a LGPL-style
+ * license that can be found in the LICENSE.txt file.
+ */
+
+package org.btrplace.plan;
+
+import org.btrplace.model.DefaultModel;
+import org.btrplace.model.Mapping;
+import org.btrplace.model.Model;
+import org.btrplace.model.Node;
+import org.btrplace.model.Util;
+import org.btrplace.model.VM;
+import org.btrplace.model.view.ShareableResource;
+import org.btrplace.plan.event.Action;
+import org.btrplace.plan.event.Allocate;
+import org.btrplace.plan.event.BootNode;
+import org.btrplace.plan.event.MigrateVM;
+import org.btrplace.plan.event.ShutdownNode;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Unit tests for {@link DependencyGraph}.
+ *
+ * @author Fabien Hermenier
+ */
+public class DependencyGraphTest {
+
+    /**
+     * Make a plan with 4 nodes and 6 actions.
+     * The actions are added in the following order: 1 boot node, 2 migrations, 1 allocate,
+     * 2 migrations, 1 shutdown node.
+     */
+    static ReconfigurationPlan makePlan() {
+        Model mo = new DefaultModel();
+        List<VM> vms = Util.newVMs(mo, 10);
+        List<Node> ns = Util.newNodes(mo, 10);
+
+        Mapping map = mo.getMapping();
+        map.addOnlineNode(ns.get(0));
+        map.addOnlineNode(ns.get(1));
+        map.addOnlineNode(ns.get(2));
+        map.addOfflineNode(ns.get(3));
+
+        map.addRunningVM(vms.get(0), ns.get(2));
+        map.addRunningVM(vms.get(1), ns.get(0));
+        map.addRunningVM(vms.get(2), ns.get(1));
+        map.addRunningVM(vms.get(3), ns.get(1));
+
+        ShareableResource rc = new ShareableResource("cpu");
+        rc.setConsumption(vms.get(2), 3);
+        mo.attach(rc);
+
+        ReconfigurationPlan plan = new DefaultReconfigurationPlan(mo);
+        plan.add(new BootNode(ns.get(3), 3, 5));
+        plan.add(new MigrateVM(vms.get(0), ns.get(2), ns.get(3), 6, 7));
+        plan.add(new Allocate(vms.get(2), ns.get(1), "cpu", 7, 7, 8));
+        plan.add(new MigrateVM(vms.get(1), ns.get(0), ns.get(1), 1, 3));
+        plan.add(new MigrateVM(vms.get(3), ns.get(1), ns.get(2), 1, 7));
+        plan.add(new ShutdownNode(ns.get(0), 5, 7));
+        return plan;
+    }
+
+    @Test
+    public void testDependencies() {
+        ReconfigurationPlan plan = makePlan();
+        DependencyGraph g = new DependencyGraph(plan);
+        Assert.assertEquals(g.size(), 6);
+        for (int i = 0; i < g.size(); i++) {
+            Action a = g.getAction(i);
+            Assert.assertEquals(g.getPosition(a), i);
+            //Same dependencies than the plan
+            Assert.assertEquals(g.getDependencies(a), plan.getDirectDependencies(a));
+            Assert.assertEquals(g.getNbDependencies(i), g.getDependencies(a).size());
+            for (Action x : g.getDependencies(a)) {
+                Assert.assertTrue(g.getDependents(x).contains(a));
+            }
+            if (i > 0) {
+                Assert.assertTrue(g.getAction(i - 1).getStart() <= a.getStart());
+            }
+        }
+        Assert.assertEquals(g.getPosition(new BootNode(new Node(9), 0, 1)), -1);
+        Assert.assertEquals(g.getDependents(new BootNode(new Node(9), 0, 1)), Collections.emptySet());
+    }
+
+    @Test
+    public void testCriticalPath() {
+        ReconfigurationPlan plan = makePlan();
+        DependencyGraph g = new DependencyGraph(plan);
+        //migrate vm#3 (6 units) then allocate for vm#2 (1 unit)
+        List<Action> path = g.getCriticalPath();
+        Assert.assertEquals(path.size(), 2);
+        Assert.assertTrue(path.get(0) instanceof MigrateVM);
+        Assert.assertEquals(((MigrateVM) path.get(0)).getVM().id(), 3);
+        Assert.assertTrue(path.get(1) instanceof Allocate);
+        Assert.assertEquals(g.getCriticalPathDuration(), 7);
+
+        DependencyGraph empty = new DependencyGraph(new DefaultReconfigurationPlan(new DefaultModel()));
+        Assert.assertTrue(empty.getCriticalPath().isEmpty());
+        Assert.assertEquals(empty.getCriticalPathDuration(), 0);
+    }
+
+    @Test
+    public void testNbActions() {
+        ReconfigurationPlan plan = makePlan();
+        DependencyGraph g = new DependencyGraph(plan);
+        List<Node> ns = new ArrayList<>(plan.getOrigin().getMapping().getAllNodes());
+        ns.sort((a, b) -> a.id() - b.id());
+        Assert.assertEquals(g.getNbActions(ns.get(0)), 2);
+        Assert.assertEquals(g.getNbActions(ns.get(1)), 3);
+        Assert.assertEquals(g.getNbActions(ns.get(2)), 2);
+        Assert.assertEquals(g.getNbActions(ns.get(3)), 2);
+        Assert.assertEquals(g.getNbActions(new Node(9)), 0);
+        Assert.assertEquals(new HashSet<>(g.getActions()), new HashSet<>(Arrays.asList(plan.getActions().toArray(new Action[0]))));
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright  2026 The BtrPlace Authors. All rights reserved.
+ * Use of this source code is governed by a LGPL-style
+ * license that can be found in the LICENSE.txt file.
+ */
+
+package org.btrplace.plan;
+
+import org.btrplace.model.Mapping;
+import org.btrplace.model.Model;
+import org.btrplace.model.Node;
+import org.btrplace.model.VM;
+import org.btrplace.model.view.ShareableResource;
+import org.btrplace.plan.event.EventCommittedListener;
+import org.btrplace.plan.event.MigrateVM;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for {@link ParallelPlanApplier}.
+ *
+ * @author Fabien Hermenier
+ */
+public class ParallelPlanApplierTest {
+
+    @Test
+    public void testApply() {
+        ReconfigurationPlan plan = DependencyGraphTest.makePlan();
+        ParallelPlanApplier app = new ParallelPlanApplier(3);
+        Assert.assertEquals(app.getNbWorkers(), 3);
+        EventCommittedListener ev = mock(EventCommittedListener.class);
+        app.addEventCommittedListener(ev);
+
+        Model res = app.apply(plan);
+        Assert.assertNotNull(res);
+        Mapping resMapping = res.getMapping();
+        Assert.assertTrue(resMapping.isOffline(new Node(0)));
+        Assert.assertTrue(resMapping.isOnline(new Node(3)));
+        Assert.assertEquals(ShareableResource.get(res, "cpu").getConsumption(new VM(2)), 7);
+        Assert.assertEquals(resMapping.getVMLocation(new VM(0)), new Node(3));
+        Assert.assertEquals(resMapping.getVMLocation(new VM(1)), new Node(1));
+        Assert.assertEquals(resMapping.getVMLocation(new VM(3)), new Node(2));
+        Assert.assertEquals(res, plan.getResult());
+        verify(ev, times(3)).committed(any(MigrateVM.class));
+        Assert.assertFalse(app.toString(plan).isEmpty());
+    }
+
+    @Test
+    public void testInfeasible() {
+        ReconfigurationPlan plan = DependencyGraphTest.makePlan();
+        //vm#1 is not on node#2
+        plan.add(new MigrateVM(new VM(1), new Node(2), new Node(0), 0, 1));
+        Assert.assertNull(new ParallelPlanApplier(2).apply(plan));
+    }
+
+    @Test(expectedExceptions = {IllegalStateException.class}, expectedExceptionsMessageRegExp = "boom")
+    public void testFailingListener() {
+        ReconfigurationPlan plan = DependencyGraphTest.makePlan();
+        ParallelPlanApplier app = new ParallelPlanApplier(2);
+        app.addEventCommittedListener(mock(EventCommittedListener.class,
+                inv -> {
+                    throw new IllegalStateException("boom");
+                }));
+        app.apply(plan);
+    }
+}
@@ -12,6 +12,8 @@ import org.btrplace.model.Model;
 import org.btrplace.model.Node;
 import org.btrplace.model.Util;
 import org.btrplace.model.VM;
+import org.btrplace.model.constraint.Ban;
+import org.btrplace.model.constraint.BanChecker;
 import org.btrplace.model.constraint.SatConstraintChecker;
 import org.btrplace.plan.event.BootNode;
 import org.btrplace.plan.event.BootVM;
@@ -20,10 +22,16 @@ import org.mockito.InOrder;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.util.Collections;
 import java.util.List;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 /**
  * Unit tests for {@link ReconfigurationPlanChecker}.
@@ -101,4 +109,59 @@ public class ReconfigurationPlanCheckerTest {
         order.verify(chk).endsWith(mo);
 
     }
+
+    @Test
+    public void testLocalCheckers() throws SatConstraintViolationException {
+        Model mo = new DefaultModel();
+        List<Node> ns = Util.newNodes(mo, 10);
+        List<VM> vms = Util.newVMs(mo, 10);
+
+        Mapping m = mo.getMapping();
+        m.addOnlineNode(ns.get(0));
+        m.addOnlineNode(ns.get(1));
+        m.addOfflineNode(ns.get(3));
+        m.addReadyVM(vms.get(1));
+        m.addRunningVM(vms.get(0), ns.get(0));
+        ReconfigurationPlan p = new DefaultReconfigurationPlan(mo);
+        MigrateVM m1 = new MigrateVM(vms.get(0), ns.get(0), ns.get(1), 0, 3);
+        BootVM b1 = new BootVM(vms.get(1), ns.get(0), 1, 5);
+        BootNode bn = new BootNode(ns.get(3), 3, 6);
+        p.add(m1);
+        p.add(b1);
+        p.add(bn);
+
+        //A local checker focusing on vms[1] and ns[3]
+        SatConstraintChecker<?> local = mock(SatConstraintChecker.class);
+        when(local.isLocal()).thenReturn(true);
+        doReturn(new Ban(vms.get(1), Collections.singleton(ns.get(3)))).when(local).getConstraint();
+        when(local.startsWith(any())).thenReturn(true);
+        when(local.endsWith(any())).thenReturn(true);
+        when(local.start(any(BootVM.class))).thenReturn(true);
+        when(local.start(any(BootNode.class))).thenReturn(true);
+        SatConstraintChecker<?> global = mock(SatConstraintChecker.class);
+        when(global.start(any(MigrateVM.class))).thenReturn(true);
+
+        ReconfigurationPlanChecker rc = new ReconfigurationPlanChecker();
+        rc.addChecker(local);
+        rc.addChecker(global);
+        rc.check(p);
+        InOrder order = inOrder(local);
+        order.verify(local).start(b1);
+        order.verify(local).start(bn);
+        order.verify(local).end(b1);
+        order.verify(local).end(bn);
+        verify(local, never()).start(m1);
+        verify(local, never()).end(m1);
+        verify(global).start(m1);
+        verify(global).end(m1);
+
+        //Violations are still reported
+        rc.addChecker(new BanChecker(new Ban(vms.get(0), Collections.singleton(ns.get(1)))));
+        try {
+            rc.check(p);
+            Assert.fail();
+        } catch (ContinuousViolationException ex) {
+            Assert.assertEquals(ex.getAction(), m1);
+        }
+    }
 }
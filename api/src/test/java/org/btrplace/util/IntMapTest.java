@@ -165,4 +165,24 @@ public class IntMapTest {
         Assert.assertEquals(m.adjust(6, 3), -1);
         Assert.assertEquals(m.adjust(5, 3), 10);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testCopyOnWrite() {
+        final IntMap m = new IntMap(-1);
+        m.put(1, 10);
+        m.put(2, 20);
+        IntMap cp = m.copy();
+        cp.put(1, 11);
+        cp.adjust(2, 1);
+        Assert.assertEquals(m.get(1), 10);
+        Assert.assertEquals(m.get(2), 20);
+        m.clear(1);
+        Assert.assertEquals(cp.get(1), 11);
+        IntMap cp2 = cp.copy();
+        cp.clear();
+        Assert.assertEquals(cp2.get(2), 21);
+        Assert.assertEquals(m.get(2), 20);
+        cp2.put(500, 3);
+        Assert.assertFalse(cp.has(500));
+    }
+}
@@ -158,4 +158,20 @@ public class IntObjectMapTest {
         m.clear();
         Assert.assertEquals(m.size(), 0);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testCopyOnWrite() {
+        final IntObjectMap<String> m = new IntObjectMap<>();
+        m.put(1, "a");
+        IntObjectMap<String> cp = m.copy();
+        cp.put(1, "b");
+        cp.put(2, "c");
+        Assert.assertEquals(m.get(1), "a");
+        Assert.assertFalse(m.has(2));
+        m.clear(1);
+        Assert.assertEquals(cp.get(1), "b");
+        IntObjectMap<String> cp2 = cp.copy();
+        cp.clear();
+        Assert.assertEquals(cp2.get(2), "c");
+    }
+}
@@ -9,9 +9,9 @@ package org.btrplace.bench;
 import org.btrplace.json.JSON;
 import org.btrplace.plan.ReconfigurationPlan;
 import org.btrplace.scheduler.SchedulerException;
-import org.btrplace.scheduler.UnstatableProblemException;
 import org.btrplace.scheduler.choco.ChocoScheduler;
 import org.btrplace.scheduler.choco.DefaultChocoScheduler;
+import org.btrplace.scheduler.choco.DefaultParameters;
 import org.btrplace.scheduler.choco.Parameters;
 import org.btrplace.scheduler.choco.runner.SolvingStatistics;
 import org.kohsuke.args4j.CmdLineException;
@@ -19,19 +19,21 @@ import org.kohsuke.args4j.CmdLineParser;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.UUID;
-
-import static java.nio.charset.StandardCharsets.UTF_8;
-import static java.nio.file.StandardOpenOption.APPEND;
-import static java.nio.file.StandardOpenOption.CREATE;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
 
 /**
  * Simple benching tool.
+ * With a list of instances, the instances can be solved concurrently (see {@link Options#parallel()}).
+ * A summary that reports the throughput and the latency of each solving phase is printed at the end.
  * @author Fabien Hermenier
  */
 @SuppressWarnings("squid:S106")
@@ -73,45 +75,117 @@ public class Bench {
 
         Parameters ps = opts.parameters();
 
-        Iterator<LabelledInstance> ite = opts.instances().iterator();
-        while (ite.hasNext()) {
-            LabelledInstance i = ite.next();
-            solve(i, ps);
+        if (opts.single()) {
+            try (Stream<LabelledInstance> instances = opts.instances()) {
+                ChocoScheduler s = new DefaultChocoScheduler().setParameters(ps);
+                solve(s, instances.iterator().next());
+                out(0, "%s%n", s.getStatistics());
+            }
+            return;
         }
+
+        File output = opts.output();
+        Report report = new Report();
+        try (Stream<LabelledInstance> instances = opts.instances();
+             CSVAppender csv = new CSVAppender(new File(output, SCHEDULER_STATS))) {
+            Iterator<LabelledInstance> ite = instances.iterator();
+            if (opts.parallel() == 1) {
+                while (ite.hasNext()) {
+                    solve(ite.next(), ps, output, csv, report);
+                }
+            } else {
+                solveConcurrently(ite, ps, output, csv, report);
+            }
+        }
+        out(0, "%s", report);
     }
 
-    private static void solve(LabelledInstance i, Parameters ps) throws IOException {
-        ChocoScheduler s = new DefaultChocoScheduler().setParameters(ps);
-        String status = "OK";
+    /**
+     * Solve the instances using {@link Options#parallel()} threads.
+     * An instance is only pulled from the iterator when a thread is available, so the
+     * instances are not all loaded in memory.
+     * Each instance is solved by its own scheduler, with its own copy of the parameters.
+     */
+    private static void solveConcurrently(Iterator<LabelledInstance> ite, Parameters ps, File output,
+                                          CSVAppender csv, Report report) throws IOException {
+        int nb = opts.parallel();
+        ExecutorService exe = Executors.newFixedThreadPool(nb);
+        Semaphore slots = new Semaphore(nb);
+        List<Future<Void>> running = new ArrayList<>();
+        try {
+            while (ite.hasNext()) {
+                slots.acquire();
+                LabelledInstance i = ite.next();
+                running.add(exe.submit(() -> {
+                    try {
+                        solve(i, new DefaultParameters(ps), output, csv, report);
+                    } finally {
+                        slots.release();
+                    }
+                    return null;
+                }));
+                collect(running, false);
+            }
+            collect(running, true);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException(ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof IOException) {
+                throw (IOException) ex.getCause();
+            }
+            throw new IOException(ex.getCause());
+        } finally {
+            exe.shutdownNow();
+        }
+    }
+
+    /**
+     * Get the result of the finished solving tasks so their failure is reported.
+     *
+     * @param running the submitted tasks. The collected ones are removed
+     * @param wait    {@code true} to wait for the unfinished tasks
+     */
+    private static void collect(List<Future<Void>> running, boolean wait) throws InterruptedException, ExecutionException {
+        Iterator<Future<Void>> it = running.iterator();
+        while (it.hasNext()) {
+            Future<Void> f = it.next();
+            if (wait || f.isDone()) {
+                f.get();
+                it.remove();
+            }
+        }
+    }
+
+    @SuppressWarnings("squid:S1166")
+    private static void solve(ChocoScheduler s, LabelledInstance i) {
         try {
             s.solve(i);
-        } catch (@SuppressWarnings("unused") UnstatableProblemException ex) {
-            status = "TO";
         } catch (@SuppressWarnings("unused") SchedulerException ex) {
-            status = "FAIL";
+            //No solution, or a timeout. The statistics tell what happened
         }
-        if (opts.single()) {
-            out(0, "%s%n", s.getStatistics());
+    }
+
+    private static void solve(LabelledInstance i, Parameters ps, File output, CSVAppender csv, Report report) throws IOException {
+        ChocoScheduler s = new DefaultChocoScheduler().setParameters(ps);
+        solve(s, i);
+        SolvingStatistics stats = s.getStatistics();
+        String status;
+        if (stats.getSolutions().isEmpty()) {
+            status = "KO*";
         } else {
-            SolvingStatistics stats = s.getStatistics();
-            if (stats.getSolutions().isEmpty()) {
-                status = "KO*";
-            } else {
-                status = "OK";
-                if (stats.completed()) {
-                    status += "*";
-                }
+            status = "OK";
+            if (stats.completed()) {
+                status += "*";
             }
-            if (opts.verbosity() == 0) {
-                out(0, "%s: %s%n", i.label, status);
-            } else {
-                out(1, "----- %s -----%n", i.label);
-                out(1, "%s%n", stats);
-                out(1, "%n");
-            }
-            File output = opts.output();
-            store(i, stats, output);
         }
+        if (opts.verbosity() == 0) {
+            out(0, "%s: %s%n", i.label, status);
+        } else {
+            out(1, "----- %s -----%n%s%n%n", i.label, stats);
+        }
+        report.add(stats);
+        store(i, stats, output, csv);
     }
 
     private static void out(int lvl, String fmt, Object... args) {
@@ -119,13 +193,11 @@ public class Bench {
             System.out.printf(fmt, args);
         }
     }
-    private static void store(LabelledInstance i, SolvingStatistics stats, File base) throws IOException {
-        Files.createDirectories(base.toPath());
+    private static void store(LabelledInstance i, SolvingStatistics stats, File base, CSVAppender csv) throws IOException {
         //Stats about the solving process
-        Path p = Paths.get(base.getAbsolutePath(), SCHEDULER_STATS);
         UUID id = uniqueFile(base);
         StringBuilder line = new StringBuilder(id.toString()).append(";").append(i.label).append(";").append(stats.toCSV());
-        Files.write(p, Collections.singletonList(line), UTF_8, CREATE, APPEND);
+        csv.append(line);
         ReconfigurationPlan best = stats.lastSolution();
 
         //The resulting plan
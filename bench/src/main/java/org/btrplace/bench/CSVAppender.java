@@ -0,0 +1,56 @@
+/*
+ * Copyright  2026 The BtrPlace Authors. All rights reserved.
+ * Use of this source code is governed by a LGPL-style
+ * license that can be found in the LICENSE.txt file.
+ */
+
+package org.btrplace.bench;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+
+/**
+ * Append lines to a CSV file.
+ * The file is opened once and every line is written and flushed atomically,
+ * so several solving threads can share the appender.
+ *
+ * @author Fabien Hermenier
+ */
+class CSVAppender implements Closeable {
+
+    private final BufferedWriter out;
+
+    /**
+     * New appender. The file is created if needed.
+     *
+     * @param f the file to append to
+     * @throws IOException if the file cannot be opened
+     */
+    CSVAppender(File f) throws IOException {
+        out = Files.newBufferedWriter(f.toPath(), UTF_8, CREATE, APPEND);
+    }
+
+    /**
+     * Append a line.
+     *
+     * @param line the line to write, without the line separator
+     * @throws IOException if an error occurred while writing
+     */
+    synchronized void append(CharSequence line) throws IOException {
+        out.append(line);
+        out.newLine();
+        out.flush();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        out.close();
+    }
+}
@@ -0,0 +1,293 @@
+/*
+ * Copyright  2026 The BtrPlace Authors. All rights reserved.
+ * Use of this source code is governed by a LGPL-style
+ * license that can be found in the LICENSE.txt file.
+ */
+
+package org.btrplace.bench;
+
+import org.btrplace.json.JSONConverterException;
+import org.btrplace.json.binary.BinaryReader;
+import org.btrplace.json.binary.BinaryWriter;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+
+/**
+ * A single file that stores many instances.
+ * <p>
+ * The instances are stored using the binary format of {@link BinaryWriter}, one after the other,
+ * followed by an index that gives the label, the offset and the size of each instance.
+ * When the corpus is opened, only the index is read. The instances are memory-mapped
+ * and decoded on demand.
+ * <p>
+ * To pack a list of instance files into a corpus:
+ * <pre>
+ * java org.btrplace.bench.Corpus list.txt corpus.bin
+ * </pre>
+ *
+ * @author Fabien Hermenier
+ */
+public class Corpus implements Closeable, Iterable<LabelledInstance> {
+
+    private static final byte[] MAGIC = {'B', 'T', 'R', 'C'};
+
+    private static final int VERSION = 1;
+
+    private final FileChannel channel;
+
+    private final String[] labels;
+
+    private final long[] offsets;
+
+    private final int[] sizes;
+
+    private final BinaryReader reader = new BinaryReader();
+
+    private Corpus(FileChannel ch, String[] labels, long[] offsets, int[] sizes) {
+        this.channel = ch;
+        this.labels = labels;
+        this.offsets = offsets;
+        this.sizes = sizes;
+    }
+
+    /**
+     * Write a corpus.
+     *
+     * @param f         the output file
+     * @param instances the instances to store
+     * @return the number of stored instances
+     * @throws IOException if an error occurred while writing the file
+     */
+    public static int write(File f, Iterator<LabelledInstance> instances) throws IOException {
+        BinaryWriter w = new BinaryWriter();
+        List<String> labels = new ArrayList<>();
+        long[] offsets = new long[16];
+        int[] sizes = new int[16];
+        int nb = 0;
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(f)))) {
+            out.write(MAGIC);
+            out.writeInt(VERSION);
+            long pos = MAGIC.length + 4L;
+            ByteArrayOutputStream buf = new ByteArrayOutputStream();
+            while (instances.hasNext()) {
+                LabelledInstance i = instances.next();
+                buf.reset();
+                w.write(i, buf);
+                buf.writeTo(out);
+                if (nb == offsets.length) {
+                    offsets = Arrays.copyOf(offsets, nb * 2);
+                    sizes = Arrays.copyOf(sizes, nb * 2);
+                }
+                offsets[nb] = pos;
+                sizes[nb] = buf.size();
+                labels.add(i.label);
+                pos += buf.size();
+                nb++;
+            }
+
+            //The index, then its offset
+            out.writeInt(nb);
+            for (int x = 0; x < nb; x++) {
+                out.writeUTF(labels.get(x));
+                out.writeLong(offsets[x]);
+                out.writeInt(sizes[x]);
+            }
+            out.writeLong(pos);
+        } catch (JSONConverterException ex) {
+            throw new IOException(ex);
+        }
+        return nb;
+    }
+
+    /**
+     * Open a corpus.
+     *
+     * @param f the file to open
+     * @return the corpus. It must be closed once used
+     * @throws IOException if the file cannot be read or is not a corpus
+     */
+    public static Corpus open(File f) throws IOException {
+        FileChannel ch = FileChannel.open(f.toPath(), StandardOpenOption.READ);
+        try {
+            if (!hasMagic(ch)) {
+                throw new IOException("'" + f + "' is not a corpus");
+            }
+            long size = ch.size();
+            ByteBuffer trailer = ch.map(FileChannel.MapMode.READ_ONLY, size - 8, 8);
+            long from = trailer.getLong();
+            DataInputStream idx = new DataInputStream(new ByteBufferInputStream(
+                    ch.map(FileChannel.MapMode.READ_ONLY, from, size - 8 - from)));
+            int nb = idx.readInt();
+            String[] labels = new String[nb];
+            long[] offsets = new long[nb];
+            int[] sizes = new int[nb];
+            for (int x = 0; x < nb; x++) {
+                labels[x] = idx.readUTF();
+                offsets[x] = idx.readLong();
+                sizes[x] = idx.readInt();
+            }
+            return new Corpus(ch, labels, offsets, sizes);
+        } catch (IOException | RuntimeException ex) {
+            ch.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Check if a file is a corpus.
+     *
+     * @param f the file to check
+     * @return {@code true} if the file starts like a corpus
+     * @throws IOException if the file cannot be read
+     */
+    public static boolean isCorpus(File f) throws IOException {
+        try (FileChannel ch = FileChannel.open(f.toPath(), StandardOpenOption.READ)) {
+            return hasMagic(ch);
+        }
+    }
+
+    private static boolean hasMagic(FileChannel ch) throws IOException {
+        ByteBuffer b = ByteBuffer.allocate(MAGIC.length);
+        while (b.hasRemaining()) {
+            if (ch.read(b, b.position()) < 0) {
+                return false;
+            }
+        }
+        return Arrays.equals(b.array(), MAGIC);
+    }
+
+    /**
+     * Get the number of instances.
+     *
+     * @return a positive number
+     */
+    public int size() {
+        return labels.length;
+    }
+
+    /**
+     * Get the label of an instance.
+     *
+     * @param i the instance index
+     * @return the label
+     */
+    public String label(int i) {
+        return labels[i];
+    }
+
+    /**
+     * Decode an instance.
+     *
+     * @param i the instance index
+     * @return the decoded instance
+     * @throws IllegalArgumentException if the instance cannot be decoded
+     */
+    public LabelledInstance get(int i) {
+        try {
+            ByteBuffer b = channel.map(FileChannel.MapMode.READ_ONLY, offsets[i], sizes[i]);
+            return new LabelledInstance(labels[i], reader.readInstance(new ByteBufferInputStream(b)));
+        } catch (IOException | JSONConverterException ex) {
+            throw new IllegalArgumentException("Unable to decode instance '" + labels[i] + "'", ex);
+        }
+    }
+
+    /**
+     * Iterate over the instances. Each instance is decoded when it is reached.
+     *
+     * @return an iterator
+     */
+    @Override
+    public Iterator<LabelledInstance> iterator() {
+        return new Iterator<LabelledInstance>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < size();
+            }
+
+            @Override
+            public LabelledInstance next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return get(next++);
+            }
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Read a mapped buffer as a stream.
+     */
+    private static class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buf;
+
+        ByteBufferInputStream(ByteBuffer b) {
+            buf = b;
+        }
+
+        @Override
+        public int read() {
+            return buf.hasRemaining() ? buf.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (!buf.hasRemaining()) {
+                return -1;
+            }
+            int nb = Math.min(len, buf.remaining());
+            buf.get(b, off, nb);
+            return nb;
+        }
+
+        @Override
+        public int available() {
+            return buf.remaining();
+        }
+    }
+
+    /**
+     * Pack a list of instance files into a corpus.
+     *
+     * @param args the file that list the instances (one path per line), then the corpus to write
+     * @throws IOException if an error occurred while reading the instances or writing the corpus
+     */
+    @SuppressWarnings("squid:S106")
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: Corpus instances_list output_file");
+            System.exit(1);
+        }
+        try (Stream<String> s = Files.lines(Paths.get(args[0]), StandardCharsets.UTF_8)) {
+            int nb = write(new File(args[1]), s.map(x -> Options.instance(new File(x))).iterator());
+            System.out.printf("%d instance(s) packed into '%s'%n", nb, args[1]);
+        }
+    }
+}
@@ -12,13 +12,18 @@ import org.btrplace.scheduler.choco.Parameters;
 import org.chocosolver.memory.EnvironmentBuilder;
 import org.kohsuke.args4j.Option;
 
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.Collections;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * CLI options to indicate instances and the solver tuning.
@@ -39,7 +44,7 @@ public class Options {
   @Option(name = "-i", aliases = "--instance", usage = "An instance  ('.json' or '.json.gz')", forbids = {"-l"})
   private String instance;
 
-  @Option(name = "-l", aliases = "--list", usage = "a list of instance files (one path per line)", forbids = {"-i"})
+  @Option(name = "-l", aliases = "--list", usage = "a list of instance files (one path per line) or a corpus", forbids = {"-i"})
   private String instances;
 
   @Option(name = "-o", aliases = "--output", usage = "Output folder where the CSV and the plans are stored", depends = {"-l"})
@@ -51,6 +56,9 @@ public class Options {
   @Option(name = "-v", usage = "Set the verbosity level. With '-i' it controls the solver verbosity. With '-l' the bench progress")
   private int verbosity = 0;
 
+  @Option(name = "-p", aliases = "--parallel", usage = "Number of instances solved concurrently (1 by default)", depends = {"-l"})
+  private int parallel = 1;
+
   /**
    * Get the parameters from the options.
    *
@@ -80,6 +88,15 @@ public class Options {
     return verbosity;
   }
 
+  /**
+   * Get the number of instances to solve concurrently.
+   *
+   * @return a number greater or equal to 1
+   */
+  public int parallel() {
+    return Math.max(1, parallel);
+  }
+
   /**
    * Check if there is only one instance to solver
    *
@@ -91,17 +108,40 @@ public class Options {
 
   /**
    * List all the instances to solve.
+   * With a list of instances, the next instance is loaded in background while the current one is consumed.
+   * The stream must be closed once used.
+   *
    * @return a list of instances
    * @throws IOException if it was not possible to get all the instances
+   * @see Corpus
    */
   public Stream<LabelledInstance> instances() throws IOException {
     if (single()) {
       return Collections.singletonList(instance(new File(instance))).stream();
     }
 
-    @SuppressWarnings("resource")
-    Stream<String> s = Files.lines(Paths.get(instances), StandardCharsets.UTF_8);
-    return s.map(x -> instance(new File(x)));
+    File f = new File(instances);
+    Iterator<LabelledInstance> ite;
+    Closeable src;
+    if (Corpus.isCorpus(f)) {
+      Corpus c = Corpus.open(f);
+      ite = c.iterator();
+      src = c;
+    } else {
+      Stream<String> s = Files.lines(f.toPath(), StandardCharsets.UTF_8);
+      ite = s.map(x -> instance(new File(x))).iterator();
+      src = s::close;
+    }
+    Prefetcher<LabelledInstance> p = new Prefetcher<>(ite);
+    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(p, Spliterator.ORDERED), false)
+        .onClose(() -> {
+          p.close();
+          try {
+            src.close();
+          } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+          }
+        });
   }
 
 
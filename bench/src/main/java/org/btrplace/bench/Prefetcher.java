@@ -0,0 +1,128 @@
+/*
+ * Copyright  2026 The BtrPlace Authors. All rights reserved.
+ * Use of this source code is governed by a LGPL-style
+ * license that can be found in the LICENSE.txt file.
+ */
+
+package org.btrplace.bench;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * An iterator that fetches the next element of another iterator on a background thread.
+ * When the element is retrieved, the fetching of the following one starts so it can
+ * be loaded while the current one is processed.
+ * <p>
+ * The underlying iterator is only accessed by one thread at a time.
+ *
+ * @param <T> the element type
+ * @author Fabien Hermenier
+ */
+class Prefetcher<T> implements Iterator<T>, Closeable {
+
+    /**
+     * Marks the end of the underlying iterator.
+     */
+    private static final Object END = new Object();
+
+    private final Iterator<T> source;
+
+    private final ExecutorService executor;
+
+    /**
+     * The pending fetch. It returns the next element or {@link #END}.
+     */
+    private Future<Object> pending;
+
+    /**
+     * The fetched element, once {@link #pending} is resolved.
+     */
+    private Object fetched;
+
+    private boolean resolved;
+
+    /**
+     * New prefetcher. The fetching of the first element starts immediately.
+     *
+     * @param src the iterator to read
+     */
+    Prefetcher(Iterator<T> src) {
+        source = src;
+        executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "prefetcher");
+            t.setDaemon(true);
+            return t;
+        });
+        fetch();
+    }
+
+    /**
+     * Fetch the next element in background.
+     * Both {@code hasNext()} and {@code next()} are called by the background thread as
+     * any of them may load the element.
+     */
+    private void fetch() {
+        resolved = false;
+        pending = executor.submit(() -> source.hasNext() ? source.next() : END);
+    }
+
+    /**
+     * Wait for the pending fetch.
+     *
+     * @return the fetched element or {@link #END}
+     */
+    private Object peek() {
+        if (resolved) {
+            return fetched;
+        }
+        try {
+            fetched = pending.get();
+            resolved = true;
+            return fetched;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        } catch (ExecutionException ex) {
+            fetched = END;
+            resolved = true;
+            Throwable t = ex.getCause();
+            if (t instanceof RuntimeException) {
+                throw (RuntimeException) t;
+            }
+            if (t instanceof Error) {
+                throw (Error) t;
+            }
+            throw new IllegalStateException(t);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return peek() != END;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T next() {
+        Object v = peek();
+        if (v == END) {
+            throw new NoSuchElementException();
+        }
+        fetch();
+        return (T) v;
+    }
+
+    /**
+     * Stop the background thread. A pending fetch is cancelled.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
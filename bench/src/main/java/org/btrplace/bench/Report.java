@@ -0,0 +1,115 @@
+/*
+ * Copyright  2026 The BtrPlace Authors. All rights reserved.
+ * Use of this source code is governed by a LGPL-style
+ * license that can be found in the LICENSE.txt file.
+ */
+
+package org.btrplace.bench;
+
+import gnu.trove.list.array.TLongArrayList;
+import org.btrplace.scheduler.choco.runner.Metrics;
+import org.btrplace.scheduler.choco.runner.SolvingStatistics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Summary of a bench campaign.
+ * It reports the throughput and the latency percentiles of each solving phase.
+ * Statistics can be added concurrently.
+ *
+ * @author Fabien Hermenier
+ */
+class Report {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 100};
+
+    private final long start;
+
+    private final TLongArrayList coreBuild = new TLongArrayList();
+
+    private final TLongArrayList specialisation = new TLongArrayList();
+
+    private final TLongArrayList solving = new TLongArrayList();
+
+    private final TLongArrayList total = new TLongArrayList();
+
+    /**
+     * New report. The campaign is considered as started.
+     */
+    Report() {
+        start = System.nanoTime();
+    }
+
+    /**
+     * Add the statistics of a solved instance.
+     *
+     * @param stats the statistics
+     */
+    synchronized void add(SolvingStatistics stats) {
+        long core = stats.getCoreBuildDuration();
+        long spe = stats.getSpecializationDuration();
+        //Already in milliseconds. No metrics when the problem was found unsolvable while being built
+        Metrics m = stats.getMetrics();
+        long solve = m == null ? 0 : m.timeCount();
+        coreBuild.add(core);
+        specialisation.add(spe);
+        solving.add(solve);
+        total.add(core + spe + solve);
+    }
+
+    /**
+     * Get the number of solved instances.
+     *
+     * @return a positive number
+     */
+    synchronized int size() {
+        return total.size();
+    }
+
+    /**
+     * Get the throughput since the beginning of the campaign.
+     *
+     * @return a number of instances per minute
+     */
+    synchronized double throughput() {
+        double minutes = (System.nanoTime() - start) / (double) TimeUnit.MINUTES.toNanos(1);
+        return minutes == 0 ? 0 : total.size() / minutes;
+    }
+
+    /**
+     * Compute a percentile using the nearest-rank method.
+     *
+     * @param values the values
+     * @param p      the percentile, between 0 (excluded) and 100
+     * @return the value. {@code 0} if there is no values
+     */
+    static long percentile(TLongArrayList values, double p) {
+        if (values.isEmpty()) {
+            return 0;
+        }
+        TLongArrayList sorted = new TLongArrayList(values);
+        sorted.sort();
+        int rank = (int) Math.ceil(p / 100 * sorted.size());
+        return sorted.get(Math.max(rank, 1) - 1);
+    }
+
+    private static void line(StringBuilder b, String phase, TLongArrayList values) {
+        b.append(String.format("%-15s", phase));
+        for (double p : PERCENTILES) {
+            b.append(String.format("%10d", percentile(values, p)));
+        }
+        b.append(System.lineSeparator());
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder b = new StringBuilder();
+        b.append(String.format("%d instance(s) solved, %.2f instance(s)/min%n", total.size(), throughput()));
+        b.append(String.format("%-15s%10s%10s%10s%10s%n", "latency (ms)", "p50", "p90", "p99", "max"));
+        line(b, "coreBuild", coreBuild);
+        line(b, "specialisation", specialisation);
+        line(b, "solving", solving);
+        line(b, "total", total);
+        return b.toString();
+    }
+}
@@ -118,6 +118,45 @@ public class BenchTest {
         }
     }
 
+    /**
+     * Solve a corpus. Check for the CSV file
+     */
+    @Test
+    public void testCorpus() throws Exception {
+        File f = CorpusTest.corpus(3);
+        Path output = Files.createTempDirectory("corpus");
+        Bench.main(new String[]{
+                "-l", f.getAbsolutePath(),
+                "-o", output.toString()
+        });
+        File csv = new File(output.toString() + File.separator + Bench.SCHEDULER_STATS);
+        List<String> lines = Files.readAllLines(csv.toPath(), UTF_8);
+        Assert.assertEquals(lines.size(), 3);
+        Assert.assertEquals(lines.get(1).split(";")[1], "instance-1");
+    }
+
+    /**
+     * Solve a corpus concurrently. Check every instance has its CSV line.
+     */
+    @Test
+    public void testParallel() throws Exception {
+        File f = CorpusTest.corpus(8);
+        Path output = Files.createTempDirectory("parallel");
+        Bench.main(new String[]{
+                "-l", f.getAbsolutePath(),
+                "-o", output.toString(),
+                "-p", "3"
+        });
+        File csv = new File(output.toString() + File.separator + Bench.SCHEDULER_STATS);
+        List<String> lines = Files.readAllLines(csv.toPath(), UTF_8);
+        Assert.assertEquals(lines.size(), 8);
+        Set<String> labels = new HashSet<>();
+        for (String line : lines) {
+            labels.add(line.split(";")[1]);
+        }
+        Assert.assertEquals(labels.size(), 8);
+    }
+
     //    @Test
     public void testAllocation() throws Exception {
         String base = "bench/src/test/resources/std-perf/";
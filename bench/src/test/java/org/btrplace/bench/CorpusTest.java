@@ -0,0 +1,149 @@
+/*
+ * Copyright  2026 The BtrPlace Authors. All rights reserved.
+ * Use of this source code is governed by a LGPL-style
+ * license that can be found in the LICENSE.txt file.
+ */
+
+package org.btrplace.bench;
+
+import org.btrplace.model.Instance;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Unit tests for {@link Corpus}.
+ *
+ * @author Fabien Hermenier
+ */
+public class CorpusTest {
+
+    static File corpus(int nb) throws IOException {
+        List<LabelledInstance> l = new ArrayList<>();
+        for (int x = 0; x < nb; x++) {
+            l.add(new LabelledInstance("instance-" + x, BenchTest.instance()));
+        }
+        File f = File.createTempFile("corpus", ".bin");
+        f.deleteOnExit();
+        Assert.assertEquals(Corpus.write(f, l.iterator()), nb);
+        return f;
+    }
+
+    @Test
+    public void testWriteAndOpen() throws IOException {
+        File f = corpus(20);
+        Assert.assertTrue(Corpus.isCorpus(f));
+        Instance ref = BenchTest.instance();
+        try (Corpus c = Corpus.open(f)) {
+            Assert.assertEquals(c.size(), 20);
+            Assert.assertEquals(c.label(7), "instance-7");
+            //Random access
+            LabelledInstance i = c.get(13);
+            Assert.assertEquals(i.label, "instance-13");
+            Assert.assertEquals(i.getModel(), ref.getModel());
+            Assert.assertEquals(i.getSatConstraints(), ref.getSatConstraints());
+            int nb = 0;
+            for (LabelledInstance x : c) {
+                Assert.assertEquals(x.label, "instance-" + nb);
+                nb++;
+            }
+            Assert.assertEquals(nb, 20);
+        }
+    }
+
+    @Test
+    public void testEmpty() throws IOException {
+        File f = corpus(0);
+        try (Corpus c = Corpus.open(f)) {
+            Assert.assertEquals(c.size(), 0);
+            Assert.assertFalse(c.iterator().hasNext());
+        }
+    }
+
+    @Test
+    public void testNotACorpus() throws Exception {
+        File f = BenchTest.store(BenchTest.instance());
+        Assert.assertFalse(Corpus.isCorpus(f));
+        try {
+            Corpus.open(f).close();
+            Assert.fail();
+        } catch (IOException ex) {
+            //expected
+        }
+    }
+
+    @Test
+    public void testPrefetcher() {
+        List<Integer> l = new ArrayList<>();
+        for (int x = 0; x < 100; x++) {
+            l.add(x);
+        }
+        try (Prefetcher<Integer> p = new Prefetcher<>(l.iterator())) {
+            List<Integer> res = new ArrayList<>();
+            p.forEachRemaining(res::add);
+            Assert.assertEquals(res, l);
+        }
+
+        Iterator<Integer> failing = new Iterator<Integer>() {
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public Integer next() {
+                throw new IllegalArgumentException("boom");
+            }
+        };
+        try (Prefetcher<Integer> p = new Prefetcher<>(failing)) {
+            p.next();
+            Assert.fail();
+        } catch (IllegalArgumentException ex) {
+            Assert.assertEquals(ex.getMessage(), "boom");
+        }
+        try (Prefetcher<Integer> p = new Prefetcher<>(Collections.emptyIterator())) {
+            Assert.assertFalse(p.hasNext());
+        }
+    }
+
+    /**
+     * The underlying iterator must only be browsed by the background thread, even if
+     * {@code hasNext()} does the loading.
+     */
+    @Test
+    public void testPrefetcherLoadsInBackground() {
+        Set<String> threads = Collections.synchronizedSet(new HashSet<>());
+        Iterator<Integer> src = new Iterator<Integer>() {
+            private int nb = 0;
+
+            @Override
+            public boolean hasNext() {
+                threads.add(Thread.currentThread().getName());
+                return nb < 5;
+            }
+
+            @Override
+            public Integer next() {
+                threads.add(Thread.currentThread().getName());
+                return nb++;
+            }
+        };
+        try (Prefetcher<Integer> p = new Prefetcher<>(src)) {
+            List<Integer> res = new ArrayList<>();
+            while (p.hasNext()) {
+                res.add(p.next());
+            }
+            Assert.assertEquals(res, Arrays.asList(0, 1, 2, 3, 4));
+        }
+        Assert.assertEquals(threads, Collections.singleton("prefetcher"));
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright  2026 The BtrPlace Authors. All rights reserved.
+ * Use of this source code is governed by a LGPL-style
+ * license that can be found in the LICENSE.txt file.
+ */
+
+package org.btrplace.bench;
+
+import gnu.trove.list.array.TLongArrayList;
+import org.btrplace.scheduler.choco.runner.Metrics;
+import org.btrplace.scheduler.choco.runner.SolvingStatistics;
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for {@link Report}.
+ *
+ * @author Fabien Hermenier
+ */
+public class ReportTest {
+
+    @Test
+    public void testPercentile() {
+        TLongArrayList values = new TLongArrayList(new long[]{15, 20, 35, 40, 50});
+        Assert.assertEquals(Report.percentile(values, 50), 35);
+        Assert.assertEquals(Report.percentile(values, 30), 20);
+        Assert.assertEquals(Report.percentile(values, 100), 50);
+        Assert.assertEquals(Report.percentile(values, 1), 15);
+        Assert.assertEquals(Report.percentile(new TLongArrayList(), 90), 0);
+    }
+
+    @Test
+    public void testAdd() {
+        Report r = new Report();
+        for (long solving : new long[]{250, 400}) {
+            SolvingStatistics stats = Mockito.mock(SolvingStatistics.class);
+            Mockito.when(stats.getCoreBuildDuration()).thenReturn(10L);
+            Mockito.when(stats.getSpecializationDuration()).thenReturn(5L);
+            //Durations in milliseconds
+            Mockito.when(stats.getMetrics()).thenReturn(new Metrics(0, solving, 10, 0, 0, 0));
+            r.add(stats);
+        }
+        Assert.assertEquals(r.size(), 2);
+        String out = r.toString();
+        Assert.assertTrue(out.contains(String.format("%-15s%10d%10d%10d%10d", "solving", 250, 400, 400, 400)), out);
+        Assert.assertTrue(out.contains(String.format("%-15s%10d%10d%10d%10d", "total", 265, 415, 415, 415)), out);
+    }
+
+    @Test
+    public void testAddWithoutMetrics() {
+        Report r = new Report();
+        SolvingStatistics stats = Mockito.mock(SolvingStatistics.class);
+        Mockito.when(stats.getCoreBuildDuration()).thenReturn(10L);
+        Mockito.when(stats.getSpecializationDuration()).thenReturn(5L);
+        //The solver did not run
+        Mockito.when(stats.getMetrics()).thenReturn(null);
+        r.add(stats);
+        Assert.assertEquals(r.size(), 1);
+        String out = r.toString();
+        Assert.assertTrue(out.contains(String.format("%-15s%10d%10d%10d%10d", "solving", 0, 0, 0, 0)), out);
+        Assert.assertTrue(out.contains(String.format("%-15s%10d%10d%10d%10d", "total", 15, 15, 15, 15)), out);
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright  2026 The BtrPlace Authors. All rights reserved.
+ * Use of this source code is governed by a LGPL-style
+ * license that can be found in the LICENSE.txt file.
+ */
+
+package org.btrplace.bench.perf;
+
+import org.btrplace.model.DefaultModel;
+import org.btrplace.model.Instance;
+import org.btrplace.model.Mapping;
+import org.btrplace.model.Model;
+import org.btrplace.model.Node;
+import org.btrplace.model.VM;
+import org.btrplace.model.constraint.Ban;
+import org.btrplace.model.constraint.MinMTTR;
+import org.btrplace.model.constraint.Offline;
+import org.btrplace.model.constraint.Preserve;
+import org.btrplace.model.constraint.SatConstraint;
+import org.btrplace.model.constraint.Spread;
+import org.btrplace.model.view.ShareableResource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Generator of parametric datacenters to bench the scheduler.
+ * <p>
+ * Every node has the same capacity for each of the resource dimensions.
+ * The VMs are evenly distributed among the nodes and a fraction of the nodes
+ * must go offline so the scheduler has to relocate their VMs.
+ * The generation is deterministic for a given seed.
+ *
+ * @author Fabien Hermenier
+ */
+public final class Datacenters {
+
+    /**
+     * The capacity of a node, for every resource dimension.
+     */
+    public static final int NODE_CAPACITY = 64;
+
+    /**
+     * The mix of side constraints to add to an instance.
+     */
+    public enum Mix {
+        /**
+         * Only the {@link Offline} constraints.
+         */
+        NONE,
+        /**
+         * Replicated applications running on distinct nodes,
+         * using {@link Spread} constraints.
+         */
+        SPREAD,
+        /**
+         * {@link Spread}, {@link Ban} and {@link Preserve} constraints.
+         */
+        MIXED
+    }
+
+    private final int nbNodes;
+
+    private final int nbVMsPerNode;
+
+    private final int nbDimensions;
+
+    private final Mix mix;
+
+    private double offlineRatio = 0.05;
+
+    private int replicas = 3;
+
+    private long seed = 0;
+
+    /**
+     * New generator.
+     *
+     * @param nodes      the number of nodes
+     * @param vmsPerNode the number of VMs initially running on each node
+     * @param dimensions the number of {@link ShareableResource} to declare
+     * @param m          the constraint mix
+     */
+    public Datacenters(int nodes, int vmsPerNode, int dimensions, Mix m) {
+        if (nodes < 2 || vmsPerNode < 1 || dimensions < 0) {
+            throw new IllegalArgumentException("Unsupported datacenter dimensions");
+        }
+        this.nbNodes = nodes;
+        this.nbVMsPerNode = vmsPerNode;
+        this.nbDimensions = dimensions;
+        this.mix = m;
+    }
+
+    /**
+     * Set the ratio of nodes that must go offline.
+     *
+     * @param r a ratio between 0 and 1 (5% by default)
+     * @return {@code this}
+     */
+    public Datacenters offlineRatio(double r) {
+        offlineRatio = r;
+        return this;
+    }
+
+    /**
+     * Set the number of replicas for each spread application.
+     *
+     * @param nb a number greater than 1 (3 by default)
+     * @return {@code this}
+     */
+    public Datacenters replicas(int nb) {
+        replicas = nb;
+        return this;
+    }
+
+    /**
+     * Set the random seed.
+     *
+     * @param s the seed (0 by default)
+     * @return {@code this}
+     */
+    public Datacenters seed(long s) {
+        seed = s;
+        return this;
+    }
+
+    /**
+     * Generate an instance.
+     * The optimisation constraint is {@link MinMTTR}.
+     *
+     * @return a new instance
+     */
+    public Instance build() {
+        Random rnd = new Random(seed);
+        Model mo = new DefaultModel();
+        Mapping map = mo.getMapping();
+
+        List<ShareableResource> rcs = new ArrayList<>();
+        for (int d = 0; d < nbDimensions; d++) {
+            ShareableResource rc = new ShareableResource("rc" + d, NODE_CAPACITY, 0);
+            rcs.add(rc);
+            mo.attach(rc);
+        }
+
+        List<Node> nodes = new ArrayList<>(nbNodes);
+        for (int i = 0; i < nbNodes; i++) {
+            Node n = mo.newNode();
+            map.on(n);
+            nodes.add(n);
+        }
+
+        //VMs are placed round-robin so a replica group lands on distinct nodes.
+        //The node load is at most half its capacity to leave room for the relocations.
+        int maxConsumption = Math.max(1, NODE_CAPACITY / (2 * nbVMsPerNode));
+        List<VM> vms = new ArrayList<>(nbNodes * nbVMsPerNode);
+        for (int i = 0; i < nbNodes * nbVMsPerNode; i++) {
+            VM v = mo.newVM();
+            map.run(nodes.get(i % nbNodes), v);
+            for (ShareableResource rc : rcs) {
+                rc.setConsumption(v, 1 + rnd.nextInt(maxConsumption));
+            }
+            vms.add(v);
+        }
+
+        List<SatConstraint> cstrs = new ArrayList<>();
+        int nbOffline = Math.min(nbNodes, Math.max(1, (int) (nbNodes * offlineRatio)));
+        //Sampled without replacement so there are exactly nbOffline nodes to turn off
+        List<Node> candidates = new ArrayList<>(nodes);
+        Collections.shuffle(candidates, rnd);
+        for (Node n : candidates.subList(0, nbOffline)) {
+            cstrs.add(new Offline(n));
+        }
+
+        if (mix != Mix.NONE) {
+            int r = Math.min(replicas, nbNodes - nbOffline);
+            for (int from = 0; from + r <= vms.size(); from += r) {
+                Set<VM> app = new HashSet<>(vms.subList(from, from + r));
+                cstrs.add(new Spread(app, false));
+            }
+        }
+
+        if (mix == Mix.MIXED) {
+            for (VM v : vms) {
+                if (rnd.nextInt(10) == 0) {
+                    cstrs.add(new Ban(v, nodes.get(rnd.nextInt(nbNodes))));
+                }
+                if (!rcs.isEmpty() && rnd.nextInt(10) == 0) {
+                    ShareableResource rc = rcs.get(rnd.nextInt(rcs.size()));
+                    cstrs.add(new Preserve(v, rc.getResourceIdentifier(), rc.getConsumption(v)));
+                }
+            }
+        }
+        return new Instance(mo, cstrs, new MinMTTR());
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright  2026 The BtrPlace Authors. All rights reserved.
+ * Use of this source code is governed by a LGPL-style
+ * license that can be found in the LICENSE.txt file.
+ */
+
+package org.btrplace.bench.perf;
+
+import org.btrplace.model.Instance;
+import org.btrplace.model.Node;
+import org.btrplace.model.constraint.Ban;
+import org.btrplace.model.constraint.Offline;
+import org.btrplace.model.constraint.SatConstraint;
+import org.btrplace.model.constraint.Spread;
+import org.btrplace.model.view.ShareableResource;
+import org.btrplace.plan.ReconfigurationPlan;
+import org.btrplace.scheduler.choco.ChocoScheduler;
+import org.btrplace.scheduler.choco.DefaultChocoScheduler;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Unit tests for {@link Datacenters}.
+ *
+ * @author Fabien Hermenier
+ */
+public class DatacentersTest {
+
+    @Test
+    public void testBuild() {
+        Instance i = new Datacenters(20, 3, 2, Datacenters.Mix.SPREAD).build();
+        Assert.assertEquals(i.getModel().getMapping().getNbNodes(), 20);
+        Assert.assertEquals(i.getModel().getMapping().getNbVMs(), 60);
+        Assert.assertEquals(i.getModel().getViews().size(), 2);
+        Assert.assertNotNull(ShareableResource.get(i.getModel(), "rc1"));
+        Assert.assertEquals(i.getSatConstraints().stream().filter(c -> c instanceof Offline).count(), 1);
+        Assert.assertEquals(i.getSatConstraints().stream().filter(c -> c instanceof Spread).count(), 20);
+        Assert.assertEquals(i.getSatConstraints().stream().filter(c -> c instanceof Ban).count(), 0);
+        //Deterministic
+        Assert.assertEquals(new Datacenters(20, 3, 2, Datacenters.Mix.SPREAD).build(), i);
+    }
+
+    @Test
+    public void testDistinctOfflineNodes() {
+        Instance i = new Datacenters(20, 3, 2, Datacenters.Mix.NONE).offlineRatio(0.5).build();
+        Set<Node> offline = new HashSet<>();
+        for (SatConstraint c : i.getSatConstraints()) {
+            if (c instanceof Offline) {
+                Assert.assertTrue(offline.addAll(c.getInvolvedNodes()));
+            }
+        }
+        Assert.assertEquals(offline.size(), 10);
+    }
+
+    @Test
+    public void testSolvable() throws Exception {
+        for (Datacenters.Mix m : Datacenters.Mix.values()) {
+            Instance i = new Datacenters(30, 4, 2, m).offlineRatio(0.1).seed(1).build();
+            ChocoScheduler s = new DefaultChocoScheduler();
+            s.doRepair(true);
+            ReconfigurationPlan p = s.solve(i);
+            Assert.assertNotNull(p, m.toString());
+            Assert.assertTrue(p.getSize() > 0, m.toString());
+        }
+    }
+}
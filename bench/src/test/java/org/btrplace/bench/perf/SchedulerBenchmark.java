@@ -0,0 +1,167 @@
+/*
+ * Copyright  2026 The BtrPlace Authors. All rights reserved.
+ * Use of this source code is governed by a LGPL-style
+ * license that can be found in the LICENSE.txt file.
+ */
+
+package org.btrplace.bench.perf;
+
+import org.btrplace.model.Instance;
+import org.btrplace.plan.ReconfigurationPlan;
+import org.btrplace.scheduler.SchedulerException;
+import org.btrplace.scheduler.choco.ChocoScheduler;
+import org.btrplace.scheduler.choco.DefaultChocoScheduler;
+import org.btrplace.scheduler.choco.DefaultParameters;
+import org.btrplace.scheduler.choco.Parameters;
+import org.btrplace.scheduler.choco.runner.SolvingStatistics;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of the end-to-end {@link DefaultChocoScheduler#solve(Instance)} path
+ * over generated datacenters.
+ * <p>
+ * The primary score is the time to solve an instance. The secondary scores
+ * report the durations of the phases measured by the scheduler: {@code coreBuild},
+ * {@code specialisation} and {@code solving}. They are cumulated over an iteration, so
+ * divide them by {@code solves} to get a per-solve duration in milliseconds.
+ * <p>
+ * Run it from the {@code bench} module with:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=org.btrplace.bench.perf.SchedulerBenchmark -Dexec.args="-p nodes=5000"
+ * </pre>
+ *
+ * @author Fabien Hermenier
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4G", "-Xmx4G"})
+public class SchedulerBenchmark {
+
+    @Param({"500", "1000", "5000"})
+    public int nodes;
+
+    @Param({"4"})
+    public int vmsPerNode;
+
+    @Param({"2"})
+    public int dimensions;
+
+    @Param({"NONE", "SPREAD", "MIXED"})
+    public Datacenters.Mix mix;
+
+    @Param({"true"})
+    public boolean repair;
+
+    @Param({"false"})
+    public boolean optimize;
+
+    /**
+     * The solving time limit, in seconds.
+     */
+    @Param({"60"})
+    public int timeout;
+
+    private Instance instance;
+
+    private Parameters params;
+
+    /**
+     * The durations of the solving phases, in milliseconds.
+     * They are reset at each iteration.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Phases {
+
+        public long coreBuild;
+
+        public long specialisation;
+
+        public long solving;
+
+        public long solves;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            coreBuild = 0;
+            specialisation = 0;
+            solving = 0;
+            solves = 0;
+        }
+
+        void add(SolvingStatistics st) {
+            coreBuild += st.getCoreBuildDuration();
+            specialisation += st.getSpecializationDuration();
+            if (st.getMetrics() != null) {
+                solving += st.getMetrics().timeCount();
+            }
+            solves++;
+        }
+    }
+
+    /**
+     * Generate the instance once per trial so every invocation solves the same problem.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        instance = new Datacenters(nodes, vmsPerNode, dimensions, mix).build();
+        params = new DefaultParameters()
+                .doRepair(repair)
+                .doOptimize(optimize)
+                .setTimeLimit(timeout);
+    }
+
+    /**
+     * Solve the generated instance with a fresh scheduler.
+     *
+     * @param phases the per-phase counters
+     * @return the computed plan, to prevent dead-code elimination
+     * @throws SchedulerException if the scheduler failed
+     */
+    @Benchmark
+    public ReconfigurationPlan solve(Phases phases) throws SchedulerException {
+        ChocoScheduler s = new DefaultChocoScheduler().setParameters(params);
+        ReconfigurationPlan p = s.solve(instance);
+        phases.add(s.getStatistics());
+        return p;
+    }
+
+    /**
+     * Launcher. Accepts the standard JMH command line options.
+     *
+     * @param args the JMH options
+     * @throws RunnerException if the benchmark failed
+     * @throws CommandLineOptionException if the options are not valid
+     */
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Options opts = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(SchedulerBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opts).run();
+    }
+}
@@ -96,6 +96,36 @@ public class DefaultChocoScheduler implements ChocoScheduler {
         return params.doRepair();
     }
 
+    @Override
+    public Parameters doLazyPlans(boolean b) {
+        return params.doLazyPlans(b);
+    }
+
+    @Override
+    public boolean doLazyPlans() {
+        return params.doLazyPlans();
+    }
+
+    @Override
+    public Parameters doAggregateFrozenVMs(boolean b) {
+        return params.doAggregateFrozenVMs(b);
+    }
+
+    @Override
+    public boolean doAggregateFrozenVMs() {
+        return params.doAggregateFrozenVMs();
+    }
+
+    @Override
+    public Parameters doIndexedPlacement(boolean b) {
+        return params.doIndexedPlacement(b);
+    }
+
+    @Override
+    public boolean doIndexedPlacement() {
+        return params.doIndexedPlacement();
+    }
+
     @Override
     public ReconfigurationPlan solve(Model mo, Collection<? extends SatConstraint> cstrs) throws SchedulerException {
         return solve(mo, cstrs, new MinMTTR());
@@ -27,6 +27,8 @@ import java.util.function.BiConsumer;
  * Default implementation of {@link Parameters}.
  * <ul>
  * <li>repair mode is disabled</li>
+ * <li>the plans of the computed solutions are built eagerly</li>
+ * <li>the placement heuristics do not index the node loads</li>
  * <li>no time limit</li>
  * <li>a default horizon of 1 hour</li>
  * <li>the transition factory comes from {@link org.btrplace.scheduler.choco.transition.TransitionFactory#newBundle()}</li>
@@ -61,6 +63,12 @@ public class DefaultParameters implements Parameters {
 
     private boolean repair = false;
 
+    private boolean lazyPlans = false;
+
+    private boolean aggregateFrozen = false;
+
+    private boolean indexedPlacement = false;
+
     private DurationEvaluators durationEvaluators;
 
     private final List<BiConsumer<ReconfigurationProblem, ReconfigurationPlan>> solutionListeners;
@@ -129,6 +137,9 @@ public class DefaultParameters implements Parameters {
         seed = ps.getRandomSeed();
         timeLimit = ps.getTimeLimit();
         repair = ps.doRepair();
+        lazyPlans = ps.doLazyPlans();
+        aggregateFrozen = ps.doAggregateFrozenVMs();
+        indexedPlacement = ps.doIndexedPlacement();
         durationEvaluators = ps.getDurationEvaluators();
         maxEnd = ps.getMaxEnd();
         verbosityLevel = ps.getVerbosity();
@@ -161,6 +172,39 @@ public class DefaultParameters implements Parameters {
         return optimize;
     }
 
+    @Override
+    public DefaultParameters doLazyPlans(boolean b) {
+        lazyPlans = b;
+        return this;
+    }
+
+    @Override
+    public boolean doLazyPlans() {
+        return lazyPlans;
+    }
+
+    @Override
+    public DefaultParameters doAggregateFrozenVMs(boolean b) {
+        aggregateFrozen = b;
+        return this;
+    }
+
+    @Override
+    public boolean doAggregateFrozenVMs() {
+        return aggregateFrozen;
+    }
+
+    @Override
+    public DefaultParameters doIndexedPlacement(boolean b) {
+        indexedPlacement = b;
+        return this;
+    }
+
+    @Override
+    public boolean doIndexedPlacement() {
+        return indexedPlacement;
+    }
+
     @Override
     public DefaultParameters setRandomSeed(long s) {
         seed = s;
@@ -72,6 +72,70 @@ public interface Parameters {
      */
     boolean doOptimize();
 
+    /**
+     * State if the reconfiguration plans of the computed solutions are only built on demand.
+     * When enabled, only the raw solution and the objective value are recorded each time
+     * a solution is computed. The plan is built at the first call to
+     * {@link org.btrplace.scheduler.choco.runner.SolutionStatistics#getReconfigurationPlan()}.
+     * When solution listeners are registered, plans are always built.
+     *
+     * @param b {@code true} to build the plans on demand
+     * @return the current instance
+     */
+    Parameters doLazyPlans(boolean b);
+
+    /**
+     * Tell if the reconfiguration plans of the computed solutions are only built on demand.
+     *
+     * @return {@code true} iff the plans are built on demand
+     * @see #doLazyPlans(boolean)
+     */
+    boolean doLazyPlans();
+
+    /**
+     * State if the VMs that are frozen on their node are aggregated.
+     * A VM is frozen when its host is already known once the problem is built, typically
+     * because it is not manageable in repair mode.
+     * When enabled, the packing constraint does not consider the frozen VMs as items and
+     * the scheduling constraint does not consider the slices of the frozen VMs that keep
+     * the same resource allocation. Their consumption is subtracted once for all from the
+     * capacity of their node instead.
+     * This reduces the work of these constraints but not the number of variables as the
+     * transitions of the frozen VMs are still modeled.
+     *
+     * @param b {@code true} to aggregate the frozen VMs
+     * @return the current instance
+     */
+    Parameters doAggregateFrozenVMs(boolean b);
+
+    /**
+     * Tell if the VMs that are frozen on their node are aggregated.
+     *
+     * @return {@code true} iff the frozen VMs are aggregated
+     * @see #doAggregateFrozenVMs(boolean)
+     */
+    boolean doAggregateFrozenVMs();
+
+    /**
+     * State if the VMs are placed using an index of the node loads.
+     * When enabled, the objectives relying on a worst fit placement heuristic use
+     * {@link org.btrplace.scheduler.choco.constraint.mttr.IndexedWorstFit}: the nodes are ranked by their
+     * current load rather than by their load once the VM is added, so the placement decisions
+     * may differ from the default heuristic. The heuristic is faster on large datacenters.
+     *
+     * @param b {@code true} to use the indexed placement heuristic
+     * @return the current instance
+     */
+    Parameters doIndexedPlacement(boolean b);
+
+    /**
+     * Tell if the VMs are placed using an index of the node loads.
+     *
+     * @return {@code true} iff the indexed placement heuristic is used
+     * @see #doIndexedPlacement(boolean)
+     */
+    boolean doIndexedPlacement();
+
     /**
      * Set the timeout value for the solving process.
      * Use a negative number to remove any timeout.
@@ -16,6 +16,7 @@ import org.btrplace.scheduler.choco.ReconfigurationProblem;
 import org.btrplace.scheduler.choco.Slice;
 import org.btrplace.scheduler.choco.transition.VMTransition;
 import org.chocosolver.solver.Cause;
+import org.chocosolver.solver.Model;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.variables.IntVar;
 
@@ -100,21 +101,30 @@ public class CGather implements ChocoConstraint {
         return true;
     }
 
+    /**
+     * All the VMs share a single host variable so the encoding is linear.
+     */
     private static boolean forceDiscreteCollocation(ReconfigurationProblem rp, List<Slice> dSlices) {
-        for (int i = 0; i < dSlices.size(); i++) {
-            for (int j = 0; j < i; j++) {
-                Slice s1 = dSlices.get(i);
-                Slice s2 = dSlices.get(j);
-                IntVar i1 = s1.getHoster();
-                IntVar i2 = s2.getHoster();
-                if (i1.isInstantiated() && !instantiateTo(rp, i2, i1.getLB(), s1, s2)) {
-                    return false;
-                } else if (i2.isInstantiated() && !instantiateTo(rp, i1, i2.getLB(), s1, s2)) {
-                    return false;
+        if (dSlices.size() < 2) {
+            return true;
+        }
+        //A VM is already placed, the others follow
+        for (Slice s : dSlices) {
+            if (s.getHoster().isInstantiated()) {
+                int nIdx = s.getHoster().getValue();
+                for (Slice o : dSlices) {
+                    if (!instantiateTo(rp, o.getHoster(), nIdx, o, s)) {
+                        return false;
+                    }
                 }
-                rp.getModel().post(rp.getModel().arithm(i1, "=", i2));
+                return true;
             }
         }
+        Model csp = rp.getModel();
+        IntVar host = rp.makeHostVariable("gather(", dSlices.size(), ").host");
+        for (Slice s : dSlices) {
+            csp.post(csp.arithm(s.getHoster(), "=", host));
+        }
         return true;
     }
 
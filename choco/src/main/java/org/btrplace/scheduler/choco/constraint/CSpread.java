@@ -14,10 +14,9 @@ import org.btrplace.model.constraint.Spread;
 import org.btrplace.scheduler.choco.Parameters;
 import org.btrplace.scheduler.choco.ReconfigurationProblem;
 import org.btrplace.scheduler.choco.Slice;
-import org.btrplace.scheduler.choco.extensions.ChocoUtils;
+import org.btrplace.scheduler.choco.extensions.SpreadPrecedences;
 import org.btrplace.scheduler.choco.transition.VMTransition;
 import org.chocosolver.solver.Model;
-import org.chocosolver.solver.variables.BoolVar;
 import org.chocosolver.solver.variables.IntVar;
 
 import java.util.*;
@@ -62,58 +61,36 @@ public class CSpread implements ChocoConstraint {
         //The lazy spread implementation for the placement
       csp.post(csp.allDifferent(running.toArray(new IntVar[running.size()]), "AC"));
         if (cstr.isContinuous()) {
-            List<VM> vms = new ArrayList<>(cstr.getInvolvedVMs());
-            for (int i = 0; i < vms.size(); i++) {
-                VM vm = vms.get(i);
-                VMTransition aI = rp.getVMAction(vm);
-                for (int j = 0; j < i; j++) {
-                    VM vmJ = vms.get(j);
-                    VMTransition aJ = rp.getVMAction(vmJ);
-                    disallowOverlap(rp, aI, aJ);
-                }
-            }
+            disallowOverlap(rp);
         }
         return true;
     }
 
-    private static void disallowOverlap(ReconfigurationProblem rp, VMTransition t1, VMTransition t2) {
-
-      Slice dI = t1.getDSlice();
-        Slice cI = t1.getCSlice();
-
-        Slice dJ = t2.getDSlice();
-        Slice cJ = t2.getCSlice();
-
-
-        if (dI != null && cJ != null) {
-            precedenceIfOverlap(rp, dI, cJ);
-        }
-        //The inverse relation
-        if (dJ != null && cI != null) {
-            precedenceIfOverlap(rp, dJ, cI);
-        }
-    }
-
     /**
-     * Establish the precedence constraint {@code c.getEnd() <= d.getStart()} if the two slices may overlap.
+     * A VM cannot arrive on a node before the other VMs left it.
      */
-    private static void precedenceIfOverlap(ReconfigurationProblem rp, Slice d, Slice c) {
-        Model csp = rp.getModel();
-        //No need to place the constraints if the slices do not have a chance to overlap
-        if (!(c.getHoster().isInstantiated() && !d.getHoster().contains(c.getHoster().getValue()))
-                && !(d.getHoster().isInstantiated() && !c.getHoster().contains(d.getHoster().getValue()))
-                ) {
-            BoolVar eq;
-            if (rp.labelVariables()) {
-                eq = csp.boolVar(rp.makeVarLabel(d.getHoster(), "", c.getHoster(), "?"));
-            } else {
-                eq = csp.boolVar("");
+    private void disallowOverlap(ReconfigurationProblem rp) {
+        List<VM> vms = new ArrayList<>(cstr.getInvolvedVMs());
+        IntVar[] hosts = new IntVar[vms.size()];
+        IntVar[] starts = new IntVar[vms.size()];
+        int[] oHosts = new int[vms.size()];
+        IntVar[] oEnds = new IntVar[vms.size()];
+        for (int i = 0; i < vms.size(); i++) {
+            VMTransition a = rp.getVMAction(vms.get(i));
+            Slice d = a.getDSlice();
+            Slice c = a.getCSlice();
+            if (d != null) {
+                hosts[i] = d.getHoster();
+                starts[i] = d.getStart();
+            }
+            oHosts[i] = -1;
+            if (c != null) {
+                //The hoster of a cSlice is the current VM location
+                oHosts[i] = c.getHoster().getValue();
+                oEnds[i] = c.getEnd();
             }
-
-          rp.getModel().arithm(d.getHoster(), "=", c.getHoster()).reifyWith(eq);
-          org.chocosolver.solver.constraints.Constraint leqCstr = rp.getModel().arithm(c.getEnd(), "<=", d.getStart());
-            ChocoUtils.postImplies(rp, eq, leqCstr);
         }
+        rp.getModel().post(new SpreadPrecedences(hosts, starts, oHosts, oEnds));
     }
 
     private List<IntVar> placementVariables(ReconfigurationProblem rp) {
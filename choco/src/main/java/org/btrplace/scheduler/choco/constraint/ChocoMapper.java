@@ -51,18 +51,27 @@ import org.btrplace.scheduler.choco.view.CNetwork;
 import org.btrplace.scheduler.choco.view.CShareableResource;
 import org.btrplace.scheduler.choco.view.ChocoView;
 
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 /**
  * Mapper that allow to map {@link org.btrplace.model.constraint.SatConstraint} and {@link org.btrplace.model.constraint.OptConstraint} to {@link ChocoConstraint}.
+ * <p>
+ * Each mapping is a factory that instantiates the choco implementation. The factory is either
+ * provided directly, typically a constructor reference, or derived once from the constructor
+ * of the implementation at registration time so there is no reflective lookup per constraint.
  *
  * @author Fabien Hermenier
  */
 public class ChocoMapper {
 
-  private final Map<Class<? extends Constraint>, Class<? extends ChocoConstraint>> constraints;
-  private final Map<Class<? extends ModelView>, Class<? extends ChocoView>> views;
+  private final Map<Class<? extends Constraint>, Function<Constraint, ? extends ChocoConstraint>> constraints;
+  private final Map<Class<? extends ModelView>, Function<ModelView, ? extends ChocoView>> views;
 
   /**
    * Make a new empty mapper.
@@ -80,39 +89,39 @@ public class ChocoMapper {
      */
     public static ChocoMapper newBundle() {
         ChocoMapper map = new ChocoMapper();
-        map.mapConstraint(Spread.class, CSpread.class);
-        map.mapConstraint(Split.class, CSplit.class);
-        map.mapConstraint(SplitAmong.class, CSplitAmong.class);
-        map.mapConstraint(Among.class, CAmong.class);
-        map.mapConstraint(Quarantine.class, CQuarantine.class);
-        map.mapConstraint(Ban.class, CBan.class);
-        map.mapConstraint(Fence.class, CFence.class);
-        map.mapConstraint(Online.class, COnline.class);
-        map.mapConstraint(Offline.class, COffline.class);
-        map.mapConstraint(RunningCapacity.class, CRunningCapacity.class);
-        map.mapConstraint(ResourceCapacity.class, CResourceCapacity.class);
-        map.mapConstraint(Preserve.class, CPreserve.class);
-        map.mapConstraint(Overbook.class, COverbook.class);
-        map.mapConstraint(Root.class, CRoot.class);
-        map.mapConstraint(Ready.class, CReady.class);
-        map.mapConstraint(Running.class, CRunning.class);
-        map.mapConstraint(Sleeping.class, CSleeping.class);
-        map.mapConstraint(Killed.class, CKilled.class);
-        map.mapConstraint(Gather.class, CGather.class);
-        map.mapConstraint(Lonely.class, CLonely.class);
-        map.mapConstraint(Seq.class, CSequentialVMTransitions.class);
-        map.mapConstraint(MaxOnline.class, CMaxOnline.class);
-        map.mapConstraint(MinMTTR.class, CMinMTTR.class);
-        map.mapConstraint(MinMTTRMig.class, CMinMTTRMig.class);
-        map.mapConstraint(MinMigrations.class, CMinMigrations.class);
-        map.mapConstraint(NoDelay.class, CNoDelay.class);
-        map.mapConstraint(Deadline.class, CDeadline.class);
-        map.mapConstraint(Precedence.class, CPrecedence.class);
-        map.mapConstraint(Serialize.class, CSerialize.class);
-        map.mapConstraint(Sync.class, CSync.class);
-
-        map.mapView(ShareableResource.class, CShareableResource.class);
-        map.mapView(Network.class, CNetwork.class);
+        map.mapConstraint(Spread.class, CSpread::new);
+        map.mapConstraint(Split.class, CSplit::new);
+        map.mapConstraint(SplitAmong.class, CSplitAmong::new);
+        map.mapConstraint(Among.class, CAmong::new);
+        map.mapConstraint(Quarantine.class, CQuarantine::new);
+        map.mapConstraint(Ban.class, CBan::new);
+        map.mapConstraint(Fence.class, CFence::new);
+        map.mapConstraint(Online.class, COnline::new);
+        map.mapConstraint(Offline.class, COffline::new);
+        map.mapConstraint(RunningCapacity.class, CRunningCapacity::new);
+        map.mapConstraint(ResourceCapacity.class, CResourceCapacity::new);
+        map.mapConstraint(Preserve.class, CPreserve::new);
+        map.mapConstraint(Overbook.class, COverbook::new);
+        map.mapConstraint(Root.class, CRoot::new);
+        map.mapConstraint(Ready.class, CReady::new);
+        map.mapConstraint(Running.class, CRunning::new);
+        map.mapConstraint(Sleeping.class, CSleeping::new);
+        map.mapConstraint(Killed.class, CKilled::new);
+        map.mapConstraint(Gather.class, CGather::new);
+        map.mapConstraint(Lonely.class, CLonely::new);
+        map.mapConstraint(Seq.class, CSequentialVMTransitions::new);
+        map.mapConstraint(MaxOnline.class, CMaxOnline::new);
+        map.mapConstraint(MinMTTR.class, CMinMTTR::new);
+        map.mapConstraint(MinMTTRMig.class, CMinMTTRMig::new);
+        map.mapConstraint(MinMigrations.class, CMinMigrations::new);
+        map.mapConstraint(NoDelay.class, CNoDelay::new);
+        map.mapConstraint(Deadline.class, CDeadline::new);
+        map.mapConstraint(Precedence.class, CPrecedence::new);
+        map.mapConstraint(Serialize.class, CSerialize::new);
+        map.mapConstraint(Sync.class, CSync::new);
+
+        map.mapView(ShareableResource.class, CShareableResource::new);
+        map.mapView(Network.class, CNetwork::new);
 
         return map;
     }
@@ -126,7 +135,19 @@ public class ChocoMapper {
      * @throws IllegalArgumentException if there is no suitable constructor for the choco implementation
      */
     public void mapConstraint(Class<? extends Constraint> c, Class<? extends ChocoConstraint> cc) {
-        constraints.put(c, cc);
+        constraints.put(c, factory(c, cc));
+    }
+
+    /**
+     * Register a mapping between an api-side constraint and a factory for its choco implementation.
+     *
+     * @param c the api-side constraint
+     * @param f the factory that makes the choco implementation, typically a constructor reference
+     * @param <C> the api-side constraint type
+     */
+    @SuppressWarnings("unchecked")
+    public <C extends Constraint> void mapConstraint(Class<C> c, Function<? super C, ? extends ChocoConstraint> f) {
+        constraints.put(c, (Function<Constraint, ? extends ChocoConstraint>) f);
     }
 
     /**
@@ -138,7 +159,44 @@ public class ChocoMapper {
      * @throws IllegalArgumentException if there is no suitable constructor for the choco implementation
      */
     public void mapView(Class<? extends ModelView> c, Class<? extends ChocoView> cc) {
-        views.put(c, cc);
+        views.put(c, factory(c, cc));
+    }
+
+    /**
+     * Register a mapping between an api-side view and a factory for its choco implementation.
+     *
+     * @param c the api-side view
+     * @param f the factory that makes the choco implementation, typically a constructor reference
+     * @param <V> the api-side view type
+     */
+    @SuppressWarnings("unchecked")
+    public <V extends ModelView> void mapView(Class<V> c, Function<? super V, ? extends ChocoView> f) {
+        views.put(c, (Function<ModelView, ? extends ChocoView>) f);
+    }
+
+    /**
+     * Make a factory from the constructor of an implementation.
+     * The constructor is retrieved once.
+     *
+     * @param c  the api-side class
+     * @param cc the implementation
+     * @return the factory
+     * @throws IllegalArgumentException if there is no suitable constructor for the implementation
+     */
+    private static <I, O> Function<I, O> factory(Class<? extends I> c, Class<? extends O> cc) {
+        Constructor<? extends O> cons;
+        try {
+            cons = cc.getDeclaredConstructor(c);
+        } catch (NoSuchMethodException ex) {
+            throw new IllegalArgumentException("No constructor '" + cc.getSimpleName() + "(" + c.getSimpleName() + ")' available", ex);
+        }
+        return x -> {
+            try {
+                return cons.newInstance(x);
+            } catch (ReflectiveOperationException ex) {
+                throw new IllegalArgumentException("Unable to instantiate '" + cc.getSimpleName() + "(" + c.getSimpleName() + ")'", ex);
+            }
+        };
     }
 
     /**
@@ -186,20 +244,37 @@ public class ChocoMapper {
      *
      * @param c the constraint to translate
      * @return the associated {@link ChocoConstraint}, {@code null} if no mapping exists
-     * @throws IllegalArgumentException if there is no suitable constructor for the choco implementation
+     * @throws IllegalArgumentException if the choco implementation cannot be instantiated
      */
     public ChocoConstraint get(Constraint c) {
-        Class<? extends ChocoConstraint> cc = constraints.get(c.getClass());
-        if (cc == null) {
+        Function<Constraint, ? extends ChocoConstraint> f = constraints.get(c.getClass());
+        if (f == null) {
             return null;
         }
+        return f.apply(c);
+    }
 
-        try {
-
-            return cc.getDeclaredConstructor(c.getClass()).newInstance(c);
-        } catch (Exception ex) {
-            throw new IllegalArgumentException("No constructor '" + cc.getSimpleName() + "(" + c.getClass().getSimpleName() + ")' available", ex);
+    /**
+     * Get the implementation of the given constraints.
+     * The factory is looked up once per run of constraints having the same class.
+     *
+     * @param cstrs the constraints to translate
+     * @return the associated {@link ChocoConstraint}, in the same order. An element is {@code null}
+     * if no mapping exists for the corresponding constraint
+     * @throws IllegalArgumentException if a choco implementation cannot be instantiated
+     */
+    public List<ChocoConstraint> getAll(Collection<? extends Constraint> cstrs) {
+        List<ChocoConstraint> res = new ArrayList<>(cstrs.size());
+        Class<?> cur = null;
+        Function<Constraint, ? extends ChocoConstraint> f = null;
+        for (Constraint c : cstrs) {
+            if (c.getClass() != cur) {
+                cur = c.getClass();
+                f = constraints.get(cur);
+            }
+            res.add(f == null ? null : f.apply(c));
         }
+        return res;
     }
 
     /**
@@ -207,18 +282,13 @@ public class ChocoMapper {
      *
      * @param c the view to translate
      * @return the associated {@link ChocoView}, {@code null} if no mapping exists
-     * @throws IllegalArgumentException if there is no suitable constructor for the choco implementation
+     * @throws IllegalArgumentException if the choco implementation cannot be instantiated
      */
-
     public ChocoView get(ModelView c) {
-        Class<? extends ChocoView> cc = views.get(c.getClass());
-        if (cc == null) {
+        Function<ModelView, ? extends ChocoView> f = views.get(c.getClass());
+        if (f == null) {
             return null;
         }
-        try {
-            return cc.getDeclaredConstructor(c.getClass()).newInstance(c);
-        } catch (Exception ex) {
-            throw new IllegalArgumentException("No constructor '" + cc.getSimpleName() + "(" + c.getClass().getSimpleName() + ")' available", ex);
-        }
+        return f.apply(c);
     }
 }
@@ -52,6 +52,13 @@ public class CMinMTTR implements CObjective {
     private IntVar cost;
 
     private boolean useResources = false;
+
+    /**
+     * The indexed placement heuristic shared by all the VMs.
+     * Only used when {@link Parameters#doIndexedPlacement()} is enabled.
+     */
+    private IndexedWorstFit indexedWorstFit;
+
     /**
      * Make a new objective.
      * @param m the user-side objective.
@@ -68,6 +75,7 @@ public class CMinMTTR implements CObjective {
     public boolean inject(Parameters ps, ReconfigurationProblem p) throws SchedulerException {
         this.rp = p;
         costActivated = false;
+        indexedWorstFit = null;
         org.chocosolver.solver.Model csp = p.getModel();
         cost = csp.intVar(p.makeVarLabel("globalCost"), 0, Integer.MAX_VALUE / 100, true);
         p.setObjective(true, cost);
@@ -173,9 +181,16 @@ public class CMinMTTR implements CObjective {
      * Try to place the VMs associated on the actions in a random node while trying first to stay on the current node
      */
     private void placeVMs(Parameters ps, List<AbstractStrategy<?>> strategies, List<VMTransition> actions, OnStableNodeFirst schedHeuristic, Map<IntVar, VM> map) {
-        IntValueSelector rnd = new WorstFit(map, rp, new BiggestDimension());
+        IntValueSelector rnd;
         if (!useResources) {
             rnd = new RandomVMPlacement(rp, map, true, ps.getRandomSeed());
+        } else if (ps.doIndexedPlacement()) {
+            if (indexedWorstFit == null) {
+                indexedWorstFit = new IndexedWorstFit(map, rp, new BiggestDimension());
+            }
+            rnd = indexedWorstFit;
+        } else {
+            rnd = new WorstFit(map, rp, new BiggestDimension());
         }
         IntVar[] hosts = dSlices(actions).map(Slice::getHoster).filter(v -> !v.isInstantiated()).toArray(IntVar[]::new);
         if (hosts.length > 0) {
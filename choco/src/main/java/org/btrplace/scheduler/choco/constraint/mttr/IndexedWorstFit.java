@@ -0,0 +1,355 @@
+/*
+ * Copyright  2026 The BtrPlace Authors. All rights reserved.
+ * Use of this source code is governed by a LGPL-style
+ * license that can be found in the LICENSE.txt file.
+ */
+
+package org.btrplace.scheduler.choco.constraint.mttr;
+
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.TIntObjectMap;
+import gnu.trove.map.hash.TIntObjectHashMap;
+import org.btrplace.model.Node;
+import org.btrplace.model.VM;
+import org.btrplace.scheduler.choco.ReconfigurationProblem;
+import org.btrplace.scheduler.choco.Slice;
+import org.btrplace.scheduler.choco.constraint.mttr.load.GlobalLoadEstimator;
+import org.btrplace.scheduler.choco.transition.VMTransition;
+import org.btrplace.scheduler.choco.view.CShareableResource;
+import org.btrplace.scheduler.choco.view.ChocoView;
+import org.btrplace.scheduler.choco.view.Packing;
+import org.btrplace.scheduler.choco.view.VectorPacking;
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.memory.IStateInt;
+import org.chocosolver.solver.search.strategy.selectors.values.IntValueSelector;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.IVariableMonitor;
+import org.chocosolver.solver.variables.events.IEventType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Placement heuristic implementing a worst fit, backed by an index of the nodes load.
+ * <p>
+ * The nodes are ranked using their current global load, then their free capacity, so the VM is placed
+ * on the least loaded node of its domain that can host it, or on the least loaded node of its domain
+ * if none can host it. Contrary to {@link WorstFit}, the rank of a node does not depend on the VM to place.
+ * <p>
+ * The nodes are indexed using a tournament tree stored in the solver environment. Each time a VM is
+ * placed, only the path from its host to the root is updated. When the least loaded node cannot host
+ * the VM, the tree is browsed in a best-first fashion and the subtrees that cannot contain a
+ * better node are pruned.
+ * A single instance should be shared by all the placement strategies of a problem.
+ *
+ * @author Fabien Hermenier
+ */
+public class IndexedWorstFit implements IntValueSelector, IVariableMonitor<IntVar> {
+
+    private final boolean stayFirst;
+
+    private final Map<IntVar, VM> vmMap;
+
+    private final ReconfigurationProblem rp;
+
+    private final GlobalLoadEstimator globalLoad;
+
+    private final List<CShareableResource> rcs;
+
+    private final VectorPacking packing;
+
+    /**
+     * The packing dimension of each resource. Resolved at the first placement.
+     */
+    private int[] dims;
+
+    private final int[][] capacities;
+
+    private final TIntObjectMap<int[]> usages;
+
+    private final int nbNodes;
+
+    /**
+     * The number of leaves in the tree, a power of 2.
+     */
+    private final int size;
+
+    /**
+     * The least loaded node of each subtree. The root is at index 1, the children of {@code i}
+     * are at {@code 2i} and {@code 2i + 1}. The leaves are implicit.
+     */
+    private final IStateInt[] winners;
+
+    /**
+     * {@code 1} if the tree is valid for the current search state.
+     */
+    private final IStateInt built;
+
+    /**
+     * The nodes having a load that changed since the last update of the tree.
+     */
+    private final TIntArrayList dirty;
+
+    private final boolean[] isDirty;
+
+    private final double[] normalised;
+
+    private final int[] stack;
+
+    /**
+     * New heuristic.
+     * Will try to make the VM stay on their current node in prior if possible
+     *
+     * @param vmMap the VM to placement variable mapping
+     * @param rp    the CSP to solve
+     * @param load  the load estimator for the node.
+     */
+    public IndexedWorstFit(Map<IntVar, VM> vmMap, ReconfigurationProblem rp, GlobalLoadEstimator load) {
+        this(vmMap, rp, load, true);
+    }
+
+    /**
+     * New heuristic.
+     *
+     * @param vmMap     the VM to placement variable mapping
+     * @param rp        the CSP to solve
+     * @param load      the load estimator for the node.
+     * @param stayFirst {@code true} to try to let the VM on place first if possible
+     */
+    public IndexedWorstFit(Map<IntVar, VM> vmMap, ReconfigurationProblem rp, GlobalLoadEstimator load, boolean stayFirst) {
+        this.stayFirst = stayFirst;
+        this.vmMap = vmMap;
+        this.rp = rp;
+        globalLoad = load;
+        packing = (VectorPacking) rp.getRequiredView(Packing.VIEW_ID);
+        rcs = new ArrayList<>();
+        for (String s : rp.getViews()) {
+            ChocoView cv = rp.getRequiredView(s);
+            if (cv instanceof CShareableResource) {
+                rcs.add((CShareableResource) cv);
+            }
+        }
+
+        nbNodes = rp.getNodes().size();
+        capacities = new int[nbNodes][rcs.size()];
+        for (int n = 0; n < nbNodes; n++) {
+            for (int d = 0; d < rcs.size(); d++) {
+                capacities[n][d] = (int) (rcs.get(d).getFutureNodeCapacity(n) * rcs.get(d).getOverbookRatio(n));
+            }
+        }
+        usages = new TIntObjectHashMap<>();
+        normalised = new double[rcs.size()];
+
+        int s = 1;
+        int depth = 0;
+        while (s < nbNodes) {
+            s *= 2;
+            depth++;
+        }
+        size = s;
+        stack = new int[depth + 2];
+
+        IEnvironment env = rp.getModel().getEnvironment();
+        winners = new IStateInt[size];
+        for (int i = 1; i < size; i++) {
+            winners[i] = env.makeInt(-1);
+        }
+        built = env.makeInt(0);
+        dirty = new TIntArrayList();
+        isDirty = new boolean[nbNodes];
+
+        //Get notified when a VM is placed
+        for (VMTransition t : rp.getVMActions()) {
+            Slice d = t.getDSlice();
+            if (d != null && !d.getHoster().isInstantiated()) {
+                d.getHoster().addMonitor(this);
+            }
+        }
+    }
+
+    @Override
+    public void onUpdate(IntVar var, IEventType evt) {
+        if (var.isInstantiated()) {
+            int n = var.getValue();
+            if (n >= 0 && n < nbNodes && !isDirty[n]) {
+                isDirty[n] = true;
+                dirty.add(n);
+            }
+        }
+    }
+
+    @Override
+    public int selectValue(IntVar v) {
+        VM vm = vmMap.get(v);
+        int vmId = rp.getVM(vm);
+        int[] usage = usage(vmId);
+        if (dims == null) {
+            dims = new int[rcs.size()];
+            for (int d = 0; d < rcs.size(); d++) {
+                dims[d] = packing.getDimension(rcs.get(d).getResourceIdentifier());
+            }
+        }
+        Node host = rp.getSourceModel().getMapping().getVMLocation(vm);
+        int nodeId = rp.getNode(host);
+        if (stayFirst && canStay(v, nodeId, usage)) {
+            return nodeId;
+        }
+
+        refresh();
+        int best = search(v, usage, true);
+        if (best < 0) {
+            //No node can host the VM. The least loaded one then
+            best = search(v, usage, false);
+        }
+        return best < 0 ? v.getLB() : best;
+    }
+
+    /**
+     * Update the tree with regards to the nodes having a new load.
+     */
+    private void refresh() {
+        if (built.get() == 0) {
+            for (int i = size - 1; i >= 1; i--) {
+                winners[i].set(better(winner(2 * i), winner(2 * i + 1)));
+            }
+            built.set(1);
+        } else {
+            for (int x = 0; x < dirty.size(); x++) {
+                for (int i = (size + dirty.getQuick(x)) / 2; i >= 1; i /= 2) {
+                    winners[i].set(better(winner(2 * i), winner(2 * i + 1)));
+                }
+            }
+        }
+        for (int x = 0; x < dirty.size(); x++) {
+            isDirty[dirty.getQuick(x)] = false;
+        }
+        dirty.resetQuick();
+    }
+
+    /**
+     * Get the least loaded node of the domain of a variable.
+     * The tree is browsed depth-first, the subtrees that cannot contain a better node are pruned.
+     *
+     * @param v     the placement variable
+     * @param usage the VM usage
+     * @param fit   {@code true} to only consider the nodes that can host the VM
+     * @return the node index, {@code -1} if there is none
+     */
+    private int search(IntVar v, int[] usage, boolean fit) {
+        int best = -1;
+        int top = 0;
+        stack[top++] = 1;
+        while (top > 0) {
+            int i = stack[--top];
+            int w = winner(i);
+            if (w < 0 || (best >= 0 && !isBetter(w, best))) {
+                //No better node in that subtree
+                continue;
+            }
+            if (v.contains(w) && (!fit || fits(w, usage))) {
+                //The best node of the subtree
+                best = w;
+            } else if (i < size) {
+                //The left child is browsed first
+                stack[top++] = 2 * i + 1;
+                stack[top++] = 2 * i;
+            }
+        }
+        return best;
+    }
+
+    private int winner(int i) {
+        if (i >= size) {
+            int n = i - size;
+            return n < nbNodes ? n : -1;
+        }
+        return winners[i].get();
+    }
+
+    private int better(int a, int b) {
+        if (a < 0) {
+            return b;
+        }
+        if (b < 0) {
+            return a;
+        }
+        return isBetter(b, a) ? b : a;
+    }
+
+    /**
+     * Check if a node is a better candidate than another.
+     * The least loaded node is preferred, then the one having the biggest free capacity,
+     * then the one having the lowest index.
+     */
+    private boolean isBetter(int a, int b) {
+        int cmp = Double.compare(load(a), load(b));
+        if (cmp == 0) {
+            cmp = Integer.compare(free(b), free(a));
+        }
+        return cmp < 0 || (cmp == 0 && a < b);
+    }
+
+    /**
+     * Get the global load of a node.
+     */
+    private double load(int n) {
+        for (int d = 0; d < dims.length; d++) {
+            int capa = capacities[n][d];
+            int used = used(n, d);
+            normalised[d] = capa > 0 ? 1.0d * used / capa : (used > 0 ? Double.POSITIVE_INFINITY : 0);
+        }
+        return globalLoad.getLoad(normalised);
+    }
+
+    /**
+     * Get the smallest free capacity of a node among the dimensions.
+     */
+    private int free(int n) {
+        int free = Integer.MAX_VALUE;
+        for (int d = 0; d < dims.length; d++) {
+            free = Math.min(free, capacities[n][d] - used(n, d));
+        }
+        return free;
+    }
+
+    private int used(int n, int d) {
+        if (dims[d] < 0) {
+            return 0;
+        }
+        return packing.assignedLoad()[dims[d]][n].get() + packing.aggregatedLoad(dims[d], n);
+    }
+
+    private boolean fits(int n, int[] usage) {
+        for (int d = 0; d < dims.length; d++) {
+            if (used(n, d) + usage[d] > capacities[n][d]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int[] usage(int vId) {
+        int[] usage = usages.get(vId);
+        if (usage == null) {
+            usage = new int[rcs.size()];
+            for (int i = 0; i < rcs.size(); i++) {
+                usage[i] = rcs.get(i).getFutureVMAllocation(vId);
+            }
+            usages.put(vId, usage);
+        }
+        return usage;
+    }
+
+    /**
+     * Check if a VM can stay on its current node.
+     *
+     * @param v      the placement variable
+     * @param hostId the node identifier. Negative if the VM is not running.
+     * @param usage  the VM usage
+     * @return {@code true} iff the VM can stay
+     */
+    private boolean canStay(IntVar v, int hostId, int[] usage) {
+        return hostId >= 0 && v.contains(hostId) && fits(hostId, usage);
+    }
+}
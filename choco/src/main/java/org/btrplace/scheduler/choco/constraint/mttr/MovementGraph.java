@@ -10,9 +10,11 @@ import org.btrplace.model.Node;
 import org.btrplace.scheduler.choco.ReconfigurationProblem;
 import org.btrplace.scheduler.choco.Slice;
 import org.btrplace.scheduler.choco.transition.VMTransition;
+import org.chocosolver.memory.IStateInt;
 import org.chocosolver.solver.variables.IntVar;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -20,6 +22,14 @@ import java.util.Map;
 
 /**
  * Class denoting the movement of the running VMs from their source to their destination node.
+ * <p>
+ * {@link #make()} computes a snapshot of the graph. For a use during the search,
+ * {@link #getFirstPendingLeafStart()} relies on a backtrackable index of the movements instead.
+ * The outgoing movements only depend on the current location of the VMs, so the leaf
+ * nodes, having no outgoing movements, are computed once. The incoming movements are indexed by
+ * the node index of their destination, once all the destinations are known. The index is then
+ * stored in the solver environment and only rebuilt when the search backtracks above the
+ * moment it has been computed.
  *
  * @author Fabien Hermenier
  */
@@ -31,6 +41,35 @@ public class MovementGraph {
 
   private final Map<Node, List<IntVar>> outgoings;
 
+    /**
+     * The hosting and the start variables of the incoming movements, in the order of the VM actions.
+     */
+    private IntVar[] dHosters;
+
+    private IntVar[] dStarts;
+
+    /**
+     * {@code leaves[i]} is {@code true} iff no movement leaves the node having {@code i} as index.
+     */
+    private boolean[] leaves;
+
+    /**
+     * The incoming movements on leaf nodes, sorted by destination then VM action order.
+     */
+    private int[] order;
+
+    /**
+     * The movements before that position in {@link #order} have an instantiated start.
+     */
+    private final IStateInt cursor;
+
+    /**
+     * The version of the order that is valid for the current search state.
+     */
+    private final IStateInt builtVersion;
+
+    private int version;
+
     /**
      * Make a new graph.
      *
@@ -40,6 +79,8 @@ public class MovementGraph {
         this.rp = p;
         incoming = new HashMap<>();
         outgoings = new HashMap<>();
+        cursor = p.getModel().getEnvironment().makeInt(0);
+        builtVersion = p.getModel().getEnvironment().makeInt(0);
     }
 
     public void make() {
@@ -92,4 +133,108 @@ public class MovementGraph {
     public List<IntVar> getOutgoing(Node n) {
         return outgoings.getOrDefault(n, Collections.emptyList());
     }
+
+    /**
+     * Get the first start moment to instantiate among the movements going to a leaf node,
+     * with regards to the node index of the destination then the order of the VM actions.
+     * This is the first non-instantiated variable that would be met by browsing
+     * {@link #getIncoming(Node)} for each node without {@link #getOutgoing(Node)} once {@link #make()}
+     * has been called.
+     *
+     * @return a variable, {@code null} if every start moment is instantiated
+     */
+    public IntVar getFirstPendingLeafStart() {
+        if (leaves == null) {
+            index();
+        }
+        if (builtVersion.get() != version || version == 0) {
+            //The order does not exist in this search state
+            if (!sort()) {
+                return scan();
+            }
+        }
+        int i = cursor.get();
+        while (i < order.length && dStarts[order[i]].isInstantiated()) {
+            i++;
+        }
+        cursor.set(i);
+        return i < order.length ? dStarts[order[i]] : null;
+    }
+
+    /**
+     * Index the movements.
+     */
+    private void index() {
+        leaves = new boolean[rp.getNodes().size()];
+        Arrays.fill(leaves, true);
+        List<IntVar> hs = new ArrayList<>();
+        List<IntVar> sts = new ArrayList<>();
+        for (VMTransition a : rp.getVMActions()) {
+            Slice cSlice = a.getCSlice();
+            Slice dSlice = a.getDSlice();
+            if (cSlice != null) {
+                leaves[cSlice.getHoster().getLB()] = false;
+            }
+            if (dSlice != null) {
+                hs.add(dSlice.getHoster());
+                sts.add(dSlice.getStart());
+            }
+        }
+        dHosters = hs.toArray(new IntVar[0]);
+        dStarts = sts.toArray(new IntVar[0]);
+    }
+
+    /**
+     * Sort the movements going to a leaf node when all the destinations are known.
+     *
+     * @return {@code false} if a destination is not known
+     */
+    private boolean sort() {
+        int nb = 0;
+        for (IntVar h : dHosters) {
+            if (!h.isInstantiated()) {
+                return false;
+            }
+            if (leaves[h.getValue()]) {
+                nb++;
+            }
+        }
+        //Counting sort on the destination
+        int[] bounds = new int[leaves.length + 1];
+        for (IntVar h : dHosters) {
+            if (leaves[h.getValue()]) {
+                bounds[h.getValue() + 1]++;
+            }
+        }
+        for (int n = 0; n < leaves.length; n++) {
+            bounds[n + 1] += bounds[n];
+        }
+        order = new int[nb];
+        for (int i = 0; i < dHosters.length; i++) {
+            int n = dHosters[i].getValue();
+            if (leaves[n]) {
+                order[bounds[n]++] = i;
+            }
+        }
+        version++;
+        builtVersion.set(version);
+        cursor.set(0);
+        return true;
+    }
+
+    /**
+     * Browse all the movements when some destinations are not known.
+     */
+    private IntVar scan() {
+        int best = -1;
+        int bestNode = Integer.MAX_VALUE;
+        for (int i = 0; i < dHosters.length; i++) {
+            int n = dHosters[i].getLB();
+            if (n < bestNode && leaves[n] && !dStarts[i].isInstantiated()) {
+                best = i;
+                bestNode = n;
+            }
+        }
+        return best < 0 ? null : dStarts[best];
+    }
 }
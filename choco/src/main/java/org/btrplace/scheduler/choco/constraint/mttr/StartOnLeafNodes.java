@@ -6,13 +6,10 @@
 
 package org.btrplace.scheduler.choco.constraint.mttr;
 
-import org.btrplace.model.Node;
 import org.btrplace.scheduler.choco.ReconfigurationProblem;
 import org.chocosolver.solver.search.strategy.selectors.variables.VariableSelector;
 import org.chocosolver.solver.variables.IntVar;
 
-import java.util.List;
-
 
 /**
  * A heuristic that first focus on the start moment for VM
@@ -24,8 +21,6 @@ public class StartOnLeafNodes implements VariableSelector<IntVar> {
 
   private final MovementGraph graph;
 
-  private final List<Node> nodes;
-
     /**
      * Make a new heuristics
      *
@@ -34,23 +29,11 @@ public class StartOnLeafNodes implements VariableSelector<IntVar> {
      */
     public StartOnLeafNodes(ReconfigurationProblem rp, MovementGraph g) {
         this.graph = g;
-        nodes = rp.getNodes();
     }
 
     @Override
     public IntVar getVariable(IntVar[] scope) {
         // todo check coherence between scope (Dslices) and graph vars (Cslices)
-        graph.make();
-        for (Node n : nodes) {
-            List<IntVar> outs = graph.getOutgoing(n);
-            if (outs.isEmpty()) {
-                for (IntVar v : graph.getIncoming(n)) {
-                    if (!v.isInstantiated()) {
-                        return v;
-                    }
-                }
-            }
-        }
-        return null;
+        return graph.getFirstPendingLeafStart();
     }
 }
@@ -16,7 +16,6 @@ import org.btrplace.scheduler.choco.view.CShareableResource;
 import org.btrplace.scheduler.choco.view.ChocoView;
 import org.btrplace.scheduler.choco.view.Packing;
 import org.btrplace.scheduler.choco.view.VectorPacking;
-import org.chocosolver.memory.IStateInt;
 import org.chocosolver.solver.search.strategy.selectors.values.IntValueSelector;
 import org.chocosolver.solver.variables.IntVar;
 
@@ -46,6 +45,11 @@ public class WorstFit implements IntValueSelector {
 
   private final TIntObjectMap<int[]> capacities;
 
+  /**
+   * The packing dimension of each resource. Resolved at the first placement.
+   */
+  private int[] dims;
+
   /**
    * New heuristic.
    * Will try to make the VM stay on their current node in prior if possible
@@ -106,12 +110,8 @@ public class WorstFit implements IntValueSelector {
     //Get the load
     int leastId = v.getLB();
     double minLoad = 2;
-    IStateInt[] loads = new IStateInt[rcs.size()];
     for (int nId = v.getLB(); nId <= v.getUB(); nId = v.nextValue(nId)) {
-      for (int d = 0; d < rcs.size(); d++) {
-        loads[d] = packing.assignedLoad()[d][nId];
-      }
-      double global = loadWith(nId, loads, vmId);
+      double global = loadWith(nId, vmId);
 
       if (global < minLoad) {
         leastId = nId;
@@ -121,12 +121,22 @@ public class WorstFit implements IntValueSelector {
     return leastId;
   }
 
-  private IStateInt[] load(int nId) {
-    IStateInt[] loads = new IStateInt[rcs.size()];
-    for (int d = 0; d < rcs.size(); d++) {
-      loads[d] = packing.assignedLoad()[d][nId];
+  /**
+   * Get the current load of a node on a resource.
+   * The dimensions of the packing are resolved from the resource identifiers as
+   * they do not follow the order of the views.
+   */
+  private int used(int nId, int d) {
+    if (dims == null) {
+      dims = new int[rcs.size()];
+      for (int i = 0; i < rcs.size(); i++) {
+        dims[i] = packing.getDimension(rcs.get(i).getResourceIdentifier());
+      }
+    }
+    if (dims[d] < 0) {
+      return 0;
     }
-    return loads;
+    return packing.assignedLoad()[dims[d]][nId].get() + packing.aggregatedLoad(dims[d], nId);
   }
 
   private int[] usage(int vId) {
@@ -142,12 +152,12 @@ public class WorstFit implements IntValueSelector {
 
   }
 
-  private double loadWith(int nId, IStateInt[] loads, int vmId) {
+  private double loadWith(int nId, int vmId) {
     int[] capas = capacities.get(nId);
     double[] normalised = new double[capas.length];
     int[] usage = usage(vmId);
     for (int i = 0; i < capas.length; i++) {
-      normalised[i] = (1.0d * loads[i].get() + usage[i]) / capas[i];
+      normalised[i] = (1.0d * used(nId, i) + usage[i]) / capas[i];
     }
     return globalLoad.getLoad(normalised);
   }
@@ -167,7 +177,6 @@ public class WorstFit implements IntValueSelector {
     if (!rp.getVMActions().get(vmId).getDSlice().getHoster().contains(hostId)) {
       return false;
     }
-    IStateInt[] loads = load(hostId);
-    return loadWith(hostId, loads, vmId) <= 1.0;
+    return loadWith(hostId, vmId) <= 1.0;
   }
 }
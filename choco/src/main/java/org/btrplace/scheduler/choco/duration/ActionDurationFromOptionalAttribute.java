@@ -6,6 +6,7 @@
 
 package org.btrplace.scheduler.choco.duration;
 
+import org.btrplace.model.AttributeKey;
 import org.btrplace.model.Attributes;
 import org.btrplace.model.Element;
 import org.btrplace.model.Model;
@@ -21,7 +22,7 @@ public class ActionDurationFromOptionalAttribute<E extends Element> implements A
 
     private ActionDurationEvaluator<E> parent;
 
-  private final String key;
+  private final AttributeKey key;
 
     /**
      * Make a new evaluator.
@@ -31,7 +32,7 @@ public class ActionDurationFromOptionalAttribute<E extends Element> implements A
      */
     public ActionDurationFromOptionalAttribute(String attrId, ActionDurationEvaluator<E> dev) {
         parent = dev;
-        key = attrId;
+        key = AttributeKey.of(attrId);
     }
 
     @Override
@@ -68,7 +69,7 @@ public class ActionDurationFromOptionalAttribute<E extends Element> implements A
      * @return a String
      */
     public String getAttributeKey() {
-        return key;
+        return key.name();
     }
 
     @Override
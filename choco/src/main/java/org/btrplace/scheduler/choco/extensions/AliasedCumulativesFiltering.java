@@ -7,7 +7,6 @@
 package org.btrplace.scheduler.choco.extensions;
 
 
-import gnu.trove.map.hash.TIntIntHashMap;
 import org.chocosolver.memory.IStateInt;
 import org.chocosolver.memory.IStateIntVector;
 import org.chocosolver.solver.ICause;
@@ -58,13 +57,20 @@ public class AliasedCumulativesFiltering {
 
   public static final int NO_ASSOCIATIONS = -1;
 
-    private int[] sortedMinProfile;
-
-    private final TIntIntHashMap[] profilesMin;
+    /**
+     * What is necessarily used on the resource.
+     */
+    private final Profile profileMin;
 
-  private final TIntIntHashMap[] profilesMax;
+    /**
+     * Maximum possible usage on the resource.
+     */
+    private final Profile profileMax;
 
-  private int[] sortedMaxProfile;
+    /**
+     * The usage of a slice.
+     */
+    private final int[] usage;
 
     /**
      * LB of the moment the last c-slice leaves.
@@ -115,13 +121,12 @@ public class AliasedCumulativesFiltering {
         //The amount of free resources at startup
 
         startupFree = new int[nbDims];
-        profilesMax = new TIntIntHashMap[nbDims];
-        profilesMin = new TIntIntHashMap[nbDims];
         for (int i = 0; i < capacities.length; i++) {
             startupFree[i] = capacities[i];
-            profilesMax[i] = new TIntIntHashMap();
-            profilesMin[i] = new TIntIntHashMap();
         }
+        profileMin = new Profile(nbDims, 1 + out.cardinality());
+        profileMax = new Profile(nbDims, 1 + out.cardinality());
+        usage = new int[nbDims];
 
         int lastInf = out.isEmpty() ? 0 : Integer.MAX_VALUE;
         int lastSup = 0;
@@ -155,32 +160,14 @@ public class AliasedCumulativesFiltering {
         return true;
     }
 
-    /**
-     * Translation for a relatives resources changes to an absolute free resources.
-     *
-     * @param changes       the map that indicates the free CPU variation
-     * @param sortedMoments the different moments sorted in ascending order
-     */
-    private static void toAbsoluteFreeResources(TIntIntHashMap changes, int[] sortedMoments) {
-        for (int i = 1; i < sortedMoments.length; i++) {
-            int t = sortedMoments[i];
-            int lastT = sortedMoments[i - 1];
-            int lastFree = changes.get(lastT);
-
-            changes.put(t, changes.get(t) + lastFree);
-        }
-    }
-
     private void initProfile() {
+        profileMin.clear();
+        profileMax.clear();
+        int eMin = profileMin.change(0);
+        int eMax = profileMax.change(0);
         for (int d = 0; d < nbDims; d++) {
-            //What is necessarily used on the resource
-            profilesMin[d].clear();
-
-            //Maximum possible usage on the resource
-            profilesMax[d].clear();
-
-            profilesMax[d].put(0, capacities[d] - startupFree[d]);
-            profilesMin[d].put(0, capacities[d] - startupFree[d]);
+            profileMin.add(eMin, d, capacities[d] - startupFree[d]);
+            profileMax.add(eMax, d, capacities[d] - startupFree[d]);
         }
     }
 
@@ -198,26 +185,18 @@ public class AliasedCumulativesFiltering {
 
     private void toAbsoluteResources() {
         //Now transforms into an absolute profile
-        sortedMinProfile = profilesMin[0].keys();
-        Arrays.sort(sortedMinProfile);
-
-        sortedMaxProfile = profilesMax[0].keys();
-        Arrays.sort(sortedMaxProfile);
-
-        for (int i = 0; i < nbDims; i++) {
-            toAbsoluteFreeResources(profilesMin[i], sortedMinProfile);
-            toAbsoluteFreeResources(profilesMax[i], sortedMaxProfile);
-        }
+        profileMin.build();
+        profileMax.build();
     }
 
     private void insertDSlices() {
-        for (int i = 0; i < nbDims; i++) {
-            for (int x = 0; x < vInSize.get(); x++) {
-                int j = vIn.quickGet(x);
-                int t = dStarts[j].getUB();
-                profilesMin[i].put(t, profilesMin[i].get(t) + dUsages[i][j]);
-                t = dStarts[j].getLB();
-                profilesMax[i].put(t, profilesMax[i].get(t) + dUsages[i][j]);
+        for (int x = 0; x < vInSize.get(); x++) {
+            int j = vIn.quickGet(x);
+            int eMin = profileMin.change(dStarts[j].getUB());
+            int eMax = profileMax.change(dStarts[j].getLB());
+            for (int i = 0; i < nbDims; i++) {
+                profileMin.add(eMin, i, dUsages[i][j]);
+                profileMax.add(eMax, i, dUsages[i][j]);
             }
         }
     }
@@ -236,14 +215,11 @@ public class AliasedCumulativesFiltering {
             lastInf = Math.min(lb, lastInf);
             lastSup = Math.max(ub, lastSup);
 
+            int eMin = profileMin.change(increasing ? ub : lb);
+            int eMax = profileMax.change(increasing ? lb : ub);
             for (int i = 0; i < nbDims; i++) {
-                if (increasing) {
-                    profilesMax[i].put(lb, profilesMax[i].get(lb) - cUsages[i][j]);
-                    profilesMin[i].put(ub, profilesMin[i].get(ub) - cUsages[i][j]);
-                } else {
-                    profilesMin[i].put(lb, profilesMin[i].get(lb) - cUsages[i][j]);
-                    profilesMax[i].put(ub, profilesMax[i].get(ub) - cUsages[i][j]);
-                }
+                profileMin.add(eMin, i, -cUsages[i][j]);
+                profileMax.add(eMax, i, -cUsages[i][j]);
             }
 
         }
@@ -274,8 +250,8 @@ public class AliasedCumulativesFiltering {
 
 
             for (int i = 0; i < nbDims; i++) {
-                LOGGER.debug("profileMin(dim {})= {}", i, prettyProfile(sortedMinProfile, profilesMin[i]));
-                LOGGER.debug("profileMax(dim {})= {}", i, prettyProfile(sortedMaxProfile, profilesMax[i]));
+                LOGGER.debug("profileMin(dim {})= {}", i, profileMin.toString(i));
+                LOGGER.debug("profileMax(dim {})= {}", i, profileMax.toString(i));
             }
         }
     }
@@ -309,31 +285,13 @@ public class AliasedCumulativesFiltering {
                 && out.get(associations[dSlice]);
     }
 
-    private static String prettyProfile(int[] ascMoments, TIntIntHashMap prof) {
-        StringBuilder b = new StringBuilder();
-        for (int i = 0; i < ascMoments.length; i++) {
-            int t = ascMoments[i];
-            b.append(t);
-            b.append(":(");
-            b.append(prof.get(t));
-            b.append(",");
-            b.append(prof.get(t));
-            b.append(")");
-            if (i != ascMoments.length - 1) {
-                b.append(" ");
-            }
-        }
-        return b.toString();
-    }
-
     private boolean checkInvariant() {
-        for (int x = 0; x < sortedMinProfile.length; x++) {
-            int t = sortedMinProfile[x];
+        for (int x = 0; x < profileMin.size(); x++) {
             for (int i = 0; i < nbDims; i++) {
-                if (profilesMin[i].get(t) > capacities[i]) {
+                if (profileMin.usage(i, x) > capacities[i]) {
                     if (DEBUG) {
-                        LOGGER.debug("Invalid min profile at {} on dimension {}: {} > {}", t, i,
-                                profilesMin[i].get(t), capacities[i]);
+                        LOGGER.debug("Invalid min profile at {} on dimension {}: {} > {}", profileMin.moment(x), i,
+                                profileMin.usage(i, x), capacities[i]);
                     }
                     return false;
                 }
@@ -351,14 +309,13 @@ public class AliasedCumulativesFiltering {
                 int[] myUsage = getUsages(dUsages, i);
 
                 int lastT = -1;
-                for (int x = sortedMinProfile.length - 1; x >= 0; x--) {
-                    int t = sortedMinProfile[x];
+                for (int x = profileMin.size() - 1; x >= 0; x--) {
+                    int t = profileMin.moment(x);
                     if (t <= dStarts[i].getLB()) {
                         break;
                     }
-                    int prevT = sortedMinProfile[x - 1];
                     if (t <= dStarts[i].getUB()
-                            && exceedCapacity(profilesMin, prevT, myUsage)) {
+                            && profileMin.exceeds(x - 1, myUsage, capacities)) {
                         lastT = t;
                         break;
                     }
@@ -374,9 +331,9 @@ public class AliasedCumulativesFiltering {
 
 
         int lastSup = -1;
-        for (int i = sortedMaxProfile.length - 1; i >= 0; i--) {
-            int t = sortedMaxProfile[i];
-            if (!exceedCapacity(profilesMax, t, capacities)) {
+        for (int i = profileMax.size() - 1; i >= 0; i--) {
+            int t = profileMax.moment(i);
+            if (!profileMax.exceeds(i, capacities, capacities)) {
                 lastSup = t;
             } else {
                 break;
@@ -399,12 +356,12 @@ public class AliasedCumulativesFiltering {
 
                 int[] myUsage = getUsages(cUsages, i);
                 int lastT = -1;
-                for (int x = 0; x < sortedMinProfile.length; x++) {
-                    int t = sortedMinProfile[x];
+                for (int x = 0; x < profileMin.size(); x++) {
+                    int t = profileMin.moment(x);
                     if (t >= cEnds[i].getUB()) {
                         break;
                     } else if (t >= cEnds[i].getLB() &&
-                            exceedCapacity(profilesMin, t, myUsage)) {
+                            profileMin.exceeds(x, myUsage, capacities)) {
                         lastT = t;
                         break;
                     }
@@ -420,20 +377,10 @@ public class AliasedCumulativesFiltering {
         }
     }
 
-    private boolean exceedCapacity(TIntIntHashMap[] profiles, int t, int[] usage) {
-        for (int i = 0; i < nbDims; i++) {
-            if (profiles[i].get(t) + usage[i] > capacities[i]) {
-                return true;
-            }
-        }
-        return false;
-    }
-
     private int[] getUsages(int[][] usages, int i) {
-        int[] u = new int[nbDims];
         for (int x = 0; x < nbDims; x++) {
-            u[x] = usages[x][i];
+            usage[x] = usages[x][i];
         }
-        return u;
+        return usage;
     }
 }
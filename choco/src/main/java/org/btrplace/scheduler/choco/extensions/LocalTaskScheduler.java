@@ -7,7 +7,6 @@
 package org.btrplace.scheduler.choco.extensions;
 
 
-import gnu.trove.map.hash.TIntIntHashMap;
 import org.chocosolver.memory.IStateBool;
 import org.chocosolver.memory.IStateInt;
 import org.chocosolver.memory.IStateIntVector;
@@ -54,13 +53,21 @@ public class LocalTaskScheduler {
 
   private final int[] associateCTask;
   private final int[] associateDTask;
-  private int[] sortedMinProfile;
 
-  private final TIntIntHashMap[] profilesMin;
+  /**
+   * What is necessarily used on the resource.
+   */
+  private final Profile profileMin;
 
-  private final TIntIntHashMap[] profilesMax;
+  /**
+   * Maximum possible usage on the resource.
+   */
+  private final Profile profileMax;
 
-  private int[] sortedMaxProfile;
+  /**
+   * The cumulative demand of the d-slices.
+   */
+  private final int[] demand;
 
   private final int[][] capacities;
 
@@ -126,13 +133,12 @@ public class LocalTaskScheduler {
         //The amount of free resources at startup
 
         startupFree = new int[nbDims];
-        profilesMax = new TIntIntHashMap[nbDims];
-        profilesMin = new TIntIntHashMap[nbDims];
         for (int d = 0; d < nbDims; d++) {
             startupFree[d] = capacities[me][d];
-            profilesMax[d] = new TIntIntHashMap();
-            profilesMin[d] = new TIntIntHashMap();
         }
+        profileMin = new Profile(nbDims, 1 + outIdx.length);
+        profileMax = new Profile(nbDims, 1 + outIdx.length);
+        demand = new int[nbDims];
 
         int lastInf = outIdx.length == 0 ? 0 : Integer.MAX_VALUE;
         int lastSup = 0;
@@ -155,22 +161,6 @@ public class LocalTaskScheduler {
         entailed = early.getModel().getEnvironment().makeBool(false);
     }
 
-    /**
-     * Translation for a relatives resources changes to an absolute free resources.
-     *
-     * @param changes       the map that indicates the free CPU variation
-     * @param sortedMoments the different moments sorted in ascending order
-     */
-    private static void toAbsoluteFreeResources(TIntIntHashMap changes, int[] sortedMoments) {
-        for (int i = 1; i < sortedMoments.length; i++) {
-            int t = sortedMoments[i];
-            int lastT = sortedMoments[i - 1];
-            int lastFree = changes.get(lastT);
-
-            changes.put(t, changes.get(t) + lastFree);
-        }
-    }
-
   public void propagate(BitSet watchHosts) throws ContradictionException {
     if (vInSize.get() == 0 && outIdx.length == 0) {
       return;
@@ -207,7 +197,7 @@ public class LocalTaskScheduler {
     }
     // Cumulative demand.
     int s = vInSize.get();
-    int[] demand = new int[nbDims];
+    Arrays.fill(demand, 0);
     for (int i = 0; i < s; i++) {
       int idx = vIn.quickGet(i);
       for (int d = 0; d < nbDims; d++) {
@@ -250,26 +240,13 @@ public class LocalTaskScheduler {
         allinstantiated &= insertDSlices();
 
         //Now transforms into an absolute profile
-        absoluteValues();
+        profileMin.build();
+        profileMax.build();
 
         summary();
         return allinstantiated;
     }
 
-    private void absoluteValues() {
-        sortedMinProfile = profilesMin[0].keys();
-        Arrays.sort(sortedMinProfile);
-
-        sortedMaxProfile = profilesMax[0].keys();
-
-        Arrays.sort(sortedMaxProfile);
-
-        for (int d = 0; d < nbDims; d++) {
-            toAbsoluteFreeResources(profilesMin[d], sortedMinProfile);
-            toAbsoluteFreeResources(profilesMax[d], sortedMaxProfile);
-        }
-    }
-
     private boolean insertDSlices() throws ContradictionException {
         boolean allinstantiated = true;
         int lastSup = 0;
@@ -286,9 +263,11 @@ public class LocalTaskScheduler {
                 lastSup = tu;
             }
 
+            int eMin = profileMin.change(tu);
+            int eMax = profileMax.change(tl);
             for (int d = 0; d < nbDims; d++) {
-                profilesMin[d].put(tu, profilesMin[d].get(tu) + dUsages[dt][d]);
-                profilesMax[d].put(tl, profilesMax[d].get(tl) + dUsages[dt][d]);
+                profileMin.add(eMin, d, dUsages[dt][d]);
+                profileMax.add(eMax, d, dUsages[dt][d]);
             }
         }
         early.updateUpperBound(lastSup, aCause);
@@ -311,16 +290,19 @@ public class LocalTaskScheduler {
             // the cTask does not migrate and its demand increases on at least one dimension
             boolean increasing = associated && increase(ct, associateDTask[ct]);
 
+            int eMin;
+            int eMax;
+            if (increasing) {
+                eMax = profileMax.change(tl);
+                eMin = profileMin.change(tu);
+            } else {
+                //the cTask free resources (by migration or decreasing demand on dimensions
+                eMin = profileMin.change(tl);
+                eMax = profileMax.change(tu);
+            }
             for (int d = 0; d < nbDims; d++) {
-                int diff = cUsages[ct][d];
-                if (increasing) {
-                    profilesMax[d].put(tl, profilesMax[d].get(tl) - diff);
-                    profilesMin[d].put(tu, profilesMin[d].get(tu) - diff);
-                } else {
-                    //the cTask free resources (by migration or decreasing demand on dimensions
-                    profilesMin[d].put(tl, profilesMin[d].get(tl) - diff);
-                    profilesMax[d].put(tu, profilesMax[d].get(tu) - diff);
-                }
+                profileMin.add(eMin, d, -cUsages[ct][d]);
+                profileMax.add(eMax, d, -cUsages[ct][d]);
             }
         }
         last.updateLowerBound(lastInf, aCause);
@@ -328,15 +310,13 @@ public class LocalTaskScheduler {
     }
 
     private void initProfile() {
+        profileMin.clear();
+        profileMax.clear();
+        int eMin = profileMin.change(0);
+        int eMax = profileMax.change(0);
         for (int d = 0; d < nbDims; d++) {
-            //What is necessarily used on the resource
-            profilesMin[d].clear();
-
-            //Maximum possible usage on the resource
-            profilesMax[d].clear();
-
-            profilesMax[d].put(0, capacities[me][d] - startupFree[d]);
-            profilesMin[d].put(0, capacities[me][d] - startupFree[d]);
+            profileMin.add(eMin, d, capacities[me][d] - startupFree[d]);
+            profileMax.add(eMax, d, capacities[me][d] - startupFree[d]);
         }
     }
 
@@ -355,8 +335,8 @@ public class LocalTaskScheduler {
 
 
             for (int i = 0; i < nbDims; i++) {
-                LOGGER.debug("profileMin dim {}={}", i, prettyProfile(sortedMinProfile, profilesMin[i]));
-                LOGGER.debug("profileMax dim {}={}", i, prettyProfile(sortedMaxProfile, profilesMax[i]));
+                LOGGER.debug("profileMin dim {}={}", i, profileMin.toString(i));
+                LOGGER.debug("profileMax dim {}={}", i, profileMax.toString(i));
             }
             LOGGER.debug("/--- {} ---/", me);
         }
@@ -378,26 +358,12 @@ public class LocalTaskScheduler {
         return associateCTask[dSlice] != NO_ASSOCIATIONS && out.get(associateCTask[dSlice]);
     }
 
-    private static String prettyProfile(int[] ascMoments, TIntIntHashMap prof) {
-        StringBuilder b = new StringBuilder();
-        for (int i = 0; i < ascMoments.length; i++) {
-            int t = ascMoments[i];
-            b.append(t);
-            b.append(':');
-            b.append(prof.get(t));
-            if (i != ascMoments.length - 1) {
-                b.append(' ');
-            }
-        }
-        return b.toString();
-    }
-
     private boolean checkInvariant() throws ContradictionException {
-        for (int t : sortedMinProfile) {
+        for (int m = 0; m < profileMin.size(); m++) {
             for (int d = 0; d < nbDims; d++) {
-                if (profilesMin[d].get(t) > capacities[me][d]) {
+                if (profileMin.usage(d, m) > capacities[me][d]) {
                   if (me == DEBUG) {
-                        LOGGER.debug("({}) Invalid min profile at {} on dimension {}: {} > {}", me, t, d, profilesMin[d].get(t), capacities[me][d]);
+                        LOGGER.debug("({}) Invalid min profile at {} on dimension {}: {} > {}", me, profileMin.moment(m), d, profileMin.usage(d, m), capacities[me][d]);
                     }
                     aCause.fails();
                 }
@@ -416,14 +382,13 @@ public class LocalTaskScheduler {
             if (!dStarts[i].isInstantiated() && !associatedToCSliceOnCurrentNode(i)) {
 
                 int lastT = -1;
-                for (int x = sortedMinProfile.length - 1; x >= 0; x--) {
-                    int t = sortedMinProfile[x];
+                for (int x = profileMin.size() - 1; x >= 0; x--) {
+                    int t = profileMin.moment(x);
                     if (t <= dStarts[i].getLB()) {
                         break;
                     }
-                    int prevT = sortedMinProfile[x - 1];
                     if (t <= dStarts[i].getUB()
-                            && exceedCapacity(profilesMin, prevT, dUsages[i])) {
+                            && profileMin.exceeds(x - 1, dUsages[i], capacities[me])) {
                         lastT = t;
                         break;
                     }
@@ -438,9 +403,9 @@ public class LocalTaskScheduler {
     private void updateDStartsSup(BitSet watchHosts) throws ContradictionException {
 
         int lastSup = -1;
-        for (int i = sortedMaxProfile.length - 1; i >= 0; i--) {
-            int t = sortedMaxProfile[i];
-            if (!exceedCapacity(profilesMax, t, capacities[me])) {
+        for (int i = profileMax.size() - 1; i >= 0; i--) {
+            int t = profileMax.moment(i);
+            if (!profileMax.exceeds(i, capacities[me], capacities[me])) {
                 lastSup = t;
             } else {
                 break;
@@ -464,11 +429,12 @@ public class LocalTaskScheduler {
             if (!cEnds[i].isInstantiated() && !associatedToDSliceOnCurrentNode(i)) {
 
                 int lastT = -1;
-                for (int t : sortedMinProfile) {
+                for (int x = 0; x < profileMin.size(); x++) {
+                    int t = profileMin.moment(x);
                     if (t >= cEnds[i].getUB()) {
                         break;
                     } else if (t >= cEnds[i].getLB() &&
-                            exceedCapacity(profilesMin, t, cUsages[i])) {
+                            profileMin.exceeds(x, cUsages[i], capacities[me])) {
                         lastT = t;
                         break;
                     }
@@ -481,13 +447,4 @@ public class LocalTaskScheduler {
         }
     }
 
-    private boolean exceedCapacity(TIntIntHashMap[] profiles, int t, int[] usage) {
-        for (int d = 0; d < nbDims; d++) {
-            if (profiles[d].get(t) + usage[d] > capacities[me][d]) {
-                return true;
-            }
-        }
-        return false;
-    }
-
 }
@@ -0,0 +1,244 @@
+/*
+ * Copyright  2026 The BtrPlace Authors. All rights reserved.
+ * Use of this source code is governed by a LGPL-style
+ * license that can be found in the LICENSE.txt file.
+ */
+
+package org.btrplace.scheduler.choco.extensions;
+
+import java.util.Arrays;
+
+/**
+ * A multi-dimensional resource profile for the cumulative filters.
+ * <p>
+ * The profile is first stated as a list of changes, each change occurring at a given moment.
+ * Once {@link #build()} is called, the profile is available as an absolute resource usage
+ * at each distinct moment, in ascending order.
+ * <p>
+ * The arrays are kept from one build to another so the propagation does not allocate once they
+ * reached their size.
+ * Furthermore, the changes are sorted starting from their previous order. As the changes are
+ * declared in the same order at each propagation and their moments only shift a bit,
+ * the sort is close to linear. When the order changed too much, the sort falls back to {@link Arrays#sort(long[])}.
+ *
+ * @author Fabien Hermenier
+ */
+final class Profile {
+
+    /**
+     * The insertion sort is abandoned once it moved more than one change out of {@code MAX_SHIFT_RATIO}.
+     */
+    private static final int MAX_SHIFT_RATIO = 8;
+
+    private final int nbDims;
+
+    private int nbChanges;
+
+    /**
+     * The number of changes at the previous build.
+     */
+    private int lastNbChanges = -1;
+
+    private int[] times;
+
+    /**
+     * The usage variation of each change, per dimension.
+     */
+    private final int[][] deltas;
+
+    /**
+     * The changes sorted by moment. Each key is {@code moment << 32 | change}.
+     */
+    private long[] keys;
+
+    private int nbMoments;
+
+    private int[] moments;
+
+    /**
+     * The absolute usage at each moment, per dimension.
+     */
+    private final int[][] usages;
+
+    /**
+     * New profile.
+     *
+     * @param nbDims   the number of dimensions
+     * @param capacity the expected number of changes. The profile grows if needed
+     */
+    Profile(int nbDims, int capacity) {
+        this.nbDims = nbDims;
+        int c = Math.max(capacity, 1);
+        times = new int[c];
+        keys = new long[c];
+        moments = new int[c];
+        deltas = new int[nbDims][c];
+        usages = new int[nbDims][c];
+    }
+
+    /**
+     * Remove all the changes.
+     */
+    void clear() {
+        nbChanges = 0;
+    }
+
+    /**
+     * Declare a new change.
+     *
+     * @param t the moment of the change
+     * @return the change identifier, to state its variation using {@link #add(int, int, int)}
+     */
+    int change(int t) {
+        if (nbChanges == times.length) {
+            int c = nbChanges * 2;
+            times = Arrays.copyOf(times, c);
+            keys = Arrays.copyOf(keys, c);
+            moments = Arrays.copyOf(moments, c);
+            for (int d = 0; d < nbDims; d++) {
+                deltas[d] = Arrays.copyOf(deltas[d], c);
+                usages[d] = Arrays.copyOf(usages[d], c);
+            }
+            //The previous order is lost
+            lastNbChanges = -1;
+        }
+        int e = nbChanges++;
+        times[e] = t;
+        for (int d = 0; d < nbDims; d++) {
+            deltas[d][e] = 0;
+        }
+        return e;
+    }
+
+    /**
+     * Add a usage variation to a change.
+     *
+     * @param e the change identifier
+     * @param d the dimension
+     * @param v the variation
+     */
+    void add(int e, int d, int v) {
+        deltas[d][e] += v;
+    }
+
+    /**
+     * Compute the absolute usage at each moment.
+     */
+    void build() {
+        sort();
+        nbMoments = 0;
+        for (int x = 0; x < nbChanges; x++) {
+            int e = (int) keys[x];
+            int t = times[e];
+            if (nbMoments == 0 || moments[nbMoments - 1] != t) {
+                moments[nbMoments] = t;
+                for (int d = 0; d < nbDims; d++) {
+                    usages[d][nbMoments] = nbMoments == 0 ? 0 : usages[d][nbMoments - 1];
+                }
+                nbMoments++;
+            }
+            for (int d = 0; d < nbDims; d++) {
+                usages[d][nbMoments - 1] += deltas[d][e];
+            }
+        }
+    }
+
+    private void sort() {
+        if (nbChanges != lastNbChanges) {
+            for (int e = 0; e < nbChanges; e++) {
+                keys[e] = key(e);
+            }
+            Arrays.sort(keys, 0, nbChanges);
+            lastNbChanges = nbChanges;
+            return;
+        }
+        //Refresh the previous order, then an insertion sort
+        for (int x = 0; x < nbChanges; x++) {
+            keys[x] = key((int) keys[x]);
+        }
+        int budget = nbChanges / MAX_SHIFT_RATIO;
+        for (int x = 1; x < nbChanges; x++) {
+            long k = keys[x];
+            int y = x - 1;
+            while (y >= 0 && keys[y] > k) {
+                keys[y + 1] = keys[y];
+                y--;
+                budget--;
+            }
+            keys[y + 1] = k;
+            if (budget < 0) {
+                //The order is too far from the previous one
+                Arrays.sort(keys, 0, nbChanges);
+                return;
+            }
+        }
+    }
+
+    private long key(int e) {
+        return ((long) times[e] << 32) | e;
+    }
+
+    /**
+     * Get the number of distinct moments.
+     *
+     * @return a positive integer
+     */
+    int size() {
+        return nbMoments;
+    }
+
+    /**
+     * Get a moment.
+     *
+     * @param m the moment index
+     * @return the moment. The moments are sorted in ascending order
+     */
+    int moment(int m) {
+        return moments[m];
+    }
+
+    /**
+     * Get the usage at a given moment.
+     *
+     * @param d the dimension
+     * @param m the moment index
+     * @return the absolute usage
+     */
+    int usage(int d, int m) {
+        return usages[d][m];
+    }
+
+    /**
+     * Check if an additional usage exceeds the capacity at a given moment.
+     *
+     * @param m          the moment index
+     * @param usage      the additional usage, per dimension
+     * @param capacities the capacity, per dimension
+     * @return {@code true} iff the capacity is exceeded on at least one dimension
+     */
+    boolean exceeds(int m, int[] usage, int[] capacities) {
+        for (int d = 0; d < nbDims; d++) {
+            if (usages[d][m] + usage[d] > capacities[d]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Pretty print the profile of a dimension.
+     *
+     * @param d the dimension
+     * @return a formatted string
+     */
+    String toString(int d) {
+        StringBuilder b = new StringBuilder();
+        for (int m = 0; m < nbMoments; m++) {
+            if (m > 0) {
+                b.append(' ');
+            }
+            b.append(moments[m]).append(':').append(usages[d][m]);
+        }
+        return b.toString();
+    }
+}
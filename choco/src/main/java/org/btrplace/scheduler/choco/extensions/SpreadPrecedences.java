@@ -0,0 +1,315 @@
+/*
+ * Copyright  2026 The BtrPlace Authors. All rights reserved.
+ * Use of this source code is governed by a LGPL-style
+ * license that can be found in the LICENSE.txt file.
+ */
+
+package org.btrplace.scheduler.choco.extensions;
+
+
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.hash.TIntIntHashMap;
+import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.events.IntEventType;
+import org.chocosolver.util.ESat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Precedences between a set of tasks that must not overlap on a same resource.
+ * <p>
+ * Each task may leave a resource and arrive on a resource. When a task arrives on a resource,
+ * it must start once all the other tasks that leave this resource ended:
+ * {@code host[i] = oHost[j] -> oEnd[j] <= start[i]} for all {@code i != j}.
+ * The resources left by the tasks are constants.
+ * <p>
+ * This is equivalent to one reified precedence per pair of tasks but the constraint size is linear.
+ * The resources having a leaving task are swept in decreasing order of their latest end lower bound, so
+ * a task only browses the resources it cannot go on.
+ *
+ * @author Fabien Hermenier
+ */
+public class SpreadPrecedences extends Constraint {
+
+    /**
+     * Make a new constraint.
+     *
+     * @param hosts  the resource each task arrives on. {@code null} if the task does not arrive
+     * @param starts the moment each task arrives on its resource. {@code null} if the task does not arrive
+     * @param oHosts the resource each task leaves. Negative if the task does not leave any resource
+     * @param oEnds  the moment each task leaves its resource. {@code null} if the task does not leave any resource
+     */
+    public SpreadPrecedences(IntVar[] hosts, IntVar[] starts, int[] oHosts, IntVar[] oEnds) {
+        super("spreadPrecedences", new SpreadPrecedencesPropagator(hosts, starts, oHosts, oEnds));
+    }
+
+    static class SpreadPrecedencesPropagator extends Propagator<IntVar> {
+
+        /**
+         * The task identifier of each arriving task.
+         */
+        private final int[] dTasks;
+
+        private final int nbD;
+
+        /**
+         * The task identifier of each leaving task.
+         */
+        private final int[] cTasks;
+
+        /**
+         * The resource of each slot.
+         */
+        private final int[] resources;
+
+        /**
+         * The slot of each resource having a leaving task.
+         */
+        private final TIntIntHashMap slots;
+
+        /**
+         * The leaving tasks, per slot. Index in {@link #cTasks}.
+         */
+        private final int[][] leaving;
+
+        /**
+         * The latest end lower bound per slot, the associated task, then the second latest one.
+         */
+        private final int[] maxEnd;
+
+        private final int[] maxEndTask;
+
+        private final int[] secondMaxEnd;
+
+        /**
+         * The earliest start upper bound of the tasks arriving on each slot, the associated task,
+         * then the second earliest one.
+         */
+        private final int[] minStart;
+
+        private final int[] minStartTask;
+
+        private final int[] secondMinStart;
+
+        /**
+         * The slots sorted by their latest end lower bound. Each key is {@code maxEnd << 32 | slot}.
+         */
+        private final long[] sweep;
+
+        SpreadPrecedencesPropagator(IntVar[] hosts, IntVar[] starts, int[] oHosts, IntVar[] oEnds) {
+            super(vars(hosts, starts, oEnds), PropagatorPriority.LINEAR, false);
+            TIntArrayList ds = new TIntArrayList();
+            TIntArrayList cs = new TIntArrayList();
+            for (int i = 0; i < hosts.length; i++) {
+                if (hosts[i] != null) {
+                    ds.add(i);
+                }
+                if (oEnds[i] != null) {
+                    cs.add(i);
+                }
+            }
+            dTasks = ds.toArray();
+            nbD = dTasks.length;
+            cTasks = new int[cs.size()];
+
+            slots = new TIntIntHashMap(10, 0.5f, -1, -1);
+            List<TIntArrayList> bySlot = new ArrayList<>();
+            TIntArrayList res = new TIntArrayList();
+            for (int x = 0; x < cs.size(); x++) {
+                int t = cs.get(x);
+                cTasks[x] = t;
+                int slot = slots.get(oHosts[t]);
+                if (slot < 0) {
+                    slot = res.size();
+                    slots.put(oHosts[t], slot);
+                    res.add(oHosts[t]);
+                    bySlot.add(new TIntArrayList());
+                }
+                bySlot.get(slot).add(x);
+            }
+            resources = res.toArray();
+            leaving = new int[resources.length][];
+            for (int s = 0; s < resources.length; s++) {
+                leaving[s] = bySlot.get(s).toArray();
+            }
+            maxEnd = new int[resources.length];
+            maxEndTask = new int[resources.length];
+            secondMaxEnd = new int[resources.length];
+            minStart = new int[resources.length];
+            minStartTask = new int[resources.length];
+            secondMinStart = new int[resources.length];
+            sweep = new long[resources.length];
+        }
+
+        private static IntVar[] vars(IntVar[] hosts, IntVar[] starts, IntVar[] oEnds) {
+            List<IntVar> hs = new ArrayList<>();
+            List<IntVar> sts = new ArrayList<>();
+            List<IntVar> es = new ArrayList<>();
+            for (int i = 0; i < hosts.length; i++) {
+                if (hosts[i] != null) {
+                    hs.add(hosts[i]);
+                    sts.add(starts[i]);
+                }
+                if (oEnds[i] != null) {
+                    es.add(oEnds[i]);
+                }
+            }
+            hs.addAll(sts);
+            hs.addAll(es);
+            return hs.toArray(new IntVar[0]);
+        }
+
+        private IntVar host(int d) {
+            return vars[d];
+        }
+
+        private IntVar start(int d) {
+            return vars[nbD + d];
+        }
+
+        private IntVar end(int c) {
+            return vars[2 * nbD + c];
+        }
+
+        @Override
+        public int getPropagationConditions(int idx) {
+            if (idx < nbD) {
+                return IntEventType.INSTANTIATE.getMask();
+            }
+            if (idx < 2 * nbD) {
+                return IntEventType.DECUPP.getMask() + IntEventType.INSTANTIATE.getMask();
+            }
+            return IntEventType.INCLOW.getMask() + IntEventType.INSTANTIATE.getMask();
+        }
+
+        @Override
+        public void propagate(int evtMask) throws ContradictionException {
+            computeEnds();
+            filterHosts();
+            //The hosts are not modified anymore
+            filterStarts();
+            filterEnds();
+        }
+
+        /**
+         * Compute the two latest end lower bounds for each slot.
+         */
+        private void computeEnds() {
+            for (int s = 0; s < resources.length; s++) {
+                maxEnd[s] = Integer.MIN_VALUE;
+                maxEndTask[s] = -1;
+                secondMaxEnd[s] = Integer.MIN_VALUE;
+                for (int c : leaving[s]) {
+                    int lb = end(c).getLB();
+                    if (lb > maxEnd[s]) {
+                        secondMaxEnd[s] = maxEnd[s];
+                        maxEnd[s] = lb;
+                        maxEndTask[s] = cTasks[c];
+                    } else if (lb > secondMaxEnd[s]) {
+                        secondMaxEnd[s] = lb;
+                    }
+                }
+                sweep[s] = ((long) maxEnd[s] << 32) | s;
+            }
+            Arrays.sort(sweep);
+        }
+
+        /**
+         * The latest end lower bound among the tasks leaving a slot, except a given task.
+         */
+        private int horizon(int s, int task) {
+            return maxEndTask[s] == task ? secondMaxEnd[s] : maxEnd[s];
+        }
+
+        /**
+         * Remove the resources where a task cannot arrive as it would start before
+         * another task leaves.
+         */
+        private void filterHosts() throws ContradictionException {
+            for (int d = 0; d < nbD; d++) {
+                IntVar h = host(d);
+                if (h.isInstantiated()) {
+                    continue;
+                }
+                int ub = start(d).getUB();
+                for (int x = sweep.length - 1; x >= 0; x--) {
+                    int s = (int) sweep[x];
+                    if (maxEnd[s] <= ub) {
+                        //The remaining slots end earlier
+                        break;
+                    }
+                    if (h.contains(resources[s]) && horizon(s, dTasks[d]) > ub) {
+                        h.removeValue(resources[s], this);
+                    }
+                }
+            }
+        }
+
+        /**
+         * A task arriving on a resource starts once the other tasks left.
+         * Compute the earliest start upper bounds on each slot meanwhile.
+         */
+        private void filterStarts() throws ContradictionException {
+            Arrays.fill(minStart, Integer.MAX_VALUE);
+            Arrays.fill(minStartTask, -1);
+            Arrays.fill(secondMinStart, Integer.MAX_VALUE);
+            for (int d = 0; d < nbD; d++) {
+                IntVar h = host(d);
+                int s = h.isInstantiated() ? slots.get(h.getValue()) : -1;
+                if (s < 0) {
+                    continue;
+                }
+                IntVar st = start(d);
+                st.updateLowerBound(horizon(s, dTasks[d]), this);
+                int ub = st.getUB();
+                if (ub < minStart[s]) {
+                    secondMinStart[s] = minStart[s];
+                    minStart[s] = ub;
+                    minStartTask[s] = dTasks[d];
+                } else if (ub < secondMinStart[s]) {
+                    secondMinStart[s] = ub;
+                }
+            }
+        }
+
+        /**
+         * A task leaving a resource must end before the other tasks arrive.
+         */
+        private void filterEnds() throws ContradictionException {
+            for (int s = 0; s < resources.length; s++) {
+                if (minStartTask[s] < 0) {
+                    continue;
+                }
+                for (int c : leaving[s]) {
+                    int ub = minStartTask[s] == cTasks[c] ? secondMinStart[s] : minStart[s];
+                    end(c).updateUpperBound(ub, this);
+                }
+            }
+        }
+
+        @Override
+        public ESat isEntailed() {
+            if (!isCompletelyInstantiated()) {
+                return ESat.UNDEFINED;
+            }
+            for (int d = 0; d < nbD; d++) {
+                int s = slots.get(host(d).getValue());
+                if (s < 0) {
+                    continue;
+                }
+                for (int c : leaving[s]) {
+                    if (cTasks[c] != dTasks[d] && end(c).getValue() > start(d).getValue()) {
+                        return ESat.FALSE;
+                    }
+                }
+            }
+            return ESat.TRUE;
+        }
+    }
+}
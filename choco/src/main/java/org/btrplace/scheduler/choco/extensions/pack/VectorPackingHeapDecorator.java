@@ -6,17 +6,19 @@
 
 package org.btrplace.scheduler.choco.extensions.pack;
 
+import org.chocosolver.memory.IStateInt;
 import org.chocosolver.solver.exception.ContradictionException;
 
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.List;
-import java.util.PriorityQueue;
+import java.util.Arrays;
 
 /**
  * The list of bins can be optionally maintain as a heap in order that only the bins with the maximum load slack
  * are considered in the propagation of rule 1: binLoad = sumItemSizes - sumOtherBinLoads
  * call attachHeapDecorator() to the VectorPackingPropagator object
+ * <p>
+ * There is one binary heap of bin indexes per dimension. The position of each bin inside its heap is indexed
+ * so the heap is updated in place using {@link #update(int, int)} each time the load bounds of a bin change.
+ * The heaps are rebuilt in linear time only after a backtrack.
  *
  * @author Sophie Demassey
  */
@@ -27,20 +29,52 @@ public class VectorPackingHeapDecorator {
      */
     private final VectorPackingPropagator p;
     /**
-     * The list of bins as a maxSlackBinHeap for quick access to the bin with the maximum slack load. [nbDims]
+     * The list of bins as a maxSlackBinHeap for quick access to the bin with the maximum slack load. [nbDims][nbBins]
+     * Only the first {@code heapSize[d]} bins are in the heap of dimension {@code d}.
      */
-    private final List<PriorityQueue<Integer>> maxSlackBinHeap;
+    private final int[][] maxSlackBinHeap;
 
-    private int lastWorld = -1;
-    private long lastNbOfBacktracks = -1;
-    private long lastNbOfRestarts = -1;
+    /**
+     * The position of each bin in the heaps. {@code -1} if the bin is not in the heap. [nbDims][nbBins]
+     */
+    private final int[][] positions;
+
+    private final int[] heapSize;
+
+    /**
+     * The number of modifications of the heaps. {@code -1} until the heaps are built.
+     */
+    private int version = -1;
+
+    /**
+     * The value of {@link #version} when the heaps were last modified.
+     * It is restored on backtrack so a mismatch indicates the heaps were modified in a world
+     * that no longer exists.
+     */
+    private final IStateInt stamp;
 
     public VectorPackingHeapDecorator(VectorPackingPropagator p) {
         this.p = p;
-        this.maxSlackBinHeap = new ArrayList<>(p.nbDims);
-        for (int d = 0; d < p.nbDims; d++) {
-            maxSlackBinHeap.add(new PriorityQueue<>(p.nbBins, new LoadSlackComparator(d, this)));
-        }
+        maxSlackBinHeap = new int[p.nbDims][p.nbBins];
+        positions = new int[p.nbDims][p.nbBins];
+        heapSize = new int[p.nbDims];
+        stamp = p.getModel().getEnvironment().makeInt(-2);
+    }
+
+    /**
+     * Check if the heaps are in sync with the current world.
+     *
+     * @return {@code false} if the heaps must be rebuilt
+     */
+    private boolean synced() {
+        return stamp.get() == version;
+    }
+
+    /**
+     * Record a modification of the heaps in the current world.
+     */
+    private void touch() {
+        stamp.set(++version);
     }
 
     /**
@@ -56,43 +90,129 @@ public class VectorPackingHeapDecorator {
 
     private void reHeap() {
         for (int d = 0; d < p.nbDims; d++) {
-            maxSlackBinHeap.get(d).clear();
+            int[] heap = maxSlackBinHeap[d];
+            int[] pos = positions[d];
+            int n = 0;
+            Arrays.fill(pos, -1);
             for (int b = 0; b < p.nbBins; b++) {
                 if (loadSlack(d, b) > 0) {
-                    maxSlackBinHeap.get(d).offer(b);
+                    heap[n] = b;
+                    pos[b] = n++;
                 }
             }
+            heapSize[d] = n;
+            for (int i = n / 2 - 1; i >= 0; i--) {
+                siftDown(d, i);
+            }
         }
+        touch();
     }
 
-    private void checkReHeap(boolean forceReHeap) {
-        int currentWorld = p.getModel().getEnvironment().getWorldIndex();
-        long currentBt = p.getModel().getSolver().getMeasures().getBackTrackCount();
-        long currentRestart = p.getModel().getSolver().getMeasures().getRestartCount();
-        if (forceReHeap || currentWorld < lastWorld || currentBt != lastNbOfBacktracks || currentRestart > lastNbOfRestarts) {
-            reHeap();
+    /**
+     * Notify the load bounds of a bin changed.
+     * The bin is moved up or down its heap, inserted or removed depending on its new load slack.
+     * Nothing is done while the heaps are stale as they will be rebuilt at the next fix point.
+     *
+     * @param d   the dimension
+     * @param bin the bin
+     */
+    public void update(int d, int bin) {
+        if (!synced()) {
+            return;
         }
-        lastWorld = currentWorld;
-        lastNbOfBacktracks = currentBt;
-        lastNbOfRestarts = currentRestart;
+        int i = positions[d][bin];
+        boolean slack = loadSlack(d, bin) > 0;
+        if (i < 0) {
+            if (slack) {
+                i = heapSize[d]++;
+                maxSlackBinHeap[d][i] = bin;
+                positions[d][bin] = i;
+                siftUp(d, i);
+            }
+        } else if (!slack) {
+            remove(d, i);
+        } else {
+            siftDown(d, siftUp(d, i));
+        }
+        touch();
     }
 
+    /**
+     * Remove the bin at a given position in the heap.
+     */
+    private void remove(int d, int i) {
+        int[] heap = maxSlackBinHeap[d];
+        int last = --heapSize[d];
+        positions[d][heap[i]] = -1;
+        if (i != last) {
+            heap[i] = heap[last];
+            positions[d][heap[i]] = i;
+            siftDown(d, siftUp(d, i));
+        }
+    }
 
     /**
-     * a comparator of load slacks
+     * Move up a bin until its parent has a bigger slack.
+     *
+     * @return the new position of the bin
      */
-    static class LoadSlackComparator implements Comparator<Integer> {
-        private final int dimension;
-        private final VectorPackingHeapDecorator hp;
+    private int siftUp(int d, int i) {
+        int[] heap = maxSlackBinHeap[d];
+        int[] pos = positions[d];
+        int b = heap[i];
+        int slack = loadSlack(d, b);
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            int pb = heap[parent];
+            if (loadSlack(d, pb) >= slack) {
+                break;
+            }
+            heap[i] = pb;
+            pos[pb] = i;
+            i = parent;
+        }
+        heap[i] = b;
+        pos[b] = i;
+        return i;
+    }
 
-        public LoadSlackComparator(int dim, VectorPackingHeapDecorator hp) {
-            this.dimension = dim;
-            this.hp = hp;
+    /**
+     * Move down a bin until its children have a smaller slack.
+     */
+    private void siftDown(int d, int i) {
+        int[] heap = maxSlackBinHeap[d];
+        int[] pos = positions[d];
+        int n = heapSize[d];
+        int b = heap[i];
+        int slack = loadSlack(d, b);
+        int half = n >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int cb = heap[child];
+            int cSlack = loadSlack(d, cb);
+            int right = child + 1;
+            if (right < n) {
+                int rSlack = loadSlack(d, heap[right]);
+                if (rSlack > cSlack) {
+                    child = right;
+                    cb = heap[right];
+                    cSlack = rSlack;
+                }
+            }
+            if (slack >= cSlack) {
+                break;
+            }
+            heap[i] = cb;
+            pos[cb] = i;
+            i = child;
         }
+        heap[i] = b;
+        pos[b] = i;
+    }
 
-        @Override
-        public int compare(Integer a, Integer b) {
-            return hp.loadSlack(dimension, b) - hp.loadSlack(dimension, a);
+    private void checkReHeap(boolean forceReHeap) {
+        if (forceReHeap || !synced()) {
+            reHeap();
         }
     }
 
@@ -104,7 +224,7 @@ public class VectorPackingHeapDecorator {
      * if loadSlack &gt; sumBinLoadSup - sumItemSizes then update inf(binLoad) = sumItemSizes - (sumBinLoadSup - sup(binLoad))
      * check each rule against the bin with the maximum loadSlack and continue until it does not apply
      *
-     * @param loadsHaveChanged {@code true} to indicate the load has changed. In that case, we reheap.
+     * @param loadsHaveChanged {@code true} to force a reheap.
      * @throws ContradictionException if a contradiction (rules 1) is raised
      */
     public void fixPoint(boolean loadsHaveChanged) throws ContradictionException {
@@ -115,7 +235,7 @@ public class VectorPackingHeapDecorator {
         }
         checkReHeap(loadsHaveChanged);
         for (int d = 0; d < p.nbDims; d++) {
-            if (maxSlackBinHeap.get(d).isEmpty()) {
+            if (heapSize[d] == 0) {
                 continue;
             }
             int nChanges;
@@ -150,6 +270,49 @@ public class VectorPackingHeapDecorator {
                 }
             } while (nChanges > 0);
         }
+        assert checkHeaps();
+    }
+
+    /**
+     * Get the position of a bin in the heap of a dimension.
+     *
+     * @param d   the dimension
+     * @param bin the bin
+     * @return the position. {@code -1} if the bin is not in the heap
+     */
+    int position(int d, int bin) {
+        return positions[d][bin];
+    }
+
+    /**
+     * Check the heaps are consistent with the current load slacks:
+     * every bin with a positive slack is in the heap of the dimension at its indexed position,
+     * and no bin has a larger slack than its parent.
+     *
+     * @return {@code true} if the heaps are consistent
+     */
+    boolean checkHeaps() {
+        if (!synced()) {
+            return true;
+        }
+        for (int d = 0; d < p.nbDims; d++) {
+            int[] heap = maxSlackBinHeap[d];
+            for (int i = 0; i < heapSize[d]; i++) {
+                if (positions[d][heap[i]] != i) {
+                    return false;
+                }
+                if (i > 0 && loadSlack(d, heap[(i - 1) >>> 1]) < loadSlack(d, heap[i])) {
+                    return false;
+                }
+            }
+            for (int b = 0; b < p.nbBins; b++) {
+                int i = positions[d][b];
+                if ((i < 0) == (loadSlack(d, b) > 0) || i >= heapSize[d]) {
+                    return false;
+                }
+            }
+        }
+        return true;
     }
 
 
@@ -166,20 +329,18 @@ public class VectorPackingHeapDecorator {
      */
     @SuppressWarnings("squid:S3346")
     private int filterLoads(int d, int delta, boolean isSup) throws ContradictionException {
-        assert maxSlackBinHeap != null;
+        int[] heap = maxSlackBinHeap[d];
         int nChanges = 0;
-        if (loadSlack(d, maxSlackBinHeap.get(d).peek()) > delta) {
-            do {
-                int b = maxSlackBinHeap.get(d).poll();
-                if (isSup) {
-                    p.filterLoadSup(d, b, delta + p.loads[d][b].getLB());
-                } else {
-                    p.filterLoadInf(d, b, p.loads[d][b].getUB() - delta);
-                }
-                assert loadSlack(d, b) == delta;
-                maxSlackBinHeap.get(d).offer(b);
-                nChanges++;
-            } while (!maxSlackBinHeap.get(d).isEmpty() && loadSlack(d, maxSlackBinHeap.get(d).peek()) > delta);
+        while (heapSize[d] > 0 && loadSlack(d, heap[0]) > delta) {
+            //The propagator notifies the heap about the new bound
+            int b = heap[0];
+            if (isSup) {
+                p.filterLoadSup(d, b, delta + p.loads[d][b].getLB());
+            } else {
+                p.filterLoadInf(d, b, p.loads[d][b].getUB() - delta);
+            }
+            assert loadSlack(d, b) == delta;
+            nChanges++;
         }
         return nChanges;
     }
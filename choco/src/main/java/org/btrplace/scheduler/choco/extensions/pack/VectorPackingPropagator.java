@@ -218,8 +218,9 @@ public class VectorPackingPropagator extends Propagator<IntVar> {
     @Override
     @SuppressWarnings("squid:S3346")
     public void propagate(int evtMask) throws ContradictionException {
+        boolean full = (evtMask & PropagatorEventType.FULL_PROPAGATION.getMask()) != 0;
         boolean recomputeLoads;
-        if ((evtMask & PropagatorEventType.FULL_PROPAGATION.getMask()) != 0) {
+        if (full) {
             initialize();
             recomputeLoads = true;
             for (int i = 0; i < deltaMonitor.length; i++) {
@@ -233,7 +234,8 @@ public class VectorPackingPropagator extends Propagator<IntVar> {
                 recomputeLoadSums(); // TODO: update rather than recompute
             }
         }
-        decoHeap.fixPoint(recomputeLoads);
+        //The heap is notified about the load changes, no need to reheap
+        decoHeap.fixPoint(full);
         assert checkLoadConsistency();
     }
 
@@ -281,6 +283,7 @@ public class VectorPackingPropagator extends Propagator<IntVar> {
             return false;
         }
         loads[dim][bin].updateLowerBound(newLoadInf, this);
+        decoHeap.update(dim, bin);
         if (sumISizes[dim] < sumLoadInf[dim].add(delta)) {
             fails();
         }
@@ -302,6 +305,7 @@ public class VectorPackingPropagator extends Propagator<IntVar> {
             return false;
         }
         loads[dim][bin].updateUpperBound(newLoadSup, this);
+        decoHeap.update(dim, bin);
         if (sumISizes[dim] > sumLoadSup[dim].add(delta)) {
             fails();
         }
@@ -354,7 +358,7 @@ public class VectorPackingPropagator extends Propagator<IntVar> {
      * fine grain propagation
      * - if the event concerns a bin variable, then update data and apply rule 2:
      * on the assigned bin: binAssignedLoad &lt;= binLoad &lt;= binPotentialLoad
-     * - otherwise remember to recompute the load sums and do nothing
+     * - otherwise remember to recompute the load sums and update the heap
      *
      * @param idx  the variable index
      * @param mask the event mask
@@ -369,6 +373,8 @@ public class VectorPackingPropagator extends Propagator<IntVar> {
             }
         } else {
             loadsHaveChanged.set(true);
+            int l = idx - bins.length;
+            decoHeap.update(l / nbBins, l % nbBins);
         }
         forcePropagate(PropagatorEventType.CUSTOM_PROPAGATION);
     }
@@ -575,6 +581,15 @@ public class VectorPackingPropagator extends Propagator<IntVar> {
         }
     }
 
+    /**
+     * Get the heap of bins used to apply rule 1.1.
+     *
+     * @return the heap decorator
+     */
+    VectorPackingHeapDecorator heap() {
+        return decoHeap;
+    }
+
     /**
      * Check the consistency of the assigned and candidate loads with regards to the assignment variables:
      * for each bin: sumAssignedItemSizes == binAssignedLoad, sumAllPossibleItemSizes == binPotentialLoad
@@ -8,6 +8,8 @@ package org.btrplace.scheduler.choco.runner;
 
 import org.btrplace.plan.ReconfigurationPlan;
 
+import java.util.function.Supplier;
+
 /**
  * Store statistics about a solution.
  *
@@ -18,6 +20,11 @@ public class SolutionStatistics {
 
     private ReconfigurationPlan solution = null;
 
+    /**
+     * The plan builder when the plan is computed on demand.
+     */
+    private Supplier<ReconfigurationPlan> builder = null;
+
   private final Metrics measures;
 
     private boolean hasObjective;
@@ -35,15 +42,31 @@ public class SolutionStatistics {
         solution = plan;
     }
 
+    /**
+     * Make a new statistics where the plan is built on demand.
+     *
+     * @param m       the solver metrics at the moment of the solution
+     * @param builder the supplier that builds the resulting plan at the first call to {@link #getReconfigurationPlan()}
+     */
+    public SolutionStatistics(Metrics m, Supplier<ReconfigurationPlan> builder) {
+        this(m);
+        this.builder = builder;
+    }
+
     public SolutionStatistics(Metrics m) {
         this.measures = m;
     }
 
     /**
      * Return the computed solution.
+     * If the plan is computed on demand, it is built then cached.
      * @return a plan that might be null
      */
     public ReconfigurationPlan getReconfigurationPlan() {
+        if (builder != null) {
+            solution = builder.get();
+            builder = null;
+        }
         return solution;
     }
 
@@ -67,6 +90,7 @@ public class SolutionStatistics {
 
     public void setReconfigurationPlan(final ReconfigurationPlan plan) {
         this.solution = plan;
+        this.builder = null;
     }
 
     /**
@@ -118,21 +118,22 @@ public class InstanceSolverRunner implements Callable<SolvingStatistics> {
         rp.getLogger().debug(stats.toString());
 
         //The solution monitor to store the measures at each solution
+        //With lazy plans and no listener to notify, the plan is only built on demand
+        boolean lazy = params.doLazyPlans() && params.solutionListeners().isEmpty();
         rp.getSolver().plugMonitor((IMonitorSolution) () -> {
             Solution solution = new Solution(rp.getModel());
             solution.record();
 
-            ReconfigurationPlan plan = rp.buildReconfigurationPlan(solution, origin);
-            views.forEach(v -> v.insertActions(rp, solution, plan));
-
             MeasuresRecorder m = rp.getSolver().getMeasures();
-            SolutionStatistics st = new SolutionStatistics(new Metrics(m), plan);
+            SolutionStatistics st = lazy
+                    ? new SolutionStatistics(new Metrics(m), () -> buildPlan(solution))
+                    : new SolutionStatistics(new Metrics(m), buildPlan(solution));
             IntVar o = rp.getObjective();
             if (o != null) {
                 st.setObjective(solution.getIntVal(o));
             }
             stats.addSolution(st);
-          params.solutionListeners().forEach(c -> c.accept(rp, plan));
+            params.solutionListeners().forEach(c -> c.accept(rp, st.getReconfigurationPlan()));
         });
 
         setVerbosity();
@@ -143,6 +144,18 @@ public class InstanceSolverRunner implements Callable<SolvingStatistics> {
     }
 
 
+    /**
+     * Build the reconfiguration plan associated to a solution.
+     *
+     * @param s the solution
+     * @return the resulting plan, customised by the views
+     */
+    private ReconfigurationPlan buildPlan(Solution s) {
+        ReconfigurationPlan plan = rp.buildReconfigurationPlan(s, origin);
+        views.forEach(v -> v.insertActions(rp, s, plan));
+        return plan;
+    }
+
     private void setVerbosity() {
         if (params.getVerbosity() >= 2) {
             //every second
@@ -209,9 +222,8 @@ public class InstanceSolverRunner implements Callable<SolvingStatistics> {
                 }
                 toKill.addAll(cstr.getInvolvedVMs());
             }
-
-            cConstraints.add(build(cstr));
         }
+        cConstraints.addAll(build(cstrs));
         cConstraints.add(build(obj));
 
         views = makeViews();
@@ -248,7 +260,26 @@ public class InstanceSolverRunner implements Callable<SolvingStatistics> {
     }
 
     /**
-     * Build a sat constraint
+     * Build the sat constraints in bulk.
+     *
+     * @param cs the model-side constraints
+     * @return the solver-side constraints
+     * @throws SchedulerException if the process failed
+     */
+    private List<ChocoConstraint> build(Collection<? extends Constraint> cs) throws SchedulerException {
+        List<ChocoConstraint> l = params.getMapper().getAll(cs);
+        Iterator<? extends Constraint> ite = cs.iterator();
+        for (ChocoConstraint cc : l) {
+            Constraint cstr = ite.next();
+            if (cc == null) {
+                throw new SchedulerModelingException(origin, "No implementation mapped to '" + cstr.getClass().getSimpleName() + "'");
+            }
+        }
+        return l;
+    }
+
+    /**
+     * Build a constraint
      *
      * @param cstr the model-side constraint
      * @return the solver-side constraint
@@ -6,6 +6,7 @@
 
 package org.btrplace.scheduler.choco.transition;
 
+import org.btrplace.model.AttributeKey;
 import org.btrplace.model.Model;
 import org.btrplace.model.Node;
 import org.btrplace.model.VM;
@@ -51,6 +52,9 @@ public class RelocatableVM implements KeepRunningVM {
 
   public static final String PREFIX = "relocatable(";
   public static final String PREFIX_STAY = "stayRunningOn(";
+  private static final AttributeKey POST_COPY = AttributeKey.of("postCopy");
+  private static final AttributeKey CLONE = AttributeKey.of("clone");
+  private static final AttributeKey TEMPLATE = AttributeKey.of("template");
   private final VM vm;
   private final Slice cSlice;
   private final Slice dSlice;
@@ -146,7 +150,7 @@ public class RelocatableVM implements KeepRunningVM {
         if (network != null) {
 
             // Set the migration algorithm
-            postCopy = mo.getAttributes().get(vm, "postCopy", false);
+            postCopy = mo.getAttributes().get(vm, POST_COPY, false);
 
             // Create unbounded/large domain vars for migration duration and bandwidth
             migrationDuration = p.makeUnboundedDuration("migration(", vm, ").duration");
@@ -165,7 +169,7 @@ public class RelocatableVM implements KeepRunningVM {
         }
 
         // Possibly re-instantiate (if some attributes are defined)
-        if (mo.getAttributes().get(vm, "clone", false) && mo.getAttributes().isSet(vm, "template")) {
+        if (mo.getAttributes().get(vm, CLONE, false) && mo.getAttributes().isSet(vm, TEMPLATE)) {
             if (rp.labelVariables()) {
                 doReinstantiation = csp.boolVar(rp.makeVarLabel("relocation_method(", vm, ")"));
             } else {
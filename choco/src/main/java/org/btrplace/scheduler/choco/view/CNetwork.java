@@ -6,6 +6,7 @@
 
 package org.btrplace.scheduler.choco.view;
 
+import org.btrplace.model.AttributeKey;
 import org.btrplace.model.Attributes;
 import org.btrplace.model.Model;
 import org.btrplace.model.Node;
@@ -44,6 +45,12 @@ public class CNetwork implements ChocoView {
    * The view identifier.
    */
   public static final String VIEW_ID = "NetworkView";
+
+  private static final AttributeKey MEM_USED = AttributeKey.of("memUsed");
+  private static final AttributeKey HOT_DIRTY_SIZE = AttributeKey.of("hotDirtySize");
+  private static final AttributeKey HOT_DIRTY_DURATION = AttributeKey.of("hotDirtyDuration");
+  private static final AttributeKey COLD_DIRTY_RATE = AttributeKey.of("coldDirtyRate");
+
   private final Network net;
   private org.chocosolver.solver.Model csp;
     private Model source;
@@ -96,7 +103,7 @@ public class CNetwork implements ChocoView {
                 throw new SchedulerModelingException(null, "Destination node for VM '" + vm + "' should be known !");
             }
 
-            if (!mo.getAttributes().isSet(vm, "memUsed")) {
+            if (!attrs.isSet(vm, MEM_USED)) {
                 throw new SchedulerModelingException(null, "Unable to retrieve 'memUsed' attribute for the vm '" + vm + "'");
             }
 
@@ -113,12 +120,12 @@ public class CNetwork implements ChocoView {
             }
 
             // Get attribute vars
-            int memUsed = attrs.get(vm, "memUsed", -1);
+            int memUsed = attrs.get(vm, MEM_USED, -1);
 
             // Get VM memory activity attributes if defined, otherwise set an idle workload on the VM
-            double hotDirtySize = attrs.get(vm, "hotDirtySize", 5.0);// Minimal observed value on idle VM
-            double hotDirtyDuration = attrs.get(vm, "hotDirtyDuration", 2.0); // Minimal observed value on idle VM
-            double coldDirtyRate = attrs.get(vm, "coldDirtyRate", 0.0);
+            double hotDirtySize = attrs.get(vm, HOT_DIRTY_SIZE, 5.0);// Minimal observed value on idle VM
+            double hotDirtyDuration = attrs.get(vm, HOT_DIRTY_DURATION, 2.0); // Minimal observed value on idle VM
+            double coldDirtyRate = attrs.get(vm, COLD_DIRTY_RATE, 0.0);
 
             // Get the maximal bandwidth available on the migration path
             int maxBW = net.getRouting().getMaxBW(src, dst);
@@ -10,6 +10,7 @@ import org.btrplace.model.VM;
 import org.btrplace.scheduler.SchedulerException;
 import org.btrplace.scheduler.choco.Parameters;
 import org.btrplace.scheduler.choco.ReconfigurationProblem;
+import org.btrplace.scheduler.choco.extensions.LocalTaskScheduler;
 import org.btrplace.scheduler.choco.extensions.StayingVMsScheduling;
 import org.btrplace.scheduler.choco.extensions.TaskScheduler;
 import org.btrplace.scheduler.choco.transition.KeepRunningVM;
@@ -18,6 +19,7 @@ import org.btrplace.scheduler.choco.transition.VMTransition;
 import org.chocosolver.solver.variables.IntVar;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.BitSet;
 import java.util.List;
 
@@ -31,9 +33,15 @@ public class DefaultCumulatives extends AbstractCumulatives implements Cumulativ
 
     private List<List<IntVar>> capacities;
 
+    /**
+     * {@code true} to aggregate the frozen VMs.
+     */
+    private boolean aggregate;
+
     @Override
     public boolean inject(Parameters ps, ReconfigurationProblem rp) throws SchedulerException {
         super.inject(ps, rp);
+        aggregate = ps.doAggregateFrozenVMs();
         capacities = new ArrayList<>();
         return true;
     }
@@ -103,6 +111,9 @@ public class DefaultCumulatives extends AbstractCumulatives implements Cumulativ
         }
         IntVar[] earlyStarts = rp.getNodeActions().stream().map(NodeTransition::getHostingStart).toArray(IntVar[]::new);
         IntVar[] lastEnd = rp.getNodeActions().stream().map(NodeTransition::getHostingEnd).toArray(IntVar[]::new);
+        if (aggregate) {
+            return aggregate(rp, capas, cUses, dUses, earlyStarts, lastEnd) && scheduleStayingVMs(rp);
+        }
         rp.getModel().post(
                 new TaskScheduler(earlyStarts,
                         lastEnd,
@@ -111,6 +122,72 @@ public class DefaultCumulatives extends AbstractCumulatives implements Cumulativ
                         dHosts, dUses, dStarts,
                         associations)
         );
+        return scheduleStayingVMs(rp);
+    }
+
+    /**
+     * Post the scheduling constraint without the slices of the frozen VMs.
+     * A VM is frozen when its two slices are on the same, known, node with the same usages.
+     * It then consumes the same amount of resources during the whole reconfiguration, which is
+     * subtracted from the capacity of the node.
+     *
+     * @return {@code false} if a node cannot host its frozen VMs
+     */
+    @SuppressWarnings("squid:S3346")
+    private boolean aggregate(ReconfigurationProblem rp, int[][] capas, int[][] cUses, int[][] dUses, IntVar[] earlyStarts, IntVar[] lastEnd) {
+        BitSet cFrozen = new BitSet(cHosts.length);
+        BitSet dFrozen = new BitSet(dHosts.length);
+        for (int dIdx = 0; dIdx < associations.length; dIdx++) {
+            int cIdx = associations[dIdx];
+            if (cIdx == LocalTaskScheduler.NO_ASSOCIATIONS
+                    || !cHosts[cIdx].isInstantiated()
+                    || !dHosts[dIdx].isInstantiatedTo(cHosts[cIdx].getValue())
+                    || !Arrays.equals(cUses[cIdx], dUses[dIdx])) {
+                continue;
+            }
+            int[] capa = capas[cHosts[cIdx].getValue()];
+            for (int d = 0; d < capa.length; d++) {
+                capa[d] -= cUses[cIdx][d];
+                if (capa[d] < 0) {
+                    rp.getLogger().debug("The frozen VMs exceed the capacity of node {}", rp.getNode(cHosts[cIdx].getValue()));
+                    return false;
+                }
+            }
+            cFrozen.set(cIdx);
+            dFrozen.set(dIdx);
+        }
+
+        int nbC = cHosts.length - cFrozen.cardinality();
+        int nbD = dHosts.length - dFrozen.cardinality();
+        IntVar[] ch = new IntVar[nbC];
+        IntVar[] ce = new IntVar[nbC];
+        int[][] cu = new int[nbC][];
+        int[] cPos = new int[cHosts.length];
+        for (int i = 0, k = 0; i < cHosts.length; i++) {
+            if (!cFrozen.get(i)) {
+                ch[k] = cHosts[i];
+                ce[k] = cEnds[i];
+                cu[k] = cUses[i];
+                cPos[i] = k++;
+            }
+        }
+        IntVar[] dh = new IntVar[nbD];
+        IntVar[] ds = new IntVar[nbD];
+        int[][] du = new int[nbD][];
+        int[] assocs = new int[nbD];
+        for (int i = 0, k = 0; i < dHosts.length; i++) {
+            if (!dFrozen.get(i)) {
+                dh[k] = dHosts[i];
+                ds[k] = dStarts[i];
+                du[k] = dUses[i];
+                assocs[k++] = associations[i] == LocalTaskScheduler.NO_ASSOCIATIONS ? LocalTaskScheduler.NO_ASSOCIATIONS : cPos[associations[i]];
+            }
+        }
+        rp.getModel().post(new TaskScheduler(earlyStarts, lastEnd, capas, ch, cu, ce, dh, du, ds, assocs));
+        return true;
+    }
+
+    private boolean scheduleStayingVMs(ReconfigurationProblem rp) {
         final List<KeepRunningVM> keepRunningVms = new ArrayList<>();
         final BitSet decreasing = new BitSet();
         int idx = 0;
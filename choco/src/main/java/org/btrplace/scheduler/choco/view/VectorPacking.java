@@ -18,6 +18,9 @@ import java.util.List;
 
 /*
  * View to generated the vector packing constraint.
+ * <p>
+ * When the frozen VMs are aggregated, the items that are already assigned to a bin
+ * are removed from the constraint and their sizes are subtracted from the load of their bin.
  *
  * @author Sophie Demassey
  */
@@ -35,8 +38,19 @@ public class VectorPacking extends Packing {
 
     private int dim;
 
+    /**
+     * {@code true} to aggregate the items that are already assigned.
+     */
+    private boolean aggregate;
+
+    /**
+     * The aggregated size for each dimension and each bin.
+     */
+    private int[][] aggregated;
+
     @Override
     public boolean inject(Parameters ps, ReconfigurationProblem rp) throws SchedulerException {
+        aggregate = ps.doAggregateFrozenVMs();
         loads = new ArrayList<>();
         bins = new ArrayList<>();
         sizes = new ArrayList<>();
@@ -58,7 +72,8 @@ public class VectorPacking extends Packing {
     @SuppressWarnings("squid:S3346")
     public boolean beforeSolve(ReconfigurationProblem p) {
         super.beforeSolve(p);
-        int[][] aSizes = new int[dim][sizes.get(0).length];
+        IntVar[] aBins = bins.get(0);
+        int[][] aSizes = new int[dim][];
         IntVar[][] aLoads = new IntVar[dim][];
         String[] aNames = new String[dim];
         for (int d = 0; d < dim; d++) {
@@ -68,9 +83,13 @@ public class VectorPacking extends Packing {
             int[] s = sizes.get(d);
             aSizes[d] = s;
         }
+        aggregated = new int[dim][aLoads.length == 0 ? 0 : aLoads[0].length];
+        if (aggregate) {
+            aBins = aggregate(aBins, aSizes, aLoads, p);
+        }
         if (!p.getFutureRunningVMs().isEmpty()) {
             org.btrplace.scheduler.choco.extensions.pack.VectorPacking c =
-                    new org.btrplace.scheduler.choco.extensions.pack.VectorPacking(aNames, aLoads, aSizes, bins.get(0), true);
+                    new org.btrplace.scheduler.choco.extensions.pack.VectorPacking(aNames, aLoads, aSizes, aBins, true);
             p.getModel().post(c);
             assignedLoad = c.assignedLoad();
 
@@ -78,7 +97,74 @@ public class VectorPacking extends Packing {
         return true;
     }
 
+    /**
+     * Remove the items that are already assigned to a bin, i.e. the frozen VMs.
+     * Their sizes are accumulated in {@link #aggregated} and the loads are replaced
+     * by views that exclude them.
+     *
+     * @return the bins of the remaining items
+     */
+    private IntVar[] aggregate(IntVar[] aBins, int[][] aSizes, IntVar[][] aLoads, ReconfigurationProblem p) {
+        int nb = 0;
+        for (IntVar b : aBins) {
+            if (!b.isInstantiated()) {
+                nb++;
+            }
+        }
+        if (nb == aBins.length) {
+            return aBins;
+        }
+        IntVar[] kept = new IntVar[nb];
+        int[][] keptSizes = new int[dim][nb];
+        int k = 0;
+        for (int i = 0; i < aBins.length; i++) {
+            if (aBins[i].isInstantiated()) {
+                int bin = aBins[i].getValue();
+                for (int d = 0; d < dim; d++) {
+                    aggregated[d][bin] += aSizes[d][i];
+                }
+            } else {
+                for (int d = 0; d < dim; d++) {
+                    keptSizes[d][k] = aSizes[d][i];
+                }
+                kept[k++] = aBins[i];
+            }
+        }
+        for (int d = 0; d < dim; d++) {
+            aSizes[d] = keptSizes[d];
+            for (int bin = 0; bin < aLoads[d].length; bin++) {
+                if (aggregated[d][bin] > 0) {
+                    aLoads[d][bin] = p.getModel().intOffsetView(aLoads[d][bin], -aggregated[d][bin]);
+                }
+            }
+        }
+        return kept;
+    }
+
     public IStateInt[][] assignedLoad() {
         return assignedLoad;
     }
+
+    /**
+     * Get the index of a dimension.
+     *
+     * @param name the dimension name
+     * @return the index of the dimension in {@link #assignedLoad()}. {@code -1} if there is no such dimension
+     */
+    public int getDimension(String name) {
+        return names.indexOf(name);
+    }
+
+    /**
+     * Get the load of a bin that is due to the aggregated items.
+     * This load is not part of {@link #assignedLoad()}.
+     *
+     * @param d   the dimension
+     * @param bin the bin
+     * @return a positive value. {@code 0} if the items are not aggregated
+     * @see Parameters#doAggregateFrozenVMs()
+     */
+    public int aggregatedLoad(int d, int bin) {
+        return aggregated[d][bin];
+    }
 }
@@ -11,15 +11,19 @@ import org.btrplace.model.constraint.*;
 import org.btrplace.model.view.ShareableResource;
 import org.btrplace.plan.ReconfigurationPlan;
 import org.btrplace.scheduler.SchedulerException;
+import org.btrplace.scheduler.choco.extensions.TaskScheduler;
 import org.btrplace.scheduler.choco.runner.SolvingStatistics;
 import org.btrplace.scheduler.choco.transition.TransitionFactory;
 import org.btrplace.scheduler.choco.transition.VMTransitionBuilder;
+import org.btrplace.scheduler.choco.view.CShareableResource;
+import org.chocosolver.solver.constraints.Constraint;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 
 import static org.mockito.Mockito.mock;
@@ -48,6 +52,18 @@ public class DefaultChocoSchedulerTest {
         cra.doRepair(true);
         Assert.assertTrue(cra.doRepair());
 
+        Assert.assertFalse(cra.doLazyPlans());
+        cra.doLazyPlans(true);
+        Assert.assertTrue(cra.doLazyPlans());
+
+        Assert.assertFalse(cra.doAggregateFrozenVMs());
+        cra.doAggregateFrozenVMs(true);
+        Assert.assertTrue(cra.doAggregateFrozenVMs());
+
+        Assert.assertFalse(cra.doIndexedPlacement());
+        cra.doIndexedPlacement(true);
+        Assert.assertTrue(cra.doIndexedPlacement());
+
         cra.setVerbosity(3);
         Assert.assertEquals(cra.getVerbosity(), 3);
     }
@@ -202,4 +218,122 @@ public class DefaultChocoSchedulerTest {
         Assert.assertEquals(plan, onSolutions.get(0));
 
     }
+
+    @Test
+    public void testLazyPlans() {
+        Model mo = new DefaultModel();
+        Node n1 = mo.newNode();
+        Node n2 = mo.newNode();
+        Node n3 = mo.newNode();
+        VM v1 = mo.newVM();
+        VM v2 = mo.newVM();
+        VM v3 = mo.newVM();
+        mo.getMapping().on(n1, n2, n3).run(n1, v1, v2, v3);
+        Instance i = new Instance(mo, Collections.singletonList(new Spread(new HashSet<>(Arrays.asList(v1, v2, v3)), false)),
+                new MinMTTR());
+
+        ChocoScheduler eager = new DefaultChocoScheduler();
+        eager.doOptimize(true);
+        ReconfigurationPlan expected = eager.solve(i);
+        Assert.assertNotNull(expected);
+
+        ChocoScheduler cra = new DefaultChocoScheduler();
+        cra.doOptimize(true);
+        cra.doLazyPlans(true);
+        ReconfigurationPlan plan = cra.solve(i);
+        Assert.assertEquals(plan, expected);
+        SolvingStatistics stats = cra.getStatistics();
+        Assert.assertEquals(stats.getSolutions().size(), eager.getStatistics().getSolutions().size());
+        Assert.assertEquals(stats.lastSolution(), eager.getStatistics().lastSolution());
+        //Cached once built
+        Assert.assertSame(stats.lastSolution(), stats.lastSolution());
+    }
+
+    @Test
+    public void testAggregateFrozenVMs() {
+        Model mo = new DefaultModel();
+        Node n1 = mo.newNode();
+        Node n2 = mo.newNode();
+        Node n3 = mo.newNode();
+        VM v1 = mo.newVM();
+        VM v2 = mo.newVM();
+        VM v3 = mo.newVM();
+        VM v4 = mo.newVM();
+        VM v5 = mo.newVM();
+        mo.getMapping().on(n1, n2, n3).run(n1, v1, v2, v3).run(n2, v4).run(n3, v5);
+        ShareableResource cpu = new ShareableResource("cpu", 10, 0);
+        cpu.setConsumption(v1, 4).setConsumption(v2, 4).setConsumption(v3, 2)
+                .setConsumption(v4, 7).setConsumption(v5, 5);
+        mo.attach(cpu);
+        //Only v1 is manageable in repair mode. It only fits on n3
+        Instance i = new Instance(mo, Collections.singletonList(new Ban(v1, Collections.singleton(n1))), new MinMTTR());
+
+        for (boolean aggregate : new boolean[]{false, true}) {
+            ChocoScheduler cra = new DefaultChocoScheduler();
+            cra.doRepair(true);
+            cra.doAggregateFrozenVMs(aggregate);
+            ReconfigurationPlan plan = cra.solve(i);
+            Assert.assertNotNull(plan);
+            Assert.assertEquals(plan.getSize(), 1);
+            Assert.assertEquals(plan.getResult().getMapping().getVMLocation(v1), n3);
+        }
+
+        //No room for v1 once v5 grows, while v4 on n2 stays frozen
+        Instance j = new Instance(mo, Arrays.asList(new Ban(v1, Collections.singleton(n1)), new Preserve(v5, "cpu", 7)), new MinMTTR());
+        ChocoScheduler cra = new DefaultChocoScheduler();
+        cra.doRepair(true);
+        cra.doAggregateFrozenVMs(true);
+        Assert.assertNull(cra.solve(j));
+    }
+
+    /**
+     * The frozen VMs are not items of the packing constraint, nor tasks of the scheduling constraint.
+     */
+    @Test
+    public void testAggregatedSize() throws SchedulerException {
+        Model mo = new DefaultModel();
+        Node n1 = mo.newNode();
+        Node n2 = mo.newNode();
+        mo.getMapping().on(n1, n2);
+        List<VM> vms = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            VM v = mo.newVM();
+            mo.getMapping().run(i % 2 == 0 ? n1 : n2, v);
+            vms.add(v);
+        }
+        ShareableResource cpu = new ShareableResource("cpu", 10, 1);
+        mo.attach(cpu);
+
+        int[] packing = new int[2];
+        int[] scheduling = new int[2];
+        for (boolean aggregate : new boolean[]{false, true}) {
+            Parameters ps = new DefaultParameters().doAggregateFrozenVMs(aggregate);
+            //Only 2 VMs can move
+            ReconfigurationProblem rp = new DefaultReconfigurationProblemBuilder(mo)
+                    .setParams(ps)
+                    .setNextVMsStates(Collections.emptySet(), new HashSet<>(vms),
+                            Collections.emptySet(), Collections.emptySet())
+                    .setManageableVMs(new HashSet<>(vms.subList(0, 2)))
+                    .build();
+            CShareableResource cCpu = new CShareableResource(cpu);
+            Assert.assertTrue(rp.addView(cCpu));
+            Assert.assertTrue(cCpu.inject(ps, rp));
+            Assert.assertTrue(cCpu.beforeSolve(rp));
+            Assert.assertNotNull(rp.solve(0, false));
+            int idx = aggregate ? 1 : 0;
+            packing[idx] = nbVars(rp, org.btrplace.scheduler.choco.extensions.pack.VectorPacking.class);
+            scheduling[idx] = nbVars(rp, TaskScheduler.class);
+        }
+        //4 items less, one per frozen VM
+        Assert.assertEquals(packing[0] - packing[1], 4);
+        //A host and a moment for each of the 2 slices of the 4 frozen VMs
+        Assert.assertEquals(scheduling[0] - scheduling[1], 16);
+    }
+
+    private static int nbVars(ReconfigurationProblem rp, Class<? extends Constraint> cl) {
+        return Arrays.stream(rp.getModel().getCstrs())
+                .filter(cl::isInstance)
+                .mapToInt(c -> c.getPropagator(0).getNbVars())
+                .findFirst().orElse(0);
+    }
 }
@@ -8,12 +8,18 @@ package org.btrplace.scheduler.choco.constraint;
 
 import org.btrplace.model.DefaultModel;
 import org.btrplace.model.Model;
+import org.btrplace.model.Node;
+import org.btrplace.model.VM;
 import org.btrplace.model.constraint.Ban;
+import org.btrplace.model.constraint.Fence;
+import org.btrplace.model.constraint.SatConstraint;
 import org.btrplace.model.constraint.Spread;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 
 
 /**
@@ -45,4 +51,32 @@ public class ChocoMapperTest {
         c = map.get(s);
         Assert.assertTrue(c.getClass().equals(CSpread.class));
     }
+
+    @Test
+    public void testFactories() {
+        Model mo = new DefaultModel();
+        VM v = mo.newVM();
+        Node n = mo.newNode();
+        ChocoMapper map = new ChocoMapper();
+        map.mapConstraint(Ban.class, CBan::new);
+        map.mapConstraint(Spread.class, CSpread.class);
+        //Missing constructor reported at registration time
+        Assert.assertThrows(IllegalArgumentException.class, () -> map.mapConstraint(Fence.class, CBan.class));
+        Assert.assertFalse(map.constraintHasMapping(Fence.class));
+
+        List<SatConstraint> cstrs = Arrays.asList(new Ban(v, Collections.singleton(n)),
+                new Ban(v, Collections.singleton(n)),
+                new Spread(Collections.singleton(v)),
+                new Fence(v, Collections.singleton(n)),
+                new Ban(v, Collections.singleton(n)));
+        List<ChocoConstraint> l = map.getAll(cstrs);
+        Assert.assertEquals(l.size(), 5);
+        Assert.assertEquals(l.get(0).getClass(), CBan.class);
+        Assert.assertEquals(l.get(1).getClass(), CBan.class);
+        Assert.assertNotSame(l.get(0), l.get(1));
+        Assert.assertEquals(l.get(2).getClass(), CSpread.class);
+        Assert.assertNull(l.get(3));
+        Assert.assertEquals(l.get(4).getClass(), CBan.class);
+        Assert.assertNull(map.get(cstrs.get(3)));
+    }
 }
@@ -0,0 +1,164 @@
+/*
+ * Copyright  2026 The BtrPlace Authors. All rights reserved.
+ * Use of this source code is governed by a LGPL-style
+ * license that can be found in the LICENSE.txt file.
+ */
+
+package org.btrplace.scheduler.choco.constraint.mttr;
+
+import org.btrplace.model.DefaultModel;
+import org.btrplace.model.Mapping;
+import org.btrplace.model.Model;
+import org.btrplace.model.Node;
+import org.btrplace.model.VM;
+import org.btrplace.model.view.ShareableResource;
+import org.btrplace.scheduler.SchedulerException;
+import org.btrplace.scheduler.choco.DefaultParameters;
+import org.btrplace.scheduler.choco.DefaultReconfigurationProblemBuilder;
+import org.btrplace.scheduler.choco.ReconfigurationProblem;
+import org.btrplace.scheduler.choco.constraint.mttr.load.BiggestDimension;
+import org.btrplace.scheduler.choco.view.CShareableResource;
+import org.btrplace.scheduler.choco.view.Packing;
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.solver.Cause;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Unit tests for {@link IndexedWorstFit}.
+ *
+ * @author Fabien Hermenier
+ */
+public class IndexedWorstFitTest {
+
+    /**
+     * Add the resource view and state the packing constraint.
+     */
+    private static void prepare(ReconfigurationProblem rp, ShareableResource rc) throws SchedulerException {
+        CShareableResource v = new CShareableResource(rc);
+        Assert.assertTrue(rp.addView(v));
+        Assert.assertTrue(v.inject(new DefaultParameters(), rp));
+        Assert.assertTrue(v.beforeSolve(rp));
+        Assert.assertTrue(rp.getRequiredView(Packing.VIEW_ID).beforeSolve(rp));
+    }
+
+    @Test
+    public void testSelectValue() throws SchedulerException, ContradictionException {
+        Model mo = new DefaultModel();
+        Mapping map = mo.getMapping();
+        Node n0 = mo.newNode();
+        Node n1 = mo.newNode();
+        Node n2 = mo.newNode();
+        Node n3 = mo.newNode();
+        map.on(n0, n1, n2, n3);
+        VM v0 = mo.newVM();
+        VM v1 = mo.newVM();
+        VM v2 = mo.newVM();
+        VM v3 = mo.newVM();
+        VM v4 = mo.newVM();
+        map.run(n0, v0).run(n1, v1).run(n3, v4).ready(v2, v3);
+
+        ShareableResource cpu = new ShareableResource("cpu", 10, 3);
+        cpu.setCapacity(n1, 6);
+        cpu.setConsumption(v0, 6).setConsumption(v1, 1).setConsumption(v2, 2).setConsumption(v3, 7);
+        mo.attach(cpu);
+
+        //v4 is not manageable
+        ReconfigurationProblem rp = new DefaultReconfigurationProblemBuilder(mo)
+                .setNextVMsStates(Collections.emptySet(), new HashSet<>(Arrays.asList(v0, v1, v2, v3, v4)),
+                        Collections.emptySet(), Collections.emptySet())
+                .setManageableVMs(new HashSet<>(Arrays.asList(v0, v1, v2, v3)))
+                .build();
+        prepare(rp, cpu);
+
+        Map<IntVar, VM> pla = VMPlacementUtils.makePlacementMap(rp);
+        IndexedWorstFit h = new IndexedWorstFit(pla, rp, new BiggestDimension(), false);
+        IEnvironment env = rp.getModel().getEnvironment();
+        IntVar h2 = rp.getVMAction(v2).getDSlice().getHoster();
+        IntVar h3 = rp.getVMAction(v3).getDSlice().getHoster();
+
+        rp.getSolver().propagate();
+        //Only n3 is loaded. n0 and n2 have the biggest free capacity
+        Assert.assertEquals(h.selectValue(h2), Math.min(rp.getNode(n0), rp.getNode(n2)));
+
+        env.worldPush();
+        rp.getVMAction(v0).getDSlice().getHoster().instantiateTo(rp.getNode(n0), Cause.Null);
+        rp.getVMAction(v1).getDSlice().getHoster().instantiateTo(rp.getNode(n1), Cause.Null);
+        rp.getSolver().propagate();
+        //n2 is empty
+        Assert.assertEquals(h.selectValue(h2), rp.getNode(n2));
+
+        env.worldPush();
+        h2.instantiateTo(rp.getNode(n2), Cause.Null);
+        rp.getSolver().propagate();
+        //n1 is the least loaded node but v3 does not fit
+        Assert.assertEquals(h.selectValue(h3), rp.getNode(n2));
+        h3.removeValue(rp.getNode(n2), Cause.Null);
+        Assert.assertEquals(h.selectValue(h3), rp.getNode(n3));
+
+        //The index is restored on backtrack
+        env.worldPop();
+        Assert.assertEquals(h.selectValue(h3), rp.getNode(n2));
+        env.worldPop();
+        //v3 does not fit on n1
+        Assert.assertEquals(h.selectValue(h3), Math.min(rp.getNode(n0), rp.getNode(n2)));
+    }
+
+    @Test
+    public void testStayFirst() throws SchedulerException {
+        Model mo = new DefaultModel();
+        Mapping map = mo.getMapping();
+        Node n0 = mo.newNode();
+        Node n1 = mo.newNode();
+        map.on(n0, n1);
+        VM v0 = mo.newVM();
+        map.run(n1, v0);
+        ShareableResource cpu = new ShareableResource("cpu", 10, 3);
+        mo.attach(cpu);
+
+        ReconfigurationProblem rp = new DefaultReconfigurationProblemBuilder(mo)
+                .setNextVMsStates(Collections.emptySet(), Collections.singleton(v0),
+                        Collections.emptySet(), Collections.emptySet())
+                .build();
+        prepare(rp, cpu);
+        Map<IntVar, VM> pla = VMPlacementUtils.makePlacementMap(rp);
+        IntVar h0 = rp.getVMAction(v0).getDSlice().getHoster();
+        Assert.assertEquals(new IndexedWorstFit(pla, rp, new BiggestDimension()).selectValue(h0), rp.getNode(n1));
+        Assert.assertEquals(new IndexedWorstFit(pla, rp, new BiggestDimension(), false).selectValue(h0), 0);
+    }
+
+    @Test
+    public void testNoFit() throws SchedulerException, ContradictionException {
+        Model mo = new DefaultModel();
+        Mapping map = mo.getMapping();
+        Node n0 = mo.newNode();
+        Node n1 = mo.newNode();
+        Node n2 = mo.newNode();
+        map.on(n0, n1, n2);
+        VM v0 = mo.newVM();
+        map.ready(v0);
+        ShareableResource cpu = new ShareableResource("cpu", 10, 15);
+        mo.attach(cpu);
+
+        ReconfigurationProblem rp = new DefaultReconfigurationProblemBuilder(mo)
+                .setNextVMsStates(Collections.emptySet(), Collections.singleton(v0),
+                        Collections.emptySet(), Collections.emptySet())
+                .build();
+        prepare(rp, cpu);
+        Map<IntVar, VM> pla = VMPlacementUtils.makePlacementMap(rp);
+        IntVar h0 = rp.getVMAction(v0).getDSlice().getHoster();
+        //No node can host the VM, the least loaded node of the domain
+        IndexedWorstFit h = new IndexedWorstFit(pla, rp, new BiggestDimension());
+        Assert.assertEquals(h.selectValue(h0), 0);
+        h0.removeValue(0, Cause.Null);
+        Assert.assertEquals(h.selectValue(h0), 1);
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright  2026 The BtrPlace Authors. All rights reserved.
+ * Use of this source code is governed by a LGPL-style
+ * license that can be found in the LICENSE.txt file.
+ */
+
+package org.btrplace.scheduler.choco.constraint.mttr;
+
+import org.btrplace.model.DefaultModel;
+import org.btrplace.model.Mapping;
+import org.btrplace.model.Model;
+import org.btrplace.model.Node;
+import org.btrplace.model.VM;
+import org.btrplace.scheduler.SchedulerException;
+import org.btrplace.scheduler.choco.DefaultReconfigurationProblemBuilder;
+import org.btrplace.scheduler.choco.ReconfigurationProblem;
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.solver.Cause;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+/**
+ * Unit tests for {@link MovementGraph}.
+ *
+ * @author Fabien Hermenier
+ */
+public class MovementGraphTest {
+
+    /**
+     * The first pending start, computed from a snapshot of the graph.
+     */
+    private static IntVar reference(ReconfigurationProblem rp) {
+        MovementGraph g = new MovementGraph(rp);
+        g.make();
+        for (Node n : rp.getNodes()) {
+            if (g.getOutgoing(n).isEmpty()) {
+                for (IntVar v : g.getIncoming(n)) {
+                    if (!v.isInstantiated()) {
+                        return v;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    @Test
+    public void testFirstPendingLeafStart() throws SchedulerException, ContradictionException {
+        Model mo = new DefaultModel();
+        Mapping map = mo.getMapping();
+        Node n0 = mo.newNode();
+        Node n1 = mo.newNode();
+        Node n2 = mo.newNode();
+        Node n3 = mo.newNode();
+        map.on(n0, n1, n2, n3);
+        VM v0 = mo.newVM();
+        VM v1 = mo.newVM();
+        VM v2 = mo.newVM();
+        VM v3 = mo.newVM();
+        map.run(n0, v0).run(n1, v1).ready(v2, v3);
+
+        ReconfigurationProblem rp = new DefaultReconfigurationProblemBuilder(mo)
+                .setNextVMsStates(Collections.emptySet(), new HashSet<>(Arrays.asList(v0, v1, v2, v3)),
+                        Collections.emptySet(), Collections.emptySet())
+                .build();
+        MovementGraph g = new MovementGraph(rp);
+        StartOnLeafNodes h = new StartOnLeafNodes(rp, g);
+        IEnvironment env = rp.getModel().getEnvironment();
+
+        //Unknown destinations
+        Assert.assertSame(h.getVariable(null), reference(rp));
+
+        env.worldPush();
+        rp.getVMAction(v0).getDSlice().getHoster().instantiateTo(rp.getNode(n3), Cause.Null);
+        rp.getVMAction(v1).getDSlice().getHoster().instantiateTo(rp.getNode(n1), Cause.Null);
+        rp.getVMAction(v2).getDSlice().getHoster().instantiateTo(rp.getNode(n3), Cause.Null);
+        rp.getVMAction(v3).getDSlice().getHoster().instantiateTo(rp.getNode(n2), Cause.Null);
+        IntVar first = h.getVariable(null);
+        Assert.assertNotNull(first);
+        Assert.assertSame(first, reference(rp));
+
+        env.worldPush();
+        first.instantiateTo(0, Cause.Null);
+        IntVar second = h.getVariable(null);
+        Assert.assertNotNull(second);
+        Assert.assertSame(second, reference(rp));
+        second.instantiateTo(0, Cause.Null);
+        IntVar third = h.getVariable(null);
+        Assert.assertNotNull(third);
+        Assert.assertSame(third, reference(rp));
+        third.instantiateTo(0, Cause.Null);
+        //Only v1 remains, its destination is not a leaf
+        Assert.assertNull(h.getVariable(null));
+        Assert.assertNull(reference(rp));
+
+        //Backtrack to the moment the destinations were known
+        env.worldPop();
+        Assert.assertSame(h.getVariable(null), first);
+
+        //Backtrack to the moment the destinations were unknown
+        env.worldPop();
+        Assert.assertSame(h.getVariable(null), reference(rp));
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright  2026 The BtrPlace Authors. All rights reserved.
+ * Use of this source code is governed by a LGPL-style
+ * license that can be found in the LICENSE.txt file.
+ */
+
+package org.btrplace.scheduler.choco.constraint.mttr;
+
+import org.btrplace.model.DefaultModel;
+import org.btrplace.model.Mapping;
+import org.btrplace.model.Model;
+import org.btrplace.model.Node;
+import org.btrplace.model.VM;
+import org.btrplace.model.view.ShareableResource;
+import org.btrplace.plan.ReconfigurationPlan;
+import org.btrplace.scheduler.SchedulerException;
+import org.btrplace.scheduler.choco.DefaultParameters;
+import org.btrplace.scheduler.choco.DefaultReconfigurationProblemBuilder;
+import org.btrplace.scheduler.choco.ReconfigurationProblem;
+import org.btrplace.scheduler.choco.constraint.mttr.load.BiggestDimension;
+import org.btrplace.scheduler.choco.view.CShareableResource;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.search.strategy.Search;
+import org.chocosolver.solver.search.strategy.selectors.variables.InputOrder;
+import org.chocosolver.solver.search.strategy.strategy.StrategiesSequencer;
+import org.chocosolver.solver.variables.IntVar;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+
+/**
+ * Unit tests for {@link WorstFit}.
+ *
+ * @author Fabien Hermenier
+ */
+public class WorstFitTest {
+
+    @DataProvider(name = "orders")
+    public static Object[][] orders() {
+        return new Object[][]{{true}, {false}};
+    }
+
+    /**
+     * The packing dimensions are declared in both orders so at least one of them differs
+     * from the order of the views.
+     */
+    @Test(dataProvider = "orders")
+    public void testDimensions(boolean cpuFirst) throws SchedulerException {
+        Model mo = new DefaultModel();
+        Mapping map = mo.getMapping();
+        Node n0 = mo.newNode();
+        Node n1 = mo.newNode();
+        map.on(n0, n1);
+        VM v0 = mo.newVM();
+        VM v1 = mo.newVM();
+        VM v2 = mo.newVM();
+        map.run(n0, v0).run(n1, v1).ready(v2);
+
+        ShareableResource cpu = new ShareableResource("cpu", 10, 0);
+        ShareableResource mem = new ShareableResource("mem", 10, 0);
+        cpu.setConsumption(v0, 5).setConsumption(v2, 4);
+        mem.setConsumption(v1, 5);
+        mo.attach(cpu);
+        mo.attach(mem);
+
+        ReconfigurationProblem rp = new DefaultReconfigurationProblemBuilder(mo)
+                .setNextVMsStates(Collections.emptySet(), new HashSet<>(Arrays.asList(v0, v1, v2)),
+                        Collections.emptySet(), Collections.emptySet())
+                .setManageableVMs(Collections.singleton(v2))
+                .build();
+        CShareableResource cCpu = new CShareableResource(cpu);
+        CShareableResource cMem = new CShareableResource(mem);
+        for (CShareableResource v : Arrays.asList(cCpu, cMem)) {
+            Assert.assertTrue(rp.addView(v));
+            Assert.assertTrue(v.inject(new DefaultParameters(), rp));
+        }
+        //The packing dimensions are declared in that order
+        for (CShareableResource v : cpuFirst ? Arrays.asList(cCpu, cMem) : Arrays.asList(cMem, cCpu)) {
+            Assert.assertTrue(v.beforeSolve(rp));
+        }
+
+        Map<IntVar, VM> pla = VMPlacementUtils.makePlacementMap(rp);
+        IntVar h2 = rp.getVMAction(v2).getDSlice().getHoster();
+        Solver s = rp.getSolver();
+        s.setSearch(new StrategiesSequencer(
+                Search.intVarSearch(new InputOrder<>(rp.getModel()), new WorstFit(pla, rp, new BiggestDimension()), h2),
+                Search.minDomLBSearch(rp.getModel().retrieveIntVars(true))));
+        ReconfigurationPlan p = rp.solve(0, false);
+        Assert.assertNotNull(p);
+        //With v2, n0 would be loaded at 90% on cpu, n1 at 50% on mem
+        Assert.assertEquals(p.getResult().getMapping().getVMLocation(v2), n1);
+    }
+}
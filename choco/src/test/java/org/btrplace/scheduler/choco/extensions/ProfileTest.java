@@ -0,0 +1,96 @@
+/*
+ * Copyright  2026 The BtrPlace Authors. All rights reserved.
+ * Use of this source code is governed by a LGPL-style
+ * license that can be found in the LICENSE.txt file.
+ */
+
+package org.btrplace.scheduler.choco.extensions;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for {@link Profile}.
+ *
+ * @author Fabien Hermenier
+ */
+public class ProfileTest {
+
+    @Test
+    public void testBuild() {
+        Profile p = new Profile(2, 1);
+        p.clear();
+        int e = p.change(0);
+        p.add(e, 0, 5);
+        p.add(e, 1, 3);
+        e = p.change(7);
+        p.add(e, 0, -2);
+        e = p.change(3);
+        p.add(e, 1, 4);
+        e = p.change(7);
+        p.add(e, 0, -1);
+        p.add(e, 1, -3);
+        p.build();
+
+        Assert.assertEquals(p.size(), 3);
+        Assert.assertEquals(p.toString(0), "0:5 3:5 7:2");
+        Assert.assertEquals(p.toString(1), "0:3 3:7 7:4");
+        Assert.assertTrue(p.exceeds(1, new int[]{0, 4}, new int[]{10, 10}));
+        Assert.assertFalse(p.exceeds(2, new int[]{5, 6}, new int[]{10, 10}));
+    }
+
+    @Test
+    public void testRebuild() {
+        Profile p = new Profile(1, 4);
+        int[][] rounds = {{0, 4, 2, 8}, {0, 4, 5, 8}, {0, 9, 5, 1}, {3, 3, 3, 3}};
+        for (int[] r : rounds) {
+            p.clear();
+            for (int t : r) {
+                p.add(p.change(t), 0, 1);
+            }
+            p.build();
+            int sum = 0;
+            for (int m = 0; m < p.size(); m++) {
+                if (m > 0) {
+                    Assert.assertTrue(p.moment(m - 1) < p.moment(m));
+                }
+                int nb = 0;
+                for (int t : r) {
+                    if (t == p.moment(m)) {
+                        nb++;
+                    }
+                }
+                sum += nb;
+                Assert.assertEquals(p.usage(0, m), sum);
+            }
+            Assert.assertEquals(sum, r.length);
+        }
+        //Less changes
+        p.clear();
+        p.add(p.change(6), 0, 2);
+        p.build();
+        Assert.assertEquals(p.toString(0), "6:2");
+    }
+
+    /**
+     * The moments are reversed between two builds so the insertion sort gives up.
+     */
+    @Test
+    public void testReversedRebuild() {
+        Profile p = new Profile(1, 64);
+        for (int round = 0; round < 3; round++) {
+            p.clear();
+            for (int x = 0; x < 64; x++) {
+                p.add(p.change(round % 2 == 0 ? x : 63 - x), 0, x);
+            }
+            p.build();
+            Assert.assertEquals(p.size(), 64);
+            int sum = 0;
+            for (int m = 0; m < 64; m++) {
+                Assert.assertEquals(p.moment(m), m);
+                sum += round % 2 == 0 ? m : 63 - m;
+                Assert.assertEquals(p.usage(0, m), sum);
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright  2026 The BtrPlace Authors. All rights reserved.
+ * Use of this source code is governed by a LGPL-style
+ * license that can be found in the LICENSE.txt file.
+ */
+
+package org.btrplace.scheduler.choco.extensions;
+
+import org.chocosolver.solver.Cause;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.variables.IntVar;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+/**
+ * Unit tests for {@link SpreadPrecedences}.
+ *
+ * @author Fabien Hermenier
+ */
+public class SpreadPrecedencesTest {
+
+    /**
+     * Task 0 leaves resource 0 at [2,4], task 1 leaves resource 1 at 3 and arrives on [0,1].
+     * Task 2 only arrives, on [0,1], and cannot start after 2.
+     */
+    @Test
+    public void testFiltering() throws Exception {
+        Model mo = new Model();
+        IntVar[] hosts = {null, mo.intVar("h1", 0, 1), mo.intVar("h2", 0, 1)};
+        IntVar[] starts = {null, mo.intVar("s1", 0, 5), mo.intVar("s2", 0, 2)};
+        int[] oHosts = {0, 1, -1};
+        IntVar[] oEnds = {mo.intVar("e0", 2, 4), mo.intVar("e1", 3), null};
+        mo.post(new SpreadPrecedences(hosts, starts, oHosts, oEnds));
+
+        mo.getSolver().propagate();
+        //Task 2 must start before task 1 leaves resource 1
+        Assert.assertTrue(hosts[2].isInstantiatedTo(0));
+        Assert.assertEquals(oEnds[0].getUB(), 2);
+        //Task 1 can stay on resource 1 without waiting for itself
+        Assert.assertEquals(hosts[1].getDomainSize(), 2);
+        Assert.assertEquals(starts[1].getLB(), 0);
+        hosts[1].instantiateTo(0, Cause.Null);
+        mo.getSolver().propagate();
+        Assert.assertEquals(starts[1].getLB(), 2);
+    }
+
+    /**
+     * Compare with a decomposition using one reified precedence per pair of tasks.
+     */
+    @Test
+    public void testEquivalence() {
+        Random rnd = new Random(12);
+        for (int x = 0; x < 20; x++) {
+            long seed = rnd.nextLong();
+            Assert.assertEquals(solve(seed, false), solve(seed, true), "seed " + seed);
+        }
+    }
+
+    private static long solve(long seed, boolean decomposed) {
+        Random rnd = new Random(seed);
+        int nbTasks = 4;
+        int nbResources = 2;
+        Model mo = new Model();
+        IntVar[] hosts = new IntVar[nbTasks];
+        IntVar[] starts = new IntVar[nbTasks];
+        int[] oHosts = new int[nbTasks];
+        IntVar[] oEnds = new IntVar[nbTasks];
+        for (int i = 0; i < nbTasks; i++) {
+            oHosts[i] = -1;
+            if (rnd.nextInt(4) > 0) {
+                hosts[i] = mo.intVar("h" + i, 0, nbResources - 1);
+                starts[i] = mo.intVar("s" + i, 0, 2);
+            }
+            if (rnd.nextInt(4) > 0) {
+                oHosts[i] = rnd.nextInt(nbResources);
+                oEnds[i] = mo.intVar("e" + i, 0, 2);
+            }
+        }
+        if (decomposed) {
+            for (int i = 0; i < nbTasks; i++) {
+                for (int j = 0; j < nbTasks; j++) {
+                    if (i != j && hosts[i] != null && oEnds[j] != null) {
+                        mo.ifThen(mo.arithm(hosts[i], "=", oHosts[j]), mo.arithm(oEnds[j], "<=", starts[i]));
+                    }
+                }
+            }
+        } else {
+            mo.post(new SpreadPrecedences(hosts, starts, oHosts, oEnds));
+        }
+        Solver s = mo.getSolver();
+        while (s.solve()) {
+            //Just count
+        }
+        return s.getSolutionCount();
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright  2026 The BtrPlace Authors. All rights reserved.
+ * Use of this source code is governed by a LGPL-style
+ * license that can be found in the LICENSE.txt file.
+ */
+
+package org.btrplace.scheduler.choco.extensions.pack;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.solver.Cause;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of the heap of bins maintained by {@link VectorPackingHeapDecorator}
+ * against the former heap, a {@link PriorityQueue} of boxed bins rebuilt
+ * each time the loads changed.
+ * <p>
+ * An invocation is a dive: inside a new world, the load bounds of random bins are
+ * tightened one at a time, as the events of other constraints would do, and the
+ * heap fix point of rule 1.1 is run after each change. The world is then popped.
+ * The loads are sized so the fix point never filters, hence the score is the cost
+ * of maintaining and querying the heaps.
+ * <p>
+ * Run it from the {@code choco} module with:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=org.btrplace.scheduler.choco.extensions.pack.VectorPackingHeapBenchmark -Dexec.args="-p bins=1000"
+ * </pre>
+ *
+ * @author Fabien Hermenier
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1)
+public class VectorPackingHeapBenchmark {
+
+    private static final int CAPACITY = 100;
+
+    @Param({"100", "1000", "5000"})
+    public int bins;
+
+    @Param({"2"})
+    public int dimensions;
+
+    /**
+     * The number of bound changes per dive.
+     */
+    @Param({"50"})
+    public int changes;
+
+    private IEnvironment env;
+
+    private Model mo;
+
+    private VectorPackingPropagator prop;
+
+    private PriorityQueueHeap former;
+
+    private int[] dims;
+
+    private int[] changed;
+
+    private boolean[] lower;
+
+    @Setup(Level.Trial)
+    public void setUp() throws ContradictionException {
+        mo = new Model();
+        env = mo.getEnvironment();
+        IntVar[][] loads = new IntVar[dimensions][];
+        int[][] sizes = new int[dimensions][bins];
+        String[] labels = new String[dimensions];
+        for (int d = 0; d < dimensions; d++) {
+            labels[d] = "r" + d;
+            loads[d] = mo.intVarArray("l" + d, bins, 0, CAPACITY, true);
+            //The items fill half of the bins so rule 1.1 never applies
+            Arrays.fill(sizes[d], CAPACITY / 2);
+        }
+        IntVar[] items = mo.intVarArray("b", bins, 0, bins - 1, false);
+        VectorPacking c = new VectorPacking(labels, loads, sizes, items, false);
+        mo.post(c);
+        mo.getSolver().propagate();
+        prop = (VectorPackingPropagator) c.getPropagator(0);
+        former = new PriorityQueueHeap(prop);
+
+        Random rnd = new Random(bins);
+        dims = new int[changes];
+        changed = new int[changes];
+        lower = new boolean[changes];
+        for (int i = 0; i < changes; i++) {
+            dims[i] = rnd.nextInt(dimensions);
+            changed[i] = rnd.nextInt(bins);
+            lower[i] = rnd.nextBoolean();
+        }
+    }
+
+    /**
+     * Tighten the bounds of a bin load by one unit.
+     *
+     * @return {@code true} iff the bounds changed
+     */
+    private boolean tighten(int i) throws ContradictionException {
+        IntVar l = prop.loads[dims[i]][changed[i]];
+        if (l.isInstantiated()) {
+            return false;
+        }
+        return lower[i] ? l.updateLowerBound(l.getLB() + 1, Cause.Null) : l.updateUpperBound(l.getUB() - 1, Cause.Null);
+    }
+
+    private void backtrack() {
+        env.worldPop();
+        mo.getSolver().getEngine().flush();
+    }
+
+    @Benchmark
+    public void indexedHeap() throws ContradictionException {
+        VectorPackingHeapDecorator heap = prop.heap();
+        env.worldPush();
+        for (int i = 0; i < changes; i++) {
+            if (tighten(i)) {
+                heap.update(dims[i], changed[i]);
+            }
+            heap.fixPoint(false);
+        }
+        backtrack();
+    }
+
+    @Benchmark
+    public void priorityQueue() throws ContradictionException {
+        env.worldPush();
+        for (int i = 0; i < changes; i++) {
+            former.fixPoint(tighten(i));
+        }
+        backtrack();
+    }
+
+    /**
+     * The former heap: a priority queue per dimension that is rebuilt
+     * as soon as a load changed.
+     */
+    static class PriorityQueueHeap {
+
+        private final VectorPackingPropagator p;
+
+        private final List<PriorityQueue<Integer>> maxSlackBinHeap;
+
+        PriorityQueueHeap(VectorPackingPropagator p) {
+            this.p = p;
+            maxSlackBinHeap = new ArrayList<>(p.nbDims);
+            for (int d = 0; d < p.nbDims; d++) {
+                final int dim = d;
+                maxSlackBinHeap.add(new PriorityQueue<>(p.nbBins, (a, b) -> loadSlack(dim, b) - loadSlack(dim, a)));
+            }
+        }
+
+        private int loadSlack(int dim, int bin) {
+            return p.loads[dim][bin].getUB() - p.loads[dim][bin].getLB();
+        }
+
+        private void reHeap() {
+            for (int d = 0; d < p.nbDims; d++) {
+                maxSlackBinHeap.get(d).clear();
+                for (int b = 0; b < p.nbBins; b++) {
+                    if (loadSlack(d, b) > 0) {
+                        maxSlackBinHeap.get(d).offer(b);
+                    }
+                }
+            }
+        }
+
+        void fixPoint(boolean loadsHaveChanged) throws ContradictionException {
+            for (int d = 0; d < p.nbDims; d++) {
+                if (p.sumISizes[d] > p.sumLoadSup[d].get() || p.sumISizes[d] < p.sumLoadInf[d].get()) {
+                    p.fails();
+                }
+            }
+            if (loadsHaveChanged) {
+                reHeap();
+            }
+            for (int d = 0; d < p.nbDims; d++) {
+                PriorityQueue<Integer> heap = maxSlackBinHeap.get(d);
+                long deltaFromInf = p.sumISizes[d] - p.sumLoadInf[d].get();
+                long deltaToSup = p.sumLoadSup[d].get() - p.sumISizes[d];
+                int delta = (int) Math.min(deltaFromInf, deltaToSup);
+                if (!heap.isEmpty() && loadSlack(d, heap.peek()) > delta) {
+                    throw new IllegalStateException("rule 1.1 is not expected to apply");
+                }
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Options opts = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(VectorPackingHeapBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opts).run();
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright  2026 The BtrPlace Authors. All rights reserved.
+ * Use of this source code is governed by a LGPL-style
+ * license that can be found in the LICENSE.txt file.
+ */
+
+package org.btrplace.scheduler.choco.extensions.pack;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.solver.Cause;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+/**
+ * Unit tests for {@link VectorPackingHeapDecorator}.
+ *
+ * @author Fabien Hermenier
+ */
+public class VectorPackingHeapDecoratorTest {
+
+    private Model mo;
+
+    private IntVar[][] loads;
+
+    private IntVar[] bins;
+
+    private VectorPackingHeapDecorator heap;
+
+    /**
+     * Pack 2 dimensions of items in bins having a capacity of 10.
+     */
+    private void pack(int nbBins, int[][] sizes) {
+        mo = new Model();
+        loads = new IntVar[sizes.length][nbBins];
+        for (int d = 0; d < sizes.length; d++) {
+            loads[d] = mo.intVarArray("l" + d, nbBins, 0, 10, true);
+        }
+        bins = mo.intVarArray("b", sizes[0].length, 0, nbBins - 1, false);
+        VectorPacking c = new VectorPacking(new String[]{"cpu", "mem"}, loads, sizes, bins, false);
+        mo.post(c);
+        heap = ((VectorPackingPropagator) c.getPropagator(0)).heap();
+    }
+
+    /**
+     * Assert that the heaps are consistent and only hold the bins with a positive slack.
+     */
+    private void assertHeaps() {
+        Assert.assertTrue(heap.checkHeaps());
+        for (int d = 0; d < loads.length; d++) {
+            for (int b = 0; b < loads[d].length; b++) {
+                Assert.assertEquals(heap.position(d, b) >= 0, loads[d][b].getUB() > loads[d][b].getLB(), loads[d][b].toString());
+            }
+        }
+    }
+
+    @Test
+    public void testExternalBoundChanges() throws ContradictionException {
+        pack(6, new int[][]{{3, 2, 4, 1, 5, 2}, {1, 1, 2, 3, 1, 2}});
+        mo.getSolver().propagate();
+        assertHeaps();
+
+        //Loads restricted by another constraint
+        loads[0][2].updateUpperBound(3, Cause.Null);
+        loads[0][4].updateLowerBound(6, Cause.Null);
+        loads[1][1].updateBounds(2, 4, Cause.Null);
+        mo.getSolver().propagate();
+        assertHeaps();
+
+        loads[1][5].updateBounds(3, 4, Cause.Null);
+        loads[0][0].updateUpperBound(1, Cause.Null);
+        mo.getSolver().propagate();
+        assertHeaps();
+    }
+
+    @Test
+    public void testBacktrack() throws ContradictionException {
+        pack(5, new int[][]{{3, 2, 4, 1, 5}, {2, 1, 2, 3, 1}});
+        IEnvironment env = mo.getEnvironment();
+        mo.getSolver().propagate();
+        assertHeaps();
+
+        env.worldPush();
+        bins[0].instantiateTo(1, Cause.Null);
+        bins[4].instantiateTo(1, Cause.Null);
+        loads[0][3].updateUpperBound(2, Cause.Null);
+        mo.getSolver().propagate();
+        assertHeaps();
+
+        env.worldPush();
+        bins[2].instantiateTo(2, Cause.Null);
+        loads[1][0].instantiateTo(0, Cause.Null);
+        mo.getSolver().propagate();
+        assertHeaps();
+
+        //The heaps are stale after the backtracks and rebuilt at the next propagation
+        env.worldPop();
+        env.worldPop();
+        loads[0][0].updateUpperBound(9, Cause.Null);
+        mo.getSolver().propagate();
+        assertHeaps();
+        Assert.assertTrue(heap.position(0, 0) >= 0);
+
+        //Same world after a backtrack
+        env.worldPush();
+        bins[1].instantiateTo(2, Cause.Null);
+        mo.getSolver().propagate();
+        assertHeaps();
+        env.worldPop();
+        env.worldPush();
+        bins[3].instantiateTo(4, Cause.Null);
+        mo.getSolver().propagate();
+        assertHeaps();
+    }
+
+    /**
+     * A bin that is not the last of the heap is removed
+     * once its load is instantiated.
+     */
+    @Test
+    public void testRemoveInside() throws ContradictionException {
+        pack(8, new int[][]{{3, 2, 4, 1, 5, 2, 1, 1}, {1, 1, 2, 3, 1, 2, 1, 1}});
+        //Distinct slacks to get a unique heap order
+        for (int b = 0; b < 8; b++) {
+            loads[0][b].updateUpperBound(3 + b, Cause.Null);
+        }
+        mo.getSolver().propagate();
+        assertHeaps();
+        //The bin with the biggest slack is at the top
+        Assert.assertEquals(heap.position(0, 7), 0);
+        int removed = 0;
+        for (int b = 0; b < 8; b++) {
+            int pos = heap.position(0, b);
+            if (pos > 0 && pos < heapSize(0) - 1) {
+                loads[0][b].instantiateTo(loads[0][b].getLB(), Cause.Null);
+                mo.getSolver().propagate();
+                Assert.assertEquals(heap.position(0, b), -1);
+                assertHeaps();
+                removed++;
+            }
+        }
+        Assert.assertTrue(removed > 0);
+    }
+
+    private int heapSize(int d) {
+        int n = 0;
+        for (int b = 0; b < loads[d].length; b++) {
+            if (heap.position(d, b) >= 0) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    @Test
+    public void testRandomDives() throws ContradictionException {
+        Random rnd = new Random(42);
+        for (int run = 0; run < 20; run++) {
+            int[][] sizes = new int[2][12];
+            for (int i = 0; i < 12; i++) {
+                sizes[0][i] = rnd.nextInt(4);
+                sizes[1][i] = rnd.nextInt(3);
+            }
+            pack(6, sizes);
+            IEnvironment env = mo.getEnvironment();
+            mo.getSolver().propagate();
+            assertHeaps();
+            for (int dive = 0; dive < 5; dive++) {
+                env.worldPush();
+                try {
+                    for (IntVar b : bins) {
+                        if (!b.isInstantiated() && rnd.nextBoolean()) {
+                            b.instantiateTo(b.getLB() + rnd.nextInt(b.getUB() - b.getLB() + 1), Cause.Null);
+                            mo.getSolver().propagate();
+                            assertHeaps();
+                        }
+                    }
+                } catch (ContradictionException ex) {
+                    mo.getSolver().getEngine().flush();
+                }
+                env.worldPop();
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright  2026 The BtrPlace Authors. All rights reserved.
+ * Use of this source code is governed by a LGPL-style
+ * license that can be found in the LICENSE.txt file.
+ */
+
+package org.btrplace.json;
+
+import org.btrplace.model.Element;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of lists of elements, indexed by their JSON representation.
+ * <p>
+ * The cache is thread-safe. Each thread has its own least-recently-used cache
+ * so concurrent conversions do not contend on a shared structure. The hit and miss
+ * counters are aggregated over all the threads.
+ *
+ * @param <E> the element type
+ * @author Fabien Hermenier
+ */
+public class ElementListCache<E extends Element> {
+
+    private final int capacity;
+
+    private final ThreadLocal<Map<String, List<E>>> caches;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * New cache.
+     *
+     * @param size the maximum number of lists to cache per thread. {@code 0} to disable the cache
+     */
+    public ElementListCache(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("The cache size must be positive");
+        }
+        capacity = size;
+        caches = ThreadLocal.withInitial(() -> new LinkedHashMap<String, List<E>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, List<E>> eldest) {
+                return size() > capacity;
+            }
+        });
+    }
+
+    /**
+     * Get a cached list.
+     *
+     * @param json the JSON representation of the list
+     * @return the cached list if any, {@code null} otherwise
+     */
+    public List<E> get(String json) {
+        List<E> l = caches.get().get(json);
+        if (l == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return l;
+    }
+
+    /**
+     * Cache a list.
+     *
+     * @param json the JSON representation of the list
+     * @param l    the list to cache
+     */
+    public void put(String json, List<E> l) {
+        if (capacity > 0) {
+            caches.get().put(json, l);
+        }
+    }
+
+    /**
+     * Get the maximum number of lists cached per thread.
+     *
+     * @return a positive number
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Get the number of lookups that returned a cached list.
+     *
+     * @return a positive number
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * Get the number of lookups that did not return a cached list.
+     *
+     * @return a positive number
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "capacity=" + capacity + ", hits=" + hits() + ", misses=" + misses();
+    }
+}
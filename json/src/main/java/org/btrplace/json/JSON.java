@@ -6,8 +6,8 @@
 
 package org.btrplace.json;
 
-import org.btrplace.json.model.InstanceConverter;
-import org.btrplace.json.plan.ReconfigurationPlanConverter;
+import org.btrplace.json.stream.JSONStreamReader;
+import org.btrplace.json.stream.JSONStreamWriter;
 import org.btrplace.model.Instance;
 import org.btrplace.plan.ReconfigurationPlan;
 
@@ -25,6 +25,7 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 
 /**
  * Utility class to ease the serialisation and the deserialisation of the main btrplace entities.
+ * Instances and plans are streamed using {@link JSONStreamReader} and {@link JSONStreamWriter}.
  *
  * @author Fabien Hermenier
  */
@@ -72,8 +73,7 @@ public class JSON {
      */
     public static Instance readInstance(Reader r) {
         try {
-            InstanceConverter c = new InstanceConverter();
-            return c.fromJSON(r);
+            return new JSONStreamReader().readInstance(r);
         } catch (JSONConverterException e) {
             throw new IllegalArgumentException(e);
         }
@@ -103,8 +103,7 @@ public class JSON {
      */
     public static void write(Instance instance, Appendable a) {
         try {
-            InstanceConverter c = new InstanceConverter();
-            c.toJSON(instance).writeJSONString(a);
+            new JSONStreamWriter().write(instance, a);
         } catch (IOException | JSONConverterException e) {
             throw new IllegalArgumentException(e);
         }
@@ -118,12 +117,9 @@ public class JSON {
      * @throws IllegalArgumentException if an error occurred while writing the json
      */
     public static String toString(Instance instance) {
-        try {
-            InstanceConverter c = new InstanceConverter();
-            return c.toJSON(instance).toJSONString();
-        } catch (JSONConverterException e) {
-            throw new IllegalArgumentException(e);
-        }
+        StringBuilder b = new StringBuilder();
+        write(instance, b);
+        return b.toString();
     }
 
 
@@ -152,9 +148,7 @@ public class JSON {
      */
     public static ReconfigurationPlan readReconfigurationPlan(Reader r) {
         try {
-            ReconfigurationPlanConverter c =
-                ReconfigurationPlanConverter.newBundle();
-            return c.fromJSON(r);
+            return new JSONStreamReader().readReconfigurationPlan(r);
         } catch (JSONConverterException e) {
             throw new IllegalArgumentException(e);
         }
@@ -184,9 +178,7 @@ public class JSON {
      */
     public static void write(ReconfigurationPlan plan, Appendable a) {
         try {
-            ReconfigurationPlanConverter c =
-                ReconfigurationPlanConverter.newBundle();
-            c.toJSON(plan).writeJSONString(a);
+            new JSONStreamWriter().write(plan, a);
         } catch (IOException | JSONConverterException e) {
             throw new IllegalArgumentException(e);
         }
@@ -200,11 +192,8 @@ public class JSON {
      * @throws IllegalArgumentException if an error occurred while writing the json
      */
     public static String toString(ReconfigurationPlan plan) {
-        try {
-            ReconfigurationPlanConverter c = new ReconfigurationPlanConverter();
-            return c.toJSON(plan).toJSONString();
-        } catch (JSONConverterException e) {
-            throw new IllegalArgumentException(e);
-        }
+        StringBuilder b = new StringBuilder();
+        write(plan, b);
+        return b.toString();
     }
 }
@@ -16,9 +16,7 @@ import org.btrplace.model.VM;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
 /**
@@ -29,23 +27,13 @@ import java.util.Set;
 public class JSONs {
 
     /**
-     * The default cache for set of VMs and nodes.
+     * The default cache size for set of VMs and nodes.
      */
     private static final int DEFAULT_CACHE_SIZE = 1024;
 
-    private static Map<String, List<VM>> vmsCache = new LinkedHashMap<String, List<VM>>() {
-        @Override
-        protected boolean removeEldestEntry(Map.Entry<String, List<VM>> foo) {
-            return size() == DEFAULT_CACHE_SIZE;
-        }
-    };
+    private static volatile ElementListCache<VM> vmsCache = new ElementListCache<>(DEFAULT_CACHE_SIZE);
 
-    private static Map<String, List<Node>> nodesCache = new LinkedHashMap<String, List<Node>>() {
-        @Override
-        protected boolean removeEldestEntry(Map.Entry<String, List<Node>> foo) {
-            return size() == DEFAULT_CACHE_SIZE;
-        }
-    };
+    private static volatile ElementListCache<Node> nodesCache = new ElementListCache<>(DEFAULT_CACHE_SIZE);
 
     /**
      * Utility class.
@@ -56,23 +44,31 @@ public class JSONs {
 
     /**
      * Reset the cache of element sets.
+     * The caches are thread-safe and bounded per thread.
      *
-     * @param size the new cache size
+     * @param size the new cache size. {@code 0} to disable the caches
      */
     public static void resetCaches(int size) {
-        nodesCache = new LinkedHashMap<String, List<Node>>() {
-            @Override
-            protected boolean removeEldestEntry(Map.Entry<String, List<Node>> foo) {
-                return size() == size;
-            }
-        };
+        nodesCache = new ElementListCache<>(size);
+        vmsCache = new ElementListCache<>(size);
+    }
 
-        vmsCache = new LinkedHashMap<String, List<VM>>() {
-            @Override
-            protected boolean removeEldestEntry(Map.Entry<String, List<VM>> foo) {
-                return size() == size;
-            }
-        };
+    /**
+     * Get the cache of sets of VMs.
+     *
+     * @return the cache in use
+     */
+    public static ElementListCache<VM> vmsCache() {
+        return vmsCache;
+    }
+
+    /**
+     * Get the cache of sets of nodes.
+     *
+     * @return the cache in use
+     */
+    public static ElementListCache<Node> nodesCache() {
+        return nodesCache;
     }
 
     /**
@@ -185,7 +181,8 @@ public class JSONs {
      */
     public static List<VM> vmsFromJSON(Model mo, JSONArray a) throws JSONConverterException {
         String json = a.toJSONString();
-        List<VM> s = vmsCache.get(json);
+        ElementListCache<VM> cache = vmsCache;
+        List<VM> s = cache.get(json);
         if (s != null) {
             return s;
         }
@@ -193,7 +190,7 @@ public class JSONs {
         for (Object o : a) {
             s.add(getVM(mo, (int) o));
         }
-        vmsCache.put(json, s);
+        cache.put(json, s);
         return s;
     }
 
@@ -207,7 +204,8 @@ public class JSONs {
      */
     public static List<Node> nodesFromJSON(Model mo, JSONArray a) throws JSONConverterException {
         String json = a.toJSONString();
-        List<Node> s = nodesCache.get(json);
+        ElementListCache<Node> cache = nodesCache;
+        List<Node> s = cache.get(json);
         if (s != null) {
             return s;
         }
@@ -215,7 +213,7 @@ public class JSONs {
         for (Object o : a) {
             s.add(getNode(mo, (int) o));
         }
-        nodesCache.put(json, s);
+        cache.put(json, s);
         return s;
     }
 
@@ -0,0 +1,58 @@
+/*
+ * Copyright  2026 The BtrPlace Authors. All rights reserved.
+ * Use of this source code is governed by a LGPL-style
+ * license that can be found in the LICENSE.txt file.
+ */
+
+package org.btrplace.json.binary;
+
+/**
+ * The markers of the binary format.
+ * <p>
+ * A document starts with {@link #MAGIC}, the format {@link #VERSION} and the kind of document.
+ * A model is made of the bounds of the element identifiers, the mapping,
+ * the attributes with their keys stored once in a table, and the views.
+ * The values of a {@link org.btrplace.model.view.ShareableResource} are stored
+ * by increasing element identifiers, each identifier being stored as the delta with the previous one.
+ * The other views, the constraints, and the actions that are not natively supported
+ * are stored using their JSON representation.
+ *
+ * @author Fabien Hermenier
+ */
+final class BinaryFormat {
+
+    /**
+     * The first bytes of a document.
+     */
+    static final byte[] MAGIC = {'B', 'T', 'R', 'P'};
+
+    /**
+     * The format version.
+     */
+    static final int VERSION = 1;
+
+    static final int MODEL = 0;
+    static final int INSTANCE = 1;
+    static final int PLAN = 2;
+
+    static final int VM_ELEMENT = 0;
+    static final int NODE_ELEMENT = 1;
+
+    static final int BOOLEAN_VALUE = 0;
+    static final int INT_VALUE = 1;
+    static final int DOUBLE_VALUE = 2;
+    static final int STRING_VALUE = 3;
+
+    static final int JSON_VIEW = 0;
+    static final int RESOURCE_VIEW = 1;
+
+    static final int JSON_ACTION = 0;
+    static final int MIGRATE_VM = 1;
+    static final int BOOT_VM = 2;
+    static final int SHUTDOWN_VM = 3;
+    static final int BOOT_NODE = 4;
+    static final int SHUTDOWN_NODE = 5;
+
+    private BinaryFormat() {
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright  2026 The BtrPlace Authors. All rights reserved.
+ * Use of this source code is governed by a LGPL-style
+ * license that can be found in the LICENSE.txt file.
+ */
+
+package org.btrplace.json.binary;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Read the primitives written by {@link BinaryOutput}.
+ *
+ * @author Fabien Hermenier
+ */
+class BinaryInput {
+
+    private final InputStream in;
+
+    /**
+     * New input.
+     *
+     * @param in the stream to read. It should be buffered
+     */
+    BinaryInput(InputStream in) {
+        this.in = in;
+    }
+
+    /**
+     * Read a byte.
+     *
+     * @return the byte, between 0 and 255
+     * @throws IOException if an error occurred while reading or if the stream ended
+     */
+    int readByte() throws IOException {
+        int b = in.read();
+        if (b < 0) {
+            throw new EOFException();
+        }
+        return b;
+    }
+
+    /**
+     * Read a value written using {@link BinaryOutput#writeVarInt(int)}.
+     *
+     * @return the value
+     * @throws IOException if an error occurred while reading or if the value is malformed
+     */
+    int readVarInt() throws IOException {
+        int v = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = readByte();
+            v |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return v;
+            }
+        }
+        throw new IOException("Malformed variable-length integer");
+    }
+
+    /**
+     * Read a value written using {@link BinaryOutput#writeSignedVarInt(int)}.
+     *
+     * @return the value
+     * @throws IOException if an error occurred while reading or if the value is malformed
+     */
+    int readSignedVarInt() throws IOException {
+        int v = readVarInt();
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    /**
+     * Read a double.
+     *
+     * @return the value
+     * @throws IOException if an error occurred while reading
+     */
+    double readDouble() throws IOException {
+        long l = 0;
+        for (int i = 0; i < 8; i++) {
+            l = (l << 8) | readByte();
+        }
+        return Double.longBitsToDouble(l);
+    }
+
+    /**
+     * Read a string.
+     *
+     * @return the string
+     * @throws IOException if an error occurred while reading
+     */
+    String readString() throws IOException {
+        int len = readVarInt();
+        if (len < 0) {
+            throw new IOException("Malformed string length");
+        }
+        byte[] b = new byte[len];
+        int off = 0;
+        while (off < len) {
+            int nb = in.read(b, off, len - off);
+            if (nb < 0) {
+                throw new EOFException();
+            }
+            off += nb;
+        }
+        return new String(b, UTF_8);
+    }
+}
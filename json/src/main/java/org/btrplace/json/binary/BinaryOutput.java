@@ -0,0 +1,103 @@
+/*
+ * Copyright  2026 The BtrPlace Authors. All rights reserved.
+ * Use of this source code is governed by a LGPL-style
+ * license that can be found in the LICENSE.txt file.
+ */
+
+package org.btrplace.json.binary;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Write the primitives of the binary format.
+ * Integers are written as variable-length quantities: 7 bits per byte,
+ * the most significant bit indicating that more bytes follow.
+ *
+ * @author Fabien Hermenier
+ */
+class BinaryOutput {
+
+    private final OutputStream out;
+
+    /**
+     * New output.
+     *
+     * @param out the stream to write on. It should be buffered
+     */
+    BinaryOutput(OutputStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Write a byte.
+     *
+     * @param b the byte
+     * @throws IOException if an error occurred while writing
+     */
+    void writeByte(int b) throws IOException {
+        out.write(b);
+    }
+
+    /**
+     * Write a positive integer, typically an identifier or a size.
+     *
+     * @param v a value that is treated as unsigned
+     * @throws IOException if an error occurred while writing
+     */
+    void writeVarInt(int v) throws IOException {
+        int x = v;
+        while ((x & ~0x7F) != 0) {
+            out.write((x & 0x7F) | 0x80);
+            x >>>= 7;
+        }
+        out.write(x);
+    }
+
+    /**
+     * Write an integer that may be negative.
+     * The value is zigzag encoded so small negative values stay short.
+     *
+     * @param v the value
+     * @throws IOException if an error occurred while writing
+     */
+    void writeSignedVarInt(int v) throws IOException {
+        writeVarInt((v << 1) ^ (v >> 31));
+    }
+
+    /**
+     * Write a double.
+     *
+     * @param d the value
+     * @throws IOException if an error occurred while writing
+     */
+    void writeDouble(double d) throws IOException {
+        long l = Double.doubleToLongBits(d);
+        for (int i = 56; i >= 0; i -= 8) {
+            out.write((int) (l >>> i));
+        }
+    }
+
+    /**
+     * Write a string, as its UTF-8 length followed by its UTF-8 bytes.
+     *
+     * @param s the string
+     * @throws IOException if an error occurred while writing
+     */
+    void writeString(String s) throws IOException {
+        byte[] b = s.getBytes(UTF_8);
+        writeVarInt(b.length);
+        out.write(b);
+    }
+
+    /**
+     * Flush the underlying stream.
+     *
+     * @throws IOException if an error occurred while writing
+     */
+    void flush() throws IOException {
+        out.flush();
+    }
+}
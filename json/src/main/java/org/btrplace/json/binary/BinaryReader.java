@@ -0,0 +1,349 @@
+/*
+ * Copyright  2026 The BtrPlace Authors. All rights reserved.
+ * Use of this source code is governed by a LGPL-style
+ * license that can be found in the LICENSE.txt file.
+ */
+
+package org.btrplace.json.binary;
+
+import net.minidev.json.JSONObject;
+import net.minidev.json.parser.JSONParser;
+import net.minidev.json.parser.ParseException;
+import org.btrplace.json.JSONConverterException;
+import org.btrplace.json.model.InstanceConverter;
+import org.btrplace.json.model.constraint.ConstraintsConverter;
+import org.btrplace.json.model.view.ModelViewsConverter;
+import org.btrplace.json.plan.ReconfigurationPlanConverter;
+import org.btrplace.model.Attributes;
+import org.btrplace.model.DefaultMapping;
+import org.btrplace.model.DefaultModel;
+import org.btrplace.model.Element;
+import org.btrplace.model.Instance;
+import org.btrplace.model.Mapping;
+import org.btrplace.model.Model;
+import org.btrplace.model.Node;
+import org.btrplace.model.VM;
+import org.btrplace.model.constraint.OptConstraint;
+import org.btrplace.model.constraint.SatConstraint;
+import org.btrplace.model.view.ShareableResource;
+import org.btrplace.plan.DefaultReconfigurationPlan;
+import org.btrplace.plan.ReconfigurationPlan;
+import org.btrplace.plan.event.Action;
+import org.btrplace.plan.event.BootNode;
+import org.btrplace.plan.event.BootVM;
+import org.btrplace.plan.event.MigrateVM;
+import org.btrplace.plan.event.ShutdownNode;
+import org.btrplace.plan.event.ShutdownVM;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.btrplace.json.JSONs.getNode;
+import static org.btrplace.json.JSONs.getVM;
+import static org.btrplace.json.binary.BinaryFormat.BOOLEAN_VALUE;
+import static org.btrplace.json.binary.BinaryFormat.BOOT_NODE;
+import static org.btrplace.json.binary.BinaryFormat.BOOT_VM;
+import static org.btrplace.json.binary.BinaryFormat.DOUBLE_VALUE;
+import static org.btrplace.json.binary.BinaryFormat.INSTANCE;
+import static org.btrplace.json.binary.BinaryFormat.INT_VALUE;
+import static org.btrplace.json.binary.BinaryFormat.JSON_ACTION;
+import static org.btrplace.json.binary.BinaryFormat.JSON_VIEW;
+import static org.btrplace.json.binary.BinaryFormat.MAGIC;
+import static org.btrplace.json.binary.BinaryFormat.MIGRATE_VM;
+import static org.btrplace.json.binary.BinaryFormat.MODEL;
+import static org.btrplace.json.binary.BinaryFormat.NODE_ELEMENT;
+import static org.btrplace.json.binary.BinaryFormat.PLAN;
+import static org.btrplace.json.binary.BinaryFormat.RESOURCE_VIEW;
+import static org.btrplace.json.binary.BinaryFormat.SHUTDOWN_NODE;
+import static org.btrplace.json.binary.BinaryFormat.SHUTDOWN_VM;
+import static org.btrplace.json.binary.BinaryFormat.STRING_VALUE;
+import static org.btrplace.json.binary.BinaryFormat.VERSION;
+import static org.btrplace.json.binary.BinaryFormat.VM_ELEMENT;
+
+/**
+ * Read models, instances and plans written by {@link BinaryWriter}.
+ * <p>
+ * The bounds of the element identifiers are stored before the elements, so the
+ * backends of {@link DefaultMapping} and {@link ShareableResource} are allocated once
+ * before being populated.
+ *
+ * @author Fabien Hermenier
+ */
+public class BinaryReader {
+
+    private final ModelViewsConverter viewsConverter;
+
+    private final ConstraintsConverter cstrsConverter;
+
+    private final ReconfigurationPlanConverter planConverter;
+
+    /**
+     * New reader that supports the views, the constraints and the actions bundled in btrplace.
+     */
+    public BinaryReader() {
+        this(new InstanceConverter(), ReconfigurationPlanConverter.newBundle());
+    }
+
+    /**
+     * New reader.
+     *
+     * @param ic the converter that provides the view and the constraint converters
+     * @param pc the converter that provides the action converters
+     */
+    public BinaryReader(InstanceConverter ic, ReconfigurationPlanConverter pc) {
+        viewsConverter = ic.getModelConverter().getViewsConverter();
+        cstrsConverter = ic.getConstraintsConverter();
+        planConverter = pc;
+    }
+
+    /**
+     * Read a model.
+     *
+     * @param in the stream to read
+     * @return the resulting model
+     * @throws JSONConverterException if the document is not a model or cannot be converted
+     * @throws IOException            if an error occurred while reading
+     */
+    public Model readModel(InputStream in) throws JSONConverterException, IOException {
+        BinaryInput i = header(in, MODEL);
+        return readModel(i);
+    }
+
+    /**
+     * Read an instance.
+     *
+     * @param in the stream to read
+     * @return the resulting instance
+     * @throws JSONConverterException if the document is not an instance or cannot be converted
+     * @throws IOException            if an error occurred while reading
+     */
+    public Instance readInstance(InputStream in) throws JSONConverterException, IOException {
+        BinaryInput i = header(in, INSTANCE);
+        Model mo = readModel(i);
+        int nb = i.readVarInt();
+        List<SatConstraint> cstrs = new ArrayList<>(nb);
+        for (int x = 0; x < nb; x++) {
+            cstrs.add((SatConstraint) cstrsConverter.fromJSON(mo, parse(i.readString())));
+        }
+        OptConstraint obj = (OptConstraint) cstrsConverter.fromJSON(mo, parse(i.readString()));
+        return new Instance(mo, cstrs, obj);
+    }
+
+    /**
+     * Read a reconfiguration plan.
+     *
+     * @param in the stream to read
+     * @return the resulting plan
+     * @throws JSONConverterException if the document is not a plan or cannot be converted
+     * @throws IOException            if an error occurred while reading
+     */
+    public ReconfigurationPlan readReconfigurationPlan(InputStream in) throws JSONConverterException, IOException {
+        BinaryInput i = header(in, PLAN);
+        Model mo = readModel(i);
+        ReconfigurationPlan p = new DefaultReconfigurationPlan(mo);
+        int nb = i.readVarInt();
+        for (int x = 0; x < nb; x++) {
+            p.add(readAction(mo, i));
+        }
+        return p;
+    }
+
+    private static BinaryInput header(InputStream in, int kind) throws JSONConverterException, IOException {
+        BinaryInput i = new BinaryInput(new BufferedInputStream(in));
+        for (byte b : MAGIC) {
+            if (i.readByte() != b) {
+                throw new JSONConverterException("Not a binary btrplace document");
+            }
+        }
+        int v = i.readByte();
+        if (v != VERSION) {
+            throw new JSONConverterException("Unsupported format version " + v);
+        }
+        int k = i.readByte();
+        if (k != kind) {
+            throw new JSONConverterException("Unexpected kind of document: " + k);
+        }
+        return i;
+    }
+
+    private Model readModel(BinaryInput i) throws JSONConverterException, IOException {
+        Model mo = new DefaultModel();
+        Mapping map = mo.getMapping();
+        int vmBound = i.readVarInt();
+        int nodeBound = i.readVarInt();
+        if (map instanceof DefaultMapping) {
+            ((DefaultMapping) map).minVMBackendCapacity(vmBound);
+            ((DefaultMapping) map).minNodeBackendCapacity(nodeBound);
+        }
+
+        int nb = i.readVarInt();
+        for (int x = 0; x < nb; x++) {
+            map.addOfflineNode(newNode(mo, i.readVarInt()));
+        }
+        nb = i.readVarInt();
+        for (int x = 0; x < nb; x++) {
+            map.addReadyVM(newVM(mo, i.readVarInt()));
+        }
+        nb = i.readVarInt();
+        for (int x = 0; x < nb; x++) {
+            Node n = newNode(mo, i.readVarInt());
+            map.addOnlineNode(n);
+            int nbVMs = i.readVarInt();
+            for (int y = 0; y < nbVMs; y++) {
+                map.addRunningVM(newVM(mo, i.readVarInt()), n);
+            }
+            nbVMs = i.readVarInt();
+            for (int y = 0; y < nbVMs; y++) {
+                map.addSleepingVM(newVM(mo, i.readVarInt()), n);
+            }
+        }
+
+        readAttributes(mo, i);
+
+        nb = i.readVarInt();
+        for (int x = 0; x < nb; x++) {
+            int type = i.readByte();
+            if (type == RESOURCE_VIEW) {
+                mo.attach(readResource(mo, i, vmBound, nodeBound));
+            } else if (type == JSON_VIEW) {
+                mo.attach(viewsConverter.fromJSON(mo, parse(i.readString())));
+            } else {
+                throw new JSONConverterException("Unsupported view type " + type);
+            }
+        }
+        return mo;
+    }
+
+    private static Node newNode(Model mo, int id) throws JSONConverterException {
+        Node n = mo.newNode(id);
+        if (n == null) {
+            throw JSONConverterException.nodeAlreadyDeclared(id);
+        }
+        return n;
+    }
+
+    private static VM newVM(Model mo, int id) throws JSONConverterException {
+        VM v = mo.newVM(id);
+        if (v == null) {
+            throw JSONConverterException.vmAlreadyDeclared(id);
+        }
+        return v;
+    }
+
+    private static void readAttributes(Model mo, BinaryInput i) throws JSONConverterException, IOException {
+        String[] keys = new String[i.readVarInt()];
+        for (int x = 0; x < keys.length; x++) {
+            keys[x] = i.readString();
+        }
+
+        Attributes attrs = mo.getAttributes();
+        int nb = i.readVarInt();
+        for (int x = 0; x < nb; x++) {
+            int type = i.readByte();
+            int id = i.readVarInt();
+            Element e;
+            if (type == VM_ELEMENT) {
+                e = getVM(mo, id);
+            } else if (type == NODE_ELEMENT) {
+                e = getNode(mo, id);
+            } else {
+                throw new JSONConverterException("Unsupported element type " + type);
+            }
+            int nbKeys = i.readVarInt();
+            for (int y = 0; y < nbKeys; y++) {
+                int k = i.readVarInt();
+                if (k >= keys.length) {
+                    throw new JSONConverterException("Unknown attribute key " + k);
+                }
+                readValue(attrs, e, keys[k], i);
+            }
+        }
+    }
+
+    private static void readValue(Attributes attrs, Element e, String k, BinaryInput i) throws JSONConverterException, IOException {
+        int type = i.readByte();
+        if (type == BOOLEAN_VALUE) {
+            attrs.put(e, k, i.readByte() != 0);
+        } else if (type == INT_VALUE) {
+            attrs.put(e, k, i.readSignedVarInt());
+        } else if (type == DOUBLE_VALUE) {
+            attrs.put(e, k, i.readDouble());
+        } else if (type == STRING_VALUE) {
+            attrs.put(e, k, i.readString());
+        } else {
+            throw new JSONConverterException("Unsupported attribute type " + type);
+        }
+    }
+
+    private static ShareableResource readResource(Model mo, BinaryInput i, int vmBound, int nodeBound)
+            throws JSONConverterException, IOException {
+        String id = i.readString();
+        int defCapacity = i.readSignedVarInt();
+        int defConsumption = i.readSignedVarInt();
+        ShareableResource rc = new ShareableResource(id, defCapacity, defConsumption);
+
+        int nb = i.readVarInt();
+        if (nb > 0) {
+            rc.minVMBackendCapacity(vmBound);
+        }
+        int k = 0;
+        for (int x = 0; x < nb; x++) {
+            k += i.readVarInt();
+            rc.setConsumption(getVM(mo, k), i.readSignedVarInt());
+        }
+
+        nb = i.readVarInt();
+        if (nb > 0) {
+            rc.minNodeBackendCapacity(nodeBound);
+        }
+        k = 0;
+        for (int x = 0; x < nb; x++) {
+            k += i.readVarInt();
+            rc.setCapacity(getNode(mo, k), i.readSignedVarInt());
+        }
+        return rc;
+    }
+
+    private Action readAction(Model mo, BinaryInput i) throws JSONConverterException, IOException {
+        int type = i.readByte();
+        if (type == JSON_ACTION) {
+            return planConverter.actionFromJSON(mo, parse(i.readString()));
+        }
+        Action a;
+        if (type == MIGRATE_VM) {
+            VM v = getVM(mo, i.readVarInt());
+            Node src = getNode(mo, i.readVarInt());
+            Node dst = getNode(mo, i.readVarInt());
+            int bw = i.readSignedVarInt();
+            a = new MigrateVM(v, src, dst, i.readSignedVarInt(), i.readSignedVarInt(), bw);
+        } else if (type == BOOT_VM) {
+            VM v = getVM(mo, i.readVarInt());
+            a = new BootVM(v, getNode(mo, i.readVarInt()), i.readSignedVarInt(), i.readSignedVarInt());
+        } else if (type == SHUTDOWN_VM) {
+            VM v = getVM(mo, i.readVarInt());
+            a = new ShutdownVM(v, getNode(mo, i.readVarInt()), i.readSignedVarInt(), i.readSignedVarInt());
+        } else if (type == BOOT_NODE) {
+            a = new BootNode(getNode(mo, i.readVarInt()), i.readSignedVarInt(), i.readSignedVarInt());
+        } else if (type == SHUTDOWN_NODE) {
+            a = new ShutdownNode(getNode(mo, i.readVarInt()), i.readSignedVarInt(), i.readSignedVarInt());
+        } else {
+            throw new JSONConverterException("Unsupported action type " + type);
+        }
+        return a;
+    }
+
+    private static JSONObject parse(String json) throws JSONConverterException {
+        try {
+            Object o = new JSONParser(JSONParser.MODE_RFC4627).parse(json);
+            if (!(o instanceof JSONObject)) {
+                throw new JSONConverterException("Unable to parse a JSON object");
+            }
+            return (JSONObject) o;
+        } catch (ParseException ex) {
+            throw new JSONConverterException(ex);
+        }
+    }
+}
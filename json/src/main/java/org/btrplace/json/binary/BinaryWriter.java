@@ -0,0 +1,333 @@
+/*
+ * Copyright  2026 The BtrPlace Authors. All rights reserved.
+ * Use of this source code is governed by a LGPL-style
+ * license that can be found in the LICENSE.txt file.
+ */
+
+package org.btrplace.json.binary;
+
+import org.btrplace.json.JSONConverterException;
+import org.btrplace.json.model.InstanceConverter;
+import org.btrplace.json.model.constraint.ConstraintsConverter;
+import org.btrplace.json.model.view.ModelViewsConverter;
+import org.btrplace.json.plan.ReconfigurationPlanConverter;
+import org.btrplace.model.Attributes;
+import org.btrplace.model.Element;
+import org.btrplace.model.Instance;
+import org.btrplace.model.Mapping;
+import org.btrplace.model.Model;
+import org.btrplace.model.Node;
+import org.btrplace.model.VM;
+import org.btrplace.model.constraint.SatConstraint;
+import org.btrplace.model.view.ModelView;
+import org.btrplace.model.view.ShareableResource;
+import org.btrplace.plan.ReconfigurationPlan;
+import org.btrplace.plan.event.Action;
+import org.btrplace.plan.event.BootNode;
+import org.btrplace.plan.event.BootVM;
+import org.btrplace.plan.event.MigrateVM;
+import org.btrplace.plan.event.ShutdownNode;
+import org.btrplace.plan.event.ShutdownVM;
+import org.btrplace.util.IntMap;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.btrplace.json.binary.BinaryFormat.BOOLEAN_VALUE;
+import static org.btrplace.json.binary.BinaryFormat.BOOT_NODE;
+import static org.btrplace.json.binary.BinaryFormat.BOOT_VM;
+import static org.btrplace.json.binary.BinaryFormat.DOUBLE_VALUE;
+import static org.btrplace.json.binary.BinaryFormat.INSTANCE;
+import static org.btrplace.json.binary.BinaryFormat.INT_VALUE;
+import static org.btrplace.json.binary.BinaryFormat.JSON_ACTION;
+import static org.btrplace.json.binary.BinaryFormat.JSON_VIEW;
+import static org.btrplace.json.binary.BinaryFormat.MAGIC;
+import static org.btrplace.json.binary.BinaryFormat.MIGRATE_VM;
+import static org.btrplace.json.binary.BinaryFormat.MODEL;
+import static org.btrplace.json.binary.BinaryFormat.NODE_ELEMENT;
+import static org.btrplace.json.binary.BinaryFormat.PLAN;
+import static org.btrplace.json.binary.BinaryFormat.RESOURCE_VIEW;
+import static org.btrplace.json.binary.BinaryFormat.SHUTDOWN_NODE;
+import static org.btrplace.json.binary.BinaryFormat.SHUTDOWN_VM;
+import static org.btrplace.json.binary.BinaryFormat.STRING_VALUE;
+import static org.btrplace.json.binary.BinaryFormat.VERSION;
+import static org.btrplace.json.binary.BinaryFormat.VM_ELEMENT;
+
+/**
+ * Write models, instances and plans in a compact binary format.
+ * The documents can be read back using {@link BinaryReader}.
+ * <p>
+ * The views, the constraints and the actions that are not natively supported by the format
+ * are serialised using the JSON converters provided at instantiation.
+ *
+ * @author Fabien Hermenier
+ */
+public class BinaryWriter {
+
+    private final ModelViewsConverter viewsConverter;
+
+    private final ConstraintsConverter cstrsConverter;
+
+    private final ReconfigurationPlanConverter planConverter;
+
+    /**
+     * New writer that supports the views, the constraints and the actions bundled in btrplace.
+     */
+    public BinaryWriter() {
+        this(new InstanceConverter(), ReconfigurationPlanConverter.newBundle());
+    }
+
+    /**
+     * New writer.
+     *
+     * @param ic the converter that provides the view and the constraint converters
+     * @param pc the converter that provides the action converters
+     */
+    public BinaryWriter(InstanceConverter ic, ReconfigurationPlanConverter pc) {
+        viewsConverter = ic.getModelConverter().getViewsConverter();
+        cstrsConverter = ic.getConstraintsConverter();
+        planConverter = pc;
+    }
+
+    /**
+     * Write a model.
+     * The stream is flushed but not closed.
+     *
+     * @param mo  the model to write
+     * @param out the stream to write on
+     * @throws JSONConverterException if a view cannot be converted
+     * @throws IOException            if an error occurred while writing
+     */
+    public void write(Model mo, OutputStream out) throws JSONConverterException, IOException {
+        BinaryOutput o = header(out, MODEL);
+        writeModel(mo, o);
+        o.flush();
+    }
+
+    /**
+     * Write an instance.
+     * The stream is flushed but not closed.
+     *
+     * @param i   the instance to write
+     * @param out the stream to write on
+     * @throws JSONConverterException if a view or a constraint cannot be converted
+     * @throws IOException            if an error occurred while writing
+     */
+    public void write(Instance i, OutputStream out) throws JSONConverterException, IOException {
+        BinaryOutput o = header(out, INSTANCE);
+        writeModel(i.getModel(), o);
+        Collection<SatConstraint> cstrs = i.getSatConstraints();
+        o.writeVarInt(cstrs.size());
+        for (SatConstraint c : cstrs) {
+            o.writeString(cstrsConverter.toJSON(c).toJSONString());
+        }
+        o.writeString(cstrsConverter.toJSON(i.getOptConstraint()).toJSONString());
+        o.flush();
+    }
+
+    /**
+     * Write a reconfiguration plan.
+     * The stream is flushed but not closed.
+     *
+     * @param p   the plan to write
+     * @param out the stream to write on
+     * @throws JSONConverterException if a view or an action cannot be converted
+     * @throws IOException            if an error occurred while writing
+     */
+    public void write(ReconfigurationPlan p, OutputStream out) throws JSONConverterException, IOException {
+        BinaryOutput o = header(out, PLAN);
+        writeModel(p.getOrigin(), o);
+        o.writeVarInt(p.getSize());
+        for (Action a : p) {
+            writeAction(a, o);
+        }
+        o.flush();
+    }
+
+    private static BinaryOutput header(OutputStream out, int kind) throws IOException {
+        BinaryOutput o = new BinaryOutput(new BufferedOutputStream(out));
+        for (byte b : MAGIC) {
+            o.writeByte(b);
+        }
+        o.writeByte(VERSION);
+        o.writeByte(kind);
+        return o;
+    }
+
+    private void writeModel(Model mo, BinaryOutput o) throws JSONConverterException, IOException {
+        Mapping map = mo.getMapping();
+        o.writeVarInt(bound(map.getAllVMs()));
+        o.writeVarInt(bound(map.getAllNodes()));
+
+        writeElements(map.getOfflineNodes(), o);
+        writeElements(map.getReadyVMs(), o);
+        Set<Node> online = map.getOnlineNodes();
+        o.writeVarInt(online.size());
+        for (Node n : online) {
+            o.writeVarInt(n.id());
+            writeElements(map.getRunningVMs(n), o);
+            writeElements(map.getSleepingVMs(n), o);
+        }
+
+        writeAttributes(mo.getAttributes(), o);
+
+        Collection<ModelView> views = mo.getViews();
+        o.writeVarInt(views.size());
+        for (ModelView v : views) {
+            if (v.getClass() == ShareableResource.class) {
+                o.writeByte(RESOURCE_VIEW);
+                writeResource((ShareableResource) v, o);
+            } else {
+                o.writeByte(JSON_VIEW);
+                o.writeString(viewsConverter.toJSON(v).toJSONString());
+            }
+        }
+    }
+
+    /**
+     * Get the number of identifiers to consider to store the given elements.
+     */
+    private static int bound(Collection<? extends Element> elems) {
+        int max = -1;
+        for (Element e : elems) {
+            max = Math.max(max, e.id());
+        }
+        return max + 1;
+    }
+
+    private static void writeElements(Collection<? extends Element> elems, BinaryOutput o) throws IOException {
+        o.writeVarInt(elems.size());
+        for (Element e : elems) {
+            o.writeVarInt(e.id());
+        }
+    }
+
+    private static void writeAttributes(Attributes attrs, BinaryOutput o) throws JSONConverterException, IOException {
+        Set<Element> defined = attrs.getDefined();
+        Map<String, Integer> keys = new LinkedHashMap<>();
+        for (Element e : defined) {
+            for (String k : attrs.getKeys(e)) {
+                keys.putIfAbsent(k, keys.size());
+            }
+        }
+        o.writeVarInt(keys.size());
+        for (String k : keys.keySet()) {
+            o.writeString(k);
+        }
+
+        o.writeVarInt(defined.size());
+        for (Element e : defined) {
+            o.writeByte(e instanceof VM ? VM_ELEMENT : NODE_ELEMENT);
+            o.writeVarInt(e.id());
+            Set<String> ks = attrs.getKeys(e);
+            o.writeVarInt(ks.size());
+            for (String k : ks) {
+                o.writeVarInt(keys.get(k));
+                writeValue(attrs.get(e, k), o);
+            }
+        }
+    }
+
+    private static void writeValue(Object v, BinaryOutput o) throws JSONConverterException, IOException {
+        if (v instanceof Boolean) {
+            o.writeByte(BOOLEAN_VALUE);
+            o.writeByte((Boolean) v ? 1 : 0);
+        } else if (v instanceof Integer) {
+            o.writeByte(INT_VALUE);
+            o.writeSignedVarInt((Integer) v);
+        } else if (v instanceof Double) {
+            o.writeByte(DOUBLE_VALUE);
+            o.writeDouble((Double) v);
+        } else if (v instanceof String) {
+            o.writeByte(STRING_VALUE);
+            o.writeString((String) v);
+        } else {
+            throw new JSONConverterException("Unsupported attribute value '" + v + "'");
+        }
+    }
+
+    private static void writeResource(ShareableResource rc, BinaryOutput o) throws IOException {
+        o.writeString(rc.getResourceIdentifier());
+        o.writeSignedVarInt(rc.getDefaultCapacity());
+        o.writeSignedVarInt(rc.getDefaultConsumption());
+        try {
+            writeValues(rc::forEachVMId, o);
+            writeValues(rc::forEachNodeId, o);
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    /**
+     * The way to browse a primitive map.
+     */
+    @FunctionalInterface
+    private interface Values {
+        void forEach(IntMap.Entry e);
+    }
+
+    /**
+     * Write the values of a primitive map. The entries are browsed by increasing keys
+     * so the keys are stored as the delta with the previous one.
+     */
+    private static void writeValues(Values values, BinaryOutput o) throws IOException {
+        int[] nb = {0};
+        values.forEach((k, v) -> {
+            nb[0]++;
+            return true;
+        });
+        o.writeVarInt(nb[0]);
+        int[] prev = {0};
+        values.forEach((k, v) -> {
+            try {
+                o.writeVarInt(k - prev[0]);
+                o.writeSignedVarInt(v);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            prev[0] = k;
+            return true;
+        });
+    }
+
+    private void writeAction(Action a, BinaryOutput o) throws JSONConverterException, IOException {
+        boolean noEvents = a.getEvents(Action.Hook.PRE).isEmpty() && a.getEvents(Action.Hook.POST).isEmpty();
+        Class<?> cl = a.getClass();
+        if (noEvents && cl == MigrateVM.class) {
+            MigrateVM m = (MigrateVM) a;
+            o.writeByte(MIGRATE_VM);
+            o.writeVarInt(m.getVM().id());
+            o.writeVarInt(m.getSourceNode().id());
+            o.writeVarInt(m.getDestinationNode().id());
+            o.writeSignedVarInt(m.getBandwidth());
+        } else if (noEvents && cl == BootVM.class) {
+            BootVM b = (BootVM) a;
+            o.writeByte(BOOT_VM);
+            o.writeVarInt(b.getVM().id());
+            o.writeVarInt(b.getDestinationNode().id());
+        } else if (noEvents && cl == ShutdownVM.class) {
+            ShutdownVM s = (ShutdownVM) a;
+            o.writeByte(SHUTDOWN_VM);
+            o.writeVarInt(s.getVM().id());
+            o.writeVarInt(s.getNode().id());
+        } else if (noEvents && cl == BootNode.class) {
+            o.writeByte(BOOT_NODE);
+            o.writeVarInt(((BootNode) a).getNode().id());
+        } else if (noEvents && cl == ShutdownNode.class) {
+            o.writeByte(SHUTDOWN_NODE);
+            o.writeVarInt(((ShutdownNode) a).getNode().id());
+        } else {
+            o.writeByte(JSON_ACTION);
+            o.writeString(planConverter.actionToJSON(a).toJSONString());
+            return;
+        }
+        o.writeSignedVarInt(a.getStart());
+        o.writeSignedVarInt(a.getEnd());
+    }
+}
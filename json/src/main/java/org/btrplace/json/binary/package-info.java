@@ -0,0 +1,12 @@
+/*
+ * Copyright  2026 The BtrPlace Authors. All rights reserved.
+ * Use of this source code is governed by a LGPL-style
+ * license that can be found in the LICENSE.txt file.
+ */
+
+/**
+ * A compact binary format for models, instances and plans.
+ * It is an alternative to the JSON format when the documents are large
+ * and are not supposed to be read by humans.
+ */
+package org.btrplace.json.binary;
@@ -61,7 +61,20 @@ public class AttributesConverter {
      * @throws JSONConverterException if the conversion failed
      */
     public static Attributes fromJSON(Model mo, JSONObject o) throws JSONConverterException {
-        Attributes attrs = new DefaultAttributes();
+        return fromJSON(mo, o, new DefaultAttributes());
+    }
+
+    /**
+     * Decode attributes into a given store.
+     * This allows to decode into a {@link org.btrplace.model.ColumnarAttributes}.
+     *
+     * @param mo    the model to rely on
+     * @param o     the encoded attributes
+     * @param attrs the store to fill
+     * @return {@code attrs}
+     * @throws JSONConverterException if the conversion failed
+     */
+    public static Attributes fromJSON(Model mo, JSONObject o, Attributes attrs) throws JSONConverterException {
         try {
 
             JSONObject vms = (JSONObject) o.get("vms");
@@ -90,20 +90,34 @@ public class ReconfigurationPlanConverter implements
         final Model m = mc.fromJSON((JSONObject) ob.get(ORIGIN_LABEL));
         final ReconfigurationPlan plan = new DefaultReconfigurationPlan(m);
         for (final JSONObject json : (List<JSONObject>) ob.get(ACTIONS_LABEL)) {
-            final String id =
-                json.getAsString(ActionConverter.ID_LABEL);
-            ActionConverter<? extends Action> ac = json3java.get(id);
-            if (ac == null) {
-                throw new JSONConverterException(
-                    "No converter for action '" + id + "'");
-            }
-            final Action action = ac.fromJSON(m, json);
-            eventsFromJSON(json, m, action);
-            plan.add(action);
+            plan.add(actionFromJSON(m, json));
         }
         return plan;
     }
 
+    /**
+     * Convert a json-encoded action, including its events.
+     *
+     * @param mo   the model the action refers to
+     * @param json the action to decode
+     * @return the resulting action
+     * @throws JSONConverterException if the conversion failed
+     */
+    public Action actionFromJSON(final Model mo, final JSONObject json)
+        throws JSONConverterException {
+
+        final String id =
+            json.getAsString(ActionConverter.ID_LABEL);
+        ActionConverter<? extends Action> ac = json3java.get(id);
+        if (ac == null) {
+            throw new JSONConverterException(
+                "No converter for action '" + id + "'");
+        }
+        final Action action = ac.fromJSON(mo, json);
+        eventsFromJSON(json, mo, action);
+        return action;
+    }
+
     /**
      * Get the associated {@link ModelConverter}
      *
@@ -123,19 +137,32 @@ public class ReconfigurationPlanConverter implements
 
         final JSONArray actions = new JSONArray();
         for (final Action a : plan.getActions()) {
-            final ActionConverter ac = java3json.get(a.getClass());
-            if (ac == null) {
-                throw new JSONConverterException(
-                    "No converter registered for '" + a.getClass() + "'");
-            }
-            final JSONObject json = ac.toJSON(a);
-            eventsToJSON(a, json);
-            actions.add(json);
+            actions.add(actionToJSON(a));
         }
         ob.put(ACTIONS_LABEL, actions);
         return ob;
     }
 
+    /**
+     * Serialise an action, including its events.
+     *
+     * @param a the action
+     * @return the resulting encoded action
+     * @throws JSONConverterException if the conversion failed
+     */
+    public JSONObject actionToJSON(final Action a)
+        throws JSONConverterException {
+
+        final ActionConverter ac = java3json.get(a.getClass());
+        if (ac == null) {
+            throw new JSONConverterException(
+                "No converter registered for '" + a.getClass() + "'");
+        }
+        final JSONObject json = ac.toJSON(a);
+        eventsToJSON(a, json);
+        return json;
+    }
+
     private void eventsToJSON(final Action action, final JSONObject json)
         throws JSONConverterException {
 
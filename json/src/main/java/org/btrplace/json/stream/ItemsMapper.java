@@ -0,0 +1,77 @@
+/*
+ * Copyright  2026 The BtrPlace Authors. All rights reserved.
+ * Use of this source code is governed by a LGPL-style
+ * license that can be found in the LICENSE.txt file.
+ */
+
+package org.btrplace.json.stream;
+
+import net.minidev.json.JSONObject;
+import net.minidev.json.writer.JsonReader;
+import net.minidev.json.writer.JsonReaderI;
+import org.btrplace.json.JSONConverterException;
+
+/**
+ * Parse an array of JSON objects and hand the objects over one at a time,
+ * as soon as they are parsed. The array itself is not stored.
+ *
+ * @author Fabien Hermenier
+ */
+class ItemsMapper extends JsonReaderI<Object> {
+
+    /**
+     * The consumer of the parsed objects.
+     */
+    @FunctionalInterface
+    interface Item {
+
+        /**
+         * Consume a parsed object.
+         *
+         * @param o the object
+         * @throws JSONConverterException if the object cannot be converted
+         */
+        void accept(JSONObject o) throws JSONConverterException;
+    }
+
+    private final Item consumer;
+
+    /**
+     * New mapper.
+     *
+     * @param base     the parser base
+     * @param consumer the consumer of each item
+     */
+    ItemsMapper(JsonReader base, Item consumer) {
+        super(base);
+        this.consumer = consumer;
+    }
+
+    @Override
+    public Object createArray() {
+        return this;
+    }
+
+    @Override
+    public JsonReaderI<?> startObject(String key) {
+        return base.DEFAULT;
+    }
+
+    @Override
+    public void addValue(Object current, Object value) {
+        if (!(value instanceof JSONObject)) {
+            throw new UncheckedJSONConverterException("Expected an array of JSONObject but got an array of "
+                    + (value == null ? "null" : value.getClass().getName()));
+        }
+        try {
+            consumer.accept((JSONObject) value);
+        } catch (JSONConverterException ex) {
+            throw new UncheckedJSONConverterException(ex);
+        }
+    }
+
+    @Override
+    public Object convert(Object current) {
+        return current;
+    }
+}
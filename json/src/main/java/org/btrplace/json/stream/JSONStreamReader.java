@@ -0,0 +1,279 @@
+/*
+ * Copyright  2026 The BtrPlace Authors. All rights reserved.
+ * Use of this source code is governed by a LGPL-style
+ * license that can be found in the LICENSE.txt file.
+ */
+
+package org.btrplace.json.stream;
+
+import net.minidev.json.JSONObject;
+import net.minidev.json.parser.JSONParser;
+import net.minidev.json.parser.ParseException;
+import net.minidev.json.writer.JsonReader;
+import net.minidev.json.writer.JsonReaderI;
+import org.btrplace.json.JSONConverterException;
+import org.btrplace.json.model.InstanceConverter;
+import org.btrplace.json.model.constraint.ConstraintsConverter;
+import org.btrplace.json.model.view.ModelViewsConverter;
+import org.btrplace.json.plan.ReconfigurationPlanConverter;
+import org.btrplace.model.Instance;
+import org.btrplace.model.Model;
+import org.btrplace.model.constraint.OptConstraint;
+import org.btrplace.model.constraint.SatConstraint;
+import org.btrplace.plan.DefaultReconfigurationPlan;
+import org.btrplace.plan.ReconfigurationPlan;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read instances and plans in the JSON format without building the JSON tree first.
+ * <p>
+ * The parser notifies the reader as the tokens arrive. The elements are declared and placed
+ * in the mapping directly, the {@link org.btrplace.model.view.ShareableResource} values are
+ * stored into primitive maps, and the constraints and the actions are converted one at a time
+ * as soon as the model they refer to is parsed.
+ * The accepted format is the one of {@link InstanceConverter} and {@link ReconfigurationPlanConverter}.
+ * When the model is not the first entry of a document, the constraints or the actions are
+ * kept until the model is parsed.
+ * <p>
+ * A reader is stateless and can be used by several threads.
+ *
+ * @author Fabien Hermenier
+ */
+public class JSONStreamReader {
+
+    private final ModelViewsConverter viewsConverter;
+
+    private final ConstraintsConverter cstrsConverter;
+
+    private final ReconfigurationPlanConverter planConverter;
+
+    /**
+     * New reader that supports the views, the constraints and the actions bundled in btrplace.
+     */
+    public JSONStreamReader() {
+        this(new InstanceConverter(), ReconfigurationPlanConverter.newBundle());
+    }
+
+    /**
+     * New reader.
+     *
+     * @param ic the converter that provides the view and the constraint converters
+     * @param pc the converter that provides the action converters
+     */
+    public JSONStreamReader(InstanceConverter ic, ReconfigurationPlanConverter pc) {
+        viewsConverter = ic.getModelConverter().getViewsConverter();
+        cstrsConverter = ic.getConstraintsConverter();
+        planConverter = pc;
+    }
+
+    /**
+     * Read an instance.
+     *
+     * @param r the stream to read
+     * @return the resulting instance
+     * @throws JSONConverterException if the stream cannot be parsed
+     */
+    public Instance readInstance(Reader r) throws JSONConverterException {
+        JsonReader base = new JsonReader();
+        return parse(r, new InstanceMapper(base));
+    }
+
+    /**
+     * Read a reconfiguration plan.
+     *
+     * @param r the stream to read
+     * @return the resulting plan
+     * @throws JSONConverterException if the stream cannot be parsed
+     */
+    public ReconfigurationPlan readReconfigurationPlan(Reader r) throws JSONConverterException {
+        JsonReader base = new JsonReader();
+        return parse(r, new PlanMapper(base));
+    }
+
+    /**
+     * Read a model.
+     *
+     * @param r the stream to read
+     * @return the resulting model
+     * @throws JSONConverterException if the stream cannot be parsed
+     */
+    public Model readModel(Reader r) throws JSONConverterException {
+        JsonReader base = new JsonReader();
+        return parse(r, new ModelMapper(base, viewsConverter));
+    }
+
+    private static <T> T parse(Reader r, JsonReaderI<T> mapper) throws JSONConverterException {
+        try {
+            JSONParser p = new JSONParser(JSONParser.MODE_RFC4627);
+            return p.parse(r, mapper);
+        } catch (ParseException ex) {
+            throw new JSONConverterException(ex);
+        } catch (UncheckedJSONConverterException ex) {
+            throw ex.getCause();
+        } catch (ClassCastException | IllegalArgumentException ex) {
+            throw new JSONConverterException(ex);
+        }
+    }
+
+    /**
+     * Parse an instance.
+     */
+    private class InstanceMapper extends JsonReaderI<Instance> {
+
+        private Model mo;
+
+        private final List<SatConstraint> cstrs = new ArrayList<>();
+
+        private final List<JSONObject> pending = new ArrayList<>();
+
+        private boolean constraints;
+
+        private JSONObject objective;
+
+        InstanceMapper(JsonReader base) {
+            super(base);
+        }
+
+        @Override
+        public Object createObject() {
+            return this;
+        }
+
+        @Override
+        public JsonReaderI<?> startObject(String key) {
+            if ("model".equals(key)) {
+                return new ModelMapper(base, viewsConverter);
+            }
+            return base.DEFAULT;
+        }
+
+        @Override
+        public JsonReaderI<?> startArray(String key) {
+            if ("constraints".equals(key)) {
+                return new ItemsMapper(base, this::onConstraint);
+            }
+            return base.DEFAULT;
+        }
+
+        private void onConstraint(JSONObject o) throws JSONConverterException {
+            if (mo == null) {
+                pending.add(o);
+            } else {
+                cstrs.add((SatConstraint) cstrsConverter.fromJSON(mo, o));
+            }
+        }
+
+        @Override
+        public void setValue(Object current, String key, Object value) {
+            try {
+                if ("model".equals(key) && value instanceof Model) {
+                    mo = (Model) value;
+                    for (JSONObject o : pending) {
+                        onConstraint(o);
+                    }
+                    pending.clear();
+                } else if ("constraints".equals(key)) {
+                    constraints = value instanceof ItemsMapper;
+                } else if ("objective".equals(key) && value instanceof JSONObject) {
+                    objective = (JSONObject) value;
+                }
+            } catch (JSONConverterException ex) {
+                throw new UncheckedJSONConverterException(ex);
+            }
+        }
+
+        @Override
+        public Instance convert(Object current) {
+            if (mo == null) {
+                throw new UncheckedJSONConverterException("Missing key 'model'");
+            }
+            if (!constraints) {
+                throw new UncheckedJSONConverterException("Missing key 'constraints'");
+            }
+            if (objective == null) {
+                throw new UncheckedJSONConverterException("Missing key 'objective'");
+            }
+            try {
+                return new Instance(mo, cstrs, (OptConstraint) cstrsConverter.fromJSON(mo, objective));
+            } catch (JSONConverterException ex) {
+                throw new UncheckedJSONConverterException(ex);
+            }
+        }
+    }
+
+    /**
+     * Parse a plan.
+     */
+    private class PlanMapper extends JsonReaderI<ReconfigurationPlan> {
+
+        private ReconfigurationPlan plan;
+
+        private final List<JSONObject> pending = new ArrayList<>();
+
+        private boolean parsedActions;
+
+        PlanMapper(JsonReader base) {
+            super(base);
+        }
+
+        @Override
+        public Object createObject() {
+            return this;
+        }
+
+        @Override
+        public JsonReaderI<?> startObject(String key) {
+            if (ReconfigurationPlanConverter.ORIGIN_LABEL.equals(key)) {
+                return new ModelMapper(base, planConverter.getModelConverter().getViewsConverter());
+            }
+            return base.DEFAULT;
+        }
+
+        @Override
+        public JsonReaderI<?> startArray(String key) {
+            if (ReconfigurationPlanConverter.ACTIONS_LABEL.equals(key)) {
+                return new ItemsMapper(base, this::onAction);
+            }
+            return base.DEFAULT;
+        }
+
+        private void onAction(JSONObject o) throws JSONConverterException {
+            if (plan == null) {
+                pending.add(o);
+            } else {
+                plan.add(planConverter.actionFromJSON(plan.getOrigin(), o));
+            }
+        }
+
+        @Override
+        public void setValue(Object current, String key, Object value) {
+            try {
+                if (ReconfigurationPlanConverter.ORIGIN_LABEL.equals(key) && value instanceof Model) {
+                    plan = new DefaultReconfigurationPlan((Model) value);
+                    for (JSONObject o : pending) {
+                        onAction(o);
+                    }
+                    pending.clear();
+                } else if (ReconfigurationPlanConverter.ACTIONS_LABEL.equals(key)) {
+                    parsedActions = value instanceof ItemsMapper;
+                }
+            } catch (JSONConverterException ex) {
+                throw new UncheckedJSONConverterException(ex);
+            }
+        }
+
+        @Override
+        public ReconfigurationPlan convert(Object current) {
+            if (plan == null) {
+                throw new UncheckedJSONConverterException("Missing key '" + ReconfigurationPlanConverter.ORIGIN_LABEL + "'");
+            }
+            if (!parsedActions) {
+                throw new UncheckedJSONConverterException("Missing key '" + ReconfigurationPlanConverter.ACTIONS_LABEL + "'");
+            }
+            return plan;
+        }
+    }
+}
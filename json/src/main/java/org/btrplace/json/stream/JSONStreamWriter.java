@@ -0,0 +1,228 @@
+/*
+ * Copyright  2026 The BtrPlace Authors. All rights reserved.
+ * Use of this source code is governed by a LGPL-style
+ * license that can be found in the LICENSE.txt file.
+ */
+
+package org.btrplace.json.stream;
+
+import net.minidev.json.JSONValue;
+import org.btrplace.json.JSONConverterException;
+import org.btrplace.json.model.AttributesConverter;
+import org.btrplace.json.model.InstanceConverter;
+import org.btrplace.json.model.ModelConverter;
+import org.btrplace.json.model.constraint.ConstraintsConverter;
+import org.btrplace.json.model.view.ModelViewConverter;
+import org.btrplace.json.model.view.ModelViewsConverter;
+import org.btrplace.json.model.view.ShareableResourceConverter;
+import org.btrplace.json.plan.ReconfigurationPlanConverter;
+import org.btrplace.model.Element;
+import org.btrplace.model.Instance;
+import org.btrplace.model.Mapping;
+import org.btrplace.model.Model;
+import org.btrplace.model.Node;
+import org.btrplace.model.constraint.SatConstraint;
+import org.btrplace.model.view.ModelView;
+import org.btrplace.model.view.ShareableResource;
+import org.btrplace.plan.ReconfigurationPlan;
+import org.btrplace.plan.event.Action;
+import org.btrplace.util.IntMap;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+
+/**
+ * Write instances and plans in the JSON format without building the JSON tree first.
+ * <p>
+ * The mapping and the {@link ShareableResource} views are written element by element
+ * while the constraints, the other views and the actions are serialised one at a time
+ * using the regular converters. The memory footprint is then bounded by the largest
+ * constraint, view or action instead of the whole document.
+ * <p>
+ * The output is readable by both {@link InstanceConverter} or {@link ReconfigurationPlanConverter}
+ * and {@link JSONStreamReader}. The model is written before the constraints and the actions,
+ * so {@link JSONStreamReader} can convert them as they are parsed.
+ *
+ * @author Fabien Hermenier
+ */
+public class JSONStreamWriter {
+
+    private final ModelViewsConverter viewsConverter;
+
+    private final ConstraintsConverter cstrsConverter;
+
+    private final ReconfigurationPlanConverter planConverter;
+
+    /**
+     * New writer that supports the views, the constraints and the actions bundled in btrplace.
+     */
+    public JSONStreamWriter() {
+        this(new InstanceConverter(), ReconfigurationPlanConverter.newBundle());
+    }
+
+    /**
+     * New writer.
+     *
+     * @param ic the converter that provides the view and the constraint converters
+     * @param pc the converter that provides the action converters
+     */
+    public JSONStreamWriter(InstanceConverter ic, ReconfigurationPlanConverter pc) {
+        viewsConverter = ic.getModelConverter().getViewsConverter();
+        cstrsConverter = ic.getConstraintsConverter();
+        planConverter = pc;
+    }
+
+    /**
+     * Write an instance.
+     *
+     * @param i the instance to write
+     * @param a the stream to write on
+     * @throws JSONConverterException if a conversion failed
+     * @throws IOException            if an error occurred while writing
+     */
+    public void write(Instance i, Appendable a) throws JSONConverterException, IOException {
+        a.append("{\"model\":");
+        write(i.getModel(), a);
+        a.append(",\"constraints\":[");
+        boolean first = true;
+        for (SatConstraint c : i.getSatConstraints()) {
+            if (!first) {
+                a.append(',');
+            }
+            cstrsConverter.toJSON(c).writeJSONString(a);
+            first = false;
+        }
+        a.append("],\"objective\":");
+        cstrsConverter.toJSON(i.getOptConstraint()).writeJSONString(a);
+        a.append('}');
+    }
+
+    /**
+     * Write a reconfiguration plan.
+     *
+     * @param p the plan to write
+     * @param a the stream to write on
+     * @throws JSONConverterException if a conversion failed
+     * @throws IOException            if an error occurred while writing
+     */
+    public void write(ReconfigurationPlan p, Appendable a) throws JSONConverterException, IOException {
+        a.append("{\"" + ReconfigurationPlanConverter.ORIGIN_LABEL + "\":");
+        write(p.getOrigin(), a);
+        a.append(",\"" + ReconfigurationPlanConverter.ACTIONS_LABEL + "\":[");
+        boolean first = true;
+        for (Action action : p.getActions()) {
+            if (!first) {
+                a.append(',');
+            }
+            planConverter.actionToJSON(action).writeJSONString(a);
+            first = false;
+        }
+        a.append("]}");
+    }
+
+    /**
+     * Write a model.
+     *
+     * @param mo the model to write
+     * @param a  the stream to write on
+     * @throws JSONConverterException if a conversion failed
+     * @throws IOException            if an error occurred while writing
+     */
+    public void write(Model mo, Appendable a) throws JSONConverterException, IOException {
+        a.append("{\"" + ModelConverter.MAPPING_LABEL + "\":");
+        writeMapping(mo.getMapping(), a);
+        a.append(",\"" + ModelConverter.ATTRS_LABEL + "\":");
+        AttributesConverter.toJSON(mo.getAttributes()).writeJSONString(a);
+        a.append(",\"" + ModelConverter.VIEWS_LABEL + "\":[");
+        boolean first = true;
+        for (ModelView v : mo.getViews()) {
+            if (!first) {
+                a.append(',');
+            }
+            if (v.getClass() == ShareableResource.class) {
+                writeResource((ShareableResource) v, a);
+            } else {
+                viewsConverter.toJSON(v).writeJSONString(a);
+            }
+            first = false;
+        }
+        a.append("]}");
+    }
+
+    private static void writeMapping(Mapping map, Appendable a) throws IOException {
+        a.append("{\"offlineNodes\":");
+        writeElements(map.getOfflineNodes(), a);
+        a.append(",\"readyVMs\":");
+        writeElements(map.getReadyVMs(), a);
+        a.append(",\"onlineNodes\":{");
+        boolean first = true;
+        for (Node n : map.getOnlineNodes()) {
+            if (!first) {
+                a.append(',');
+            }
+            a.append('"').append(Integer.toString(n.id())).append("\":{\"runningVMs\":");
+            writeElements(map.getRunningVMs(n), a);
+            a.append(",\"sleepingVMs\":");
+            writeElements(map.getSleepingVMs(n), a);
+            a.append('}');
+            first = false;
+        }
+        a.append("}}");
+    }
+
+    private static void writeElements(Collection<? extends Element> elems, Appendable a) throws IOException {
+        a.append('[');
+        boolean first = true;
+        for (Element e : elems) {
+            if (!first) {
+                a.append(',');
+            }
+            a.append(Integer.toString(e.id()));
+            first = false;
+        }
+        a.append(']');
+    }
+
+    /**
+     * Write a resource the way {@link ShareableResourceConverter} does.
+     */
+    private static void writeResource(ShareableResource rc, Appendable a) throws IOException {
+        a.append("{\"" + ModelViewConverter.IDENTIFIER + "\":\"shareableResource\",\"")
+                .append(ShareableResourceConverter.DEFAULT_CONSUMPTION).append("\":")
+                .append(Integer.toString(rc.getDefaultConsumption()))
+                .append(",\"").append(ShareableResourceConverter.DEFAULT_CAPACITY).append("\":")
+                .append(Integer.toString(rc.getDefaultCapacity()))
+                .append(",\"rcId\":");
+        JSONValue.writeJSONString(rc.getResourceIdentifier(), a);
+        try {
+            a.append(",\"vms\":");
+            rc.forEachVMId(values(a));
+            a.append("},\"" + ShareableResourceConverter.NODES_LABEL + "\":");
+            rc.forEachNodeId(values(a));
+            a.append("}}");
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    /**
+     * Make an entry that writes a JSON object, except the closing brace.
+     */
+    private static IntMap.Entry values(Appendable a) throws IOException {
+        a.append('{');
+        boolean[] first = {true};
+        return (id, v) -> {
+            try {
+                if (!first[0]) {
+                    a.append(',');
+                }
+                a.append('"').append(Integer.toString(id)).append("\":").append(Integer.toString(v));
+                first[0] = false;
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            return true;
+        };
+    }
+}
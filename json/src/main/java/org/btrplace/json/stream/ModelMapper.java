@@ -0,0 +1,555 @@
+/*
+ * Copyright  2026 The BtrPlace Authors. All rights reserved.
+ * Use of this source code is governed by a LGPL-style
+ * license that can be found in the LICENSE.txt file.
+ */
+
+package org.btrplace.json.stream;
+
+import gnu.trove.iterator.TIntIntIterator;
+import gnu.trove.map.hash.TIntIntHashMap;
+import net.minidev.json.JSONObject;
+import net.minidev.json.writer.JsonReader;
+import net.minidev.json.writer.JsonReaderI;
+import org.btrplace.json.JSONConverterException;
+import org.btrplace.json.model.AttributesConverter;
+import org.btrplace.json.model.ModelConverter;
+import org.btrplace.json.model.view.ModelViewConverter;
+import org.btrplace.json.model.view.ModelViewsConverter;
+import org.btrplace.json.model.view.ShareableResourceConverter;
+import org.btrplace.model.DefaultModel;
+import org.btrplace.model.Mapping;
+import org.btrplace.model.Model;
+import org.btrplace.model.Node;
+import org.btrplace.model.VM;
+import org.btrplace.model.view.ShareableResource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.btrplace.json.JSONs.checkKeys;
+import static org.btrplace.json.JSONs.getNode;
+import static org.btrplace.json.JSONs.getVM;
+import static org.btrplace.json.JSONs.requiredInt;
+import static org.btrplace.json.JSONs.requiredString;
+
+/**
+ * Parse a model, in the format of {@link ModelConverter}.
+ * <p>
+ * The elements are declared and placed in the mapping as their identifiers are parsed.
+ * The consumptions and the capacities of a {@link ShareableResource} are stored
+ * into primitive maps. As the attributes and the views refer to the elements,
+ * they are converted once the whole model is parsed.
+ * <p>
+ * A mapper parses a single model.
+ *
+ * @author Fabien Hermenier
+ */
+class ModelMapper extends JsonReaderI<Model> {
+
+    private static final String SHAREABLE_RESOURCE = "shareableResource";
+
+    private static final String RC_ID = "rcId";
+
+    private static final String VMS = "vms";
+
+    private final ModelViewsConverter viewsConverter;
+
+    private Model mo;
+
+    private boolean mapping;
+
+    private JSONObject attributes;
+
+    private List<JSONObject> views;
+
+    /**
+     * New mapper.
+     *
+     * @param base the parser base
+     * @param vc   the converter for the views
+     */
+    ModelMapper(JsonReader base, ModelViewsConverter vc) {
+        super(base);
+        viewsConverter = vc;
+    }
+
+    @Override
+    public Object createObject() {
+        mo = new DefaultModel();
+        return mo;
+    }
+
+    @Override
+    public JsonReaderI<?> startObject(String key) {
+        if (ModelConverter.MAPPING_LABEL.equals(key)) {
+            return new MappingMapper(base, mo);
+        }
+        return base.DEFAULT;
+    }
+
+    @Override
+    public JsonReaderI<?> startArray(String key) {
+        if (ModelConverter.VIEWS_LABEL.equals(key)) {
+            return new ViewsMapper(base);
+        }
+        return base.DEFAULT;
+    }
+
+    @Override
+    public void setValue(Object current, String key, Object value) {
+        if (ModelConverter.MAPPING_LABEL.equals(key)) {
+            mapping = value instanceof Mapping;
+        } else if (ModelConverter.ATTRS_LABEL.equals(key) && value instanceof JSONObject) {
+            attributes = (JSONObject) value;
+        } else if (ModelConverter.VIEWS_LABEL.equals(key) && value instanceof ViewsMapper) {
+            views = ((ViewsMapper) value).views;
+        }
+    }
+
+    @Override
+    public Model convert(Object current) {
+        try {
+            if (!mapping) {
+                throw new JSONConverterException("Missing key '" + ModelConverter.MAPPING_LABEL + "'");
+            }
+            if (attributes == null) {
+                throw new JSONConverterException("Missing key '" + ModelConverter.ATTRS_LABEL + "'");
+            }
+            if (views == null) {
+                throw new JSONConverterException("Missing key '" + ModelConverter.VIEWS_LABEL + "'");
+            }
+            mo.setAttributes(AttributesConverter.fromJSON(mo, attributes));
+            for (JSONObject v : views) {
+                if (isCompactResource(v)) {
+                    mo.attach(resourceFromJSON(v));
+                } else {
+                    mo.attach(viewsConverter.fromJSON(mo, expand(v)));
+                }
+            }
+        } catch (JSONConverterException ex) {
+            throw new UncheckedJSONConverterException(ex);
+        }
+        return mo;
+    }
+
+    private boolean isCompactResource(JSONObject v) {
+        return SHAREABLE_RESOURCE.equals(v.get(ModelViewConverter.IDENTIFIER))
+                && viewsConverter.getSupportedJSONViews().contains(SHAREABLE_RESOURCE)
+                && isCompact(v.get(VMS))
+                && isCompact(v.get(ShareableResourceConverter.NODES_LABEL));
+    }
+
+    private static boolean isCompact(Object o) {
+        return o instanceof IntValues && ((IntValues) o).others == null;
+    }
+
+    /**
+     * Build a resource the way {@link ShareableResourceConverter} does, from the primitive maps.
+     */
+    private ShareableResource resourceFromJSON(JSONObject o) throws JSONConverterException {
+        checkKeys(o, ShareableResourceConverter.DEFAULT_CAPACITY, ShareableResourceConverter.DEFAULT_CONSUMPTION);
+        ShareableResource rc = new ShareableResource(requiredString(o, RC_ID),
+                requiredInt(o, ShareableResourceConverter.DEFAULT_CAPACITY),
+                requiredInt(o, ShareableResourceConverter.DEFAULT_CONSUMPTION));
+
+        TIntIntHashMap vms = ((IntValues) o.get(VMS)).ints;
+        rc.minVMBackendCapacity(vms.size());
+        for (TIntIntIterator ite = vms.iterator(); ite.hasNext(); ) {
+            ite.advance();
+            rc.setConsumption(getVM(mo, ite.key()), ite.value());
+        }
+
+        TIntIntHashMap nodes = ((IntValues) o.get(ShareableResourceConverter.NODES_LABEL)).ints;
+        rc.minNodeBackendCapacity(nodes.size());
+        for (TIntIntIterator ite = nodes.iterator(); ite.hasNext(); ) {
+            ite.advance();
+            rc.setCapacity(getNode(mo, ite.key()), ite.value());
+        }
+        return rc;
+    }
+
+    /**
+     * Get back the plain JSON representation of a view.
+     */
+    private static JSONObject expand(JSONObject v) {
+        for (Map.Entry<String, Object> e : v.entrySet()) {
+            if (e.getValue() instanceof IntValues) {
+                e.setValue(((IntValues) e.getValue()).toJSON());
+            }
+        }
+        return v;
+    }
+
+    /**
+     * Consumer of element identifiers.
+     */
+    @FunctionalInterface
+    private interface ElementConsumer {
+        void accept(int id) throws JSONConverterException;
+    }
+
+    /**
+     * Parse an array of element identifiers.
+     */
+    private static class ElementsMapper extends JsonReaderI<Object> {
+
+        private final ElementConsumer consumer;
+
+        ElementsMapper(JsonReader base, ElementConsumer c) {
+            super(base);
+            consumer = c;
+        }
+
+        @Override
+        public Object createArray() {
+            return this;
+        }
+
+        @Override
+        public void addValue(Object current, Object value) {
+            try {
+                if (!(value instanceof Number)) {
+                    throw new JSONConverterException("Expected an array of element identifiers but got '" + value + "'");
+                }
+                consumer.accept(((Number) value).intValue());
+            } catch (JSONConverterException ex) {
+                throw new UncheckedJSONConverterException(ex);
+            }
+        }
+
+        @Override
+        public Object convert(Object current) {
+            return current;
+        }
+    }
+
+    /**
+     * Declare a new node.
+     */
+    private static Node newNode(Model mo, int id) throws JSONConverterException {
+        Node n = mo.newNode(id);
+        if (n == null) {
+            throw JSONConverterException.nodeAlreadyDeclared(id);
+        }
+        return n;
+    }
+
+    /**
+     * Declare a new VM.
+     */
+    private static VM newVM(Model mo, int id) throws JSONConverterException {
+        VM v = mo.newVM(id);
+        if (v == null) {
+            throw JSONConverterException.vmAlreadyDeclared(id);
+        }
+        return v;
+    }
+
+    /**
+     * Check that arrays of element identifiers were parsed for the given keys.
+     */
+    private static void checkArrays(JSONObject parsed, String... keys) {
+        for (String k : keys) {
+            Object o = parsed.get(k);
+            if (o == null) {
+                throw new UncheckedJSONConverterException("Missing key '" + k + "'");
+            }
+            if (!(o instanceof ElementsMapper)) {
+                throw new UncheckedJSONConverterException("array expected at key '" + k + "'");
+            }
+        }
+    }
+
+    /**
+     * Parse the mapping.
+     */
+    private static class MappingMapper extends JsonReaderI<Object> {
+
+        private final Model mo;
+
+        private final JSONObject parsed = new JSONObject();
+
+        MappingMapper(JsonReader base, Model mo) {
+            super(base);
+            this.mo = mo;
+        }
+
+        @Override
+        public Object createObject() {
+            return mo.getMapping();
+        }
+
+        @Override
+        public JsonReaderI<?> startArray(String key) {
+            Mapping map = mo.getMapping();
+            if ("offlineNodes".equals(key)) {
+                return new ElementsMapper(base, id -> map.addOfflineNode(newNode(mo, id)));
+            } else if ("readyVMs".equals(key)) {
+                return new ElementsMapper(base, id -> map.addReadyVM(newVM(mo, id)));
+            }
+            return base.DEFAULT;
+        }
+
+        @Override
+        public JsonReaderI<?> startObject(String key) {
+            if ("onlineNodes".equals(key)) {
+                return new OnlineNodesMapper(base, mo);
+            }
+            return base.DEFAULT;
+        }
+
+        @Override
+        public void setValue(Object current, String key, Object value) {
+            parsed.put(key, value);
+        }
+
+        @Override
+        public Object convert(Object current) {
+            checkArrays(parsed, "offlineNodes", "readyVMs");
+            if (!(parsed.get("onlineNodes") instanceof OnlineNodesMapper)) {
+                throw new UncheckedJSONConverterException("Missing key 'onlineNodes'");
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Parse the online nodes and their VMs.
+     */
+    private static class OnlineNodesMapper extends JsonReaderI<Object> {
+
+        private final Model mo;
+
+        OnlineNodesMapper(JsonReader base, Model mo) {
+            super(base);
+            this.mo = mo;
+        }
+
+        @Override
+        public Object createObject() {
+            return this;
+        }
+
+        @Override
+        public JsonReaderI<?> startObject(String key) {
+            try {
+                Node n = newNode(mo, Integer.parseInt(key));
+                mo.getMapping().addOnlineNode(n);
+                return new HostedVMsMapper(base, mo, n);
+            } catch (NumberFormatException ex) {
+                throw new UncheckedJSONConverterException(new JSONConverterException("Invalid node identifier '" + key + "'", ex));
+            } catch (JSONConverterException ex) {
+                throw new UncheckedJSONConverterException(ex);
+            }
+        }
+
+        @Override
+        public void setValue(Object current, String key, Object value) {
+            if (!(value instanceof HostedVMsMapper)) {
+                throw new UncheckedJSONConverterException("object expected for node '" + key + "'");
+            }
+        }
+
+        @Override
+        public Object convert(Object current) {
+            return current;
+        }
+    }
+
+    /**
+     * Parse the VMs hosted by an online node.
+     */
+    private static class HostedVMsMapper extends JsonReaderI<Object> {
+
+        private final Model mo;
+
+        private final Node node;
+
+        private final JSONObject parsed = new JSONObject();
+
+        HostedVMsMapper(JsonReader base, Model mo, Node n) {
+            super(base);
+            this.mo = mo;
+            this.node = n;
+        }
+
+        @Override
+        public Object createObject() {
+            return this;
+        }
+
+        @Override
+        public JsonReaderI<?> startArray(String key) {
+            Mapping map = mo.getMapping();
+            if ("runningVMs".equals(key)) {
+                return new ElementsMapper(base, id -> map.addRunningVM(newVM(mo, id), node));
+            } else if ("sleepingVMs".equals(key)) {
+                return new ElementsMapper(base, id -> map.addSleepingVM(newVM(mo, id), node));
+            }
+            return base.DEFAULT;
+        }
+
+        @Override
+        public JsonReaderI<?> startObject(String key) {
+            return base.DEFAULT;
+        }
+
+        @Override
+        public void setValue(Object current, String key, Object value) {
+            parsed.put(key, value);
+        }
+
+        @Override
+        public Object convert(Object current) {
+            checkArrays(parsed, "runningVMs", "sleepingVMs");
+            return current;
+        }
+    }
+
+    /**
+     * Parse the views. Each view is stored as a JSON object but the
+     * VM and node values are stored into {@link IntValues}.
+     */
+    private static class ViewsMapper extends JsonReaderI<Object> {
+
+        private final List<JSONObject> views = new ArrayList<>();
+
+        ViewsMapper(JsonReader base) {
+            super(base);
+        }
+
+        @Override
+        public Object createArray() {
+            return this;
+        }
+
+        @Override
+        public JsonReaderI<?> startObject(String key) {
+            return new ViewMapper(base);
+        }
+
+        @Override
+        public void addValue(Object current, Object value) {
+            if (!(value instanceof JSONObject)) {
+                throw new UncheckedJSONConverterException("Expected an array of JSONObject but got an array of "
+                        + (value == null ? "null" : value.getClass().getName()));
+            }
+            views.add((JSONObject) value);
+        }
+
+        @Override
+        public Object convert(Object current) {
+            return current;
+        }
+    }
+
+    /**
+     * Parse a view.
+     */
+    private static class ViewMapper extends JsonReaderI<JSONObject> {
+
+        ViewMapper(JsonReader base) {
+            super(base);
+        }
+
+        @Override
+        public Object createObject() {
+            return new JSONObject();
+        }
+
+        @Override
+        public JsonReaderI<?> startObject(String key) {
+            if (VMS.equals(key) || ShareableResourceConverter.NODES_LABEL.equals(key)) {
+                return new IntValuesMapper(base);
+            }
+            return base.DEFAULT;
+        }
+
+        @Override
+        public JsonReaderI<?> startArray(String key) {
+            return base.DEFAULT;
+        }
+
+        @Override
+        public void setValue(Object current, String key, Object value) {
+            ((JSONObject) current).put(key, value);
+        }
+
+        @Override
+        public JSONObject convert(Object current) {
+            return (JSONObject) current;
+        }
+    }
+
+    /**
+     * The values of a JSON object having element identifiers as keys.
+     * The integer values are stored in a primitive map, the others in {@link #others}.
+     */
+    private static class IntValues {
+
+        private final TIntIntHashMap ints = new TIntIntHashMap();
+
+        private JSONObject others;
+
+        void put(String key, Object value) {
+            if (value instanceof Integer) {
+                try {
+                    ints.put(Integer.parseInt(key), (Integer) value);
+                    return;
+                } catch (NumberFormatException ex) {
+                    //Not an element identifier. Stored as is.
+                }
+            }
+            if (others == null) {
+                others = new JSONObject();
+            }
+            others.put(key, value);
+        }
+
+        JSONObject toJSON() {
+            JSONObject o = others == null ? new JSONObject() : others;
+            for (TIntIntIterator ite = ints.iterator(); ite.hasNext(); ) {
+                ite.advance();
+                o.put(Integer.toString(ite.key()), ite.value());
+            }
+            return o;
+        }
+    }
+
+    /**
+     * Parse an object having element identifiers as keys.
+     */
+    private static class IntValuesMapper extends JsonReaderI<IntValues> {
+
+        IntValuesMapper(JsonReader base) {
+            super(base);
+        }
+
+        @Override
+        public Object createObject() {
+            return new IntValues();
+        }
+
+        @Override
+        public JsonReaderI<?> startObject(String key) {
+            return base.DEFAULT;
+        }
+
+        @Override
+        public JsonReaderI<?> startArray(String key) {
+            return base.DEFAULT;
+        }
+
+        @Override
+        public void setValue(Object current, String key, Object value) {
+            ((IntValues) current).put(key, value);
+        }
+
+        @Override
+        public IntValues convert(Object current) {
+            return (IntValues) current;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright  2026 The BtrPlace Authors. All rights reserved.
+ * Use of this source code is governed by a LGPL-style
+ * license that can be found in the LICENSE.txt file.
+ */
+
+package org.btrplace.json.stream;
+
+import org.btrplace.json.JSONConverterException;
+
+/**
+ * Carry a {@link JSONConverterException} through the parser callbacks
+ * that cannot throw it.
+ *
+ * @author Fabien Hermenier
+ */
+class UncheckedJSONConverterException extends RuntimeException {
+
+    /**
+     * New exception.
+     *
+     * @param cause the conversion error
+     */
+    UncheckedJSONConverterException(JSONConverterException cause) {
+        super(cause);
+    }
+
+    /**
+     * New exception.
+     *
+     * @param msg the conversion error message
+     */
+    UncheckedJSONConverterException(String msg) {
+        this(new JSONConverterException(msg));
+    }
+
+    @Override
+    public synchronized JSONConverterException getCause() {
+        return (JSONConverterException) super.getCause();
+    }
+}
@@ -0,0 +1,12 @@
+/*
+ * Copyright  2026 The BtrPlace Authors. All rights reserved.
+ * Use of this source code is governed by a LGPL-style
+ * license that can be found in the LICENSE.txt file.
+ */
+
+/**
+ * Streaming readers and writers for instances and plans.
+ * They produce and accept the format of the converters in {@link org.btrplace.json.model}
+ * and {@link org.btrplace.json.plan} without materialising the whole JSON tree.
+ */
+package org.btrplace.json.stream;
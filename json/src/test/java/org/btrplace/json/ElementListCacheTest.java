@@ -0,0 +1,71 @@
+/*
+ * Copyright  2026 The BtrPlace Authors. All rights reserved.
+ * Use of this source code is governed by a LGPL-style
+ * license that can be found in the LICENSE.txt file.
+ */
+
+package org.btrplace.json;
+
+import org.btrplace.model.VM;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Unit tests for {@link ElementListCache}.
+ *
+ * @author Fabien Hermenier
+ */
+public class ElementListCacheTest {
+
+    @Test
+    public void testHitsAndMisses() {
+        ElementListCache<VM> c = new ElementListCache<>(2);
+        Assert.assertEquals(c.capacity(), 2);
+        List<VM> l = Arrays.asList(new VM(1), new VM(2));
+        Assert.assertNull(c.get("[1,2]"));
+        c.put("[1,2]", l);
+        Assert.assertSame(c.get("[1,2]"), l);
+        Assert.assertEquals(c.hits(), 1);
+        Assert.assertEquals(c.misses(), 1);
+    }
+
+    @Test
+    public void testBounded() {
+        ElementListCache<VM> c = new ElementListCache<>(2);
+        c.put("[1]", Collections.singletonList(new VM(1)));
+        c.put("[2]", Collections.singletonList(new VM(2)));
+        //[1] becomes the most recently used
+        Assert.assertNotNull(c.get("[1]"));
+        c.put("[3]", Collections.singletonList(new VM(3)));
+        Assert.assertNull(c.get("[2]"));
+        Assert.assertNotNull(c.get("[1]"));
+        Assert.assertNotNull(c.get("[3]"));
+
+        ElementListCache<VM> disabled = new ElementListCache<>(0);
+        disabled.put("[1]", Collections.singletonList(new VM(1)));
+        Assert.assertNull(disabled.get("[1]"));
+    }
+
+    @Test
+    public void testPerThread() throws InterruptedException {
+        ElementListCache<VM> c = new ElementListCache<>(10);
+        c.put("[1]", Collections.singletonList(new VM(1)));
+        AtomicReference<List<VM>> res = new AtomicReference<>();
+        Thread t = new Thread(() -> res.set(c.get("[1]")));
+        t.start();
+        t.join();
+        Assert.assertNull(res.get());
+        //Counters are shared
+        Assert.assertEquals(c.misses(), 1);
+    }
+
+    @Test(expectedExceptions = {IllegalArgumentException.class})
+    public void testBadCapacity() {
+        new ElementListCache<VM>(-1);
+    }
+}
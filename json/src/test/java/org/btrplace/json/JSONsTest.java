@@ -6,11 +6,17 @@
 
 package org.btrplace.json;
 
+import net.minidev.json.JSONArray;
 import net.minidev.json.JSONObject;
+import org.btrplace.model.DefaultModel;
+import org.btrplace.model.Model;
+import org.btrplace.model.VM;
 import org.testng.Assert;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Random;
 
 
@@ -84,4 +90,20 @@ public class JSONsTest {
         obj.put(storeKey, o);
         JSONs.requiredDouble(obj, readKey);
     }
+
+    @Test
+    public void testVMsCache() throws JSONConverterException {
+        Model mo = new DefaultModel();
+        VM v1 = mo.newVM();
+        VM v2 = mo.newVM();
+        mo.getMapping().addReadyVM(v1);
+        mo.getMapping().addReadyVM(v2);
+        JSONArray a = JSONs.vmsToJSON(Arrays.asList(v1, v2));
+        ElementListCache<VM> cache = JSONs.vmsCache();
+        long hits = cache.hits();
+        List<VM> l = JSONs.vmsFromJSON(mo, a);
+        Assert.assertEquals(l, Arrays.asList(v1, v2));
+        Assert.assertSame(JSONs.vmsFromJSON(mo, a), l);
+        Assert.assertTrue(cache.hits() > hits);
+    }
 }
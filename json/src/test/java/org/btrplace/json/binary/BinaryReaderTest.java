@@ -0,0 +1,188 @@
+/*
+ * Copyright  2026 The BtrPlace Authors. All rights reserved.
+ * Use of this source code is governed by a LGPL-style
+ * license that can be found in the LICENSE.txt file.
+ */
+
+package org.btrplace.json.binary;
+
+import org.btrplace.json.JSONConverterException;
+import org.btrplace.json.model.InstanceConverter;
+import org.btrplace.json.model.ModelConverter;
+import org.btrplace.json.plan.ReconfigurationPlanConverter;
+import org.btrplace.model.DefaultModel;
+import org.btrplace.model.Instance;
+import org.btrplace.model.Model;
+import org.btrplace.model.Node;
+import org.btrplace.model.VM;
+import org.btrplace.model.constraint.Ban;
+import org.btrplace.model.constraint.MinMTTR;
+import org.btrplace.model.constraint.Preserve;
+import org.btrplace.model.constraint.SatConstraint;
+import org.btrplace.model.constraint.Spread;
+import org.btrplace.model.view.NamingService;
+import org.btrplace.model.view.ShareableResource;
+import org.btrplace.plan.DefaultReconfigurationPlan;
+import org.btrplace.plan.ReconfigurationPlan;
+import org.btrplace.plan.event.Action;
+import org.btrplace.plan.event.AllocateEvent;
+import org.btrplace.plan.event.BootNode;
+import org.btrplace.plan.event.BootVM;
+import org.btrplace.plan.event.MigrateVM;
+import org.btrplace.plan.event.ShutdownNode;
+import org.btrplace.plan.event.ShutdownVM;
+import org.btrplace.plan.event.SuspendVM;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Unit tests for {@link BinaryReader} and {@link BinaryWriter}.
+ * The binary round-trips must give the same results than the JSON ones.
+ *
+ * @author Fabien Hermenier
+ */
+public class BinaryReaderTest {
+
+    private static Model makeModel() {
+        Model mo = new DefaultModel();
+        Node n0 = mo.newNode();
+        Node n1 = mo.newNode();
+        Node n2 = mo.newNode();
+        Node n3 = mo.newNode(300);
+        VM v0 = mo.newVM();
+        VM v1 = mo.newVM();
+        VM v2 = mo.newVM();
+        VM v3 = mo.newVM();
+        VM v4 = mo.newVM(1000);
+        mo.getMapping().on(n0, n1, n3).off(n2).run(n0, v0, v1).run(n3, v4).sleep(n1, v2).ready(v3);
+
+        ShareableResource cpu = new ShareableResource("cpu", 8, 1);
+        cpu.setCapacity(n0, 4).setCapacity(n3, 200).setConsumption(v1, 3).setConsumption(v4, 1 << 20);
+        mo.attach(cpu);
+        mo.attach(new ShareableResource("mem"));
+
+        NamingService<Node> ns = NamingService.newNodeNS();
+        ns.register(n0, "n#0");
+        mo.attach(ns);
+
+        mo.getAttributes().put(v0, "template", "small");
+        mo.getAttributes().put(v4, "template", "large");
+        mo.getAttributes().put(v4, "clone", true);
+        mo.getAttributes().put(n1, "boot", -7);
+        mo.getAttributes().put(n3, "ratio", 1.5);
+        return mo;
+    }
+
+    private static byte[] bytes(BinaryWriterCall c) throws JSONConverterException, IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        c.write(new BinaryWriter(), out);
+        return out.toByteArray();
+    }
+
+    @FunctionalInterface
+    private interface BinaryWriterCall {
+        void write(BinaryWriter w, ByteArrayOutputStream out) throws JSONConverterException, IOException;
+    }
+
+    @Test
+    public void testModel() throws JSONConverterException, IOException {
+        Model mo = makeModel();
+        byte[] buf = bytes((w, out) -> w.write(mo, out));
+        Model res = new BinaryReader().readModel(new ByteArrayInputStream(buf));
+        ModelConverter mc = new ModelConverter();
+        Model fromJSON = mc.fromJSON(mc.toJSONString(mo));
+        Assert.assertEquals(res, mo);
+        Assert.assertEquals(res, fromJSON);
+        Assert.assertEquals(res.getAttributes(), fromJSON.getAttributes());
+        //Way smaller than the JSON document
+        Assert.assertTrue(buf.length < mc.toJSONString(mo).length() / 2);
+    }
+
+    @Test
+    public void testInstance() throws JSONConverterException, IOException {
+        Model mo = makeModel();
+        List<SatConstraint> cstrs = new ArrayList<>();
+        cstrs.add(new Spread(new HashSet<>(Arrays.asList(new VM(0), new VM(1))), false));
+        cstrs.add(new Ban(new VM(2), Collections.singleton(new Node(0))));
+        cstrs.add(new Preserve(new VM(0), "mem", 3));
+        Instance i = new Instance(mo, cstrs, new MinMTTR());
+
+        byte[] buf = bytes((w, out) -> w.write(i, out));
+        Instance res = new BinaryReader().readInstance(new ByteArrayInputStream(buf));
+        InstanceConverter ic = new InstanceConverter();
+        Assert.assertEquals(res, i);
+        Assert.assertEquals(res, ic.fromJSON(ic.toJSONString(i)));
+    }
+
+    @Test
+    public void testPlan() throws JSONConverterException, IOException {
+        ReconfigurationPlan p = new DefaultReconfigurationPlan(makeModel());
+        p.add(new MigrateVM(new VM(1), new Node(0), new Node(300), 0, 3, 100));
+        p.add(new BootVM(new VM(3), new Node(1), 1, 4));
+        p.add(new ShutdownVM(new VM(0), new Node(0), 1, 2));
+        p.add(new BootNode(new Node(2), 0, 5));
+        p.add(new ShutdownNode(new Node(0), 3, 5));
+        //Not natively supported
+        p.add(new SuspendVM(new VM(1000), new Node(300), new Node(300), 0, 2));
+        //With events
+        MigrateVM m = new MigrateVM(new VM(1000), new Node(300), new Node(1), 2, 6);
+        m.addEvent(Action.Hook.PRE, new AllocateEvent(new VM(1000), "cpu", 2));
+        p.add(m);
+
+        byte[] buf = bytes((w, out) -> w.write(p, out));
+        ReconfigurationPlan res = new BinaryReader().readReconfigurationPlan(new ByteArrayInputStream(buf));
+        ReconfigurationPlanConverter pc = ReconfigurationPlanConverter.newBundle();
+        ReconfigurationPlan fromJSON = pc.fromJSON(pc.toJSONString(p));
+        Assert.assertEquals(res, p);
+        Assert.assertEquals(res, fromJSON);
+        Assert.assertEquals(res.toString(), fromJSON.toString());
+    }
+
+    @Test(expectedExceptions = {JSONConverterException.class})
+    public void testWrongKind() throws JSONConverterException, IOException {
+        Model mo = makeModel();
+        byte[] buf = bytes((w, out) -> w.write(mo, out));
+        new BinaryReader().readInstance(new ByteArrayInputStream(buf));
+    }
+
+    @Test(expectedExceptions = {JSONConverterException.class})
+    public void testNotBinary() throws JSONConverterException, IOException {
+        new BinaryReader().readModel(new ByteArrayInputStream("{\"mapping\":{}}".getBytes()));
+    }
+
+    @Test(expectedExceptions = {IOException.class})
+    public void testTruncated() throws JSONConverterException, IOException {
+        Model mo = makeModel();
+        byte[] buf = bytes((w, out) -> w.write(mo, out));
+        new BinaryReader().readModel(new ByteArrayInputStream(Arrays.copyOf(buf, buf.length / 2)));
+    }
+
+    @Test
+    public void testVarInts() throws IOException {
+        int[] values = {0, 1, 127, 128, 16383, 16384, Integer.MAX_VALUE, -1, -64, Integer.MIN_VALUE};
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryOutput o = new BinaryOutput(out);
+        for (int v : values) {
+            o.writeVarInt(v);
+            o.writeSignedVarInt(v);
+        }
+        o.writeDouble(-2.5);
+        o.writeString("été");
+        BinaryInput i = new BinaryInput(new ByteArrayInputStream(out.toByteArray()));
+        for (int v : values) {
+            Assert.assertEquals(i.readVarInt(), v);
+            Assert.assertEquals(i.readSignedVarInt(), v);
+        }
+        Assert.assertEquals(i.readDouble(), -2.5);
+        Assert.assertEquals(i.readString(), "été");
+    }
+}
@@ -8,7 +8,9 @@ package org.btrplace.json.model;
 
 import net.minidev.json.JSONObject;
 import org.btrplace.json.JSONConverterException;
+import org.btrplace.model.AttributeKey;
 import org.btrplace.model.Attributes;
+import org.btrplace.model.ColumnarAttributes;
 import org.btrplace.model.DefaultAttributes;
 import org.btrplace.model.DefaultModel;
 import org.btrplace.model.Model;
@@ -46,4 +48,22 @@ public class AttributesConverterTest {
         Attributes attrs2 = AttributesConverter.fromJSON(mo, o);
         Assert.assertTrue(attrs.equals(attrs2));
     }
+
+    @Test
+    public void testColumnar() throws JSONConverterException {
+        Model mo = new DefaultModel();
+        Attributes attrs = new ColumnarAttributes();
+        VM vm = mo.newVM();
+        Node n = mo.newNode();
+        attrs.put(n, "boot", 7);
+        attrs.put(vm, "template", "xen");
+        attrs.put(vm, "clone", true);
+        attrs.put(vm, "foo", 1.3);
+
+        JSONObject o = AttributesConverter.toJSON(attrs);
+        Attributes attrs2 = AttributesConverter.fromJSON(mo, o, new ColumnarAttributes());
+        Assert.assertEquals(attrs2.getClass(), ColumnarAttributes.class);
+        Assert.assertEquals(attrs2, attrs);
+        Assert.assertEquals(attrs2.get(n, AttributeKey.of("boot"), -1), 7);
+    }
 }
@@ -0,0 +1,187 @@
+/*
+ * Copyright  2026 The BtrPlace Authors. All rights reserved.
+ * Use of this source code is governed by a LGPL-style
+ * license that can be found in the LICENSE.txt file.
+ */
+
+package org.btrplace.json.stream;
+
+import org.btrplace.json.JSONConverterException;
+import org.btrplace.json.model.InstanceConverter;
+import org.btrplace.json.model.ModelConverter;
+import org.btrplace.json.plan.ReconfigurationPlanConverter;
+import org.btrplace.model.DefaultModel;
+import org.btrplace.model.Instance;
+import org.btrplace.model.Mapping;
+import org.btrplace.model.Model;
+import org.btrplace.model.Node;
+import org.btrplace.model.VM;
+import org.btrplace.model.constraint.Ban;
+import org.btrplace.model.constraint.Fence;
+import org.btrplace.model.constraint.MinMTTR;
+import org.btrplace.model.constraint.Preserve;
+import org.btrplace.model.constraint.SatConstraint;
+import org.btrplace.model.constraint.Spread;
+import org.btrplace.model.view.NamingService;
+import org.btrplace.model.view.ShareableResource;
+import org.btrplace.plan.DefaultReconfigurationPlan;
+import org.btrplace.plan.ReconfigurationPlan;
+import org.btrplace.plan.event.Action;
+import org.btrplace.plan.event.AllocateEvent;
+import org.btrplace.plan.event.BootVM;
+import org.btrplace.plan.event.MigrateVM;
+import org.btrplace.plan.event.ShutdownNode;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Unit tests for {@link JSONStreamReader}.
+ *
+ * @author Fabien Hermenier
+ */
+public class JSONStreamReaderTest {
+
+    /**
+     * Make a model that exercises all the parts of the format.
+     */
+    static Model makeModel() {
+        Model mo = new DefaultModel();
+        Mapping map = mo.getMapping();
+        Node n1 = mo.newNode();
+        Node n2 = mo.newNode();
+        Node n3 = mo.newNode();
+        VM v1 = mo.newVM();
+        VM v2 = mo.newVM();
+        VM v3 = mo.newVM();
+        VM v4 = mo.newVM();
+        map.on(n1, n2).off(n3).run(n1, v1, v2).sleep(n2, v3).ready(v4);
+
+        ShareableResource cpu = new ShareableResource("cpu \"max\"", 8, 1);
+        cpu.setCapacity(n1, 4).setConsumption(v1, 3).setConsumption(v4, 0);
+        mo.attach(cpu);
+        mo.attach(new ShareableResource("mem"));
+
+        NamingService<VM> ns = NamingService.newVMNS();
+        ns.register(v1, "vm#1");
+        mo.attach(ns);
+
+        mo.getAttributes().put(v1, "template", "small");
+        mo.getAttributes().put(n2, "boot", 7);
+        return mo;
+    }
+
+    static Instance makeInstance() {
+        Model mo = makeModel();
+        List<SatConstraint> cstrs = new ArrayList<>();
+        cstrs.add(new Spread(new HashSet<>(Arrays.asList(new VM(0), new VM(1))), false));
+        cstrs.add(new Fence(new VM(3), Collections.singleton(new Node(1))));
+        cstrs.add(new Ban(new VM(2), Collections.singleton(new Node(0))));
+        cstrs.add(new Preserve(new VM(0), "mem", 3));
+        return new Instance(mo, cstrs, new MinMTTR());
+    }
+
+    static ReconfigurationPlan makePlan() {
+        ReconfigurationPlan p = new DefaultReconfigurationPlan(makeModel());
+        MigrateVM m = new MigrateVM(new VM(1), new Node(0), new Node(1), 0, 3, 100);
+        m.addEvent(Action.Hook.PRE, new AllocateEvent(new VM(1), "cpu \"max\"", 2));
+        p.add(m);
+        p.add(new BootVM(new VM(3), new Node(1), 1, 4));
+        p.add(new ShutdownNode(new Node(0), 3, 5));
+        return p;
+    }
+
+    @Test
+    public void testReadInstance() throws JSONConverterException {
+        Instance i = makeInstance();
+        String json = new InstanceConverter().toJSONString(i);
+        Instance res = new JSONStreamReader().readInstance(new StringReader(json));
+        Assert.assertEquals(res, i);
+        Assert.assertEquals(res.getModel().getAttributes(), i.getModel().getAttributes());
+    }
+
+    @Test
+    public void testReadPlan() throws JSONConverterException {
+        ReconfigurationPlan p = makePlan();
+        String json = ReconfigurationPlanConverter.newBundle().toJSONString(p);
+        ReconfigurationPlan res = new JSONStreamReader().readReconfigurationPlan(new StringReader(json));
+        Assert.assertEquals(res, p);
+        Assert.assertEquals(res.getActions().iterator().next().getEvents(Action.Hook.PRE),
+                p.getActions().iterator().next().getEvents(Action.Hook.PRE));
+    }
+
+    @Test
+    public void testReadModel() throws JSONConverterException {
+        Model mo = makeModel();
+        String json = new ModelConverter().toJSONString(mo);
+        Assert.assertEquals(new JSONStreamReader().readModel(new StringReader(json)), mo);
+    }
+
+    /**
+     * The model may come after the constraints.
+     */
+    @Test
+    public void testModelAtTheEnd() throws JSONConverterException {
+        Instance i = makeInstance();
+        String model = new ModelConverter().toJSONString(i.getModel());
+        String json = "{\"constraints\":[{\"id\":\"ban\",\"vm\":2,\"nodes\":[0],\"continuous\":false}],"
+                + "\"objective\":{\"id\":\"minimizeMTTR\"},\"model\":" + model + "}";
+        Instance res = new JSONStreamReader().readInstance(new StringReader(json));
+        Assert.assertEquals(res.getModel(), i.getModel());
+        Assert.assertEquals(res.getSatConstraints(), Collections.singletonList(new Ban(new VM(2), Collections.singleton(new Node(0)))));
+    }
+
+    @Test
+    public void testShareableResourceValues() throws JSONConverterException {
+        String json = "{\"mapping\":{\"offlineNodes\":[],\"readyVMs\":[1],\"onlineNodes\":{\"0\":{\"runningVMs\":[0],\"sleepingVMs\":[]}}},"
+                + "\"attributes\":{\"vms\":{},\"nodes\":{}},"
+                + "\"views\":[{\"id\":\"shareableResource\",\"rcId\":\"cpu\",\"defConsumption\":1,\"defCapacity\":2,"
+                + "\"vms\":{\"0\":\"5\",\"1\":3},\"nodes\":{\"0\":7}}]}";
+        Model mo = new JSONStreamReader().readModel(new StringReader(json));
+        ShareableResource rc = ShareableResource.get(mo, "cpu");
+        Assert.assertEquals(rc.getConsumption(new VM(0)), 5);
+        Assert.assertEquals(rc.getConsumption(new VM(1)), 3);
+        Assert.assertEquals(rc.getCapacity(new Node(0)), 7);
+        Assert.assertEquals(rc.getDefaultCapacity(), 2);
+    }
+
+    @Test(expectedExceptions = {JSONConverterException.class})
+    public void testDuplicatedVM() throws JSONConverterException {
+        String json = "{\"mapping\":{\"offlineNodes\":[],\"readyVMs\":[1],\"onlineNodes\":{\"0\":{\"runningVMs\":[1],\"sleepingVMs\":[]}}},"
+                + "\"attributes\":{\"vms\":{},\"nodes\":{}},\"views\":[]}";
+        new JSONStreamReader().readModel(new StringReader(json));
+    }
+
+    @Test(expectedExceptions = {JSONConverterException.class})
+    public void testUndeclaredVM() throws JSONConverterException {
+        String json = "{\"mapping\":{\"offlineNodes\":[],\"readyVMs\":[1],\"onlineNodes\":{}},"
+                + "\"attributes\":{\"vms\":{},\"nodes\":{}},"
+                + "\"views\":[{\"id\":\"shareableResource\",\"rcId\":\"cpu\",\"defConsumption\":1,\"defCapacity\":2,"
+                + "\"vms\":{\"3\":1},\"nodes\":{}}]}";
+        new JSONStreamReader().readModel(new StringReader(json));
+    }
+
+    @Test(expectedExceptions = {JSONConverterException.class})
+    public void testMissingKey() throws JSONConverterException {
+        String json = "{\"mapping\":{\"offlineNodes\":[],\"readyVMs\":[1],\"onlineNodes\":{}},\"views\":[]}";
+        new JSONStreamReader().readModel(new StringReader(json));
+    }
+
+    @Test(expectedExceptions = {JSONConverterException.class})
+    public void testNotAnArray() throws JSONConverterException {
+        String json = "{\"mapping\":{\"offlineNodes\":3,\"readyVMs\":[1],\"onlineNodes\":{}},"
+                + "\"attributes\":{\"vms\":{},\"nodes\":{}},\"views\":[]}";
+        new JSONStreamReader().readModel(new StringReader(json));
+    }
+
+    @Test(expectedExceptions = {JSONConverterException.class})
+    public void testMalformed() throws JSONConverterException {
+        new JSONStreamReader().readInstance(new StringReader("{\"model\":"));
+    }
+}
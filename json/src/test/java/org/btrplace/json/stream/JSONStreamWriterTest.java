@@ -0,0 +1,59 @@
+/*
+ * Copyright  2026 The BtrPlace Authors. All rights reserved.
+ * Use of this source code is governed by a LGPL-style
+ * license that can be found in the LICENSE.txt file.
+ */
+
+package org.btrplace.json.stream;
+
+import org.btrplace.json.JSONConverterException;
+import org.btrplace.json.model.InstanceConverter;
+import org.btrplace.json.model.ModelConverter;
+import org.btrplace.json.plan.ReconfigurationPlanConverter;
+import org.btrplace.model.Instance;
+import org.btrplace.model.Model;
+import org.btrplace.plan.ReconfigurationPlan;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+/**
+ * Unit tests for {@link JSONStreamWriter}.
+ *
+ * @author Fabien Hermenier
+ */
+public class JSONStreamWriterTest {
+
+    @Test
+    public void testWriteInstance() throws JSONConverterException, IOException {
+        Instance i = JSONStreamReaderTest.makeInstance();
+        StringBuilder b = new StringBuilder();
+        new JSONStreamWriter().write(i, b);
+        //Readable by both the converter and the streaming reader
+        Assert.assertEquals(new InstanceConverter().fromJSON(b.toString()), i);
+        Instance res = new JSONStreamReader().readInstance(new StringReader(b.toString()));
+        Assert.assertEquals(res, i);
+        Assert.assertEquals(res.getModel().getAttributes(), i.getModel().getAttributes());
+    }
+
+    @Test
+    public void testWritePlan() throws JSONConverterException, IOException {
+        ReconfigurationPlan p = JSONStreamReaderTest.makePlan();
+        StringBuilder b = new StringBuilder();
+        new JSONStreamWriter().write(p, b);
+        Assert.assertEquals(ReconfigurationPlanConverter.newBundle().fromJSON(b.toString()), p);
+        Assert.assertEquals(new JSONStreamReader().readReconfigurationPlan(new StringReader(b.toString())), p);
+    }
+
+    @Test
+    public void testWriteModel() throws JSONConverterException, IOException {
+        Model mo = JSONStreamReaderTest.makeModel();
+        StringBuilder b = new StringBuilder();
+        new JSONStreamWriter().write(mo, b);
+        Assert.assertEquals(new ModelConverter().fromJSON(b.toString()), mo);
+        //The model comes first so the constraints can be converted as soon as they are parsed
+        Assert.assertTrue(b.toString().startsWith("{\"mapping\":{\"offlineNodes\":[2],\"readyVMs\":[3],"));
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright  2026 The BtrPlace Authors. All rights reserved.
+ * Use of this source code is governed by a LGPL-style
+ * license that can be found in the LICENSE.txt file.
+ */
+
+package org.btrplace.scheduler.runner.disjoint;
+
+import org.btrplace.model.Model;
+import org.btrplace.plan.ReconfigurationPlan;
+import org.btrplace.scheduler.choco.DefaultParameters;
+import org.btrplace.scheduler.choco.Parameters;
+import org.btrplace.scheduler.choco.ReconfigurationProblem;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Coordinate the partitions solved by a {@link StaticPartitioning} in the anytime mode.
+ * <p>
+ * The coordinator tracks the last plan computed for each partition. Once every partition
+ * has a plan, the merged plan is published, then a new merged plan is published at every
+ * improvement. Once the time budget is exhausted, the partitions having a plan stop
+ * improving it.
+ * <p>
+ * The plans are recorded under a short lock while the merge and the notification happen outside
+ * of it. The publications are coalesced: a single thread at a time publishes the latest merged plan,
+ * so the solvers reporting a plan meanwhile are not blocked and the listener is not called concurrently.
+ *
+ * @author Fabien Hermenier
+ */
+class AnytimeCoordinator {
+
+    private final Model origin;
+
+    private final Consumer<ReconfigurationPlan> listener;
+
+    private final ReconfigurationPlan[] plans;
+
+    private final ReconfigurationProblem[] problems;
+
+    private int nbSolved;
+
+    /**
+     * The number of plans recorded so far.
+     */
+    private int version;
+
+    /**
+     * The value of {@link #version} when the last merged plan was computed.
+     */
+    private int published;
+
+    /**
+     * {@code true} iff a thread is publishing the merged plans.
+     */
+    private boolean publishing;
+
+    private boolean expired;
+
+    /**
+     * New coordinator.
+     *
+     * @param mo       the model of the instance that has been split
+     * @param nbParts  the number of partitions
+     * @param listener the listener to notify with the merged plans
+     */
+    AnytimeCoordinator(Model mo, int nbParts, Consumer<ReconfigurationPlan> listener) {
+        this.origin = mo;
+        this.listener = listener;
+        plans = new ReconfigurationPlan[nbParts];
+        problems = new ReconfigurationProblem[nbParts];
+    }
+
+    /**
+     * Get the parameters to use to solve a partition.
+     * The parameters are a copy of the original ones, with a listener that notifies the coordinator.
+     *
+     * @param ps   the original parameters
+     * @param part the partition index
+     * @return the parameters
+     */
+    Parameters parameters(Parameters ps, int part) {
+        return new DefaultParameters(ps).addSolutionListener((rp, p) -> offer(part, rp, p));
+    }
+
+    /**
+     * Register a new solution for a partition.
+     *
+     * @param part the partition index
+     * @param rp   the problem of the partition
+     * @param p    the computed plan
+     */
+    void offer(int part, ReconfigurationProblem rp, ReconfigurationPlan p) {
+        synchronized (this) {
+            if (expired) {
+                //No more time to improve the solution
+                rp.stop();
+            }
+            if (plans[part] == null) {
+                nbSolved++;
+            }
+            plans[part] = p;
+            problems[part] = rp;
+            version++;
+            if (nbSolved < plans.length || publishing) {
+                //Not mergeable yet, or the current publisher will pick the plan
+                return;
+            }
+            publishing = true;
+        }
+        publish();
+    }
+
+    /**
+     * Publish the merged plans until there is no more recorded plan to publish.
+     */
+    private void publish() {
+        boolean done = false;
+        try {
+            while (!done) {
+                List<ReconfigurationPlan> snapshot;
+                synchronized (this) {
+                    snapshot = new ArrayList<>(Arrays.asList(plans));
+                    published = version;
+                }
+                try {
+                    listener.accept(StaticPartitioning.merge(origin, snapshot));
+                } catch (SplitException ignore) {
+                    //The final merge will report the issue
+                }
+                synchronized (this) {
+                    done = published == version;
+                    if (done) {
+                        publishing = false;
+                    }
+                }
+            }
+        } finally {
+            if (!done) {
+                //The listener failed
+                synchronized (this) {
+                    publishing = false;
+                }
+            }
+        }
+    }
+
+    /**
+     * Indicate the time budget is exhausted.
+     * The partitions having a plan stop improving it.
+     */
+    synchronized void expire() {
+        expired = true;
+        for (ReconfigurationProblem rp : problems) {
+            if (rp != null) {
+                rp.stop();
+            }
+        }
+    }
+}
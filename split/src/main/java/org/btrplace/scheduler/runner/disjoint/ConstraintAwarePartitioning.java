@@ -0,0 +1,494 @@
+/*
+ * Copyright  2026 The BtrPlace Authors. All rights reserved.
+ * Use of this source code is governed by a LGPL-style
+ * license that can be found in the LICENSE.txt file.
+ */
+
+package org.btrplace.scheduler.runner.disjoint;
+
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.hash.TIntIntHashMap;
+import org.btrplace.model.Instance;
+import org.btrplace.model.Mapping;
+import org.btrplace.model.Node;
+import org.btrplace.model.VM;
+import org.btrplace.model.constraint.Among;
+import org.btrplace.model.constraint.Gather;
+import org.btrplace.model.constraint.Lonely;
+import org.btrplace.model.constraint.SatConstraint;
+import org.btrplace.model.constraint.Spread;
+import org.btrplace.scheduler.SchedulerException;
+import org.btrplace.scheduler.choco.Parameters;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * An extension of {@link FixedNodeSetsPartitioning} where
+ * the partitions of nodes are computed automatically to avoid
+ * splitting the constraints that do not support to be split.
+ * <p>
+ * The instance is seen as an hypergraph where the vertices are the nodes
+ * and the VMs to launch. Each constraint that is an instance of a class declared in
+ * {@link #getGroupingConstraints()} is an hyperedge that connects the nodes it
+ * focuses on, the nodes hosting its VMs and its VMs to launch.
+ * By default, these constraints are {@link Gather}, {@link Among}, {@link Spread}
+ * and {@link Lonely}. An {@link Among} constraint only requires its VMs to share
+ * a group of nodes, so it connects a single group, and only if the group fits
+ * into a partition along with the nodes hosting the VMs.
+ * <p>
+ * The hypergraph is first coarsened by contracting every hyperedge. Each
+ * resulting block is then assigned to the least loaded partition, from the largest
+ * block to the smallest. This way, no grouping constraint is cut as long as its block
+ * fits into a partition. The blocks that are larger than a partition are cut into
+ * chunks that are grown one node at a time. The next node is the one having the most
+ * hyperedges already in the chunk and the fewest hyperedges elsewhere, so the chunks
+ * follow the densely connected nodes and few hyperedges are cut.
+ * <p>
+ * The VMs to launch that are involved in a grouping constraint are dispatched to the
+ * partition of their block. The other ones are dispatched in a round-robin fashion.
+ *
+ * @author Fabien Hermenier
+ */
+public class ConstraintAwarePartitioning extends FixedNodeSetsPartitioning {
+
+    private static final int NONE = -1;
+
+    private int partSize;
+
+    private final Set<Class<? extends SatConstraint>> grouping;
+
+    /**
+     * The partition of the VMs to launch, by VM identifier.
+     */
+    private TIntIntHashMap launchPartitions = new TIntIntHashMap(10, 0.5f, NONE, NONE);
+
+    /**
+     * Make a new partitioning algorithm.
+     *
+     * @param s the maximum partition size in terms of number of nodes
+     */
+    public ConstraintAwarePartitioning(int s) {
+        super(Collections.singleton(new HashSet<>()));
+        this.partSize = s;
+        grouping = new HashSet<>(Arrays.asList(Gather.class, Among.class, Spread.class, Lonely.class));
+    }
+
+    /**
+     * Get the maximum partition size in terms of number of nodes.
+     *
+     * @return a value &gt; 0
+     */
+    public int getSize() {
+        return partSize;
+    }
+
+    /**
+     * Set the maximum partition size in terms of number of nodes.
+     *
+     * @param s a value &gt; 0
+     */
+    public void setSize(int s) {
+        this.partSize = s;
+    }
+
+    /**
+     * Get the classes of the constraints that should not be split.
+     * The returned set can be modified to change the classes.
+     *
+     * @return a set of constraint classes
+     */
+    public Set<Class<? extends SatConstraint>> getGroupingConstraints() {
+        return grouping;
+    }
+
+    @Override
+    public List<Instance> split(Parameters ps, Instance i) throws SchedulerException {
+        setPartitions(partitions(i));
+        return super.split(ps, i);
+    }
+
+    @Override
+    protected int getLaunchPartition(VM v, int next) {
+        int p = launchPartitions.get(v.id());
+        return p == NONE ? next : p;
+    }
+
+    /**
+     * Compute the partitions of nodes and the partition of the VMs to launch.
+     *
+     * @param i the instance to split
+     * @return the partitions of nodes
+     */
+    private List<Collection<Node>> partitions(Instance i) {
+        Mapping map = i.getModel().getMapping();
+        List<Node> nodes = new ArrayList<>(map.getAllNodes());
+        TIntIntHashMap nodeIdx = new TIntIntHashMap(nodes.size(), 0.5f, NONE, NONE);
+        for (Node n : nodes) {
+            nodeIdx.put(n.id(), nodeIdx.size());
+        }
+
+        //The hyperedges. The ready VMs are indexed after the nodes
+        TIntIntHashMap vmIdx = new TIntIntHashMap(10, 0.5f, NONE, NONE);
+        List<VM> readys = new ArrayList<>();
+        List<TIntArrayList> edges = new ArrayList<>();
+        for (SatConstraint c : i.getSatConstraints()) {
+            if (!isGrouping(c)) {
+                continue;
+            }
+            TIntArrayList pins = new TIntArrayList();
+            Collection<Node> focus = c instanceof Among ? group((Among) c, map) : c.getInvolvedNodes();
+            for (Node n : focus) {
+                int idx = nodeIdx.get(n.id());
+                if (idx != NONE) {
+                    pins.add(idx);
+                }
+            }
+            for (VM v : c.getInvolvedVMs()) {
+                Node host = map.getVMLocation(v);
+                if (host != null) {
+                    pins.add(nodeIdx.get(host.id()));
+                } else if (map.isReady(v)) {
+                    int idx = vmIdx.get(v.id());
+                    if (idx == NONE) {
+                        idx = nodes.size() + readys.size();
+                        vmIdx.put(v.id(), idx);
+                        readys.add(v);
+                    }
+                    pins.add(idx);
+                }
+            }
+            pins = distinct(pins);
+            if (pins.size() > 1) {
+                edges.add(pins);
+            }
+        }
+
+        //Coarsening: contract the hyperedges
+        int nbVertices = nodes.size() + readys.size();
+        int[] roots = new int[nbVertices];
+        for (int x = 0; x < nbVertices; x++) {
+            roots[x] = x;
+        }
+        for (TIntArrayList pins : edges) {
+            for (int x = 1; x < pins.size(); x++) {
+                union(roots, pins.get(0), pins.get(x));
+            }
+        }
+        int[] blockOf = new int[nbVertices];
+        Arrays.fill(blockOf, NONE);
+        List<TIntArrayList> blocks = new ArrayList<>();
+        for (int x = 0; x < nodes.size(); x++) {
+            int r = find(roots, x);
+            if (blockOf[r] == NONE) {
+                blockOf[r] = blocks.size();
+                blocks.add(new TIntArrayList());
+            }
+            blocks.get(blockOf[r]).add(x);
+        }
+
+        //Cut the oversized blocks
+        List<TIntArrayList> chunks = new ArrayList<>(blocks.size());
+        TIntArrayList[] incidents = null;
+        for (TIntArrayList b : blocks) {
+            if (b.size() <= partSize) {
+                chunks.add(b);
+                continue;
+            }
+            if (incidents == null) {
+                incidents = incidents(edges, nodes.size());
+            }
+            chunks.addAll(cut(b, edges, incidents, nodes.size()));
+        }
+
+        //Assignment: the largest chunks first, into the least loaded partition
+        chunks.sort((a, b) -> b.size() - a.size());
+        int nbParts = Math.max(1, (nodes.size() + partSize - 1) / partSize);
+        List<List<Node>> parts = new ArrayList<>(nbParts);
+        for (int x = 0; x < nbParts; x++) {
+            parts.add(new ArrayList<>(partSize));
+        }
+        int[] partOf = new int[nodes.size()];
+        for (TIntArrayList chunk : chunks) {
+            int best = 0;
+            for (int x = 1; x < parts.size(); x++) {
+                if (parts.get(x).size() < parts.get(best).size()) {
+                    best = x;
+                }
+            }
+            if (parts.get(best).size() + chunk.size() > partSize) {
+                best = parts.size();
+                parts.add(new ArrayList<>(partSize));
+            }
+            for (int x = 0; x < chunk.size(); x++) {
+                parts.get(best).add(nodes.get(chunk.get(x)));
+                partOf[chunk.get(x)] = best;
+            }
+        }
+
+        //Drop the empty partitions, shift the indices accordingly
+        int[] shift = new int[parts.size()];
+        List<Collection<Node>> res = new ArrayList<>(parts.size());
+        for (int x = 0; x < parts.size(); x++) {
+            shift[x] = res.size();
+            if (!parts.get(x).isEmpty()) {
+                res.add(parts.get(x));
+            }
+        }
+        if (res.isEmpty()) {
+            //No nodes at all
+            res.add(parts.get(0));
+        }
+
+        //The VMs to launch go with the nodes of their block
+        launchPartitions = new TIntIntHashMap(readys.size(), 0.5f, NONE, NONE);
+        int next = 0;
+        int[] blockPart = new int[nbVertices];
+        Arrays.fill(blockPart, NONE);
+        for (int x = 0; x < readys.size(); x++) {
+            int r = find(roots, nodes.size() + x);
+            if (blockPart[r] == NONE) {
+                if (blockOf[r] != NONE) {
+                    blockPart[r] = shift[partOf[blocks.get(blockOf[r]).get(0)]];
+                } else {
+                    //No nodes in the block, round-robin
+                    blockPart[r] = next;
+                    next = (next + 1) % res.size();
+                }
+            }
+            launchPartitions.put(readys.get(x).id(), blockPart[r]);
+        }
+        return res;
+    }
+
+    /**
+     * Check if a constraint must not be split.
+     *
+     * @param c the constraint
+     * @return {@code true} iff the constraint is an instance of a grouping class
+     */
+    private boolean isGrouping(SatConstraint c) {
+        for (Class<? extends SatConstraint> cl : grouping) {
+            if (cl.isInstance(c)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the group of nodes to keep with the VMs of an {@link Among} constraint.
+     * This is the group hosting the most VMs, otherwise the smallest group.
+     *
+     * @param c   the constraint
+     * @param map the mapping
+     * @return the nodes of the group. An empty collection if the group does not fit
+     * into a partition along with the nodes hosting the VMs
+     */
+    private Collection<Node> group(Among c, Mapping map) {
+        Set<Node> hosts = new HashSet<>();
+        for (VM v : c.getInvolvedVMs()) {
+            Node n = map.getVMLocation(v);
+            if (n != null) {
+                hosts.add(n);
+            }
+        }
+        Collection<Node> best = null;
+        int bestHosted = -1;
+        for (Collection<Node> g : c.getGroupsOfNodes()) {
+            int hosted = 0;
+            for (Node n : g) {
+                if (hosts.contains(n)) {
+                    hosted++;
+                }
+            }
+            if (hosted > bestHosted || (hosted == bestHosted && g.size() < best.size())) {
+                best = g;
+                bestHosted = hosted;
+            }
+        }
+        if (best == null || best.size() + hosts.size() - bestHosted > partSize) {
+            return Collections.emptyList();
+        }
+        return best;
+    }
+
+    /**
+     * Get the sorted pins of an hyperedge, without duplicates.
+     */
+    private static TIntArrayList distinct(TIntArrayList pins) {
+        pins.sort();
+        TIntArrayList res = new TIntArrayList(pins.size());
+        for (int x = 0; x < pins.size(); x++) {
+            if (x == 0 || pins.get(x) != pins.get(x - 1)) {
+                res.add(pins.get(x));
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Get the indices of the hyperedges incident to every node.
+     */
+    private static TIntArrayList[] incidents(List<TIntArrayList> edges, int nbNodes) {
+        TIntArrayList[] incidents = new TIntArrayList[nbNodes];
+        for (int e = 0; e < edges.size(); e++) {
+            TIntArrayList pins = edges.get(e);
+            for (int x = 0; x < pins.size(); x++) {
+                int p = pins.get(x);
+                if (p < nbNodes) {
+                    if (incidents[p] == null) {
+                        incidents[p] = new TIntArrayList();
+                    }
+                    incidents[p].add(e);
+                }
+            }
+        }
+        return incidents;
+    }
+
+    private static int degree(TIntArrayList[] incidents, int n) {
+        return incidents[n] == null ? 0 : incidents[n].size();
+    }
+
+    /**
+     * Cut a block into chunks of at most {@code partSize} nodes.
+     * A chunk is grown from a seed by adding the node that maximises the number of
+     * its hyperedges already touching the chunk minus the number of the others.
+     * The seeds are taken in a breadth-first order, as well as the nodes having the same gain.
+     */
+    private List<TIntArrayList> cut(TIntArrayList block, List<TIntArrayList> edges, TIntArrayList[] incidents, int nbNodes) {
+        TIntArrayList order = traverse(block, edges, incidents, nbNodes);
+        int[] rank = new int[nbNodes];
+        for (int x = 0; x < order.size(); x++) {
+            rank[order.get(x)] = x;
+        }
+        boolean[] assigned = new boolean[nbNodes];
+        //The number of hyperedges touching the current chunk, per node
+        int[] touched = new int[nbNodes];
+        int[] touchedBy = new int[nbNodes];
+        Arrays.fill(touchedBy, NONE);
+        int[] edgeChunk = new int[edges.size()];
+        Arrays.fill(edgeChunk, NONE);
+
+        List<TIntArrayList> chunks = new ArrayList<>();
+        int seed = 0;
+        int remaining = order.size();
+        while (remaining > 0) {
+            int k = chunks.size();
+            TIntArrayList chunk = new TIntArrayList(Math.min(partSize, remaining));
+            chunks.add(chunk);
+            //Candidates as {node, gain}, lazily invalidated
+            PriorityQueue<int[]> candidates = new PriorityQueue<>((a, b) -> a[1] != b[1] ? b[1] - a[1] : rank[a[0]] - rank[b[0]]);
+            while (chunk.size() < partSize && remaining > 0) {
+                int n = NONE;
+                while (n == NONE && !candidates.isEmpty()) {
+                    int[] c = candidates.poll();
+                    if (!assigned[c[0]] && c[1] == 2 * touched[c[0]] - degree(incidents, c[0])) {
+                        n = c[0];
+                    }
+                }
+                if (n == NONE) {
+                    while (assigned[order.get(seed)]) {
+                        seed++;
+                    }
+                    n = order.get(seed);
+                }
+                assigned[n] = true;
+                remaining--;
+                chunk.add(n);
+                if (incidents[n] == null) {
+                    continue;
+                }
+                for (int x = 0; x < incidents[n].size(); x++) {
+                    int e = incidents[n].get(x);
+                    if (edgeChunk[e] == k) {
+                        continue;
+                    }
+                    edgeChunk[e] = k;
+                    TIntArrayList pins = edges.get(e);
+                    for (int y = 0; y < pins.size(); y++) {
+                        int p = pins.get(y);
+                        if (p >= nbNodes || assigned[p]) {
+                            continue;
+                        }
+                        if (touchedBy[p] != k) {
+                            touchedBy[p] = k;
+                            touched[p] = 0;
+                        }
+                        touched[p]++;
+                        candidates.add(new int[]{p, 2 * touched[p] - degree(incidents, p)});
+                    }
+                }
+            }
+        }
+        return chunks;
+    }
+
+    /**
+     * Order the nodes of a block using a breadth-first traversal of the hypergraph.
+     */
+    private static TIntArrayList traverse(TIntArrayList block, List<TIntArrayList> edges, TIntArrayList[] incidents, int nbNodes) {
+        TIntArrayList order = new TIntArrayList(block.size());
+        boolean[] visitedEdges = new boolean[edges.size()];
+        boolean[] visited = new boolean[nbNodes];
+        for (int s = 0; s < block.size(); s++) {
+            int start = block.get(s);
+            if (visited[start]) {
+                continue;
+            }
+            visited[start] = true;
+            order.add(start);
+            for (int head = order.size() - 1; head < order.size(); head++) {
+                TIntArrayList inc = incidents[order.get(head)];
+                if (inc == null) {
+                    continue;
+                }
+                for (int x = 0; x < inc.size(); x++) {
+                    int e = inc.get(x);
+                    if (visitedEdges[e]) {
+                        continue;
+                    }
+                    visitedEdges[e] = true;
+                    TIntArrayList pins = edges.get(e);
+                    for (int y = 0; y < pins.size(); y++) {
+                        int p = pins.get(y);
+                        if (p < nbNodes && !visited[p]) {
+                            visited[p] = true;
+                            order.add(p);
+                        }
+                    }
+                }
+            }
+        }
+        return order;
+    }
+
+    private static int find(int[] roots, int x) {
+        int r = x;
+        while (roots[r] != r) {
+            r = roots[r];
+        }
+        //Path compression
+        while (roots[x] != r) {
+            int nxt = roots[x];
+            roots[x] = r;
+            x = nxt;
+        }
+        return r;
+    }
+
+    private static void union(int[] roots, int x, int y) {
+        int rx = find(roots, x);
+        int ry = find(roots, y);
+        if (rx != ry) {
+            roots[Math.max(rx, ry)] = Math.min(rx, ry);
+        }
+    }
+}
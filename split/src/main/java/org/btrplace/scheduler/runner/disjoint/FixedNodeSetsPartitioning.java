@@ -15,6 +15,7 @@ import org.btrplace.model.Model;
 import org.btrplace.model.Node;
 import org.btrplace.model.SynchronizedElementBuilder;
 import org.btrplace.model.VM;
+import org.btrplace.model.constraint.Constraint;
 import org.btrplace.model.constraint.Running;
 import org.btrplace.model.constraint.SatConstraint;
 import org.btrplace.scheduler.SchedulerException;
@@ -143,23 +144,35 @@ public class FixedNodeSetsPartitioning extends StaticPartitioning {
         //Round-robin placement for the VMs to launch
         int p = 0;
         for (VM v : toLaunch) {
-            if (!parts.get(p).getModel().getMapping().addReadyVM(v)) {
-                throw new SplitException(parts.get(p).getModel(), "Unable to dispatch the VM to launch '" + v + "'");
+            int dst = getLaunchPartition(v, p);
+            if (!parts.get(dst).getModel().getMapping().addReadyVM(v)) {
+                throw new SplitException(parts.get(dst).getModel(), "Unable to dispatch the VM to launch '" + v + "'");
             }
-            vmPosition.put(v.id(), p);
+            vmPosition.put(v.id(), dst);
             p = (p + 1) % parts.size();
         }
 
         //Split the constraints
-        for (SatConstraint cstr : i.getSatConstraints()) {
-            if (!cstrMapper.split(cstr, i, parts, vmPosition, nodePosition)) {
-                throw new SplitException(i.getModel(), "Unable to split " + cstr);
-            }
+        Constraint err = cstrMapper.split(i.getSatConstraints(), i, parts, vmPosition, nodePosition);
+        if (err != null) {
+            throw new SplitException(i.getModel(), "Unable to split " + err);
         }
 
         return parts;
     }
 
+    /**
+     * Get the partition that will receive a VM to launch.
+     * By default, the VMs to launch are dispatched in a round-robin fashion.
+     *
+     * @param v    the VM to launch
+     * @param next the next partition according to the round-robin dispatching
+     * @return the index of the partition, in the order of {@link #getPartitions()}
+     */
+    protected int getLaunchPartition(VM v, int next) {
+        return next;
+    }
+
     private Set<VM> getVMsToLaunch(Instance i) {
         Mapping m = i.getModel().getMapping();
         Set<VM> toLaunch = new THashSet<>();
@@ -7,6 +7,9 @@
 package org.btrplace.scheduler.runner.disjoint;
 
 import org.btrplace.model.Instance;
+import org.btrplace.model.Model;
+import org.btrplace.model.VM;
+import org.btrplace.model.constraint.SatConstraint;
 import org.btrplace.plan.DefaultReconfigurationPlan;
 import org.btrplace.plan.ReconfigurationPlan;
 import org.btrplace.plan.event.Action;
@@ -18,12 +21,20 @@ import org.btrplace.scheduler.choco.runner.single.InstanceSolverRunner;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletionService;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * An abstract solver that decompose statically an instance
@@ -34,10 +45,18 @@ import java.util.concurrent.Executors;
  * <p>
  * The solving process relies on a master/worker paradigm with a number
  * of workers equals to the number of available cores by default.
+ * The workers belong to a work-stealing pool that is kept alive across
+ * the calls to {@link #solve(Parameters, Instance)} until {@link #close()} is called.
+ * Alternatively, the pool can be supplied using {@link #setExecutor(ExecutorService)}. The partitions are
+ * submitted from the hardest to the easiest, so a hard partition does not
+ * start last and delay the whole solving process.
+ * <p>
+ * In the anytime mode, see {@link #setAnytimeListener(Consumer)}, the merged plans are published
+ * as soon as they are available and the time limit bounds the whole solving process.
  *
  * @author Fabien Hermenier
  */
-public abstract class StaticPartitioning implements InstanceSolver {
+public abstract class StaticPartitioning implements InstanceSolver, AutoCloseable {
 
     private int workersCount;
 
@@ -45,6 +64,21 @@ public abstract class StaticPartitioning implements InstanceSolver {
 
     private List<InstanceSolverRunner> runners;
 
+    /**
+     * The executor that solves the partitions.
+     */
+    private ExecutorService executor;
+
+    /**
+     * {@code true} iff the executor was made by this class, hence must be shut down on a change.
+     */
+    private boolean ownExecutor;
+
+    /**
+     * The listener for the anytime mode. {@code null} if disabled.
+     */
+    private Consumer<ReconfigurationPlan> anytime;
+
     /**
      * Make a new partitioning algorithm.
      * The number of workers is set to the number of available cores.
@@ -68,57 +102,158 @@ public abstract class StaticPartitioning implements InstanceSolver {
      * @param s a number &gt;= 1
      */
     public void setWorkersCount(int s) {
+        if (s != workersCount && ownExecutor) {
+            executor.shutdown();
+            executor = null;
+            ownExecutor = false;
+        }
         this.workersCount = s;
     }
 
+    /**
+     * Set the executor that solves the partitions.
+     * The executor is not shut down by this class, so it can be shared with other solvers.
+     * By default, a {@link ForkJoinPool} having {@link #getWorkersCount()} workers is created at
+     * the first solving process and re-used for the following ones.
+     *
+     * @param exe the executor to use. {@code null} to rely on the default one
+     */
+    public void setExecutor(ExecutorService exe) {
+        if (ownExecutor) {
+            executor.shutdown();
+        }
+        executor = exe;
+        ownExecutor = false;
+    }
+
+    /**
+     * Get the executor that solves the partitions.
+     * The default executor is created if needed.
+     *
+     * @return the executor in use
+     */
+    public ExecutorService getExecutor() {
+        if (executor == null) {
+            executor = new ForkJoinPool(workersCount);
+            ownExecutor = true;
+        }
+        return executor;
+    }
+
 
     @Override
     public ReconfigurationPlan solve(Parameters cra, Instance orig) throws SchedulerException {
         stats = new StaticPartitioningStatistics(cra, orig, System.currentTimeMillis(), workersCount);
+        //The time limit bounds the whole solving process, splitting included
+        long deadline = cra.getTimeLimit() > 0 ? System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(cra.getTimeLimit()) : Long.MAX_VALUE;
         long d = -System.currentTimeMillis();
         List<Instance> partitions = split(cra, orig);
         d += System.currentTimeMillis();
 
         stats.setSplittingStatistics(partitions.size(), d);
-        ExecutorService exe = Executors.newFixedThreadPool(this.workersCount);
-        CompletionService<SolvingStatistics> completionService = new ExecutorCompletionService<>(exe);
+        CompletionService<SolvingStatistics> completionService = new ExecutorCompletionService<>(getExecutor());
         List<SolvingStatistics> results = new ArrayList<>(partitions.size());
 
 
         runners = new ArrayList<>();
         long duration = -System.currentTimeMillis();
-        for (Instance partition : partitions) {
-            InstanceSolverRunner runner = new InstanceSolverRunner(cra, partition);
+        List<Instance> ordered = byDifficulty(partitions);
+        AnytimeCoordinator coordinator = anytime == null ? null : new AnytimeCoordinator(orig.getModel(), ordered.size(), anytime);
+        for (int p = 0; p < ordered.size(); p++) {
+            Parameters ps = coordinator == null ? cra : coordinator.parameters(cra, p);
+            InstanceSolverRunner runner = new InstanceSolverRunner(ps, ordered.get(p));
             completionService.submit(runner);
             runners.add(runner);
         }
 
         for (int i = 0; i < partitions.size(); i++) {
             try {
-                results.add(completionService.take().get());
+                results.add(next(completionService, coordinator, deadline).get());
             } catch (ExecutionException ignore) {
                 Throwable cause = ignore.getCause();
                 if (cause != null) {
+                    //The workers are shared, the remaining partitions must not keep them busy
+                    stop();
                     throw new SplitException(null, cause.getMessage(), ignore);
                 }
             } catch (InterruptedException e) {
+                stop();
                 Thread.currentThread().interrupt();
                 throw new SplitException(orig.getModel(), e.getMessage(), e);
             }
         }
         duration += System.currentTimeMillis();
         stats.setSolvingDuration(duration);
-        exe.shutdown();
 
         return merge(orig, results);
     }
 
+    /**
+     * Order partitions by decreasing estimated difficulty.
+     * The difficulty is first estimated from the number of VMs involved in
+     * constraints that are not satisfied by the source model (so the VMs that are supposed to be misplaced),
+     * then from the number of VMs.
+     *
+     * @param partitions the partitions to order
+     * @return a new ordered list
+     */
+    static List<Instance> byDifficulty(List<Instance> partitions) {
+        Map<Instance, Integer> misplaced = new IdentityHashMap<>(partitions.size());
+        for (Instance i : partitions) {
+            Model mo = i.getModel();
+            Set<VM> vms = new HashSet<>();
+            for (SatConstraint c : i.getSatConstraints()) {
+                if (!c.isSatisfied(mo)) {
+                    vms.addAll(c.getInvolvedVMs());
+                }
+            }
+            misplaced.put(i, vms.size());
+        }
+        List<Instance> sorted = new ArrayList<>(partitions);
+        sorted.sort(Comparator.<Instance>comparingInt(misplaced::get)
+                .thenComparingInt(i -> i.getModel().getMapping().getNbVMs())
+                .reversed());
+        return sorted;
+    }
+
+    /**
+     * Get the next partition that has been solved.
+     * In the anytime mode, the partitions having a solution are stopped once the deadline is reached.
+     */
+    private static Future<SolvingStatistics> next(CompletionService<SolvingStatistics> cs, AnytimeCoordinator coordinator, long deadline) throws InterruptedException {
+        if (coordinator == null) {
+            return cs.take();
+        }
+        long remaining = deadline - System.currentTimeMillis();
+        Future<SolvingStatistics> f = remaining > 0 ? cs.poll(remaining, TimeUnit.MILLISECONDS) : null;
+        if (f == null) {
+            coordinator.expire();
+            f = cs.take();
+        }
+        return f;
+    }
+
     private ReconfigurationPlan merge(Instance i, Collection<SolvingStatistics> results) throws SplitException {
-        ReconfigurationPlan plan = new DefaultReconfigurationPlan(i.getModel());
-        //Only if there is a solution
+        List<ReconfigurationPlan> plans = new ArrayList<>(results.size());
         for (SolvingStatistics result : results) {
             getStatistics().addPartitionStatistics(result);
-            ReconfigurationPlan p = result.lastSolution();
+            plans.add(result.lastSolution());
+        }
+        return merge(i.getModel(), plans);
+    }
+
+    /**
+     * Merge the plans of the partitions.
+     *
+     * @param mo    the model of the instance that has been split
+     * @param plans the plan of each partition
+     * @return the merged plan. {@code null} if a partition has no plan
+     * @throws SplitException if an action cannot be added to the merged plan
+     */
+    static ReconfigurationPlan merge(Model mo, Collection<ReconfigurationPlan> plans) throws SplitException {
+        ReconfigurationPlan plan = new DefaultReconfigurationPlan(mo);
+        //Only if there is a solution
+        for (ReconfigurationPlan p : plans) {
             if (p == null) {
                 return null;
             }
@@ -132,6 +267,28 @@ public abstract class StaticPartitioning implements InstanceSolver {
         return plan;
     }
 
+    /**
+     * Set the listener that is notified in the anytime mode.
+     * In this mode, a merged plan is published to the listener as soon as every partition has a solution,
+     * then each time a partition improves its solution. Once the time limit is reached since the beginning
+     * of the solving process, the partitions having a solution stop improving it, even if they did not
+     * consume their own time limit because of a late start.
+     *
+     * @param l the listener. {@code null} to disable the anytime mode
+     */
+    public void setAnytimeListener(Consumer<ReconfigurationPlan> l) {
+        anytime = l;
+    }
+
+    /**
+     * Get the listener that is notified in the anytime mode.
+     *
+     * @return the listener. {@code null} if the anytime mode is disabled
+     */
+    public Consumer<ReconfigurationPlan> getAnytimeListener() {
+        return anytime;
+    }
+
     @Override
     public StaticPartitioningStatistics getStatistics() {
         return stats;
@@ -147,6 +304,20 @@ public abstract class StaticPartitioning implements InstanceSolver {
      */
     public abstract List<Instance> split(Parameters ps, Instance i) throws SchedulerException;
 
+    /**
+     * Shut down the default executor, if it was created.
+     * An executor set using {@link #setExecutor(ExecutorService)} is left running.
+     * A new default executor is created if the instance is used again.
+     */
+    @Override
+    public void close() {
+        if (ownExecutor) {
+            executor.shutdown();
+            executor = null;
+            ownExecutor = false;
+        }
+    }
+
     @Override
     public void stop() {
         if (runners != null) {
@@ -8,6 +8,7 @@ package org.btrplace.scheduler.runner.disjoint.model;
 
 import org.btrplace.model.Element;
 
+import java.lang.reflect.Array;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
@@ -74,12 +75,21 @@ public class ElementSubSet<E extends Element> implements Set<E> {
 
     @Override
     public Object[] toArray() {
-        throw new UnsupportedOperationException();
+        return toArray(new Object[size()]);
     }
 
     @Override
-    public Object[] toArray(Object[] a) {
-        throw new UnsupportedOperationException();
+    @SuppressWarnings("unchecked")
+    public <T> T[] toArray(T[] a) {
+        T[] res = a.length >= size() ? a : (T[]) Array.newInstance(a.getClass().getComponentType(), size());
+        int i = 0;
+        for (E e : this) {
+            res[i++] = (T) e;
+        }
+        if (res.length > i) {
+            res[i] = null;
+        }
+        return res;
     }
 
     @Override
@@ -12,6 +12,7 @@ import org.btrplace.model.Node;
 import org.btrplace.model.VM;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -26,7 +27,8 @@ import java.util.Set;
  * the right partition for each element.
  * <p>
  * The backend is a simple array of elements. Elements belonging to the same
- * partition are contiguous for efficiency.
+ * partition are contiguous for efficiency and the bounds of each partition are
+ * computed once, at instantiation.
  *
  * @author Fabien Hermenier
  */
@@ -36,20 +38,53 @@ public class SplittableElementSet<E extends Element> implements Comparator<E> {
 
   private final List<E> values;
 
+    /**
+     * The partition keys, in increasing order.
+     */
+    private final int[] keys;
+
+    /**
+     * The bounds of each partition in {@link #values}.
+     * Partition {@code keys[i]} starts at {@code bounds[i]} and ends at {@code bounds[i + 1]} (excluded).
+     */
+    private final int[] bounds;
+
     /**
      * Make a new splittable set.
+     * The elements are grouped by partition using a counting sort so the
+     * instantiation is linear wrt. the number of elements, and the bounds
+     * of each partition are memorized.
      *
      * @param c   the elements, no duplicates are supposed
      * @param idx the partition associated to each element. Format {@link org.btrplace.model.Element#id()} to key
      */
+    @SuppressWarnings("unchecked")
     public SplittableElementSet(Collection<E> c, TIntIntHashMap idx) {
-
-        values = new ArrayList<>();
+        this.index = idx;
+        int[] parts = new int[c.size()];
+        TIntIntHashMap counts = new TIntIntHashMap();
+        int i = 0;
         for (E e : c) {
-            values.add(e);
+            parts[i] = idx.get(e.id());
+            counts.adjustOrPutValue(parts[i], 1, 1);
+            i++;
         }
-        this.index = idx;
-        Collections.sort(values, this);
+        keys = counts.keys();
+        Arrays.sort(keys);
+        bounds = new int[keys.length + 1];
+        TIntIntHashMap offsets = new TIntIntHashMap(keys.length);
+        for (int k = 0; k < keys.length; k++) {
+            offsets.put(keys[k], bounds[k]);
+            bounds[k + 1] = bounds[k] + counts.get(keys[k]);
+        }
+        //Stable dispatching
+        E[] sorted = (E[]) new Element[parts.length];
+        i = 0;
+        for (E e : c) {
+            sorted[offsets.adjustOrPutValue(parts[i], 1, 1) - 1] = e;
+            i++;
+        }
+        values = Arrays.asList(sorted);
     }
 
     /**
@@ -99,20 +134,12 @@ public class SplittableElementSet<E extends Element> implements Comparator<E> {
      * @return {@code true} if we visited every element
      */
     public boolean forEachPartition(IterateProcedure<E> p) {
-        int curIdx = index.get(values.get(0).id());
-        int from;
-        int to;
-        for (from = 0, to = 0; to < values.size(); to++) {
-            int cIdx = index.get(values.get(to).id());
-            if (curIdx != cIdx) {
-                if (!p.extract(this, curIdx, from, to)) {
-                    return false;
-                }
-                from = to;
-                curIdx = cIdx;
+        for (int k = 0; k < keys.length; k++) {
+            if (!p.extract(this, keys[k], bounds[k], bounds[k + 1])) {
+                return false;
             }
         }
-        return p.extract(this, curIdx, from, to);
+        return true;
     }
 
     /**
@@ -122,21 +149,11 @@ public class SplittableElementSet<E extends Element> implements Comparator<E> {
      * @return the resulting subset. Empty if no elements belong to the given partition.
      */
     public Set<E> getSubSet(int k) {
-        int from = -1;
-        //TODO: very bad. Bounds should be memorized
-        for (int x = 0; x < values.size(); x++) {
-            int cIdx = index.get(values.get(x).id());
-            if (cIdx == k && from == -1) {
-                from = x;
-            }
-            if (from >= 0 && cIdx > k) {
-                return new ElementSubSet<>(this, k, from, x);
-            }
-        }
-        if (from >= 0) {
-            return new ElementSubSet<>(this, k, from, values.size());
+        int i = Arrays.binarySearch(keys, k);
+        if (i < 0) {
+            return Collections.emptySet();
         }
-        return Collections.emptySet();
+        return new ElementSubSet<>(this, k, bounds[i], bounds[i + 1]);
     }
 
     @Override
@@ -168,14 +185,22 @@ public class SplittableElementSet<E extends Element> implements Comparator<E> {
      * @return a collection of {@link ElementSubSet}.
      */
     public List<ElementSubSet<E>> getPartitions() {
-        final List<ElementSubSet<E>> partitions = new ArrayList<>();
-        forEachPartition((idx, key, from, to) -> {
-            partitions.add(new ElementSubSet<>(SplittableElementSet.this, key, from, to));
-            return true;
-        });
+        final List<ElementSubSet<E>> partitions = new ArrayList<>(keys.length);
+        for (int k = 0; k < keys.length; k++) {
+            partitions.add(new ElementSubSet<>(this, keys[k], bounds[k], bounds[k + 1]));
+        }
         return partitions;
     }
 
+    /**
+     * Get the number of partitions the elements belong to.
+     *
+     * @return a positive integer
+     */
+    public int getNbPartitions() {
+        return keys.length;
+    }
+
     /**
      * Get the size of the set.
      *
@@ -41,6 +41,11 @@ public class AmongSplitter implements ConstraintSplitter<Among> {
     public boolean split(final Among cstr, Instance origin, final List<Instance> partitions, TIntIntHashMap vmsPosition, final TIntIntHashMap nodePosition) {
 
         final boolean c = cstr.isContinuous();
+        //The groups are indexed once, whatever the number of partitions
+        final List<SplittableElementSet<Node>> groups = new ArrayList<>(cstr.getGroupsOfNodes().size());
+        for (Collection<Node> ns : cstr.getGroupsOfNodes()) {
+            groups.add(SplittableElementSet.newNodeIndex(ns, nodePosition));
+        }
         return SplittableElementSet.newVMIndex(cstr.getInvolvedVMs(), vmsPosition).
                 forEachPartition((index, idx, from, to) -> {
                     if (to - from >= 2) {
@@ -49,8 +54,7 @@ public class AmongSplitter implements ConstraintSplitter<Among> {
 
                         //Filter out the other nodes in the original constraint
                         final Collection<Collection<Node>> subParams = new ArrayList<>();
-                        for (Collection<Node> ns : cstr.getGroupsOfNodes()) {
-                            SplittableElementSet<Node> nodeIndex = SplittableElementSet.newNodeIndex(ns, nodePosition);
+                        for (SplittableElementSet<Node> nodeIndex : groups) {
                             Set<Node> s = nodeIndex.getSubSet(idx);
                             if (s != null && !s.isEmpty()) {
                                 subParams.add(s);
@@ -10,6 +10,7 @@ import gnu.trove.map.hash.TIntIntHashMap;
 import org.btrplace.model.Instance;
 import org.btrplace.model.constraint.Constraint;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -116,4 +117,31 @@ public class ConstraintSplitterMapper {
         ConstraintSplitter splitter = builders.get(c.getClass());
         return splitter != null && splitter.split(c, i, partitions, vmPartition, nodePosition);
     }
+
+    /**
+     * Split a collection of constraints in a single pass.
+     * The splitter is looked up once per run of constraints having the same class.
+     *
+     * @param cstrs        the constraints to map
+     * @param i            the original instance to split
+     * @param partitions   the partitions splitting the original instance
+     * @param vmPartition  the partition associated to each VM
+     * @param nodePosition the partition associated to each node
+     * @return the first constraint that leads to a problem without solutions. {@code null} if every
+     * constraint has been split
+     */
+    public Constraint split(Collection<? extends Constraint> cstrs, Instance i, List<Instance> partitions, TIntIntHashMap vmPartition, TIntIntHashMap nodePosition) {
+        Class<?> last = null;
+        ConstraintSplitter splitter = null;
+        for (Constraint c : cstrs) {
+            if (c.getClass() != last) {
+                last = c.getClass();
+                splitter = builders.get(last);
+            }
+            if (splitter == null || !splitter.split(c, i, partitions, vmPartition, nodePosition)) {
+                return c;
+            }
+        }
+        return null;
+    }
 }
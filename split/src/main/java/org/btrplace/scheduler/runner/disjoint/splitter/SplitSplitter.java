@@ -37,6 +37,11 @@ public class SplitSplitter implements ConstraintSplitter<Split> {
     public boolean split(final Split cstr, Instance origin, final List<Instance> partitions, final TIntIntHashMap vmsPosition, TIntIntHashMap nodePosition) {
 
         final boolean c = cstr.isContinuous();
+        //The sets are indexed once, whatever the number of partitions
+        final List<SplittableElementSet<VM>> groups = new ArrayList<>(cstr.getSets().size());
+        for (Collection<VM> vms : cstr.getSets()) {
+            groups.add(SplittableElementSet.newVMIndex(vms, vmsPosition));
+        }
         return SplittableElementSet.newVMIndex(cstr.getInvolvedVMs(), vmsPosition).
                 forEachPartition((index, idx, from, to) -> {
                     if (to - from >= 2) {
@@ -44,8 +49,7 @@ public class SplitSplitter implements ConstraintSplitter<Split> {
                         //if these VMs belong to at least 2 groups, we must post a split constraints
                         //for the VMs on these groups
                         Collection<Collection<VM>> sets = new ArrayList<>();
-                        for (Collection<VM> vms : cstr.getSets()) {
-                            SplittableElementSet<VM> subSplit = SplittableElementSet.newVMIndex(vms, vmsPosition);
+                        for (SplittableElementSet<VM> subSplit : groups) {
                             Set<VM> s = subSplit.getSubSet(idx);
                             if (!s.isEmpty()) {
                                 sets.add(s);
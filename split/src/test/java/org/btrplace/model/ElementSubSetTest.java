@@ -53,5 +53,11 @@ public class ElementSubSetTest {
         for (VM v : p1) {
             Assert.assertEquals(v.id() % 2, 0);
         }
+
+        //test toArray()
+        Assert.assertEquals(new ArrayList<>(p1), values.subList(0, 5));
+        VM[] arr = p1.toArray(new VM[0]);
+        Assert.assertEquals(arr.length, 5);
+        Assert.assertEquals(arr[4], values.get(4));
     }
 }
@@ -14,6 +14,8 @@ import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Random;
@@ -147,4 +149,30 @@ public class SplittableElementSetTest {
         //Unknown set
         Assert.assertTrue(s.getSubSet(-1).isEmpty());
     }
+
+    @Test
+    public void testBounds() {
+        List<VM> l = new ArrayList<>();
+        final TIntIntHashMap index = new TIntIntHashMap();
+        for (int i = 0; i < 20; i++) {
+            l.add(new VM(i));
+            //Sparse and unordered partition keys
+            index.put(i, (i % 4) * 10);
+        }
+        SplittableElementSet<VM> s = SplittableElementSet.newVMIndex(l, index);
+        Assert.assertEquals(s.getNbPartitions(), 4);
+        List<VM> values = s.getValues();
+        for (int i = 0; i < values.size(); i++) {
+            //Grouped by increasing key, the original order is kept inside a partition
+            Assert.assertEquals(values.get(i).id(), (i % 5) * 4 + i / 5);
+        }
+        Assert.assertEquals(new HashSet<>(s.getSubSet(20)), new HashSet<>(Arrays.asList(new VM(2), new VM(6), new VM(10), new VM(14), new VM(18))));
+        Assert.assertTrue(s.getSubSet(5).isEmpty());
+
+        SplittableElementSet<VM> empty = SplittableElementSet.newVMIndex(new ArrayList<>(), index);
+        Assert.assertEquals(empty.getNbPartitions(), 0);
+        Assert.assertTrue(empty.getPartitions().isEmpty());
+        Assert.assertTrue(empty.forEachPartition((idx, key, from, to) -> false));
+        Assert.assertTrue(empty.getSubSet(0).isEmpty());
+    }
 }
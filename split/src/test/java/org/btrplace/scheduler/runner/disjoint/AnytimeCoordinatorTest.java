@@ -0,0 +1,92 @@
+/*
+ * Copyright  2026 The BtrPlace Authors. All rights reserved.
+ * Use of this source code is governed by a LGPL-style
+ * license that can be found in the LICENSE.txt file.
+ */
+
+package org.btrplace.scheduler.runner.disjoint;
+
+import org.btrplace.model.DefaultModel;
+import org.btrplace.model.Model;
+import org.btrplace.plan.DefaultReconfigurationPlan;
+import org.btrplace.plan.ReconfigurationPlan;
+import org.btrplace.scheduler.choco.ReconfigurationProblem;
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for {@link AnytimeCoordinator}.
+ *
+ * @author Fabien Hermenier
+ */
+public class AnytimeCoordinatorTest {
+
+    @Test
+    public void testExpire() {
+        Model mo = new DefaultModel();
+        List<ReconfigurationPlan> published = new ArrayList<>();
+        AnytimeCoordinator co = new AnytimeCoordinator(mo, 2, published::add);
+        ReconfigurationProblem rp0 = Mockito.mock(ReconfigurationProblem.class);
+        ReconfigurationProblem rp1 = Mockito.mock(ReconfigurationProblem.class);
+
+        co.offer(0, rp0, new DefaultReconfigurationPlan(mo));
+        Assert.assertTrue(published.isEmpty());
+        Mockito.verify(rp0, Mockito.never()).stop();
+
+        //The partition having a plan stops improving it
+        co.expire();
+        Mockito.verify(rp0).stop();
+
+        //A late partition stops at its first plan, which completes the merged plan
+        co.offer(1, rp1, new DefaultReconfigurationPlan(mo));
+        Mockito.verify(rp1).stop();
+        Assert.assertEquals(published.size(), 1);
+    }
+
+    /**
+     * The plans offered while a merged plan is published are coalesced into
+     * a single publication, made by the publishing thread.
+     */
+    @Test
+    public void testCoalescing() throws Exception {
+        Model mo = new DefaultModel();
+        CountDownLatch publishing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<ReconfigurationPlan> published = new ArrayList<>();
+        AnytimeCoordinator co = new AnytimeCoordinator(mo, 1, p -> {
+            published.add(p);
+            if (published.size() == 1) {
+                publishing.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        ReconfigurationProblem rp = Mockito.mock(ReconfigurationProblem.class);
+        ExecutorService exe = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> f = exe.submit(() -> co.offer(0, rp, new DefaultReconfigurationPlan(mo)));
+            Assert.assertTrue(publishing.await(10, TimeUnit.SECONDS));
+            //Not blocked by the publication in progress
+            co.offer(0, rp, new DefaultReconfigurationPlan(mo));
+            co.offer(0, rp, new DefaultReconfigurationPlan(mo));
+            Assert.assertEquals(published.size(), 1);
+            release.countDown();
+            f.get(10, TimeUnit.SECONDS);
+        } finally {
+            exe.shutdownNow();
+        }
+        Assert.assertEquals(published.size(), 2);
+    }
+}
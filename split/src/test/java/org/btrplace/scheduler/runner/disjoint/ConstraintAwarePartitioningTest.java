@@ -0,0 +1,254 @@
+/*
+ * Copyright  2026 The BtrPlace Authors. All rights reserved.
+ * Use of this source code is governed by a LGPL-style
+ * license that can be found in the LICENSE.txt file.
+ */
+
+package org.btrplace.scheduler.runner.disjoint;
+
+import gnu.trove.map.hash.TIntIntHashMap;
+import org.btrplace.model.DefaultModel;
+import org.btrplace.model.Instance;
+import org.btrplace.model.Mapping;
+import org.btrplace.model.Model;
+import org.btrplace.model.Node;
+import org.btrplace.model.VM;
+import org.btrplace.model.constraint.Among;
+import org.btrplace.model.constraint.Gather;
+import org.btrplace.model.constraint.MinMTTR;
+import org.btrplace.model.constraint.Running;
+import org.btrplace.model.constraint.SatConstraint;
+import org.btrplace.model.constraint.Spread;
+import org.btrplace.plan.ReconfigurationPlan;
+import org.btrplace.scheduler.SchedulerException;
+import org.btrplace.scheduler.choco.DefaultParameters;
+import org.btrplace.scheduler.choco.Parameters;
+import org.btrplace.scheduler.runner.disjoint.splitter.ConstraintSplitter;
+import org.btrplace.scheduler.runner.disjoint.splitter.GatherSplitter;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Unit tests for {@link ConstraintAwarePartitioning}.
+ *
+ * @author Fabien Hermenier
+ */
+public class ConstraintAwarePartitioningTest {
+
+    private static final Parameters params = new DefaultParameters();
+
+    /**
+     * 12 online nodes, 2 running VMs per node, 2 VMs to launch.
+     */
+    private static Model makeModel() {
+        Model mo = new DefaultModel();
+        Mapping map = mo.getMapping();
+        for (int i = 0; i < 12; i++) {
+            Node n = mo.newNode();
+            map.addOnlineNode(n);
+            map.addRunningVM(mo.newVM(), n);
+            map.addRunningVM(mo.newVM(), n);
+        }
+        map.addReadyVM(mo.newVM());
+        map.addReadyVM(mo.newVM());
+        return mo;
+    }
+
+    private static int partitionOf(List<Instance> parts, VM v) {
+        for (int i = 0; i < parts.size(); i++) {
+            if (parts.get(i).getModel().getMapping().contains(v)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Test
+    public void testBasics() {
+        ConstraintAwarePartitioning p = new ConstraintAwarePartitioning(100);
+        Assert.assertEquals(p.getSize(), 100);
+        p.setSize(20);
+        Assert.assertEquals(p.getSize(), 20);
+        Assert.assertTrue(p.getGroupingConstraints().contains(Gather.class));
+        Assert.assertTrue(p.getGroupingConstraints().contains(Among.class));
+        Assert.assertFalse(p.getGroupingConstraints().contains(Running.class));
+    }
+
+    @Test
+    public void testGroupingConstraintsAreNotCut() throws SchedulerException {
+        Model mo = makeModel();
+        List<Node> ns = new ArrayList<>(mo.getMapping().getAllNodes());
+        Mapping map = mo.getMapping();
+        List<VM> readys = new ArrayList<>(map.getReadyVMs());
+        VM r1 = readys.get(0);
+        VM r2 = readys.get(1);
+        VM onFirst = map.getRunningVMs(ns.get(0)).iterator().next();
+        VM onLast = map.getRunningVMs(ns.get(11)).iterator().next();
+        VM onMid = map.getRunningVMs(ns.get(5)).iterator().next();
+
+        List<SatConstraint> cstrs = new ArrayList<>(Running.newRunning(Arrays.asList(r1, r2)));
+        //A linear partitioning would cut these ones
+        cstrs.add(new Gather(Arrays.asList(onFirst, onLast, r1)));
+        cstrs.add(new Spread(new HashSet<>(Arrays.asList(onMid, r2))));
+        Collection<Node> g1 = Arrays.asList(ns.get(1), ns.get(6));
+        Collection<Node> g2 = Collections.singletonList(ns.get(7));
+        VM onFourth = map.getRunningVMs(ns.get(4)).iterator().next();
+        cstrs.add(new Among(Collections.singleton(onFourth), Arrays.asList(g1, g2)));
+        Instance i = new Instance(mo, cstrs, new MinMTTR());
+
+        ConstraintAwarePartitioning p = new ConstraintAwarePartitioning(4);
+        List<Instance> parts = p.split(params, i);
+        Assert.assertEquals(parts.size(), 3);
+        int nbNodes = 0;
+        for (Instance part : parts) {
+            Assert.assertTrue(part.getModel().getMapping().getNbNodes() <= 4);
+            nbNodes += part.getModel().getMapping().getNbNodes();
+        }
+        Assert.assertEquals(nbNodes, 12);
+
+        Assert.assertEquals(partitionOf(parts, onFirst), partitionOf(parts, onLast));
+        Assert.assertEquals(partitionOf(parts, onFirst), partitionOf(parts, r1));
+        Assert.assertEquals(partitionOf(parts, onMid), partitionOf(parts, r2));
+        //No group hosts the VM, the smallest one is kept with it
+        int among = partitionOf(parts, onFourth);
+        for (Node n : Arrays.asList(ns.get(4), ns.get(7))) {
+            Assert.assertTrue(parts.get(among).getModel().getMapping().contains(n));
+        }
+
+        //Every partition must be solvable. The split removed the VMs to launch from the model
+        params.setTimeLimit(3);
+        ReconfigurationPlan plan = p.solve(params, new Instance(makeModel(), cstrs, new MinMTTR()));
+        Assert.assertNotNull(plan);
+        //The 2 VMs to launch are booted, the gathered VMs are put together
+        Assert.assertEquals(plan.getSize(), 3);
+    }
+
+    @Test
+    public void testOversizedBlock() throws SchedulerException {
+        Model mo = makeModel();
+        List<Node> ns = new ArrayList<>(mo.getMapping().getAllNodes());
+        List<VM> running = new ArrayList<>();
+        for (int x = 0; x < 6; x++) {
+            running.add(mo.getMapping().getRunningVMs(ns.get(x)).iterator().next());
+        }
+        //A spread over 6 nodes cannot fit into a partition of 4 nodes
+        List<SatConstraint> cstrs = new ArrayList<>();
+        cstrs.add(new Spread(new HashSet<>(running)));
+        Instance i = new Instance(mo, cstrs, new MinMTTR());
+        ConstraintAwarePartitioning p = new ConstraintAwarePartitioning(4);
+        List<Instance> parts = p.split(params, i);
+        Assert.assertEquals(parts.size(), 3);
+        for (Instance part : parts) {
+            Assert.assertEquals(part.getModel().getMapping().getNbNodes(), 4);
+        }
+    }
+
+    private static VM vmOn(Model mo, List<Node> ns, int n, int x) {
+        return new ArrayList<>(mo.getMapping().getRunningVMs(ns.get(n))).get(x);
+    }
+
+    /**
+     * The groups of an among are not pinned when they do not fit into a partition.
+     */
+    @Test
+    public void testClusterWideAmong() throws SchedulerException {
+        Model mo = makeModel();
+        List<Node> ns = new ArrayList<>(mo.getMapping().getAllNodes());
+        List<SatConstraint> cstrs = new ArrayList<>();
+        //Groups of 6 nodes
+        Collection<Collection<Node>> halves = Arrays.asList(ns.subList(0, 6), ns.subList(6, 12));
+        VM a1 = vmOn(mo, ns, 0, 0);
+        VM a2 = vmOn(mo, ns, 1, 0);
+        cstrs.add(new Among(new HashSet<>(Arrays.asList(a1, a2)), halves));
+        //Groups that fit. Only the one hosting the VM is kept with it
+        VM b = vmOn(mo, ns, 8, 0);
+        cstrs.add(new Among(Collections.singleton(b), Arrays.asList(ns.subList(8, 11), ns.subList(0, 2))));
+        //Would be cut if the among groups were pinned
+        VM g1 = vmOn(mo, ns, 2, 0);
+        VM g2 = vmOn(mo, ns, 11, 0);
+        cstrs.add(new Gather(Arrays.asList(g1, g2)));
+        Instance i = new Instance(mo, cstrs, new MinMTTR());
+
+        ConstraintAwarePartitioning p = new ConstraintAwarePartitioning(4);
+        List<Instance> parts = p.split(params, i);
+        Assert.assertEquals(parts.size(), 3);
+        for (Instance part : parts) {
+            Assert.assertEquals(part.getModel().getMapping().getNbNodes(), 4);
+        }
+        Assert.assertEquals(partitionOf(parts, a1), partitionOf(parts, a2));
+        Assert.assertEquals(partitionOf(parts, g1), partitionOf(parts, g2));
+        for (Node n : ns.subList(8, 11)) {
+            Assert.assertTrue(parts.get(partitionOf(parts, b)).getModel().getMapping().contains(n));
+        }
+    }
+
+    /**
+     * A cluster-wide spread makes a single oversized block. Its cut must not split
+     * the gathered VMs, which are not next to each other.
+     */
+    @Test
+    public void testClusterWideSpread() throws SchedulerException {
+        Model mo = makeModel();
+        List<Node> ns = new ArrayList<>(mo.getMapping().getAllNodes());
+        List<SatConstraint> cstrs = new ArrayList<>();
+        Set<VM> spread = new HashSet<>();
+        for (int x = 0; x < ns.size(); x++) {
+            spread.add(vmOn(mo, ns, x, 0));
+        }
+        cstrs.add(new Spread(spread));
+        for (int x = 0; x < 6; x++) {
+            cstrs.add(new Gather(Arrays.asList(vmOn(mo, ns, x, 1), vmOn(mo, ns, x + 6, 1))));
+        }
+        Instance i = new Instance(mo, cstrs, new MinMTTR());
+
+        ConstraintAwarePartitioning p = new ConstraintAwarePartitioning(4);
+        List<Instance> parts = p.split(params, i);
+        Assert.assertEquals(parts.size(), 3);
+        for (Instance part : parts) {
+            Assert.assertEquals(part.getModel().getMapping().getNbNodes(), 4);
+        }
+        for (int x = 0; x < 6; x++) {
+            Assert.assertEquals(partitionOf(parts, vmOn(mo, ns, x, 1)), partitionOf(parts, vmOn(mo, ns, x + 6, 1)));
+        }
+    }
+
+    /**
+     * A specialisation of a grouping constraint.
+     */
+    private static class Colocated extends Gather {
+        Colocated(Collection<VM> vms) {
+            super(vms);
+        }
+    }
+
+    @Test
+    public void testGroupingSubclass() throws SchedulerException {
+        Model mo = makeModel();
+        List<Node> ns = new ArrayList<>(mo.getMapping().getAllNodes());
+        VM v1 = vmOn(mo, ns, 0, 0);
+        VM v2 = vmOn(mo, ns, 11, 0);
+        Instance i = new Instance(mo, Collections.singletonList(new Colocated(Arrays.asList(v1, v2))), new MinMTTR());
+        ConstraintAwarePartitioning p = new ConstraintAwarePartitioning(4);
+        p.getSplitterMapper().register(new ConstraintSplitter<Colocated>() {
+            @Override
+            public Class<Colocated> getKey() {
+                return Colocated.class;
+            }
+
+            @Override
+            public boolean split(Colocated c, Instance origin, List<Instance> partitions, TIntIntHashMap vmsPosition, TIntIntHashMap nodePosition) {
+                return new GatherSplitter().split(c, origin, partitions, vmsPosition, nodePosition);
+            }
+        });
+        List<Instance> parts = p.split(params, i);
+        Assert.assertEquals(partitionOf(parts, v1), partitionOf(parts, v2));
+    }
+}
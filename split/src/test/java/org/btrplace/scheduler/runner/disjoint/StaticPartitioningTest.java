@@ -13,6 +13,7 @@ import org.btrplace.model.Model;
 import org.btrplace.model.Node;
 import org.btrplace.model.SynchronizedElementBuilder;
 import org.btrplace.model.VM;
+import org.btrplace.model.constraint.Ban;
 import org.btrplace.model.constraint.MinMTTR;
 import org.btrplace.model.constraint.Offline;
 import org.btrplace.model.constraint.Running;
@@ -24,9 +25,14 @@ import org.btrplace.scheduler.runner.disjoint.model.SubModel;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
 
 /**
  * Unit tests for {@link StaticPartitioning}.
@@ -48,6 +54,86 @@ public class StaticPartitioningTest {
         Assert.assertEquals(st.getWorkersCount(), 10);
     }
 
+    @Test
+    public void testExecutor() {
+        StaticPartitioning st = new StaticPartitioning() {
+            @Override
+            public List<Instance> split(Parameters ps, Instance i) throws SchedulerException {
+                throw new UnsupportedOperationException();
+            }
+        };
+        st.setWorkersCount(3);
+        ExecutorService exe = st.getExecutor();
+        Assert.assertTrue(exe instanceof ForkJoinPool);
+        Assert.assertEquals(((ForkJoinPool) exe).getParallelism(), 3);
+        //Long lived
+        Assert.assertSame(st.getExecutor(), exe);
+        //Replaced on a change of the number of workers
+        st.setWorkersCount(2);
+        Assert.assertTrue(exe.isShutdown());
+        exe = st.getExecutor();
+        Assert.assertEquals(((ForkJoinPool) exe).getParallelism(), 2);
+
+        //A custom executor is not managed
+        ExecutorService mine = Executors.newSingleThreadExecutor();
+        st.setExecutor(mine);
+        Assert.assertTrue(exe.isShutdown());
+        Assert.assertSame(st.getExecutor(), mine);
+        st.setWorkersCount(4);
+        Assert.assertFalse(mine.isShutdown());
+        Assert.assertSame(st.getExecutor(), mine);
+        mine.shutdown();
+    }
+
+    @Test
+    public void testClose() {
+        ExecutorService exe;
+        try (StaticPartitioning st = new FixedSizePartitioning(5)) {
+            exe = st.getExecutor();
+            st.close();
+            Assert.assertTrue(exe.isShutdown());
+            //Re-created on demand
+            exe = st.getExecutor();
+            Assert.assertFalse(exe.isShutdown());
+        }
+        Assert.assertTrue(exe.isShutdown());
+
+        //A custom executor is left running
+        ExecutorService mine = Executors.newSingleThreadExecutor();
+        StaticPartitioning st = new FixedSizePartitioning(5);
+        st.setExecutor(mine);
+        st.close();
+        Assert.assertFalse(mine.isShutdown());
+        mine.shutdown();
+    }
+
+    @Test
+    public void testByDifficulty() {
+        SynchronizedElementBuilder eb = new SynchronizedElementBuilder(new DefaultElementBuilder());
+        Model mo = new DefaultModel(eb);
+        Node n1 = mo.newNode();
+        Node n2 = mo.newNode();
+        Node n3 = mo.newNode();
+        VM vm1 = mo.newVM();
+        VM vm2 = mo.newVM();
+        VM vm3 = mo.newVM();
+        VM vm4 = mo.newVM();
+        mo.getMapping().on(n1, n2, n3).run(n1, vm1).run(n2, vm2, vm3).run(n3, vm4);
+        //Small but with a misplaced VM
+        Instance i1 = new Instance(new SubModel(mo, eb, Collections.singletonList(n1)),
+                new MinMTTR());
+        i1.getSatConstraints().add(new Ban(vm1, Collections.singletonList(n1)));
+        //Large but nothing to fix
+        Instance i2 = new Instance(new SubModel(mo, eb, Collections.singletonList(n2)),
+                new MinMTTR());
+        i2.getSatConstraints().add(new Ban(vm2, Collections.singletonList(n1)));
+        //Small and nothing to fix
+        Instance i3 = new Instance(new SubModel(mo, eb, Collections.singletonList(n3)),
+                new MinMTTR());
+
+        Assert.assertEquals(StaticPartitioning.byDifficulty(Arrays.asList(i3, i2, i1)), Arrays.asList(i1, i2, i3));
+    }
+
     @Test
     public void testParallelSolve() throws SchedulerException {
 
@@ -97,6 +183,52 @@ public class StaticPartitioningTest {
         Assert.assertEquals(st.getStatistics().getSolutions().size(), 0);
     }
 
+    @Test
+    public void testAnytimeSolve() throws SchedulerException {
+        SynchronizedElementBuilder eb = new SynchronizedElementBuilder(new DefaultElementBuilder());
+        Model origin = new DefaultModel(eb);
+
+        Node n1 = origin.newNode();
+        Node n2 = origin.newNode();
+        VM vm1 = origin.newVM();
+        VM vm2 = origin.newVM();
+        origin.getMapping().addOnlineNode(n1);
+        origin.getMapping().addOfflineNode(n2);
+        origin.getMapping().addReadyVM(vm1);
+        origin.getMapping().addReadyVM(vm2);
+
+        Model s1 = new SubModel(origin, eb, Collections.singletonList(n1), Collections.singleton(vm1));
+        Model s2 = new SubModel(origin, eb, Collections.singletonList(n2), Collections.singleton(vm2));
+        Instance i0 = new Instance(origin, new MinMTTR());
+        final Instance i1 = new Instance(s1, Running.newRunning(Collections.singletonList(vm1)), new MinMTTR());
+        final Instance i2 = new Instance(s2, Running.newRunning(Collections.singletonList(vm2)), new MinMTTR());
+
+        StaticPartitioning st = new StaticPartitioning() {
+            @Override
+            public List<Instance> split(Parameters ps, Instance i) throws SchedulerException {
+                return Arrays.asList(i1, i2);
+            }
+        };
+        Assert.assertNull(st.getAnytimeListener());
+        List<ReconfigurationPlan> published = Collections.synchronizedList(new ArrayList<>());
+        Consumer<ReconfigurationPlan> l = published::add;
+        st.setAnytimeListener(l);
+        Assert.assertSame(st.getAnytimeListener(), l);
+
+        Parameters p = new DefaultChocoScheduler().setTimeLimit(5);
+        ReconfigurationPlan plan = st.solve(p, i0);
+        Assert.assertNotNull(plan);
+        //Only merged plans are published, so both VMs are running
+        Assert.assertFalse(published.isEmpty());
+        for (ReconfigurationPlan pub : published) {
+            Assert.assertEquals(pub.getResult().getMapping().getRunningVMs().size(), 2);
+        }
+        Assert.assertEquals(published.get(published.size() - 1).getResult(), plan.getResult());
+
+        st.setAnytimeListener(null);
+        Assert.assertNull(st.getAnytimeListener());
+    }
+
     @Test(expectedExceptions = {SchedulerException.class})
     public void testSolvingIncorrectPartitioning() throws SchedulerException {
 